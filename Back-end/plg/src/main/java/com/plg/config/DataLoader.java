@@ -3,29 +3,18 @@ package com.plg.config;
 import com.plg.entity.*;
 import com.plg.factory.AlmacenFactory;
 import com.plg.factory.CamionFactory;
-import com.plg.factory.PedidoFactory;
-import com.plg.utils.Herramientas;
 import com.plg.utils.Parametros;
-import com.plg.utils.ExcepcionesPerzonalizadas.InvalidDataFormatException;
+import com.plg.utils.simulacion.CalendarioMantenimientos;
+import com.plg.utils.simulacion.IndiceAverias;
+import com.plg.utils.simulacion.IndiceCamiones;
+import com.plg.utils.simulacion.IndiceIntervalosBloqueo;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
 
 public class DataLoader {
 
-    private String pathAverias = "data/averias/averias.v1.txt";
-    private String pathMantenimientos = "data/mantenimientos/mantpreventivo.txt";
-
-    // Métodos para generar paths dinámicamente basándose en parámetros actuales
-    private String getPathPedidos() {
-        return "data/pedidos/ventas" + Parametros.anho + Parametros.mes + ".txt";
-    }
-
-    private String getPathBloqueos() {
-        return "data/bloqueos/" + Parametros.anho + Parametros.mes + ".bloqueos.txt";
-    }
     private Coordenada coordenadaCentral = new Coordenada(8, 12);
 
     public final List<Mantenimiento> mantenimientos = new ArrayList<>();
@@ -37,19 +26,76 @@ public class DataLoader {
     public List<Bloqueo> bloqueos = new ArrayList<>();
     public List<Camion> camionesAveriados = new ArrayList<>(); // Camiones que se averian automaticamente
 
+    // Índices sobre las listas de esta simulación; se rehacen cuando la lista
+    // cambia de tamaño
+    private IndiceCamiones indiceCamiones;
+    private IndiceCamiones indiceCamionesAveriados;
+    private IndiceAverias indiceAverias;
+    private IndiceAverias.Automaticas indiceAveriasAutomaticas;
+    private CalendarioMantenimientos calendarioMantenimientos;
+    private IndiceIntervalosBloqueo indiceBloqueos;
+
     public DataLoader() {
         initializeAlmacenes();
         initializeCamiones();
-        try {
-            initializePedidos();
-            initializeMantenimientos();
-
-            initializeAveriasAutomaticas(); // !AVERIAS AUTOMATICAS
-            initializeBloqueos();
-        } catch (InvalidDataFormatException | IOException e) {
-            // Manejo simple: imprimir el error, puedes personalizar según tus necesidades
-            e.printStackTrace();
+        // Los archivos del mes se leen una sola vez; aquí solo se arma lo que esta
+        // simulación modifica
+        DatosBase base = DatosBase.de(Parametros.getAnho(), Parametros.getMes());
+        initializePedidos(base);
+        initializeMantenimientos(base);
+        initializeAveriasAutomaticas(base); // !AVERIAS AUTOMATICAS
+        initializeBloqueos(base);
+
+        getIndiceCamiones();
+        getIndiceAverias();
+        getCalendarioMantenimientos();
+        getIndiceBloqueos();
+    }
+
+    public synchronized IndiceCamiones getIndiceCamiones() {
+        if (indiceCamiones == null || !indiceCamiones.vigentePara(camiones)) {
+            indiceCamiones = IndiceCamiones.de(camiones);
+        }
+        return indiceCamiones;
+    }
+
+    /**
+     * Índice de los camiones que se averían automáticamente en el intervalo; se
+     * rehace cuando se reemplaza la lista.
+     */
+    public synchronized IndiceCamiones getIndiceCamionesAveriados() {
+        if (indiceCamionesAveriados == null || !indiceCamionesAveriados.vigentePara(camionesAveriados)) {
+            indiceCamionesAveriados = IndiceCamiones.de(camionesAveriados);
         }
+        return indiceCamionesAveriados;
+    }
+
+    public synchronized IndiceAverias getIndiceAverias() {
+        if (indiceAverias == null || !indiceAverias.vigentePara(averias)) {
+            indiceAverias = IndiceAverias.de(averias);
+        }
+        return indiceAverias;
+    }
+
+    public synchronized IndiceAverias.Automaticas getIndiceAveriasAutomaticas() {
+        if (indiceAveriasAutomaticas == null || !indiceAveriasAutomaticas.vigentePara(averiasAutomaticas)) {
+            indiceAveriasAutomaticas = IndiceAverias.Automaticas.de(averiasAutomaticas);
+        }
+        return indiceAveriasAutomaticas;
+    }
+
+    public synchronized CalendarioMantenimientos getCalendarioMantenimientos() {
+        if (calendarioMantenimientos == null || !calendarioMantenimientos.vigentePara(mantenimientos)) {
+            calendarioMantenimientos = CalendarioMantenimientos.de(mantenimientos);
+        }
+        return calendarioMantenimientos;
+    }
+
+    public synchronized IndiceIntervalosBloqueo getIndiceBloqueos() {
+        if (indiceBloqueos == null || !indiceBloqueos.vigentePara(bloqueos)) {
+            indiceBloqueos = IndiceIntervalosBloqueo.de(bloqueos);
+        }
+        return indiceBloqueos;
     }
 
     public List<Almacen> initializeAlmacenes() {
@@ -66,118 +112,50 @@ public class DataLoader {
 
     public List<Camion> initializeCamiones() {
         CamionFactory.limpiarFactory();
-        for (int i = 0; i < 2; i++) {
-            Camion camion = CamionFactory.crearCamionesPorTipo(TipoCamion.TA, true, coordenadaCentral);
-            this.camiones.add(camion);
-        }
-        for (int i = 0; i < 4; i++) {
-            Camion camion = CamionFactory.crearCamionesPorTipo(TipoCamion.TB, true, coordenadaCentral);
-            this.camiones.add(camion);
-        }
-        for (int i = 0; i < 4; i++) {
-            Camion camion = CamionFactory.crearCamionesPorTipo(TipoCamion.TC, true, coordenadaCentral);
-            this.camiones.add(camion);
-        }
-        for (int i = 0; i < 10; i++) {
-            Camion camion = CamionFactory.crearCamionesPorTipo(TipoCamion.TD, true, coordenadaCentral);
-            this.camiones.add(camion);
+        // La cantidad de camiones de cada tipo es un parámetro de la simulación
+        Map<TipoCamion, Integer> flota = Parametros.getFlota();
+        for (TipoCamion tipo : TipoCamion.values()) {
+            for (int i = 0; i < flota.getOrDefault(tipo, 0); i++) {
+                Camion camion = CamionFactory.crearCamionesPorTipo(tipo, true, coordenadaCentral);
+                this.camiones.add(camion);
+            }
         }
         return this.camiones;
     }
 
-    public List<Averia> initializeAveriasAutomaticas() throws InvalidDataFormatException, IOException {
-        List<String> lines = Herramientas.readAllLines(pathAverias);
-        for (String line : lines) {
-            Averia averia = new Averia(line);
-            this.averiasAutomaticas.add(averia);
-        }
+    public List<Averia> initializeAveriasAutomaticas(DatosBase base) {
+        // Solo se consultan, así que se comparten entre simulaciones
+        this.averiasAutomaticas = base.getAveriasAutomaticas();
+        this.indiceAveriasAutomaticas = base.getIndiceAveriasAutomaticas();
         System.out.println("Averias automaticas: " + this.averiasAutomaticas.size());
         return this.averiasAutomaticas;
     }
 
-    public List<Pedido> initializePedidos() throws InvalidDataFormatException, IOException {
-        List<String> lines = Herramientas.readAllLines(getPathPedidos());
-
-        for (String line : lines) {
-            Pedido pedido = PedidoFactory.crearPedido(line);
-            this.pedidos.add(pedido);
+    public List<Pedido> initializePedidos(DatosBase base) {
+        // Cada simulación entrega y cambia de estado sus propias copias
+        for (Pedido plantilla : base.getPedidos()) {
+            this.pedidos.add(plantilla.getClone());
         }
-
         return this.pedidos;
     }
 
-    public List<Mantenimiento> initializeMantenimientos()
-            throws IOException, InvalidDataFormatException {
-        List<String> lines = Herramientas.readAllLines(pathMantenimientos); // Propaga IOException si ocurre
-
-        for (String line : lines) {
-
-            String[] partes = line.split(":");
-            if (partes.length != 2) {
-                throw new InvalidDataFormatException(
-                        "Error de formato en línea de mantenimiento: Se esperaban 2 partes separadas por ':'. Línea: "
-                                + line);
-            }
-
-            String fechaCompleta = partes[0]; // aaaammdd
-            String codigoTipoCamion = partes[1]; // TTNN (Tipo y Número, ej. TA01)
-
-            if (fechaCompleta.length() != 8) {
-                throw new InvalidDataFormatException(
-                        "Error de formato en fecha de mantenimiento: Se esperaba formato aaaammdd. Valor: "
-                                + fechaCompleta + ". Línea: " + line);
-            }
-            if (codigoTipoCamion.length() != 4) { // Asumiendo TTNN donde TT es tipo y NN es número.
-                throw new InvalidDataFormatException(
-                        "Error de formato en código/tipo de camión de mantenimiento: Se esperaba formato TTNN. Valor: "
-                                + codigoTipoCamion + ". Línea: " + line);
-            }
-
-            int mes, dia;
-            try {
-                // anio = Integer.parseInt(fechaCompleta.substring(0, 4)); // Año no se usa
-                mes = Integer.parseInt(fechaCompleta.substring(4, 6));
-                dia = Integer.parseInt(fechaCompleta.substring(6, 8));
-            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
-                throw new InvalidDataFormatException("Error al parsear fecha de mantenimiento: " + fechaCompleta
-                        + ". Línea: " + line + ". Detalles: " + e.getMessage());
-            }
-
-            Camion camion;
-            try {
-                camion = CamionFactory.getCamionPorCodigo(codigoTipoCamion);
-
-            } catch (NoSuchElementException e) {
-                throw new InvalidDataFormatException(
-                        "Error en línea de mantenimiento: " + line + ". Detalles: " + e.getMessage());
-            }
-
-            int ini, fin;
-            if (mes % 2 == 0) {
-                ini = mes;
-                fin = 12;
-            } else {
-                ini = mes;
-                fin = 11;
-            }
-
-            for (int i = ini; i <= fin; i += 2) {
-                Mantenimiento mantenimiento = Mantenimiento.builder()
-                        .dia(dia)
-                        .mes(i)
-                        .camion(camion)
-                        .build();
-                this.mantenimientos.add(mantenimiento);
-            }
+    public List<Mantenimiento> initializeMantenimientos(DatosBase base) {
+        for (DatosBase.MantenimientoBase mantenimiento : base.getMantenimientos()) {
+            this.mantenimientos.add(Mantenimiento.builder()
+                    .dia(mantenimiento.dia)
+                    .mes(mantenimiento.mes)
+                    .camion(CamionFactory.getCamionPorCodigo(mantenimiento.codigoCamion))
+                    .build());
         }
         return this.mantenimientos;
     }
 
-    public void initializeBloqueos() throws InvalidDataFormatException, IOException {
-        List<String> lines = Herramientas.readAllLines(getPathBloqueos());
-        for (String line : lines) {
-            Bloqueo bloqueo = new Bloqueo(line);
-            this.bloqueos.add(bloqueo);
+    public List<Bloqueo> initializeBloqueos(DatosBase base) {
+        // La lista de nodos se comparte; el indicador de activo es de esta simulación
+        for (Bloqueo plantilla : base.getBloqueos()) {
+            this.bloqueos.add(new Bloqueo(plantilla.getFechaInicio(), plantilla.getFechaFin(),
+                    plantilla.getNodosBloqueados(), false));
         }
+        return this.bloqueos;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+package com.plg.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.plg.entity.Averia;
+import com.plg.entity.Bloqueo;
+import com.plg.entity.Camion;
+import com.plg.entity.Pedido;
+import com.plg.factory.PedidoFactory;
+import com.plg.utils.ContextoSimulacion;
+import com.plg.utils.ExcepcionesPerzonalizadas.InvalidDataFormatException;
+import com.plg.utils.Herramientas;
+import com.plg.utils.simulacion.IndiceAverias;
+
+/**
+ * Datos de los archivos de un mes, leídos una sola vez y compartidos por todas
+ * las simulaciones de ese mes.
+ *
+ * Nada de lo que se guarda aquí se modifica. Cada {@link DataLoader} arma sobre
+ * esta base sus propias entidades con lo que la simulación cambia: copias de
+ * los pedidos (volumen entregado, estado), bloqueos con su propio indicador de
+ * activo sobre la lista de nodos compartida, y mantenimientos enlazados a sus
+ * camiones. Las averías automáticas se comparten tal cual porque solo se
+ * consultan por código de camión, turno y tipo de incidente.
+ */
+public class DatosBase {
+
+    private static final String PATH_AVERIAS = "data/averias/averias.v1.txt";
+    private static final String PATH_MANTENIMIENTOS = "data/mantenimientos/mantpreventivo.txt";
+
+    private static final Map<String, DatosBase> porMes = new ConcurrentHashMap<>();
+
+    private final String anho;
+    private final String mes;
+    private final List<Pedido> pedidos = new ArrayList<>();
+    private final List<Bloqueo> bloqueos = new ArrayList<>();
+    private final List<Averia> averiasAutomaticas = new ArrayList<>();
+    private final List<MantenimientoBase> mantenimientos = new ArrayList<>();
+    // Siempre la misma lista para que los índices por lista se reutilicen entre simulaciones
+    private final List<Averia> averiasCompartidas = Collections.unmodifiableList(averiasAutomaticas);
+    private final IndiceAverias.Automaticas indiceAveriasAutomaticas;
+    private final boolean completo;
+
+    /**
+     * Mantenimiento preventivo del archivo; el camión se resuelve en cada
+     * simulación.
+     */
+    static class MantenimientoBase {
+        final int dia;
+        final int mes;
+        final String codigoCamion;
+
+        MantenimientoBase(int dia, int mes, String codigoCamion) {
+            this.dia = dia;
+            this.mes = mes;
+            this.codigoCamion = codigoCamion;
+        }
+    }
+
+    private DatosBase(String anho, String mes) {
+        this.anho = anho;
+        this.mes = mes;
+        // Se lee en un contexto propio: las fechas toman el año y mes del archivo
+        // y los nodos de los bloqueos no quedan atados al mapa de ninguna simulación
+        ContextoSimulacion lectura = ContextoSimulacion.aislado("datos-base-" + anho + mes);
+        lectura.setAnho(anho);
+        lectura.setMes(mes);
+        this.completo = lectura.ejecutar(this::leer);
+        this.indiceAveriasAutomaticas = IndiceAverias.Automaticas.de(averiasCompartidas);
+    }
+
+    /**
+     * Datos del mes indicado. La primera simulación del mes lee los archivos;
+     * las siguientes reutilizan lo leído.
+     */
+    public static DatosBase de(String anho, String mes) {
+        String clave = anho + mes;
+        DatosBase datos = porMes.get(clave);
+        if (datos != null) {
+            return datos;
+        }
+        synchronized (porMes) {
+            datos = porMes.get(clave);
+            if (datos == null) {
+                datos = new DatosBase(anho, mes);
+                // Si falló la lectura se vuelve a intentar en la siguiente carga
+                if (datos.completo) {
+                    porMes.put(clave, datos);
+                }
+            }
+            return datos;
+        }
+    }
+
+    /**
+     * Olvida los datos leídos para que la siguiente carga vuelva a leer los
+     * archivos.
+     */
+    public static void descartar() {
+        porMes.clear();
+    }
+
+    public String getAnho() {
+        return anho;
+    }
+
+    public String getMes() {
+        return mes;
+    }
+
+    /**
+     * Pedidos del archivo. Son plantillas: cada simulación trabaja con copias.
+     */
+    public List<Pedido> getPedidos() {
+        return Collections.unmodifiableList(pedidos);
+    }
+
+    /**
+     * Bloqueos del archivo. Son plantillas: cada simulación crea los suyos sobre
+     * la misma lista de nodos.
+     */
+    public List<Bloqueo> getBloqueos() {
+        return Collections.unmodifiableList(bloqueos);
+    }
+
+    public List<Averia> getAveriasAutomaticas() {
+        return averiasCompartidas;
+    }
+
+    /**
+     * Averías automáticas por turno y camión, compartidas como la lista.
+     */
+    public IndiceAverias.Automaticas getIndiceAveriasAutomaticas() {
+        return indiceAveriasAutomaticas;
+    }
+
+    List<MantenimientoBase> getMantenimientos() {
+        return Collections.unmodifiableList(mantenimientos);
+    }
+
+    private boolean leer() {
+        try {
+            leerPedidos();
+            leerMantenimientos();
+            leerAveriasAutomaticas();
+            leerBloqueos();
+            System.out.println("📂 Datos base leídos para " + mes + "/" + anho + " | Pedidos: " + pedidos.size()
+                    + " | Bloqueos: " + bloqueos.size());
+            return true;
+        } catch (InvalidDataFormatException | IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void leerPedidos() throws InvalidDataFormatException, IOException {
+        List<String> lines = Herramientas.readAllLines("data/pedidos/ventas" + anho + mes + ".txt");
+        for (String line : lines) {
+            pedidos.add(PedidoFactory.crearPedido(line));
+        }
+    }
+
+    private void leerMantenimientos() throws IOException, InvalidDataFormatException {
+        List<String> lines = Herramientas.readAllLines(PATH_MANTENIMIENTOS);
+        for (String line : lines) {
+            String[] partes = line.split(":");
+            if (partes.length != 2) {
+                throw new InvalidDataFormatException(
+                        "Error de formato en línea de mantenimiento: Se esperaban 2 partes separadas por ':'. Línea: "
+                                + line);
+            }
+
+            String fechaCompleta = partes[0]; // aaaammdd
+            String codigoTipoCamion = partes[1]; // TTNN (Tipo y Número, ej. TA01)
+
+            if (fechaCompleta.length() != 8) {
+                throw new InvalidDataFormatException(
+                        "Error de formato en fecha de mantenimiento: Se esperaba formato aaaammdd. Valor: "
+                                + fechaCompleta + ". Línea: " + line);
+            }
+            if (codigoTipoCamion.length() != 4) { // Asumiendo TTNN donde TT es tipo y NN es número.
+                throw new InvalidDataFormatException(
+                        "Error de formato en código/tipo de camión de mantenimiento: Se esperaba formato TTNN. Valor: "
+                                + codigoTipoCamion + ". Línea: " + line);
+            }
+
+            int mesMantenimiento, dia;
+            try {
+                mesMantenimiento = Integer.parseInt(fechaCompleta.substring(4, 6));
+                dia = Integer.parseInt(fechaCompleta.substring(6, 8));
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                throw new InvalidDataFormatException("Error al parsear fecha de mantenimiento: " + fechaCompleta
+                        + ". Línea: " + line + ". Detalles: " + e.getMessage());
+            }
+
+            // El mantenimiento se repite cada dos meses hasta fin de año
+            int fin = mesMantenimiento % 2 == 0 ? 12 : 11;
+            for (int i = mesMantenimiento; i <= fin; i += 2) {
+                mantenimientos.add(new MantenimientoBase(dia, i, codigoTipoCamion));
+            }
+        }
+    }
+
+    private void leerAveriasAutomaticas() throws InvalidDataFormatException, IOException {
+        List<String> lines = Herramientas.readAllLines(PATH_AVERIAS);
+        for (String line : lines) {
+            Averia averia = new Averia(line);
+            // Solo se consulta el código del camión, así que no se enlaza a los
+            // camiones de una simulación
+            averia.setCamion(Camion.builder().codigo(line.split("_")[1]).build());
+            averiasAutomaticas.add(averia);
+        }
+    }
+
+    private void leerBloqueos() throws InvalidDataFormatException, IOException {
+        List<String> lines = Herramientas.readAllLines("data/bloqueos/" + anho + mes + ".bloqueos.txt");
+        for (String line : lines) {
+            Bloqueo bloqueo = new Bloqueo(line);
+            bloqueo.setNodosBloqueados(Collections.unmodifiableList(bloqueo.getNodosBloqueados()));
+            bloqueos.add(bloqueo);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.plg.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.plg.utils.ContextoSimulacion;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Asocia cada petición al contexto de simulación de su sesión, indicada con la
+ * cabecera X-Sesion-Simulacion o el parámetro "sesion". Sin ninguno de los dos
+ * se usa la sesión predeterminada; una sesión que no existe responde 404. Las
+ * sesiones se crean con POST /api/simulacion/sesiones y las inactivas se
+ * eliminan periódicamente.
+ */
+@Configuration
+@EnableScheduling
+public class SesionSimulacionConfig {
+
+    public static final String CABECERA_SESION = "X-Sesion-Simulacion";
+    public static final String PARAMETRO_SESION = "sesion";
+
+    @Value("${simulacion.sesiones.inactividad-minutos:60}")
+    private long minutosInactividad;
+
+    @Bean
+    public WebMvcConfigurer sesionSimulacionConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                            Object handler) throws IOException {
+                        String sesion = request.getHeader(CABECERA_SESION);
+                        if (sesion == null || sesion.isBlank()) {
+                            sesion = request.getParameter(PARAMETRO_SESION);
+                        }
+                        if (sesion == null || sesion.isBlank()) {
+                            return true;
+                        }
+                        ContextoSimulacion contexto = ContextoSimulacion.buscar(sesion.trim());
+                        if (contexto == null) {
+                            response.sendError(HttpStatus.NOT_FOUND.value(),
+                                    "No existe la sesión de simulación: " + sesion.trim());
+                            return false;
+                        }
+                        contexto.asociar();
+                        return true;
+                    }
+
+                    @Override
+                    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                            Object handler, Exception ex) {
+                        // Los hilos del servidor se reutilizan entre peticiones
+                        ContextoSimulacion.liberar();
+                    }
+                }).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${simulacion.sesiones.revision-ms:300000}")
+    public void eliminarSesionesInactivas() {
+        List<String> eliminadas = ContextoSimulacion.eliminarInactivas(Duration.ofMinutes(minutosInactividad));
+        if (!eliminadas.isEmpty()) {
+            System.out.println("🧹 Sesiones de simulación inactivas eliminadas: " + eliminadas);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.plg.controller;
 
+import java.util.Map;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -309,12 +311,18 @@ public class AveriaController {
                 System.out.println("   - Coordenada final (columna): " + averia.getCoordenada().getColumna());
             }
 
+            Map<String, Integer> afectados = averiaService.camionesAfectados(averia);
+            if (!afectados.isEmpty()) {
+                System.out.println("   - Rutas que pasan por el camión averiado: " + afectados.keySet());
+            }
+
             // Crear respuesta con información adicional
             return ResponseEntity.status(HttpStatus.CREATED).body(new AveriaConEstadoResponse(
                     averia,
                     "Avería creada exitosamente con estado completo de la simulación",
                     request.getEstadoSimulacion().getTimestamp(),
-                    request.getEstadoSimulacion().getHoraSimulacion()));
+                    request.getEstadoSimulacion().getHoraSimulacion(),
+                    afectados));
 
         } catch (Exception e) {
             System.err.println("❌ AVERÍA BACKEND: Error al crear avería con estado completo: " + e.getMessage());
@@ -329,12 +337,15 @@ public class AveriaController {
         private String mensaje;
         private String timestampEstado;
         private String horaSimulacion;
+        private Map<String, Integer> camionesAfectados; // Código del camión y primer paso afectado de su ruta
 
-        public AveriaConEstadoResponse(Averia averia, String mensaje, String timestampEstado, String horaSimulacion) {
+        public AveriaConEstadoResponse(Averia averia, String mensaje, String timestampEstado, String horaSimulacion,
+                Map<String, Integer> camionesAfectados) {
             this.averia = averia;
             this.mensaje = mensaje;
             this.timestampEstado = timestampEstado;
             this.horaSimulacion = horaSimulacion;
+            this.camionesAfectados = camionesAfectados;
         }
 
         // Getters
@@ -353,5 +364,9 @@ public class AveriaController {
         public String getHoraSimulacion() {
             return horaSimulacion;
         }
+
+        public Map<String, Integer> getCamionesAfectados() {
+            return camionesAfectados;
+        }
     }
 }
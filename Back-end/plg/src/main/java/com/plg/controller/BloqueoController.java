@@ -1,6 +1,7 @@
 package com.plg.controller;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.plg.dto.request.BloqueoRequest;
+import com.plg.entity.Bloqueo;
 import com.plg.service.BloqueoService;
 
 /**
@@ -90,8 +92,12 @@ public class BloqueoController {
     @PostMapping
     public ResponseEntity<?> agregar(@RequestBody BloqueoRequest request) {
         try {
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(bloqueoService.agregar(request));
+            Bloqueo bloqueo = bloqueoService.agregar(request);
+            Map<String, Integer> afectados = bloqueoService.camionesAfectados(bloqueo);
+            if (!afectados.isEmpty()) {
+                System.out.println("🚧 Bloqueo nuevo cruza las rutas de los camiones: " + afectados.keySet());
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(bloqueo);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("Error al crear bloqueo: " + e.getMessage());
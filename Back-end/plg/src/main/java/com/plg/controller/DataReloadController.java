@@ -1,6 +1,7 @@
 package com.plg.controller;
 
 import com.plg.config.DataLoader;
+import com.plg.config.DatosBase;
 import com.plg.dto.DataReloadResponse;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +17,8 @@ public class DataReloadController {
         System.out.println("🌐 ENDPOINT LLAMADO: /api/data-reload/recargar-todos");
 
         try {
-            // Crear una nueva instancia de DataLoader para recargar todos los datos
+            // Se descartan los datos leídos para que el DataLoader vuelva a leer los archivos
+            DatosBase.descartar();
             DataLoader dataLoader = new DataLoader();
 
             // Obtener las cantidades de datos cargados
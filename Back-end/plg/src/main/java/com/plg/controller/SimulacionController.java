@@ -1,9 +1,8 @@
 package com.plg.controller;
 
+import com.plg.utils.ContextoSimulacion;
 import com.plg.utils.Simulacion;
 import com.plg.utils.TipoDeSimulacion;
-import com.plg.utils.AlgoritmoGenetico;
-import com.plg.utils.Herramientas;
 import com.plg.utils.Parametros;
 import com.plg.config.DataLoader;
 import com.plg.dto.IndividuoDto;
@@ -11,16 +10,15 @@ import com.plg.dto.request.SimulacionRequest;
 import com.plg.dto.request.TipoSimulacionRequest;
 import com.plg.dto.response.TipoSimulacionResponse;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
-import com.plg.entity.Bloqueo;
 import com.plg.entity.Camion;
-import com.plg.entity.Mapa;
 import com.plg.entity.Pedido;
+import com.plg.utils.simulacion.ProductorPaquetesSimulacion;
 import com.plg.utils.simulacion.UtilesSimulacion;
 import java.util.LinkedHashSet;
 
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -45,15 +43,6 @@ import java.util.Map;
 
 public class SimulacionController {
 
-    // Variable de control para verificar si la simulación ha sido iniciada
-    private static boolean simulacionIniciada = false;
-
-    // Variables para almacenar archivos cargados
-    private static String archivoVentas = null;
-    private static String archivoBloqueos = null;
-    private static String archivoCamiones = null;
-    private static String archivoMantenimiento = null;
-
     @GetMapping("/mejor")
     public IndividuoDto obtenerMejorIndividuoPorFecha(@RequestParam String fecha) {
         System.out.println("==========INICIO==========");
@@ -74,43 +63,20 @@ public class SimulacionController {
         }
         System.out.println("==========Fecha de inicio del intervalo: " + fechaDateTime);
         System.out.println(
-                "==========Fecha de fin del intervalo: " + fechaDateTime.plusMinutes(Parametros.intervaloTiempo));
-        if (!simulacionIniciada) {
+                "==========Fecha de fin del intervalo: " + fechaDateTime.plusMinutes(Parametros.getIntervaloTiempo()));
+        ContextoSimulacion contexto = ContextoSimulacion.actual();
+        if (!contexto.isSimulacionIniciada()) {
             // Brindamos una advertencia e iniciamos la simulación
             System.out.println("⚠️ Advertencia: La simulación no ha sido iniciada. Iniciando simulación...");
             Simulacion.configurarSimulacionSemanal(fechaDateTime);
-            simulacionIniciada = true; // Marcar que la simulación ha sido iniciada
-            Parametros.fecha_inicio_simulacion = fechaDateTime;
+            contexto.setSimulacionIniciada(true); // Marcar que la simulación ha sido iniciada
+            Parametros.setFechaInicioSimulacion(fechaDateTime);
         } else {
             System.out.println("✅ Continuando con la fecha: " + fechaDateTime);
         }
 
-        // Calcular el intervalo de tiempo en minutos entre la fecha inicial y la fecha
-        // actual
-        Parametros.diferenciaTiempoMinRequest = (int) ChronoUnit.MINUTES.between(Parametros.fecha_inicial,
-                fechaDateTime);
-        Parametros.actualizarParametrosGlobales(fechaDateTime);
-        Simulacion.actualizarEstadoGlobal(fechaDateTime);
-        System.out.println("🧬 Ejecutando algoritmo genético para la fecha: " + fechaDateTime);
-
-        // Algoritmo Genético
-        AlgoritmoGenetico algoritmoGenetico = new AlgoritmoGenetico(Mapa.getInstance());
-        algoritmoGenetico.ejecutarAlgoritmo();
-        if (Parametros.tipoDeSimulacion == TipoDeSimulacion.SEMANAL) {
-            Herramientas.agregarAveriasAutomaticas(Parametros.dataLoader.averiasAutomaticas,
-                    algoritmoGenetico.getMejorIndividuo().getCromosoma(), fechaDateTime,
-                    fechaDateTime.plusMinutes(Parametros.intervaloTiempo));
-        }
-        IndividuoDto mejorIndividuoDto = new IndividuoDto(
-                algoritmoGenetico.getMejorIndividuo(),
-                Simulacion.pedidosEnviar,
-                Simulacion.bloqueosActivos,
-                fechaDateTime);
-        mejorIndividuoDto.setFechaHoraInicioIntervalo(fechaDateTime);
-        mejorIndividuoDto.setFechaHoraFinIntervalo(fechaDateTime.plusMinutes(Parametros.intervaloTiempo));
-        for (Bloqueo bloqueo : Simulacion.bloqueosActivos) {
-            bloqueo.desactivarBloqueo();
-        }
+        // Se sirve desde el búfer si el intervalo ya se calculó por adelantado
+        IndividuoDto mejorIndividuoDto = contexto.getProductor().obtener(fechaDateTime);
         System.out.println("____________FIN____________");
         return mejorIndividuoDto;
     }
@@ -126,9 +92,9 @@ public class SimulacionController {
                 return ResponseEntity.badRequest().body("Error: La fecha de inicio no puede ser nula");
             }
             LocalDateTime fechaDateTime = LocalDateTime.parse(fecha);
-            Parametros.fecha_inicio_simulacion = fechaDateTime;
+            Parametros.setFechaInicioSimulacion(fechaDateTime);
             Simulacion.configurarSimulacionSemanal(fechaDateTime);
-            simulacionIniciada = true; // Marcar que la simulación ha sido iniciada
+            ContextoSimulacion.actual().setSimulacionIniciada(true); // Marcar que la simulación ha sido iniciada
             String mensaje = "Simulación iniciada correctamente con fecha: " + fecha;
             System.out.println("✅ ENDPOINT RESPUESTA: " + mensaje);
             return ResponseEntity.ok(mensaje);
@@ -148,9 +114,9 @@ public class SimulacionController {
                 return ResponseEntity.badRequest().body("Error: La fecha de inicio no puede ser nula");
             }
             LocalDateTime fechaDateTime = request.getFechaInicio();
-            Parametros.fecha_inicio_simulacion = fechaDateTime;
+            Parametros.setFechaInicioSimulacion(fechaDateTime);
             Simulacion.configurarSimulacionSemanal(fechaDateTime);
-            simulacionIniciada = true; // Marcar que la simulación ha sido iniciada
+            ContextoSimulacion.actual().setSimulacionIniciada(true); // Marcar que la simulación ha sido iniciada
             String mensaje = "SIMULACION INICIADA: " + request.getFechaInicio();
             System.out.println("✅ ENDPOINT RESPUESTA: " + mensaje);
             return ResponseEntity.ok(mensaje);
@@ -165,10 +131,11 @@ public class SimulacionController {
     public ResponseEntity<Map<String, Object>> limpiarArchivos() {
         System.out.println("🌐 ENDPOINT LLAMADO: /api/simulacion/limpiar-archivos");
         try {
-            archivoVentas = null;
-            archivoBloqueos = null;
-            archivoCamiones = null;
-            archivoMantenimiento = null;
+            ContextoSimulacion contexto = ContextoSimulacion.actual();
+            contexto.setArchivoVentas(null);
+            contexto.setArchivoBloqueos(null);
+            contexto.setArchivoCamiones(null);
+            contexto.setArchivoMantenimiento(null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -193,7 +160,7 @@ public class SimulacionController {
 
         try {
             String contenido = new String(archivo.getBytes(), StandardCharsets.UTF_8);
-            archivoVentas = contenido;
+            ContextoSimulacion.actual().setArchivoVentas(contenido);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -218,7 +185,7 @@ public class SimulacionController {
 
         try {
             String contenido = new String(archivo.getBytes(), StandardCharsets.UTF_8);
-            archivoBloqueos = contenido;
+            ContextoSimulacion.actual().setArchivoBloqueos(contenido);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -243,7 +210,7 @@ public class SimulacionController {
 
         try {
             String contenido = new String(archivo.getBytes(), StandardCharsets.UTF_8);
-            archivoCamiones = contenido;
+            ContextoSimulacion.actual().setArchivoCamiones(contenido);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -269,7 +236,7 @@ public class SimulacionController {
 
         try {
             String contenido = new String(archivo.getBytes(), StandardCharsets.UTF_8);
-            archivoMantenimiento = contenido;
+            ContextoSimulacion.actual().setArchivoMantenimiento(contenido);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -291,11 +258,12 @@ public class SimulacionController {
     public ResponseEntity<Map<String, Boolean>> obtenerEstadoArchivos() {
         System.out.println("🌐 ENDPOINT LLAMADO: /api/simulacion/estado-archivos");
 
+        ContextoSimulacion contexto = ContextoSimulacion.actual();
         Map<String, Boolean> estado = new HashMap<>();
-        estado.put("ventas", archivoVentas != null);
-        estado.put("bloqueos", archivoBloqueos != null);
-        estado.put("camiones", archivoCamiones != null);
-        estado.put("mantenimiento", archivoMantenimiento != null);
+        estado.put("ventas", contexto.getArchivoVentas() != null);
+        estado.put("bloqueos", contexto.getArchivoBloqueos() != null);
+        estado.put("camiones", contexto.getArchivoCamiones() != null);
+        estado.put("mantenimiento", contexto.getArchivoMantenimiento() != null);
 
         System.out.println("✅ Estado de archivos: " + estado);
         return ResponseEntity.ok(estado);
@@ -311,7 +279,7 @@ public class SimulacionController {
             if (request.getTipoSimulacion() == null) {
                 System.out.println("❌ Error: Tipo de simulación no proporcionado");
                 TipoSimulacionResponse response = new TipoSimulacionResponse(
-                        Parametros.tipoDeSimulacion,
+                        Parametros.getTipoDeSimulacion(),
                         null,
                         "Error: Tipo de simulación no proporcionado",
                         false);
@@ -319,20 +287,20 @@ public class SimulacionController {
             }
 
             // Guardar el tipo anterior
-            TipoDeSimulacion tipoAnterior = Parametros.tipoDeSimulacion;
+            TipoDeSimulacion tipoAnterior = Parametros.getTipoDeSimulacion();
 
             // Cambiar el tipo de simulación
-            Parametros.tipoDeSimulacion = request.getTipoSimulacion();
+            Parametros.setTipoDeSimulacion(request.getTipoSimulacion());
 
             System.out.println("✅ Tipo de simulación cambiado exitosamente:");
             System.out.println("   • Tipo anterior: " + tipoAnterior);
-            System.out.println("   • Tipo nuevo: " + Parametros.tipoDeSimulacion);
+            System.out.println("   • Tipo nuevo: " + Parametros.getTipoDeSimulacion());
 
             // Crear respuesta exitosa
             TipoSimulacionResponse response = new TipoSimulacionResponse(
                     tipoAnterior,
-                    Parametros.tipoDeSimulacion,
-                    "Tipo de simulación cambiado exitosamente de " + tipoAnterior + " a " + Parametros.tipoDeSimulacion,
+                    Parametros.getTipoDeSimulacion(),
+                    "Tipo de simulación cambiado exitosamente de " + tipoAnterior + " a " + Parametros.getTipoDeSimulacion(),
                     true);
 
             return ResponseEntity.ok(response);
@@ -340,7 +308,7 @@ public class SimulacionController {
         } catch (Exception e) {
             System.out.println("❌ Error al cambiar tipo de simulación: " + e.getMessage());
             TipoSimulacionResponse response = new TipoSimulacionResponse(
-                    Parametros.tipoDeSimulacion,
+                    Parametros.getTipoDeSimulacion(),
                     null,
                     "Error al cambiar tipo de simulación: " + e.getMessage(),
                     false);
@@ -348,16 +316,87 @@ public class SimulacionController {
         }
     }
 
+    /**
+     * Configura cuántos intervalos se calculan por adelantado mientras el
+     * frontend consume el actual.
+     */
+    @PostMapping("/adelanto")
+    public ResponseEntity<Map<String, Object>> configurarAdelanto(@RequestParam int paquetes) {
+        System.out.println("🌐 ENDPOINT LLAMADO: /api/simulacion/adelanto");
+        Map<String, Object> response = new HashMap<>();
+        if (paquetes < 0) {
+            response.put("success", false);
+            response.put("message", "La cantidad de paquetes adelantados no puede ser negativa");
+            return ResponseEntity.badRequest().body(response);
+        }
+        ProductorPaquetesSimulacion productor = ContextoSimulacion.actual().getProductor();
+        productor.configurarAdelanto(paquetes);
+        response.put("success", true);
+        response.put("paquetesAdelantados", paquetes);
+        response.put("paquetesEnBufer", productor.getPaquetesEnBufer());
+        System.out.println("✅ Paquetes adelantados: " + paquetes);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Lista las sesiones de simulación abiertas. Cada sesión tiene su propio
+     * mapa, datos, parámetros e historial; se elige con la cabecera
+     * X-Sesion-Simulacion o el parámetro "sesion".
+     */
+    @GetMapping("/sesiones")
+    public ResponseEntity<Map<String, Object>> listarSesiones() {
+        System.out.println("🌐 ENDPOINT LLAMADO: /api/simulacion/sesiones");
+        Map<String, Object> response = new HashMap<>();
+        response.put("sesiones", ContextoSimulacion.sesiones());
+        response.put("sesionActual", ContextoSimulacion.actual().getSesion());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Crea una sesión de simulación vacía y devuelve su identificador, que luego
+     * se envía en la cabecera X-Sesion-Simulacion.
+     */
+    @PostMapping("/sesiones")
+    public ResponseEntity<Map<String, Object>> crearSesion() {
+        System.out.println("🌐 ENDPOINT LLAMADO: /api/simulacion/sesiones (POST)");
+        ContextoSimulacion contexto = ContextoSimulacion.crearSesion();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("sesion", contexto.getSesion());
+        System.out.println("🆕 Sesión de simulación creada: " + contexto.getSesion());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @DeleteMapping("/sesiones/{sesion}")
+    public ResponseEntity<Map<String, Object>> eliminarSesion(@PathVariable String sesion) {
+        System.out.println("🌐 ENDPOINT LLAMADO: /api/simulacion/sesiones/" + sesion + " (DELETE)");
+        Map<String, Object> response = new HashMap<>();
+        if (ContextoSimulacion.SESION_PREDETERMINADA.equals(sesion)) {
+            response.put("success", false);
+            response.put("message", "La sesión predeterminada no se puede eliminar");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (!ContextoSimulacion.eliminar(sesion)) {
+            response.put("success", false);
+            response.put("message", "No existe la sesión: " + sesion);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Sesión eliminada: " + sesion);
+        System.out.println("🗑️ Sesión de simulación eliminada: " + sesion);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/tipo-simulacion-actual")
     public ResponseEntity<Map<String, Object>> obtenerTipoSimulacionActual() {
         System.out.println("🌐 ENDPOINT LLAMADO: /api/simulacion/tipo-simulacion-actual");
 
         Map<String, Object> response = new HashMap<>();
-        response.put("tipoSimulacion", Parametros.tipoDeSimulacion);
-        response.put("descripcion", obtenerDescripcionTipoSimulacion(Parametros.tipoDeSimulacion));
+        response.put("tipoSimulacion", Parametros.getTipoDeSimulacion());
+        response.put("descripcion", obtenerDescripcionTipoSimulacion(Parametros.getTipoDeSimulacion()));
         response.put("timestamp", LocalDateTime.now());
 
-        System.out.println("✅ Tipo de simulación actual: " + Parametros.tipoDeSimulacion);
+        System.out.println("✅ Tipo de simulación actual: " + Parametros.getTipoDeSimulacion());
         return ResponseEntity.ok(response);
     }
 
@@ -2,10 +2,16 @@ package com.plg.controller;
 
 import com.plg.utils.Simulacion;
 import com.plg.utils.AlgoritmoGenetico;
+import com.plg.utils.ContextoSimulacion;
 import com.plg.utils.Parametros;
 import com.plg.dto.IndividuoDto;
 import com.plg.dto.EstadisticasPedidosDto;
-import com.plg.utils.simulacion.GestorHistorialSimulacion;
+import com.plg.dto.ResultadoBarridoDto;
+import com.plg.dto.ResultadoSimulacionRapidaDto;
+import com.plg.dto.request.BarridoSimulacionRequest;
+import com.plg.dto.request.EscenarioSimulacionRequest;
+import com.plg.utils.simulacion.BarridoEscenarios;
+import com.plg.utils.simulacion.SimulacionRapida;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -16,6 +22,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -28,11 +35,8 @@ import org.springframework.http.HttpStatus;
 @CrossOrigin(origins = "*")
 public class TestSimulacionController {
 
-    private static final AtomicBoolean simulacionEnProceso = new AtomicBoolean(false);
-    private static final AtomicInteger contadorSimulaciones = new AtomicInteger(0);
-    private static final List<String> historialLogs = new ArrayList<>();
-    private static final List<EstadisticasPedidosDto> historialEstadisticas = new ArrayList<>();
-    private static CompletableFuture<Void> simulacionFuture;
+    // El estado de cada ejecución de prueba vive en el contexto de su sesión,
+    // así que cada sesión puede tener la suya
 
     /**
      * Ejecuta simulaciones en bucle entre dos fechas
@@ -54,7 +58,9 @@ public class TestSimulacionController {
         System.out.println("📅 Fecha fin: " + fechaFin);
         System.out.println("⏱️ Intervalo: " + intervaloMinutos + " minutos");
 
-        // Validar que no haya una simulación en proceso
+        // Validar que no haya una simulación en proceso en esta sesión
+        ContextoSimulacion contexto = ContextoSimulacion.actual();
+        AtomicBoolean simulacionEnProceso = contexto.getEjecucionEnProceso();
         if (simulacionEnProceso.get()) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body("Ya hay una simulación en proceso. Espere a que termine o cancele la actual.");
@@ -78,14 +84,18 @@ public class TestSimulacionController {
             }
 
             // Iniciar simulación en bucle de forma asíncrona
-            simulacionEnProceso.set(true);
-            contadorSimulaciones.set(0);
-            historialLogs.clear();
-            historialEstadisticas.clear();
+            if (!simulacionEnProceso.compareAndSet(false, true)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Ya hay una simulación en proceso. Espere a que termine o cancele la actual.");
+            }
+            contexto.getContadorEjecuciones().set(0);
+            contexto.getLogsEjecucion().clear();
+            contexto.getEstadisticasEjecucion().clear();
 
-            simulacionFuture = CompletableFuture.runAsync(() -> {
+            // El hilo asíncrono trabaja sobre la simulación de la sesión que hizo la petición
+            contexto.setEjecucionFuture(CompletableFuture.runAsync(() -> contexto.ejecutar(() -> {
                 ejecutarBucleSimulacion(inicio, fin, intervaloMinutos);
-            });
+            })));
 
             String mensaje = String.format(
                     "Simulación en bucle iniciada desde %s hasta %s con intervalo de %d minutos",
@@ -102,6 +112,154 @@ public class TestSimulacionController {
         }
     }
 
+    /**
+     * Ejecuta una simulación sin interfaz entre dos fechas lo más rápido posible:
+     * sin pausas ni paquetes para el frontend, solo indicadores y muestras
+     * opcionales. El resultado se consulta en /rapida/resultado.
+     *
+     * @param muestrearCada Cada cuántos intervalos guardar un paquete completo
+     *                      (0 para ninguno)
+     */
+    @PostMapping("/ejecutar-rapida")
+    public ResponseEntity<String> ejecutarSimulacionRapida(
+            @RequestParam String fechaInicio,
+            @RequestParam String fechaFin,
+            @RequestParam(defaultValue = "30") int intervaloMinutos,
+            @RequestParam(defaultValue = "0") int muestrearCada) {
+
+        System.out.println("🌐 ENDPOINT LLAMADO: /api/test-simulacion/ejecutar-rapida");
+
+        LocalDateTime inicio;
+        LocalDateTime fin;
+        try {
+            inicio = LocalDateTime.parse(fechaInicio);
+            fin = LocalDateTime.parse(fechaFin);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Formato de fecha inválido: " + e.getMessage());
+        }
+        if (inicio.isAfter(fin)) {
+            return ResponseEntity.badRequest().body("La fecha de inicio debe ser anterior a la fecha de fin.");
+        }
+        if (intervaloMinutos <= 0 || muestrearCada < 0) {
+            return ResponseEntity.badRequest()
+                    .body("El intervalo debe ser mayor a 0 minutos y el muestreo no puede ser negativo.");
+        }
+        ContextoSimulacion contexto = ContextoSimulacion.actual();
+        AtomicBoolean simulacionEnProceso = contexto.getEjecucionEnProceso();
+        if (!simulacionEnProceso.compareAndSet(false, true)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Ya hay una simulación en proceso. Espere a que termine o cancele la actual.");
+        }
+
+        contexto.setUltimoResultadoRapido(null);
+        contexto.setEjecucionFuture(CompletableFuture.runAsync(() -> {
+            try {
+                contexto.setUltimoResultadoRapido(contexto.ejecutar(() -> SimulacionRapida.ejecutar(inicio, fin,
+                        intervaloMinutos, muestrearCada, simulacionEnProceso::get)));
+            } catch (Exception e) {
+                System.err.println("💥 Error crítico en simulación rápida: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                simulacionEnProceso.set(false);
+            }
+        }));
+
+        String mensaje = String.format("Simulación rápida iniciada desde %s hasta %s con intervalo de %d minutos",
+                fechaInicio, fechaFin, intervaloMinutos);
+        System.out.println("✅ " + mensaje);
+        return ResponseEntity.ok(mensaje);
+    }
+
+    /**
+     * Obtiene los indicadores de la última simulación rápida terminada
+     */
+    @GetMapping("/rapida/resultado")
+    public ResponseEntity<ResultadoSimulacionRapidaDto> obtenerResultadoRapido() {
+        ResultadoSimulacionRapidaDto resultado = ContextoSimulacion.actual().getUltimoResultadoRapido();
+        if (resultado == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * Simula varios escenarios a la vez sobre el mismo rango de fechas, cada uno
+     * con sus propios parámetros, y compara sus indicadores. Corre aparte de la
+     * simulación de la sesión; el resultado se consulta en /barrido/resultado.
+     */
+    @PostMapping("/barrido")
+    public ResponseEntity<String> ejecutarBarrido(@RequestBody BarridoSimulacionRequest request) {
+        System.out.println("🌐 ENDPOINT LLAMADO: /api/test-simulacion/barrido");
+
+        if (request.getFechaInicio() == null || request.getFechaFin() == null) {
+            return ResponseEntity.badRequest().body("Debe indicar la fecha de inicio y la fecha de fin.");
+        }
+        if (request.getFechaInicio().isAfter(request.getFechaFin())) {
+            return ResponseEntity.badRequest().body("La fecha de inicio debe ser anterior a la fecha de fin.");
+        }
+        if (request.getEscenarios() == null || request.getEscenarios().isEmpty() || request.getParalelismo() < 0) {
+            return ResponseEntity.badRequest()
+                    .body("Debe indicar al menos un escenario y el paralelismo no puede ser negativo.");
+        }
+        for (EscenarioSimulacionRequest escenario : request.getEscenarios()) {
+            if (escenario.getIntervaloTiempo() <= 0 || escenario.getVelocidadCamion() <= 0
+                    || escenario.getPoblacionAlgoritmo() <= 0 || escenario.getFlota() == null
+                    || escenario.getTasaAveriasAutomaticas() < 0 || escenario.getTasaAveriasAutomaticas() > 1) {
+                return ResponseEntity.badRequest().body("Parámetros inválidos en el escenario "
+                        + escenario.getNombre()
+                        + ": intervalo, velocidad y población deben ser positivos, la flota es obligatoria"
+                        + " y la tasa de averías debe estar entre 0 y 1.");
+            }
+        }
+        ContextoSimulacion contexto = ContextoSimulacion.actual();
+        AtomicBoolean barridoEnProceso = contexto.getBarridoEnProceso();
+        if (!barridoEnProceso.compareAndSet(false, true)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Ya hay un barrido en proceso. Espere a que termine o cancélelo.");
+        }
+
+        contexto.setUltimoResultadoBarrido(null);
+        CompletableFuture.runAsync(() -> {
+            try {
+                contexto.setUltimoResultadoBarrido(BarridoEscenarios.ejecutar(request, barridoEnProceso::get));
+            } catch (Exception e) {
+                System.err.println("💥 Error crítico en el barrido: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                barridoEnProceso.set(false);
+            }
+        });
+
+        String mensaje = String.format("Barrido iniciado con %d escenarios desde %s hasta %s",
+                request.getEscenarios().size(), request.getFechaInicio(), request.getFechaFin());
+        System.out.println("✅ " + mensaje);
+        return ResponseEntity.ok(mensaje);
+    }
+
+    /**
+     * Obtiene los indicadores del último barrido terminado
+     */
+    @GetMapping("/barrido/resultado")
+    public ResponseEntity<ResultadoBarridoDto> obtenerResultadoBarrido() {
+        ResultadoBarridoDto resultado = ContextoSimulacion.actual().getUltimoResultadoBarrido();
+        if (resultado == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * Cancela el barrido en proceso; se devuelve lo simulado hasta el momento
+     */
+    @PostMapping("/barrido/cancelar")
+    public ResponseEntity<String> cancelarBarrido() {
+        System.out.println("🌐 ENDPOINT LLAMADO: /api/test-simulacion/barrido/cancelar");
+        if (!ContextoSimulacion.actual().getBarridoEnProceso().getAndSet(false)) {
+            return ResponseEntity.ok("No hay barrido en proceso para cancelar.");
+        }
+        return ResponseEntity.ok("Barrido cancelado.");
+    }
+
     /**
      * Cancela la simulación en bucle en proceso
      */
@@ -109,17 +267,19 @@ public class TestSimulacionController {
     public ResponseEntity<String> cancelarSimulacion() {
         System.out.println("🌐 ENDPOINT LLAMADO: /api/test-simulacion/cancelar");
 
-        if (!simulacionEnProceso.get()) {
+        ContextoSimulacion contexto = ContextoSimulacion.actual();
+        if (!contexto.getEjecucionEnProceso().get()) {
             return ResponseEntity.ok("No hay simulación en proceso para cancelar.");
         }
 
-        simulacionEnProceso.set(false);
+        contexto.getEjecucionEnProceso().set(false);
 
+        CompletableFuture<Void> simulacionFuture = contexto.getEjecucionFuture();
         if (simulacionFuture != null && !simulacionFuture.isDone()) {
             simulacionFuture.cancel(true);
         }
 
-        String mensaje = "Simulación en bucle cancelada. Total ejecutadas: " + contadorSimulaciones.get();
+        String mensaje = "Simulación en bucle cancelada. Total ejecutadas: " + contexto.getContadorEjecuciones().get();
         System.out.println("🛑 " + mensaje);
         return ResponseEntity.ok(mensaje);
     }
@@ -129,8 +289,9 @@ public class TestSimulacionController {
      */
     @GetMapping("/estado")
     public ResponseEntity<String> obtenerEstado() {
-        boolean enProceso = simulacionEnProceso.get();
-        int totalEjecutadas = contadorSimulaciones.get();
+        ContextoSimulacion contexto = ContextoSimulacion.actual();
+        boolean enProceso = contexto.getEjecucionEnProceso().get();
+        int totalEjecutadas = contexto.getContadorEjecuciones().get();
 
         String estado = String.format(
                 "En proceso: %s | Total simulaciones ejecutadas: %d",
@@ -144,7 +305,10 @@ public class TestSimulacionController {
      */
     @GetMapping("/logs")
     public ResponseEntity<List<String>> obtenerLogs() {
-        return ResponseEntity.ok(new ArrayList<>(historialLogs));
+        List<String> historialLogs = ContextoSimulacion.actual().getLogsEjecucion();
+        synchronized (historialLogs) {
+            return ResponseEntity.ok(new ArrayList<>(historialLogs));
+        }
     }
 
     /**
@@ -152,7 +316,7 @@ public class TestSimulacionController {
      */
     @GetMapping("/estadisticas")
     public ResponseEntity<List<EstadisticasPedidosDto>> obtenerEstadisticas() {
-        return ResponseEntity.ok(new ArrayList<>(historialEstadisticas));
+        return ResponseEntity.ok(copiaEstadisticas());
     }
 
     /**
@@ -160,6 +324,7 @@ public class TestSimulacionController {
      */
     @GetMapping("/estadisticas/ultima")
     public ResponseEntity<EstadisticasPedidosDto> obtenerUltimaEstadistica() {
+        List<EstadisticasPedidosDto> historialEstadisticas = copiaEstadisticas();
         if (historialEstadisticas.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -171,6 +336,7 @@ public class TestSimulacionController {
      */
     @GetMapping("/estadisticas/resumen")
     public ResponseEntity<String> obtenerResumenEstadisticas() {
+        List<EstadisticasPedidosDto> historialEstadisticas = copiaEstadisticas();
         if (historialEstadisticas.isEmpty()) {
             return ResponseEntity.ok("No hay estadísticas disponibles");
         }
@@ -221,6 +387,9 @@ public class TestSimulacionController {
      */
     private void ejecutarBucleSimulacion(LocalDateTime fechaInicio, LocalDateTime fechaFin, int intervaloMinutos) {
         LocalDateTime fechaActual = fechaInicio;
+        ContextoSimulacion contexto = ContextoSimulacion.actual();
+        AtomicBoolean simulacionEnProceso = contexto.getEjecucionEnProceso();
+        AtomicInteger contadorSimulaciones = contexto.getContadorEjecuciones();
 
         try {
             // Configurar simulación inicial
@@ -234,8 +403,8 @@ public class TestSimulacionController {
                     agregarLog("🔄 Ejecutando simulación para: " + fechaActual);
 
                     // Actualizar parámetros globales
-                    Parametros.diferenciaTiempoMinRequest = (int) ChronoUnit.MINUTES.between(Parametros.fecha_inicial,
-                            fechaActual);
+                    Parametros.setDiferenciaTiempoMinRequest(
+                            (int) ChronoUnit.MINUTES.between(Parametros.getFechaInicial(), fechaActual));
                     Parametros.actualizarParametrosGlobales(fechaActual);
                     Simulacion.actualizarEstadoGlobal(fechaActual);
 
@@ -246,26 +415,21 @@ public class TestSimulacionController {
                     // Crear y guardar individuo
                     IndividuoDto mejorIndividuoDto = new IndividuoDto(
                             algoritmoGenetico.getMejorIndividuo(),
-                            Simulacion.pedidosEnviar,
-                            Simulacion.bloqueosActivos,
+                            Simulacion.getPedidosEnviar(),
+                            Simulacion.getBloqueosActivos(),
                             fechaActual);
 
                     // Agregar al historial
-                    GestorHistorialSimulacion.agregarPaquete(mejorIndividuoDto);
+                    contexto.getHistorial().agregarPaquete(mejorIndividuoDto);
 
                     // Calcular y guardar estadísticas de pedidos
-                    EstadisticasPedidosDto estadisticas = new EstadisticasPedidosDto(Simulacion.pedidosEnviar,
+                    EstadisticasPedidosDto estadisticas = new EstadisticasPedidosDto(Simulacion.getPedidosEnviar(),
                             fechaActual);
-                    historialEstadisticas.add(estadisticas);
-
-                    // Desactivar bloqueos
-                    for (com.plg.entity.Bloqueo bloqueo : Simulacion.bloqueosActivos) {
-                        bloqueo.desactivarBloqueo();
-                    }
+                    contexto.getEstadisticasEjecucion().add(estadisticas);
 
                     contadorSimulaciones.incrementAndGet();
                     agregarLog("✅ Simulación #" + contadorSimulaciones.get() + " completada para: " + fechaActual);
-                    agregarLog("📦 Pedidos procesados: " + Simulacion.pedidosEnviar.size());
+                    agregarLog("📦 Pedidos procesados: " + Simulacion.getPedidosEnviar().size());
                     agregarLog("🧬 Fitness: " + algoritmoGenetico.getMejorIndividuo().getFitness());
                     agregarLog("📊 " + estadisticas.toString());
 
@@ -305,12 +469,25 @@ public class TestSimulacionController {
     private void agregarLog(String mensaje) {
         String timestamp = LocalDateTime.now().toString();
         String logEntry = "[" + timestamp + "] " + mensaje;
-        historialLogs.add(logEntry);
+        List<String> historialLogs = ContextoSimulacion.actual().getLogsEjecucion();
         System.out.println(logEntry);
 
-        // Mantener solo los últimos 1000 logs
-        if (historialLogs.size() > 1000) {
-            historialLogs.remove(0);
+        synchronized (historialLogs) {
+            historialLogs.add(logEntry);
+            // Mantener solo los últimos 1000 logs
+            if (historialLogs.size() > 1000) {
+                historialLogs.remove(0);
+            }
+        }
+    }
+
+    /**
+     * Copia de las estadísticas de la sesión actual
+     */
+    private List<EstadisticasPedidosDto> copiaEstadisticas() {
+        List<EstadisticasPedidosDto> historialEstadisticas = ContextoSimulacion.actual().getEstadisticasEjecucion();
+        synchronized (historialEstadisticas) {
+            return new ArrayList<>(historialEstadisticas);
         }
     }
 }
\ No newline at end of file
@@ -56,7 +56,7 @@ public class IndividuoDto {
 
         // Agregar almacenes desde DataLoader
         this.almacenes = new ArrayList<>();
-        for (Almacen almacen : Parametros.dataLoader.almacenes) {
+        for (Almacen almacen : Parametros.getDataLoader().almacenes) {
             this.almacenes.add(new AlmacenDto(almacen));
         }
     }
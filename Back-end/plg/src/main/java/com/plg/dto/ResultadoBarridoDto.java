@@ -0,0 +1,62 @@
+package com.plg.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.plg.dto.request.EscenarioSimulacionRequest;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Indicadores de un barrido de escenarios: el resultado de cada simulación y
+ * su comparación.
+ */
+@Data
+@NoArgsConstructor
+public class ResultadoBarridoDto {
+
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private int paralelismo;
+    private List<Escenario> escenarios = new ArrayList<>();
+
+    private int escenariosCompletados;
+    private int escenariosConError;
+    // Más pedidos entregados y, a igualdad, menor fitness promedio
+    private String mejorEscenario;
+    private double pedidosEntregadosPromedio;
+    private double fitnessPromedio;
+
+    private double segundosReales;
+    // Tiempo de CPU del proceso durante el barrido; dividido por los segundos
+    // reales da los núcleos que se usaron en promedio
+    private double segundosCpu;
+    private double nucleosUsados;
+    private int nucleosDisponibles;
+
+    @Data
+    @NoArgsConstructor
+    public static class Escenario {
+        private String nombre;
+        private EscenarioSimulacionRequest parametros;
+        private ResultadoSimulacionRapidaDto resultado;
+        private String error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "🧪 Barrido %s → %s con %d escenarios (%d a la vez)%n" +
+                        "   • Completados: %d | Con error: %d%n" +
+                        "   • Mejor escenario: %s%n" +
+                        "   • Pedidos entregados promedio: %.1f | Fitness promedio: %.2f%n" +
+                        "   • %.1f s reales, %.1f s de CPU (%.1f de %d núcleos en promedio)",
+                fechaInicio, fechaFin, escenarios.size(), paralelismo,
+                escenariosCompletados, escenariosConError,
+                mejorEscenario,
+                pedidosEntregadosPromedio, fitnessPromedio,
+                segundosReales, segundosCpu, nucleosUsados, nucleosDisponibles);
+    }
+}
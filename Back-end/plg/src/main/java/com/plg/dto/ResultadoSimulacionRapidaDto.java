@@ -0,0 +1,63 @@
+package com.plg.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Indicadores de una simulación ejecutada sin interfaz, de una fecha a otra y
+ * sin pausas entre intervalos.
+ */
+@Data
+@NoArgsConstructor
+public class ResultadoSimulacionRapidaDto {
+
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    // Última fecha simulada; menor que fechaFin si la simulación se canceló
+    private LocalDateTime fechaAlcanzada;
+    private int intervaloMinutos;
+    private boolean completada;
+
+    private int intervalosSimulados;
+    private int ejecucionesAlgoritmo;
+    private int intervalosConError;
+    private Map<String, Integer> eventosPorTipo = new LinkedHashMap<>();
+
+    private double fitnessPromedio;
+    private double nodosRecorridosPlanificados;
+    private int pedidosEntregados;
+    private int pedidosPendientes;
+    // Camiones que sufrieron una avería automática del archivo
+    private int averiasAutomaticas;
+    private EstadisticasPedidosDto estadisticasFinales;
+
+    private double horasSimuladas;
+    private double segundosReales;
+    private double horasSimuladasPorSegundo;
+
+    // Paquetes completos tomados cada cierto número de intervalos, si se pidió
+    private List<IndividuoDto> muestras = new ArrayList<>();
+
+    @Override
+    public String toString() {
+        return String.format(
+                "⚡ Simulación rápida %s → %s%n" +
+                        "   • Intervalos simulados: %d (algoritmo ejecutado %d veces, %d con error)%n" +
+                        "   • Pedidos entregados: %d | Pendientes: %d | Averías automáticas: %d%n" +
+                        "   • Fitness promedio: %.2f%n" +
+                        "   • Eventos: %s%n" +
+                        "   • %.1f horas simuladas en %.1f s (%.1f h/s)",
+                fechaInicio, fechaAlcanzada,
+                intervalosSimulados, ejecucionesAlgoritmo, intervalosConError,
+                pedidosEntregados, pedidosPendientes, averiasAutomaticas,
+                fitnessPromedio,
+                eventosPorTipo,
+                horasSimuladas, segundosReales, horasSimuladasPorSegundo);
+    }
+}
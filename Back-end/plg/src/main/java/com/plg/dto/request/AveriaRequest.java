@@ -63,10 +63,10 @@ public class AveriaRequest {
     public Averia toAveria() {
 
         // Buscamos el camión por su código
-        Camion camion = Parametros.dataLoader.camiones.stream()
-                .filter(c -> c.getCodigo().equals(codigoCamion))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Camión no encontrado: " + codigoCamion));
+        Camion camion = Parametros.getDataLoader().getIndiceCamiones().camion(codigoCamion);
+        if (camion == null) {
+            throw new IllegalArgumentException("Camión no encontrado: " + codigoCamion);
+        }
         return Averia.builder()
                 .camion(camion)
                 .tipoIncidente(tipoIncidente)
@@ -0,0 +1,19 @@
+package com.plg.dto.request;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Barrido de escenarios: todos se simulan sobre el mismo rango de fechas.
+ */
+@Data
+public class BarridoSimulacionRequest {
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private List<EscenarioSimulacionRequest> escenarios = new ArrayList<>();
+    // Simulaciones a la vez; 0 para usar un núcleo por simulación
+    private int paralelismo = 0;
+}
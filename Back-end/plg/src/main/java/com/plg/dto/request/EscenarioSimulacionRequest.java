@@ -0,0 +1,22 @@
+package com.plg.dto.request;
+
+import java.util.Map;
+
+import com.plg.entity.TipoCamion;
+import com.plg.utils.ContextoSimulacion;
+
+import lombok.Data;
+
+/**
+ * Parámetros de uno de los escenarios de un barrido. Los valores por defecto
+ * son los de una simulación normal.
+ */
+@Data
+public class EscenarioSimulacionRequest {
+    private String nombre;
+    private int intervaloTiempo = 120; // minutos
+    private double velocidadCamion = 70.0; // km/h
+    private Map<TipoCamion, Integer> flota = ContextoSimulacion.flotaPredeterminada();
+    private double tasaAveriasAutomaticas = 1.0; // entre 0 y 1
+    private int poblacionAlgoritmo = 30;
+}
@@ -75,23 +75,30 @@ public class Almacen extends Nodo {
 
     public void restaurarCopia() {
         if (almacenCopia != null) {
-            super.setCoordenada(almacenCopia.getCoordenada());
-            super.setBloqueado(almacenCopia.isBloqueado());
-            super.setGScore(almacenCopia.getGScore());
-            super.setFScore(almacenCopia.getFScore());
-            super.setTipoNodo(almacenCopia.getTipoNodo());
-            this.nombre = almacenCopia.getNombre();
-            this.capacidadActualGLP = almacenCopia.getCapacidadActualGLP();
-            this.capacidadMaximaGLP = almacenCopia.getCapacidadMaximaGLP();
-            this.capacidadActualCombustible = almacenCopia.getCapacidadActualCombustible();
-            this.capacidadMaximaCombustible = almacenCopia.getCapacidadMaximaCombustible();
-            this.esCentral = almacenCopia.isEsCentral();
-            this.permiteCamionesEstacionados = almacenCopia.isPermiteCamionesEstacionados();
-            this.tipo = almacenCopia.getTipo();
-            this.activo = almacenCopia.isActivo();
+            restaurarDesde(almacenCopia);
         }
     }
 
+    /**
+     * Copia en este objeto los atributos de la copia indicada.
+     */
+    public void restaurarDesde(Almacen copia) {
+        super.setCoordenada(copia.getCoordenada());
+        super.setBloqueado(copia.isBloqueado());
+        super.setGScore(copia.getGScore());
+        super.setFScore(copia.getFScore());
+        super.setTipoNodo(copia.getTipoNodo());
+        this.nombre = copia.getNombre();
+        this.capacidadActualGLP = copia.getCapacidadActualGLP();
+        this.capacidadMaximaGLP = copia.getCapacidadMaximaGLP();
+        this.capacidadActualCombustible = copia.getCapacidadActualCombustible();
+        this.capacidadMaximaCombustible = copia.getCapacidadMaximaCombustible();
+        this.esCentral = copia.isEsCentral();
+        this.permiteCamionesEstacionados = copia.isPermiteCamionesEstacionados();
+        this.tipo = copia.getTipo();
+        this.activo = copia.isActivo();
+    }
+
     public boolean recargarGlPCamion(Camion camion){
         double glpRequerido = camion.getCapacidadMaximaGLP() - camion.getCapacidadActualGLP();
         double glpDisponible = this.getCapacidadActualGLP();
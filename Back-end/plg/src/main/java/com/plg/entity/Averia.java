@@ -4,8 +4,10 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.NoSuchElementException;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.plg.factory.CamionFactory;
 import com.plg.utils.ExcepcionesPerzonalizadas.InvalidDataFormatException;
+import com.plg.utils.TiempoSimulacion;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -143,4 +145,19 @@ public class Averia {
         }
         return fechaHoraFinEspera;
     }
+
+    @JsonIgnore
+    public long getMinutoReporte() {
+        return TiempoSimulacion.aMinuto(fechaHoraReporte);
+    }
+
+    @JsonIgnore
+    public long getMinutoDisponible() {
+        return TiempoSimulacion.aMinuto(fechaHoraDisponible);
+    }
+
+    @JsonIgnore
+    public long getMinutoFinEsperaEnRuta() {
+        return TiempoSimulacion.aMinuto(fechaHoraFinEsperaEnRuta);
+    }
 }
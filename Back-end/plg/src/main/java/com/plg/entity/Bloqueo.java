@@ -10,8 +10,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.plg.utils.ExcepcionesPerzonalizadas.InvalidDataFormatException;
 import com.plg.utils.Herramientas;
+import com.plg.utils.TiempoSimulacion;
 
 @Data
 @NoArgsConstructor
@@ -87,20 +89,13 @@ public class Bloqueo {
     }
 
 
-    public void activarBloqueo() {
-        this.activo = true;
-        for (Nodo nodo : nodosBloqueados) {
-            Nodo nodoMapa = Mapa.getInstance().getNodo(nodo.getCoordenada());
-            nodoMapa.setBloqueado(true);
-        }
+    @JsonIgnore
+    public long getMinutoInicio() {
+        return TiempoSimulacion.aMinuto(fechaInicio);
     }
 
-    public void desactivarBloqueo() {
-        this.activo = false;
-        for (Nodo nodo : nodosBloqueados) {
-            Nodo nodoMapa = Mapa.getInstance().getNodo(nodo.getCoordenada());
-            nodoMapa.setBloqueado(false);
-        }
+    @JsonIgnore
+    public long getMinutoFin() {
+        return TiempoSimulacion.aMinuto(fechaFin);
     }
-
 }
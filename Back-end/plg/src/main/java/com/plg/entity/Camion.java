@@ -2,12 +2,12 @@ package com.plg.entity;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.plg.repository.AveriaRepository;
 import com.plg.utils.Gen;
 import com.plg.utils.Parametros;
+import com.plg.utils.rutas.LineaTiempoRuta;
+import com.plg.utils.simulacion.RegistroPedidos;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -111,8 +111,7 @@ public class Camion extends Nodo {
         capacidadActualGLP -= volumenGLP;
     }
 
-    public void actualizarEstado(Set<Pedido> pedidosPlanificados,
-            Set<Pedido> pedidosEntregados) {
+    public void actualizarEstado(RegistroPedidos registroPedidos) {
         if (this.gen == null) {
             // Primera vez que se llama no existen pedidos por atender
             return;
@@ -123,11 +122,10 @@ public class Camion extends Nodo {
             // Si el camión está disponible, se mueve a la siguiente posición
             cantNodos = calcularCantidadDeNodos();
         } else {
-            AveriaRepository averiaRepo = new AveriaRepository();
-            List<Averia> averias = averiaRepo.findByCamion(this);
+            List<Averia> averias = Parametros.getDataLoader().getIndiceAverias().delCamion(this.codigo);
             // Si alguna de las averias
             // Comparamos si alguna de las averías tiene un tiempo igual a la fecha actual
-            if (averias.stream().anyMatch(a -> a.getFechaHoraReporte().isEqual(Parametros.fecha_inicial))) {
+            if (averias.stream().anyMatch(a -> a.getFechaHoraReporte().isEqual(Parametros.getFechaInicial()))) {
 
                 cantNodos = calcularCantidadDeNodos();
             } else {
@@ -140,8 +138,7 @@ public class Camion extends Nodo {
         int distanciaRecorrida = gen.getPosNodo() - antiguo;
         actualizarCombustible(distanciaRecorrida);
         
-        if(Parametros.dataLoader.camionesAveriados.stream()
-                .anyMatch(c -> c.getCodigo().equals(this.codigo))) {
+        if (Parametros.getDataLoader().getIndiceCamionesAveriados().posicion(this.codigo) != -1) {
             this.setEstado(EstadoCamion.INMOVILIZADO_POR_AVERIA);
         }
 
@@ -165,48 +162,40 @@ public class Camion extends Nodo {
         
 
 
-        // RECORRER RUTA HASTA PUNTO INTERMEDIO
-        for (int i = 0; i <= intermedio; i++) {
-            Nodo nodo = gen.getRutaFinal().get(i);
-            if (nodo.getTipoNodo() == TipoNodo.PEDIDO) {
-                Pedido pedido = (Pedido) nodo;
-                entregarPedido(pedido, pedidosPlanificados, pedidosEntregados);
-            }else if(nodo instanceof Almacen && gen.getAlmacenesIntermedios().contains(nodo)) {
-                Almacen almacen = (Almacen) nodo;
-                almacen.recargarGlPCamion(this);
-                almacen.recargarCombustible(this);
-            }else {
-                if (nodo instanceof Camion && gen.getCamionesAveriados().contains(nodo)) {
-                    Camion camionRecarga = (Camion) nodo;
-                    camionRecarga.recargarGlPSiAveriado(this);
+        // EVENTOS CRUZADOS DESDE LA ÚLTIMA ACTUALIZACIÓN HASTA EL PUNTO INTERMEDIO
+        LineaTiempoRuta lineaTiempo = gen.getLineaTiempo();
+        int evento = lineaTiempo.primerEventoDespuesDe(gen.getUltimoPasoReproducido());
+        for (; evento < lineaTiempo.cantidadEventos() && lineaTiempo.pasoEvento(evento) <= intermedio; evento++) {
+            Nodo nodo = gen.getRutaFinal().get(lineaTiempo.pasoEvento(evento));
+            switch (lineaTiempo.tipoEvento(evento)) {
+                case ENTREGA -> entregarPedido((Pedido) nodo, registroPedidos);
+                case RECARGA_ALMACEN -> {
+                    Almacen almacen = (Almacen) nodo;
+                    almacen.recargarGlPCamion(this);
+                    almacen.recargarCombustible(this);
                 }
+                case RECARGA_CAMION_AVERIADO -> ((Camion) nodo).recargarGlPSiAveriado(this);
             }
         }
+        gen.setUltimoPasoReproducido(Math.max(gen.getUltimoPasoReproducido(), intermedio));
 
-        // RECORRER RUTA DESDE PUNTO INTERMEDIO HASTA FINAL
-        for (int i = intermedio + 1; i < gen.getRutaFinal().size(); i++) {
-            Nodo nodo = gen.getRutaFinal().get(i);
-            if (nodo.getTipoNodo() == TipoNodo.PEDIDO && gen.getPedidos().contains(nodo)) {
-                Pedido pedido = (Pedido) nodo;
-                if (pedido.getEstado() == EstadoPedido.ENTREGADO) {
-                    continue;
-                }
-                pedidosPlanificados.add(pedido);
-                pedido.setEstado(EstadoPedido.PLANIFICADO);
-
+        // PEDIDOS DEL GEN QUE QUEDAN DESPUÉS DEL PUNTO INTERMEDIO
+        for (; evento < lineaTiempo.cantidadEventos(); evento++) {
+            if (lineaTiempo.tipoEvento(evento) != LineaTiempoRuta.TipoEvento.ENTREGA
+                    || !lineaTiempo.esPedidoDelGen(evento)) {
+                continue;
             }
-        }
-        // Quitamos todos los pedidos entregados del mapa y reemplazamos por un nodo
-        // normal
-        for (Pedido pedido : pedidosEntregados) {
-            Mapa.getInstance().setNodo(pedido.getCoordenada(),
-                    new Nodo(pedido.getCoordenada(), false, 0, 0, TipoNodo.NORMAL));
+            Pedido pedido = (Pedido) gen.getRutaFinal().get(lineaTiempo.pasoEvento(evento));
+            if (pedido.getEstado() == EstadoPedido.ENTREGADO) {
+                continue;
+            }
+            registroPedidos.planificar(pedido);
+            pedido.setEstado(EstadoPedido.PLANIFICADO);
         }
         calcularDistanciaMaxima();
     }
 
-    private void entregarPedido(Pedido pedido,
-            Set<Pedido> pedidosPlanificados, Set<Pedido> pedidosEntregados) {
+    private void entregarPedido(Pedido pedido, RegistroPedidos registroPedidos) {
         if (pedido.getEstado() == EstadoPedido.ENTREGADO) {
             // Si el pedido ya está entregado, no hacer nada
             return;
@@ -236,26 +225,20 @@ public class Camion extends Nodo {
         // Si ya se entregó todo el GLP, marcar como entregado y actualizar sets
         if (Math.abs(pedido.getVolumenGLPEntregado() - pedido.getVolumenGLPAsignado()) < Parametros.diferenciaParaPedidoEntregado) {
             pedido.setEstado(EstadoPedido.ENTREGADO);
-            pedidosEntregados.add(pedido);
-            pedidosPlanificados.remove(pedido);
+            registroPedidos.entregar(pedido);
         }
     }
 
     public int calcularCantidadDeNodos() {
-        double diferenciaTiempo = Parametros.intervaloTiempo;
-        if (Parametros.diferenciaTiempoMinRequest != 0){
-            diferenciaTiempo = Parametros.diferenciaTiempoMinRequest;
+        double diferenciaTiempo = Parametros.getIntervaloTiempo();
+        if (Parametros.getDiferenciaTiempoMinRequest() != 0){
+            diferenciaTiempo = Parametros.getDiferenciaTiempoMinRequest();
         }
-        int cantNodos = (int) (diferenciaTiempo * velocidadPromedio / 60);
-        List<Nodo> rutaApi = gen.construirRutaFinalApi();
-        Nodo nodo_final = rutaApi.get(Math.max(cantNodos-1, 0));
-        for(int i = 0; i < gen.getRutaFinal().size(); i++) {
-            if (gen.getRutaFinal().get(i).equals(nodo_final)) {
-                cantNodos = i;
-                break;
-            }
-        }
-        return cantNodos;
+        // Búsqueda binaria sobre la línea de tiempo acumulada de la ruta, desde el
+        // paso actual: un plan que se conserva entre intervalos ya tiene pasos recorridos
+        int pasoActual = gen.getPosNodo();
+        return Math.max(0, gen.getLineaTiempo().pasoTrasMinutosDesde(pasoActual, diferenciaTiempo,
+                velocidadPromedio) - pasoActual);
     }
 
     public boolean recargarGlPSiAveriado(Camion camion) {
@@ -301,25 +284,32 @@ public class Camion extends Nodo {
 
     public void restaurarCopia() {
         if (this.camionCopia != null) {
-            this.codigo = camionCopia.getCodigo();
-            this.tipo = camionCopia.getTipo();
-            this.capacidadMaximaGLP = camionCopia.getCapacidadMaximaGLP();
-            this.capacidadActualGLP = camionCopia.getCapacidadActualGLP();
-            this.tara = camionCopia.getTara();
-            this.pesoCarga = camionCopia.getPesoCarga();
-            this.pesoCombinado = camionCopia.getPesoCombinado();
-            this.estado = camionCopia.getEstado();
-            this.combustibleMaximo = camionCopia.getCombustibleMaximo();
-            this.combustibleActual = camionCopia.getCombustibleActual();
-            this.velocidadPromedio = camionCopia.getVelocidadPromedio();
-            this.distanciaMaxima = camionCopia.calcularDistanciaMaxima();
-            this.tiempoParadaRestante = camionCopia.getTiempoParadaRestante();
-            setCoordenada(camionCopia.getCoordenada());
-            setBloqueado(camionCopia.isBloqueado());
-            setGScore(camionCopia.getGScore());
-            setFScore(camionCopia.getFScore());
-            setTipoNodo(camionCopia.getTipoNodo());
+            restaurarDesde(this.camionCopia);
         }
     }
 
+    /**
+     * Copia en este objeto los atributos de la copia indicada.
+     */
+    public void restaurarDesde(Camion copia) {
+        this.codigo = copia.getCodigo();
+        this.tipo = copia.getTipo();
+        this.capacidadMaximaGLP = copia.getCapacidadMaximaGLP();
+        this.capacidadActualGLP = copia.getCapacidadActualGLP();
+        this.tara = copia.getTara();
+        this.pesoCarga = copia.getPesoCarga();
+        this.pesoCombinado = copia.getPesoCombinado();
+        this.estado = copia.getEstado();
+        this.combustibleMaximo = copia.getCombustibleMaximo();
+        this.combustibleActual = copia.getCombustibleActual();
+        this.velocidadPromedio = copia.getVelocidadPromedio();
+        this.distanciaMaxima = copia.calcularDistanciaMaxima();
+        this.tiempoParadaRestante = copia.getTiempoParadaRestante();
+        setCoordenada(copia.getCoordenada());
+        setBloqueado(copia.isBloqueado());
+        setGScore(copia.getGScore());
+        setFScore(copia.getFScore());
+        setTipoNodo(copia.getTipoNodo());
+    }
+
 }
@@ -1,24 +1,41 @@
 package com.plg.entity;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
 
+import com.plg.utils.ContextoSimulacion;
 import com.plg.utils.Gen;
 import com.plg.utils.Individuo;
 import com.plg.utils.Parametros;
+import com.plg.utils.rutas.BuscadorRutasEnLote;
+import com.plg.utils.rutas.BusquedaAEstrella;
+import com.plg.utils.rutas.CamposDistanciaAlmacenes;
+import com.plg.utils.rutas.ComponentesConexas;
+import com.plg.utils.rutas.HeuristicaLandmarks;
+import com.plg.utils.rutas.IndiceRutasPorCelda;
+import com.plg.utils.rutas.ObservadorBloqueos;
+import com.plg.utils.rutas.ReplanificadorRutas;
+import com.plg.utils.rutas.ResultadoRuta;
+import com.plg.utils.rutas.TablaBloqueosAcumulados;
+import com.plg.utils.simulacion.BloqueosEnMapa;
+import com.plg.utils.simulacion.PedidosEnMapa;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
@@ -31,44 +48,132 @@ public class Mapa {
     private int columnas;
     private int filas;
 
-    private List<List<Nodo>> matriz;
+    // Modelo plano del mapa indexado por celda (fila * columnas + columna). Solo
+    // las celdas ocupadas por una entidad (pedido, almacén, camión) guardan un
+    // objeto; las celdas normales crean su nodo recién cuando se piden
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] tiposCelda;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BitSet celdasBloqueadas;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private int[] ocupantes;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Coordenada[] coordenadas;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<Nodo> entidades;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Deque<Integer> idsLibres;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Nodo[] nodosNormales;
 
-    private static Mapa instance;
+    public static final int SIN_OCUPANTE = -1;
+    private static final byte TIPO_NORMAL = (byte) TipoNodo.NORMAL.ordinal();
+    private static final TipoNodo[] TIPOS_NODO = TipoNodo.values();
 
+    // Arreglos de búsqueda de A*, reutilizados entre llamadas
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BusquedaAEstrella busquedaAEstrella;
+
+    // Valor usado en los arreglos de distancias para celdas a las que no se puede llegar
+    public static final int INALCANZABLE = -1;
+    // Máximo de orígenes cuyas distancias BFS se mantienen en memoria
+    private static final int MAX_CACHE_DISTANCIAS = 512;
+
+    // Cambia cada vez que alguna celda se bloquea o desbloquea
+    private long versionBloqueos;
+
+    // Distancias BFS por celda de origen, válidas para la versión de bloqueos actual
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Map<Integer, int[]> cacheDistancias = new HashMap<>();
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private long versionCacheDistancias;
+
+    // Estructuras de rutas que se actualizan con cada cambio de bloqueo
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final List<ObservadorBloqueos> observadoresBloqueos = new ArrayList<>();
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ComponentesConexas componentesConexas;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private CamposDistanciaAlmacenes camposDistanciaAlmacenes;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ReplanificadorRutas replanificadorRutas;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TablaBloqueosAcumulados tablaBloqueosAcumulados;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private HeuristicaLandmarks heuristicaLandmarks;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BuscadorRutasEnLote buscadorRutasEnLote;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private IndiceRutasPorCelda indiceRutasPorCelda;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BloqueosEnMapa bloqueosEnMapa;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private PedidosEnMapa pedidosEnMapa;
+
+    // Cada simulación tiene su propio mapa; se toma el del contexto del hilo actual
     public static Mapa getInstance() {
-        if (instance == null) {
-            initializeInstance();
-        }
-        return instance;
+        return ContextoSimulacion.actual().getMapa();
     }
 
     public static void initializeInstance() {
+        ContextoSimulacion.actual().reiniciarMapa();
+    }
+
+    public static Mapa crearMapaCiudad() {
         int columnas = 71;
         int filas = 51;
-        instance = new Mapa(columnas, filas);
+        return new Mapa(columnas, filas);
     }
 
     // Construye el mapa como un grafo
     public Mapa(int columnas, int filas) {
         this.columnas = columnas;
         this.filas = filas;
-        this.matriz = new ArrayList<>();
-        for (int i = 0; i < filas; i++) {
-            List<Nodo> fila = new ArrayList<>(columnas);
-            for (int j = 0; j < columnas; j++) {
-                Nodo nodo = Nodo.builder().coordenada(new Coordenada(i, j)).tipoNodo(TipoNodo.NORMAL).build();
-                fila.add(nodo);
-            }
-            this.matriz.add(fila);
+        int total = filas * columnas;
+        this.tiposCelda = new byte[total];
+        this.celdasBloqueadas = new BitSet(total);
+        this.ocupantes = new int[total];
+        this.coordenadas = new Coordenada[total];
+        this.entidades = new ArrayList<>();
+        this.idsLibres = new ArrayDeque<>();
+        this.nodosNormales = new Nodo[total];
+        for (int celda = 0; celda < total; celda++) {
+            coordenadas[celda] = new Coordenada(celda / columnas, celda % columnas);
         }
+        Arrays.fill(tiposCelda, TIPO_NORMAL);
+        Arrays.fill(ocupantes, SIN_OCUPANTE);
     }
 
     public void limpiarMapa() {
-        for (int i = 0; i < filas; i++) {
-            for (int j = 0; j < columnas; j++) {
-                Nodo nodo = Nodo.builder().coordenada(new Coordenada(i, j)).tipoNodo(TipoNodo.NORMAL).build();
-                this.matriz.get(i).set(j, nodo);
-            }
+        Arrays.fill(tiposCelda, TIPO_NORMAL);
+        Arrays.fill(ocupantes, SIN_OCUPANTE);
+        celdasBloqueadas.clear();
+        entidades.clear();
+        idsLibres.clear();
+        nodosNormales = new Nodo[filas * columnas];
+        versionBloqueos++;
+        for (ObservadorBloqueos observador : observadoresBloqueos) {
+            observador.mapaReiniciado();
         }
     }
 
@@ -185,98 +290,356 @@ public class Mapa {
     }
 
     public Nodo getNodo(int fila, int columna) {
-        return matriz.get(fila).get(columna);
+        int celda = indiceCelda(fila, columna);
+        int ocupante = ocupantes[celda];
+        return ocupante != SIN_OCUPANTE ? entidades.get(ocupante) : getNodoNormal(celda);
     }
 
+    /**
+     * Coloca un nodo en la celda. Un nodo normal solo actualiza el estado de la
+     * celda; cualquier otra entidad queda registrada como ocupante.
+     */
     public void setNodo(Coordenada coordenada, Nodo nodo) {
-        matriz.get(coordenada.getFila()).set(coordenada.getColumna(), nodo);
+        int celda = indiceCelda(coordenada);
+        boolean bloqueadaAntes = celdasBloqueadas.get(celda);
+        liberarOcupante(celda);
+        if (nodo.getClass() == Nodo.class && (nodo.getTipoNodo() == null || nodo.getTipoNodo() == TipoNodo.NORMAL)) {
+            tiposCelda[celda] = TIPO_NORMAL;
+            Nodo normal = nodosNormales[celda];
+            if (normal != null) {
+                normal.setBloqueado(nodo.isBloqueado());
+            }
+        } else {
+            Integer id = idsLibres.poll();
+            if (id == null) {
+                id = entidades.size();
+                entidades.add(nodo);
+            } else {
+                entidades.set(id, nodo);
+            }
+            ocupantes[celda] = id;
+            tiposCelda[celda] = (byte) (nodo.getTipoNodo() == null ? TipoNodo.NORMAL : nodo.getTipoNodo()).ordinal();
+        }
+        celdasBloqueadas.set(celda, nodo.isBloqueado());
+        if (bloqueadaAntes != nodo.isBloqueado()) {
+            notificarCambioBloqueo(celda, nodo.isBloqueado());
+        }
     }
 
-    public Nodo getNodo(Coordenada coordenada) {
-        return getNodo(coordenada.getFila(), coordenada.getColumna());
+    /**
+     * Entidad que ocupa la celda, o null si la celda es normal.
+     */
+    public Nodo getOcupante(int celda) {
+        int ocupante = ocupantes[celda];
+        return ocupante != SIN_OCUPANTE ? entidades.get(ocupante) : null;
     }
 
-    public List<Nodo> getAdj(Coordenada x) {
-        List<Nodo> adyacentes = new ArrayList<>();
-        int fila = x.getFila();
-        int columna = x.getColumna();
+    public TipoNodo getTipoCelda(int celda) {
+        return TIPOS_NODO[tiposCelda[celda]];
+    }
 
-        // Movimientos posibles: arriba, abajo, izquierda, derecha
-        if (fila > 0) {
-            adyacentes.add(getNodo(fila - 1, columna)); // Arriba
+    public Coordenada getCoordenada(int celda) {
+        return coordenadas[celda];
+    }
+
+    private void liberarOcupante(int celda) {
+        int ocupante = ocupantes[celda];
+        if (ocupante != SIN_OCUPANTE) {
+            entidades.set(ocupante, null);
+            idsLibres.push(ocupante);
+            ocupantes[celda] = SIN_OCUPANTE;
         }
-        if (fila < filas - 1) {
-            adyacentes.add(getNodo(fila + 1, columna)); // Abajo
+    }
+
+    /**
+     * Nodo interno de una celda normal, aunque la celda tenga un ocupante.
+     */
+    public Nodo getNodoNormal(int celda) {
+        Nodo nodo = nodosNormales[celda];
+        if (nodo == null) {
+            nodo = Nodo.builder().coordenada(coordenadas[celda]).tipoNodo(TipoNodo.NORMAL)
+                    .bloqueado(celdasBloqueadas.get(celda)).build();
+            nodosNormales[celda] = nodo;
         }
-        if (columna > 0) {
-            adyacentes.add(getNodo(fila, columna - 1)); // Izquierda
+        return nodo;
+    }
+
+    /**
+     * Bloquea o desbloquea la celda indicada. Todo cambio de bloqueo en el mapa
+     * debe pasar por aquí para que las estructuras de rutas se invaliden.
+     */
+    public void actualizarBloqueo(Coordenada coordenada, boolean bloqueado) {
+        int celda = indiceCelda(coordenada);
+        if (celdasBloqueadas.get(celda) != bloqueado) {
+            celdasBloqueadas.set(celda, bloqueado);
+            // El nodo colocado en la celda, si existe, refleja el mismo estado
+            int ocupante = ocupantes[celda];
+            Nodo nodo = ocupante != SIN_OCUPANTE ? entidades.get(ocupante) : nodosNormales[celda];
+            if (nodo != null) {
+                nodo.setBloqueado(bloqueado);
+            }
+            notificarCambioBloqueo(celda, bloqueado);
         }
-        if (columna < columnas - 1) {
-            adyacentes.add(getNodo(fila, columna + 1)); // Derecha
+    }
+
+    private void notificarCambioBloqueo(int celda, boolean bloqueado) {
+        versionBloqueos++;
+        for (ObservadorBloqueos observador : observadoresBloqueos) {
+            observador.celdaActualizada(celda, bloqueado);
         }
+    }
 
-        return adyacentes;
+    public void registrarObservadorBloqueos(ObservadorBloqueos observador) {
+        observadoresBloqueos.add(observador);
     }
 
-    // Cambiado a public para poder usarlo desde fuera
-    public double calcularHeuristica(Nodo a, Nodo b) {
-        return Math.abs(a.getCoordenada().getColumna() - b.getCoordenada().getColumna()) +
-                Math.abs(a.getCoordenada().getFila() - b.getCoordenada().getFila());
+    public boolean estaBloqueada(int celda) {
+        return celdasBloqueadas.get(celda);
     }
 
-    public List<Nodo> aStar(Nodo nodo1, Nodo nodo2) {
-        Nodo inicio = getNodo(nodo1.getCoordenada());
-        Nodo destino = getNodo(nodo2.getCoordenada());
-        PriorityQueue<Nodo> openSet = new PriorityQueue<>((a, b) -> Double.compare(a.getFScore(), b.getFScore()));
-        Map<Nodo, Nodo> cameFrom = new HashMap<>();
-        for (int i = 0; i < filas; i++) {
-            for (int j = 0; j < columnas; j++) {
-                Nodo nodo = getNodo(i, j);
-                nodo.setGScore(Double.POSITIVE_INFINITY);
-                nodo.setFScore(Double.POSITIVE_INFINITY);
-            }
+    /**
+     * Índice de componentes conexas de celdas libres, creado al primer uso y
+     * mantenido de forma incremental con los cambios de bloqueo.
+     */
+    public ComponentesConexas getComponentesConexas() {
+        if (componentesConexas == null) {
+            componentesConexas = new ComponentesConexas(this);
+            registrarObservadorBloqueos(componentesConexas);
         }
-        inicio.setGScore(0);
-        inicio.setFScore(calcularHeuristica(inicio, destino));
-        openSet.add(inicio);
-        while (!openSet.isEmpty()) {
-            Nodo nodoActual = openSet.poll();
-            if (nodoActual.equals(destino)) {
-                return reconstruirRuta(cameFrom, nodoActual);
-            }
-            for (Nodo vecino : getAdj(nodoActual.getCoordenada())) {
-                // Permitir llegar a un nodo bloqueado solo si es el destino
-                if (vecino.isBloqueado() && !vecino.equals(destino)) {
-                    continue;
-                }
-                double tentativeGScore = nodoActual.getGScore() + 1;
-                if (tentativeGScore < vecino.getGScore()) {
-                    cameFrom.put(vecino, nodoActual);
-                    vecino.setGScore(tentativeGScore);
-                    vecino.setFScore(tentativeGScore + calcularHeuristica(vecino, destino));
-                    if (!openSet.contains(vecino)) {
-                        openSet.add(vecino);
-                    }
-                }
-            }
+        return componentesConexas;
+    }
+
+    /**
+     * Campos de distancia hacia los almacenes, reparados de forma incremental con
+     * los cambios de bloqueo.
+     */
+    public CamposDistanciaAlmacenes getCamposDistanciaAlmacenes() {
+        if (camposDistanciaAlmacenes == null) {
+            camposDistanciaAlmacenes = new CamposDistanciaAlmacenes(this);
+            registrarObservadorBloqueos(camposDistanciaAlmacenes);
+        }
+        return camposDistanciaAlmacenes;
+    }
+
+    /**
+     * Replanificador D* Lite que repara las rutas de los camiones cortadas por
+     * bloqueos.
+     */
+    public ReplanificadorRutas getReplanificadorRutas() {
+        if (replanificadorRutas == null) {
+            replanificadorRutas = new ReplanificadorRutas(this);
+            registrarObservadorBloqueos(replanificadorRutas);
+        }
+        return replanificadorRutas;
+    }
+
+    /**
+     * Tabla de sumas acumuladas de celdas bloqueadas, recalculada solo cuando
+     * cambian los bloqueos.
+     */
+    public TablaBloqueosAcumulados getTablaBloqueosAcumulados() {
+        if (tablaBloqueosAcumulados == null) {
+            tablaBloqueosAcumulados = new TablaBloqueosAcumulados(this);
+            registrarObservadorBloqueos(tablaBloqueosAcumulados);
+        }
+        return tablaBloqueosAcumulados;
+    }
+
+    /**
+     * Heurística ALT de A*, con landmarks elegidos de nuevo para cada estado de
+     * bloqueos.
+     */
+    public HeuristicaLandmarks getHeuristicaLandmarks() {
+        if (heuristicaLandmarks == null) {
+            heuristicaLandmarks = new HeuristicaLandmarks(this, Parametros.cantidadLandmarks,
+                    Parametros.memoriaMaximaLandmarks);
+            registrarObservadorBloqueos(heuristicaLandmarks);
+        }
+        return heuristicaLandmarks;
+    }
+
+    public BuscadorRutasEnLote getBuscadorRutasEnLote() {
+        if (buscadorRutasEnLote == null) {
+            buscadorRutasEnLote = new BuscadorRutasEnLote(this);
+        }
+        return buscadorRutasEnLote;
+    }
+
+    /**
+     * Índice de celda a los pasos de las rutas planificadas de los camiones, para
+     * saber qué rutas afecta un bloqueo o una avería.
+     */
+    public IndiceRutasPorCelda getIndiceRutasPorCelda() {
+        if (indiceRutasPorCelda == null) {
+            indiceRutasPorCelda = new IndiceRutasPorCelda(this);
+            registrarObservadorBloqueos(indiceRutasPorCelda);
         }
+        return indiceRutasPorCelda;
+    }
 
-        System.out.println(
-                "⚠️ A*: No se encontró ruta entre " + inicio.getCoordenada() + " y " + destino.getCoordenada());
+    /**
+     * Celdas de los bloqueos vigentes, actualizadas solo con los cambios entre
+     * intervalos.
+     */
+    public BloqueosEnMapa getBloqueosEnMapa() {
+        if (bloqueosEnMapa == null) {
+            bloqueosEnMapa = new BloqueosEnMapa(this);
+            registrarObservadorBloqueos(bloqueosEnMapa);
+        }
+        return bloqueosEnMapa;
+    }
 
-        return Collections.singletonList(destino);
+    /**
+     * Celdas ocupadas por pedidos, actualizadas solo con los pedidos que entran o
+     * salen entre intervalos.
+     */
+    public PedidosEnMapa getPedidosEnMapa() {
+        if (pedidosEnMapa == null) {
+            pedidosEnMapa = new PedidosEnMapa(this);
+            registrarObservadorBloqueos(pedidosEnMapa);
+        }
+        return pedidosEnMapa;
     }
 
-    private List<Nodo> reconstruirRuta(Map<Nodo, Nodo> cameFrom, Nodo nodoActual) {
-        List<Nodo> ruta = new ArrayList<>();
-        while (nodoActual != null) {
-            ruta.add(nodoActual);
-            nodoActual = cameFrom.get(nodoActual);
+    /**
+     * Convierte una ruta de índices de celda en los nodos del mapa.
+     */
+    public List<Nodo> rutaDesdeCeldas(int[] celdas) {
+        List<Nodo> ruta = new ArrayList<>(celdas.length);
+        for (int celda : celdas) {
+            ruta.add(getNodo(celda / columnas, celda % columnas));
         }
-        Collections.reverse(ruta);
         return ruta;
     }
 
+    public int indiceCelda(int fila, int columna) {
+        return fila * columnas + columna;
+    }
+
+    public long claveTramo(Coordenada origen, Coordenada destino) {
+        return (long) indiceCelda(origen) * filas * columnas + indiceCelda(destino);
+    }
+
+    public int indiceCelda(Coordenada coordenada) {
+        return indiceCelda(coordenada.getFila(), coordenada.getColumna());
+    }
+
+    public Nodo getNodo(Coordenada coordenada) {
+        return getNodo(coordenada.getFila(), coordenada.getColumna());
+    }
+
+    /**
+     * Busca la ruta más corta entre dos nodos con A*. Si el destino está
+     * encerrado por bloqueos la consulta falla en O(1) gracias al índice de
+     * componentes conexas, sin explorar el mapa. Si uno de los corredores en L
+     * entre ambos está libre se devuelve la ruta de Manhattan sin búsqueda.
+     */
+    public ResultadoRuta buscarRuta(Nodo nodo1, Nodo nodo2) {
+        Coordenada origen = nodo1.getCoordenada();
+        Coordenada destino = nodo2.getCoordenada();
+        if (!getComponentesConexas().sonAlcanzables(indiceCelda(origen), indiceCelda(destino))) {
+            return ResultadoRuta.inalcanzable();
+        }
+        List<Nodo> rutaDirecta = getTablaBloqueosAcumulados().rutaDirecta(origen.getFila(), origen.getColumna(),
+                destino.getFila(), destino.getColumna());
+        if (rutaDirecta != null) {
+            return ResultadoRuta.encontrada(rutaDirecta);
+        }
+        List<Nodo> ruta = aStar(nodo1, nodo2);
+        return ruta == null ? ResultadoRuta.inalcanzable() : ResultadoRuta.encontrada(ruta);
+    }
+
+    private List<Nodo> aStar(Nodo nodo1, Nodo nodo2) {
+        if (busquedaAEstrella == null) {
+            busquedaAEstrella = new BusquedaAEstrella(filas, columnas);
+        }
+        HeuristicaLandmarks heuristica = getHeuristicaLandmarks();
+        int[] celdas = busquedaAEstrella.buscar(this::estaBloqueada, heuristica::heuristica,
+                indiceCelda(nodo1.getCoordenada()), indiceCelda(nodo2.getCoordenada()));
+        if (celdas == null) {
+            System.out.println(
+                    "⚠️ A*: No se encontró ruta entre " + nodo1.getCoordenada() + " y " + nodo2.getCoordenada());
+            return null;
+        }
+        return rutaDesdeCeldas(celdas);
+    }
+
+    /**
+     * Distancias exactas (en nodos recorridos) desde el origen hasta cada celda
+     * del mapa, respetando los bloqueos. Se indexa con {@link #indiceCelda}.
+     * Igual que en A*, una celda bloqueada se puede alcanzar como destino pero no
+     * se atraviesa. Las celdas inaccesibles valen {@link #INALCANZABLE}.
+     * El resultado se cachea por origen hasta que cambien los bloqueos, por lo
+     * que no debe modificarse.
+     */
+    public int[] distanciasDesde(Coordenada origen) {
+        if (versionCacheDistancias != versionBloqueos) {
+            cacheDistancias.clear();
+            versionCacheDistancias = versionBloqueos;
+        }
+        int inicio = indiceCelda(origen);
+        int[] distancias = cacheDistancias.get(inicio);
+        if (distancias == null) {
+            if (cacheDistancias.size() >= MAX_CACHE_DISTANCIAS) {
+                cacheDistancias.clear();
+            }
+            distancias = calcularDistanciasBfs(inicio);
+            cacheDistancias.put(inicio, distancias);
+        }
+        return distancias;
+    }
+
+    /**
+     * Distancia de ruta entre dos coordenadas respetando bloqueos, o
+     * {@code Double.POSITIVE_INFINITY} si el destino es inalcanzable.
+     */
+    public double distanciaRuta(Coordenada origen, Coordenada destino) {
+        int distancia = distanciasDesde(origen)[indiceCelda(destino)];
+        return distancia == INALCANZABLE ? Double.POSITIVE_INFINITY : distancia;
+    }
+
+    private int[] calcularDistanciasBfs(int inicio) {
+        int total = filas * columnas;
+        int[] distancias = new int[total];
+        Arrays.fill(distancias, INALCANZABLE);
+        int[] cola = new int[total];
+        int cabeza = 0;
+        int fin = 0;
+        distancias[inicio] = 0;
+        cola[fin++] = inicio;
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            int fila = actual / columnas;
+            int columna = actual % columnas;
+            int siguiente = distancias[actual] + 1;
+            if (fila > 0) {
+                fin = visitarCeldaBfs(actual - columnas, siguiente, distancias, cola, fin);
+            }
+            if (fila < filas - 1) {
+                fin = visitarCeldaBfs(actual + columnas, siguiente, distancias, cola, fin);
+            }
+            if (columna > 0) {
+                fin = visitarCeldaBfs(actual - 1, siguiente, distancias, cola, fin);
+            }
+            if (columna < columnas - 1) {
+                fin = visitarCeldaBfs(actual + 1, siguiente, distancias, cola, fin);
+            }
+        }
+        return distancias;
+    }
+
+    private int visitarCeldaBfs(int celda, int distancia, int[] distancias, int[] cola, int fin) {
+        if (distancias[celda] != INALCANZABLE) {
+            return fin;
+        }
+        distancias[celda] = distancia;
+        // Las celdas bloqueadas se registran como destino pero no se expanden
+        if (!estaBloqueada(celda)) {
+            cola[fin++] = celda;
+        }
+        return fin;
+    }
+
     public static double calcularDistancia(Coordenada coord1, Coordenada coord2) {
         return Math.abs(coord1.getColumna() - coord2.getColumna()) +
                 Math.abs(coord1.getFila() - coord2.getFila());
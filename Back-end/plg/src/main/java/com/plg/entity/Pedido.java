@@ -3,7 +3,9 @@ package com.plg.entity;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.plg.utils.TiempoSimulacion;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,6 +14,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @SuperBuilder
 public class Pedido extends Nodo {
 
+    private static final AtomicLong SECUENCIA_IDS = new AtomicLong();
+
+    // Identificador único: el código y la coordenada se repiten entre pedidos
+    private final long id = SECUENCIA_IDS.incrementAndGet();
     private String codigo;
     private double horasLimite; 
     private LocalDateTime fechaRegistro;
@@ -40,6 +46,23 @@ public class Pedido extends Nodo {
         );
     }
 
+    /**
+     * Fecha de registro en minutos de simulación.
+     */
+    @JsonIgnore
+    public long getMinutoRegistro() {
+        return TiempoSimulacion.aMinuto(fechaRegistro);
+    }
+
+    /**
+     * Fecha límite en minutos de simulación, o {@link TiempoSimulacion#SIN_FECHA}
+     * si el pedido no tiene límite.
+     */
+    @JsonIgnore
+    public long getMinutoLimite() {
+        return TiempoSimulacion.aMinuto(fechaLimite);
+    }
+
     @JsonIgnore
     public Pedido getClone() {
         return Pedido.builder()
@@ -66,20 +89,27 @@ public class Pedido extends Nodo {
     
     public void restaurarCopia() {
         if (this.pedidoCopia != null) {
-            this.setCoordenada(this.pedidoCopia.getCoordenada());
-            this.setBloqueado(this.pedidoCopia.isBloqueado());
-            this.setGScore(this.pedidoCopia.getGScore());
-            this.setFScore(this.pedidoCopia.getFScore());
-            this.setTipoNodo(this.pedidoCopia.getTipoNodo());
-            this.codigo = this.pedidoCopia.getCodigo();
-            this.horasLimite = this.pedidoCopia.getHorasLimite();
-            this.fechaRegistro = this.pedidoCopia.getFechaRegistro();
-            this.fechaLimite = this.pedidoCopia.getFechaLimite();
-            this.volumenGLPAsignado = this.pedidoCopia.getVolumenGLPAsignado();
-            this.volumenGLPEntregado = this.pedidoCopia.getVolumenGLPEntregado();
-            this.estado = this.pedidoCopia.getEstado();
-            this.fechaLimite = this.pedidoCopia.getFechaLimite();
+            restaurarDesde(this.pedidoCopia);
         }
     }
 
+    /**
+     * Copia en este objeto los atributos de la copia indicada.
+     */
+    public void restaurarDesde(Pedido copia) {
+        this.setCoordenada(copia.getCoordenada());
+        this.setBloqueado(copia.isBloqueado());
+        this.setGScore(copia.getGScore());
+        this.setFScore(copia.getFScore());
+        this.setTipoNodo(copia.getTipoNodo());
+        this.codigo = copia.getCodigo();
+        this.horasLimite = copia.getHorasLimite();
+        this.fechaRegistro = copia.getFechaRegistro();
+        this.fechaLimite = copia.getFechaLimite();
+        this.volumenGLPAsignado = copia.getVolumenGLPAsignado();
+        this.volumenGLPEntregado = copia.getVolumenGLPEntregado();
+        this.estado = copia.getEstado();
+        this.fechaLimite = copia.getFechaLimite();
+    }
+
 }
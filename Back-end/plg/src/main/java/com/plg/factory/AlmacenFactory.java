@@ -1,9 +1,7 @@
 package com.plg.factory;
 
-import com.plg.utils.Parametros;
+import com.plg.utils.ContextoSimulacion;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,25 +14,18 @@ import com.plg.entity.TipoNodo;
 
 public class AlmacenFactory {
 
-    private static final List<Almacen> almacenes = new ArrayList<>();
-    private static final Map<TipoAlmacen, Integer> contadorAlmacenes = new HashMap<>();
-
-    // Mapa que representa el entorno de entrega
-    private static Mapa mapa = Mapa.getInstance();
+    // Los almacenes fabricados y sus contadores son de la simulación del hilo actual
+    private static List<Almacen> almacenes() {
+        return ContextoSimulacion.actual().getAlmacenesFabricados();
+    }
 
-    static {
-        // Inicializamos el contador para cada tipo de almacén
-        for (TipoAlmacen tipo : TipoAlmacen.values()) {
-            contadorAlmacenes.put(tipo, 0);
-        }
+    private static Map<TipoAlmacen, Integer> contadorAlmacenes() {
+        return ContextoSimulacion.actual().getContadorAlmacenes();
     }
 
     public static void limpiarFactory() {
-        almacenes.clear();
-        contadorAlmacenes.clear();
-        for (TipoAlmacen tipo : TipoAlmacen.values()) {
-            contadorAlmacenes.put(tipo, 0);
-        }
+        almacenes().clear();
+        contadorAlmacenes().clear();
     }
 
     /**
@@ -54,8 +45,7 @@ public class AlmacenFactory {
         ) {
 
         // Actualizamos el contador y generamos un nombre único
-        int numeroAlmacen = contadorAlmacenes.get(tipoAlmacen) + 1;
-        contadorAlmacenes.put(tipoAlmacen, numeroAlmacen);
+        int numeroAlmacen = contadorAlmacenes().merge(tipoAlmacen, 1, Integer::sum);
         String nombre = (tipoAlmacen == TipoAlmacen.CENTRAL ? "Almacén Central " : "Almacén Secundario ") + numeroAlmacen;
 
         boolean esCentral = tipoAlmacen == TipoAlmacen.CENTRAL;
@@ -79,8 +69,9 @@ public class AlmacenFactory {
                 .activo(true)
                 .build();
 
-        mapa.setNodo(coordenada, almacen);
-        almacenes.add(almacen);
+        // El almacén se coloca en el mapa de la simulación del hilo actual
+        Mapa.getInstance().setNodo(coordenada, almacen);
+        almacenes().add(almacen);
         return almacen;
     }
 
@@ -91,6 +82,6 @@ public class AlmacenFactory {
      * @return número de almacenes creados de ese tipo
      */
     public static int getCantidadAlmacenesPorTipo(TipoAlmacen tipoAlmacen) {
-        return contadorAlmacenes.getOrDefault(tipoAlmacen, 0);
+        return contadorAlmacenes().getOrDefault(tipoAlmacen, 0);
     }
 }
@@ -1,7 +1,5 @@
 package com.plg.factory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +8,7 @@ import com.plg.entity.Coordenada;
 import com.plg.entity.EstadoCamion;
 import com.plg.entity.TipoCamion;
 import com.plg.entity.TipoNodo;
+import com.plg.utils.ContextoSimulacion;
 import com.plg.utils.Parametros;
 
 /**
@@ -17,22 +16,18 @@ import com.plg.utils.Parametros;
  */
 public class CamionFactory {
 
-    private static final List<Camion> camiones = new ArrayList<>();
-    private static final Map<TipoCamion, Integer> contadorCamiones = new HashMap<>();
+    // Los camiones fabricados y sus contadores son de la simulación del hilo actual
+    private static List<Camion> camiones() {
+        return ContextoSimulacion.actual().getCamionesFabricados();
+    }
 
-    static {
-        // Inicializamos el contador para cada tipo de camión
-        for (TipoCamion tipo : TipoCamion.values()) {
-            contadorCamiones.put(tipo, 0);
-        }
+    private static Map<TipoCamion, Integer> contadorCamiones() {
+        return ContextoSimulacion.actual().getContadorCamiones();
     }
 
     public static void limpiarFactory() {
-        camiones.clear();
-        contadorCamiones.clear();
-        for (TipoCamion tipo : TipoCamion.values()) {
-            contadorCamiones.put(tipo, 0);
-        }
+        camiones().clear();
+        contadorCamiones().clear();
     }
 
     /**
@@ -66,7 +61,7 @@ public class CamionFactory {
                 .pesoCombinado(tara + pesoCarga)
                 .combustibleActual(combustibleInicial)
                 .combustibleMaximo(25)
-                .velocidadPromedio(Parametros.velocidadCamion)
+                .velocidadPromedio(Parametros.getVelocidadCamion())
                 .estado(EstadoCamion.DISPONIBLE)
                 .coordenada(coordenada)
                 .bloqueado(false)
@@ -103,7 +98,7 @@ public class CamionFactory {
                 .pesoCarga(pesoCarga)
                 .pesoCombinado(tara + pesoCarga)
                 .combustibleActual(0)
-                .velocidadPromedio(Parametros.velocidadCamion)
+                .velocidadPromedio(Parametros.getVelocidadCamion())
                 .estado(EstadoCamion.INMOVILIZADO_POR_AVERIA)
                 .coordenada(coordenada)
                 .bloqueado(false)
@@ -132,14 +127,13 @@ public class CamionFactory {
         }
 
         // Actualizamos el contador y generamos el código único
-        int numeroCamion = contadorCamiones.get(tipo) + 1;
-        contadorCamiones.put(tipo, numeroCamion);
+        int numeroCamion = contadorCamiones().merge(tipo, 1, Integer::sum);
         String codigo = tipo.name() + String.format("%02d", numeroCamion);
 
         if (operativo) {
             Camion camion = crearCamionOperativo(codigo, tipo, capacidadGLP, tara, coordenada, 25.0, pesoCarga);
             camion.calcularDistanciaMaxima(); // Calculamos la distancia máxima
-            camiones.add(camion);
+            camiones().add(camion);
             return camion;
         } else {
             return crearCamionAveriado(codigo, tipo, capacidadGLP, tara, coordenada, pesoCarga);
@@ -153,7 +147,7 @@ public class CamionFactory {
      * @return número de camiones creados de ese tipo
      */
     public static int getCantidadCamionesPorTipo(TipoCamion tipo) {
-        return contadorCamiones.getOrDefault(tipo, 0);
+        return contadorCamiones().getOrDefault(tipo, 0);
     }
 
 
@@ -165,7 +159,7 @@ public class CamionFactory {
      * @return Camion correspondiente al código, o null si no se encuentra
      */
     public static Camion getCamionPorCodigo(String codigo) {
-        return camiones.stream()
+        return camiones().stream()
                 .filter(c -> c.getCodigo().equals(codigo))
                 .findFirst()
                 .orElse(null);
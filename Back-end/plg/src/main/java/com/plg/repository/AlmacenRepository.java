@@ -17,14 +17,14 @@ public class AlmacenRepository {
      * Devuelve todos los almacenes disponibles.
      */
     public List<Almacen> findAll() {
-        return Parametros.dataLoader.almacenes;
+        return Parametros.getDataLoader().almacenes;
     }
 
     /**
      * Almacena un nuevo almacén en memoria.
      */
     public Almacen save(Almacen almacen) {
-        Parametros.dataLoader.almacenes.add(almacen);
+        Parametros.getDataLoader().almacenes.add(almacen);
         return almacen;
     }
 }
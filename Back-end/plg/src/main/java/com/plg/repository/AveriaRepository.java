@@ -1,6 +1,6 @@
 package com.plg.repository;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,7 +22,7 @@ public class AveriaRepository {
      * @return Lista de todas las averías
      */
     public List<Averia> findAll() {
-        return Parametros.dataLoader.averias;
+        return Parametros.getDataLoader().averias;
     }
 
  
@@ -32,7 +32,7 @@ public class AveriaRepository {
      * @return Lista de averías activas
      */
     public List<Averia> findAllActive() {
-        return Parametros.dataLoader.averias.stream()
+        return Parametros.getDataLoader().averias.stream()
                 .filter(a -> a.getEstado() != null && a.getEstado())
                 .collect(Collectors.toList());
     }
@@ -44,9 +44,20 @@ public class AveriaRepository {
      * @return Lista de averías del camión
      */
     public List<Averia> findByCamion(Camion camion) {
-        return Parametros.dataLoader.averias.stream()
-                .filter(a -> a.getCamion() != null && a.getCamion().equals(camion))
-                .collect(Collectors.toList());
+        if (camion == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Parametros.getDataLoader().getIndiceAverias().delCamion(camion.getCodigo()));
+    }
+
+    /**
+     * Obtiene las averías activas de un camión.
+     *
+     * @param codigoCamion código del camión
+     * @return Lista de averías activas del camión
+     */
+    public List<Averia> findActivasByCodigoCamion(String codigoCamion) {
+        return Parametros.getDataLoader().getIndiceAverias().activasDelCamion(codigoCamion);
     }
 
     /**
@@ -56,7 +67,7 @@ public class AveriaRepository {
      * @return la avería guardada
      */
     public Averia save(Averia averia) {
-        Parametros.dataLoader.averias.add(averia);
+        Parametros.getDataLoader().averias.add(averia);
         return averia;
     }
 
@@ -66,11 +77,7 @@ public class AveriaRepository {
      * @return Lista de códigos de camiones averiados (sin duplicados)
      */
     public List<String> findCodigosCamionesAveriados() {
-        return Parametros.dataLoader.averias.stream()
-                .filter(a -> a.getEstado() != null && a.getEstado() && a.getCamion() != null)
-                .map(a -> a.getCamion().getCodigo())
-                .distinct()
-                .collect(Collectors.toList());
+        return Parametros.getDataLoader().getIndiceAverias().codigosConAveriaActiva();
     }
 
     /**
@@ -81,10 +88,8 @@ public class AveriaRepository {
      * @return Lista de averías filtradas
      */
     public List<Averia> findByCamionAndTipo(String codigoCamion, String tipoIncidente) {
-        return Parametros.dataLoader.averias.stream()
-                .filter(a -> a.getCamion() != null
-                && a.getCamion().getCodigo().equals(codigoCamion)
-                && a.getTipoIncidente() != null
+        return Parametros.getDataLoader().getIndiceAverias().delCamion(codigoCamion).stream()
+                .filter(a -> a.getTipoIncidente() != null
                 && a.getTipoIncidente().getCodigo().equals(tipoIncidente))
                 .collect(Collectors.toList());
     }
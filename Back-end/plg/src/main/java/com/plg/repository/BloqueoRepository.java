@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Repository;
 
 import com.plg.utils.Parametros;
+import com.plg.utils.TiempoSimulacion;
 import com.plg.entity.Bloqueo;
 
 /**
@@ -21,7 +22,7 @@ public class BloqueoRepository {
      * @return Lista de todos los bloqueos
      */
     public List<Bloqueo> findAll() {
-        return Parametros.dataLoader.bloqueos;
+        return Parametros.getDataLoader().bloqueos;
     }
 
     /**
@@ -32,15 +33,9 @@ public class BloqueoRepository {
      * @return lista de bloqueos en el rango
      */
     public List<Bloqueo> findAllBetween(LocalDateTime inicio, LocalDateTime fin) {
-        return Parametros.dataLoader.bloqueos.stream()
-                .filter(b -> {
-                    LocalDateTime fechaInicio = b.getFechaInicio();
-                    LocalDateTime fechaFin = b.getFechaFin();
-                    // El bloqueo está activo si se superpone con el rango solicitado
-                    return (fechaInicio.isBefore(fin) || fechaInicio.isEqual(fin))
-                            && (fechaFin.isAfter(inicio) || fechaFin.isEqual(inicio));
-                })
-                .collect(Collectors.toList());
+        // El bloqueo está activo si se superpone con el rango solicitado
+        return Parametros.getDataLoader().getIndiceBloqueos()
+                .superpuestos(TiempoSimulacion.aMinuto(inicio), TiempoSimulacion.aMinuto(fin));
     }
 
     /**
@@ -49,7 +44,7 @@ public class BloqueoRepository {
      * @return Lista de bloqueos activos
      */
     public List<Bloqueo> findAllActive() {
-        return Parametros.dataLoader.bloqueos.stream()
+        return Parametros.getDataLoader().bloqueos.stream()
                 .filter(Bloqueo::getActivo)
                 .collect(Collectors.toList());
     }
@@ -61,7 +56,7 @@ public class BloqueoRepository {
      * @return el bloqueo guardado
      */
     public Bloqueo save(Bloqueo bloqueo) {
-        Parametros.dataLoader.bloqueos.add(bloqueo);
+        Parametros.getDataLoader().bloqueos.add(bloqueo);
         return bloqueo;
     }
 }
@@ -19,51 +19,57 @@ public class CamionRepository {
      * Obtiene la lista completa de camiones.
      */
     public List<Camion> findAll() {
-        return Parametros.dataLoader.camiones;
+        return Parametros.getDataLoader().camiones;
     }
 
     /**
      * Guarda un nuevo camión en memoria.
      */
     public Camion save(Camion camion) {
-        Parametros.dataLoader.camiones.add(camion);
+        Parametros.getDataLoader().camiones.add(camion);
         return camion;
     }
 
+    /**
+     * Busca un camión por su código.
+     *
+     * @return el camión, o null si no existe
+     */
+    public Camion findByCodigo(String codigo) {
+        return Parametros.getDataLoader().getIndiceCamiones().camion(codigo);
+    }
+
     /**
      * Actualiza los datos principales de un camión existente.
      */
     public Camion update(Camion camion) {
-        // Busca el camión por código y reemplaza los datos principales
-        for (int i = 0; i < Parametros.dataLoader.camiones.size(); i++) {
-            if (Parametros.dataLoader.camiones.get(i).getCodigo().equals(camion.getCodigo())) {
-                Parametros.dataLoader.camiones.set(i, camion);
-                return camion;
-            }
+        // Reemplaza el camión en su misma posición; el índice sigue siendo válido
+        int posicion = Parametros.getDataLoader().getIndiceCamiones().posicion(camion.getCodigo());
+        if (posicion == -1) {
+            throw new RuntimeException("Camión no encontrado: " + camion.getCodigo());
         }
-        throw new RuntimeException("Camión no encontrado: " + camion.getCodigo());
+        Parametros.getDataLoader().camiones.set(posicion, camion);
+        return camion;
     }
 
     /* Actulizar estado de un camion */
     public Camion updateEstado(Camion camion) {
-        for (int i = 0; i < Parametros.dataLoader.camiones.size(); i++) {
-            if (Parametros.dataLoader.camiones.get(i).getCodigo().equals(camion.getCodigo())) {
-                Parametros.dataLoader.camiones.get(i).setEstado(camion.getEstado());
-                return Parametros.dataLoader.camiones.get(i);
-            }
+        Camion existente = findByCodigo(camion.getCodigo());
+        if (existente == null) {
+            return camion;
         }
-        return camion;
+        existente.setEstado(camion.getEstado());
+        return existente;
     }
 
     // Actualizar coordenada de un camion
     public Camion updateCoordenada(Camion camion) {
-        for (int i = 0; i < Parametros.dataLoader.camiones.size(); i++) {
-            if (Parametros.dataLoader.camiones.get(i).getCodigo().equals(camion.getCodigo())) {
-                Parametros.dataLoader.camiones.get(i).setCoordenada(camion.getCoordenada());
-                return Parametros.dataLoader.camiones.get(i);
-            }
+        Camion existente = findByCodigo(camion.getCodigo());
+        if (existente == null) {
+            return camion;
         }
-        return camion;
+        existente.setCoordenada(camion.getCoordenada());
+        return existente;
     }
 
     /**
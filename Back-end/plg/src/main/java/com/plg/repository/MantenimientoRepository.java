@@ -21,7 +21,7 @@ public class MantenimientoRepository {
      * @return Lista de todos los mantenimientos
      */
     public List<Mantenimiento> findAll() {
-        return Parametros.dataLoader.mantenimientos;
+        return Parametros.getDataLoader().mantenimientos;
     }
 
     /**
@@ -31,7 +31,7 @@ public class MantenimientoRepository {
      * @return Lista de mantenimientos del mes
      */
     public List<Mantenimiento> findByMes(int mes) {
-        return Parametros.dataLoader.mantenimientos.stream()
+        return Parametros.getDataLoader().mantenimientos.stream()
                 .filter(m -> m.getMes() == mes)
                 .collect(Collectors.toList());
     }
@@ -44,7 +44,7 @@ public class MantenimientoRepository {
      * @return Lista de mantenimientos en esa fecha
      */
     public List<Mantenimiento> findByDiaAndMes(int dia, int mes) {
-        return Parametros.dataLoader.mantenimientos.stream()
+        return Parametros.getDataLoader().mantenimientos.stream()
                 .filter(m -> m.getDia() == dia && m.getMes() == mes)
                 .collect(Collectors.toList());
     }
@@ -63,9 +63,9 @@ public class MantenimientoRepository {
             }
 
             System.out.println("DEBUG: Buscando mantenimientos para camión: " + camion.getCodigo());
-            System.out.println("DEBUG: Total mantenimientos en memoria: " + Parametros.dataLoader.mantenimientos.size());
+            System.out.println("DEBUG: Total mantenimientos en memoria: " + Parametros.getDataLoader().mantenimientos.size());
 
-            List<Mantenimiento> resultado = Parametros.dataLoader.mantenimientos.stream()
+            List<Mantenimiento> resultado = Parametros.getDataLoader().mantenimientos.stream()
                     .filter(m -> {
                         if (m == null) {
                             System.out.println("WARNING: Mantenimiento null encontrado");
@@ -103,7 +103,7 @@ public class MantenimientoRepository {
      * @return el mantenimiento guardado
      */
     public Mantenimiento save(Mantenimiento mantenimiento) {
-        Parametros.dataLoader.mantenimientos.add(mantenimiento);
+        Parametros.getDataLoader().mantenimientos.add(mantenimiento);
         return mantenimiento;
     }
 }
@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Repository;
 
 import com.plg.utils.Parametros;
+import com.plg.utils.Simulacion;
 import com.plg.entity.Pedido;
 
 /**
@@ -19,7 +20,7 @@ public class PedidoRepository {
      * Obtiene todos los pedidos almacenados.
      */
     public List<Pedido> findAll() {
-        return Parametros.dataLoader.pedidos;
+        return Parametros.getDataLoader().pedidos;
     }
 
     /**
@@ -30,7 +31,7 @@ public class PedidoRepository {
      * @return lista de pedidos en el rango
      */
     public List<Pedido> findAllBetween(LocalDateTime inicio, LocalDateTime fin) {
-        return Parametros.dataLoader.pedidos.stream()
+        return Parametros.getDataLoader().pedidos.stream()
                 .filter(p -> {
                     LocalDateTime fecha = p.getFechaRegistro();
                     return (fecha.isEqual(inicio) || fecha.isAfter(inicio))
@@ -43,7 +44,7 @@ public class PedidoRepository {
      * Guarda un nuevo pedido en memoria.
      */
     public Pedido save(Pedido pedido) {
-        Parametros.dataLoader.pedidos.add(pedido);
+        Parametros.getDataLoader().pedidos.add(pedido);
         return pedido;
     }
 
@@ -51,9 +52,10 @@ public class PedidoRepository {
      * Actualiza el estado de un pedido existente.
      */
     public Pedido update(Pedido pedido) {
-        for (int i = 0; i < Parametros.dataLoader.pedidos.size(); i++) {
-            if (Parametros.dataLoader.pedidos.get(i).getCodigo().equals(pedido.getCodigo())) {
-                Parametros.dataLoader.pedidos.set(i, pedido);
+        for (int i = 0; i < Parametros.getDataLoader().pedidos.size(); i++) {
+            if (Parametros.getDataLoader().pedidos.get(i).getCodigo().equals(pedido.getCodigo())) {
+                Parametros.getDataLoader().pedidos.set(i, pedido);
+                Simulacion.invalidarIndicePedidos();
                 return pedido;
             }
         }
@@ -64,6 +66,6 @@ public class PedidoRepository {
      * Elimina todos los pedidos almacenados.
      */
     public void deleteAll() {
-        Parametros.dataLoader.pedidos.clear();
+        Parametros.getDataLoader().pedidos.clear();
     }
 }
@@ -45,8 +45,8 @@ public class ArchivosService {
             int mes = extraerMes(request.getNombre());
 
             // Actualizar parámetros globales
-            Parametros.anho = String.valueOf(año);
-            Parametros.mes = String.format("%02d", mes);
+            Parametros.setAnho(String.valueOf(año));
+            Parametros.setMes(String.format("%02d", mes));
 
             // Procesar cada línea del contenido
             List<Pedido> pedidosAgregados = new ArrayList<>();
@@ -63,7 +63,7 @@ public class ArchivosService {
                         pedidosAgregados.add(pedidoGuardado);
 
                         // Agregar al DataLoader de parámetros
-                        Parametros.dataLoader.pedidos.add(pedidoGuardado);
+                        Parametros.getDataLoader().pedidos.add(pedidoGuardado);
 
                     } catch (InvalidDataFormatException e) {
                         System.err.println("Error procesando línea: " + linea + " - " + e.getMessage());
@@ -150,8 +150,8 @@ public class ArchivosService {
             int mes = extraerMes(request.getNombre());
 
             // Actualizar parámetros globales
-            Parametros.anho = String.valueOf(año);
-            Parametros.mes = String.format("%02d", mes);
+            Parametros.setAnho(String.valueOf(año));
+            Parametros.setMes(String.format("%02d", mes));
 
             // Procesar cada dato de ventas
             List<Pedido> pedidosAgregados = new ArrayList<>();
@@ -176,7 +176,7 @@ public class ArchivosService {
                     pedidosAgregados.add(pedidoGuardado);
 
                     // Agregar al DataLoader de parámetros
-                    Parametros.dataLoader.pedidos.add(pedidoGuardado);
+                    Parametros.getDataLoader().pedidos.add(pedidoGuardado);
 
                 } catch (Exception e) {
                     System.err.println("Error procesando datos de ventas: " + datosVentas + " - " + e.getMessage());
@@ -2,6 +2,7 @@ package com.plg.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.springframework.stereotype.Service;
@@ -12,13 +13,17 @@ import com.plg.entity.Camion;
 import com.plg.entity.Coordenada;
 import com.plg.entity.EstadoCamion;
 import com.plg.entity.EstadoPedido;
+import com.plg.entity.Mapa;
 import com.plg.entity.Nodo;
 import com.plg.entity.Pedido;
 import com.plg.entity.TipoAlmacen;
 import com.plg.entity.TipoNodo;
 import com.plg.entity.TipoIncidente;
 import com.plg.repository.AveriaRepository;
+import com.plg.utils.ContextoSimulacion;
 import com.plg.utils.ExcepcionesPerzonalizadas.InvalidInputException;
+import com.plg.utils.Parametros;
+import com.plg.utils.TiempoSimulacion;
 
 /**
  * Servicio para operaciones sobre averías.
@@ -88,6 +93,8 @@ public class AveriaService {
         if (request.getTipoIncidente() == null) {
             throw new InvalidInputException("El tipo de incidente es obligatorio");
         }
+        // Los intervalos calculados por adelantado no contemplan esta avería
+        ContextoSimulacion.actual().getProductor().invalidar();
         try {
             // Crear la avería solo con los campos requeridos
             Averia averia = request.toAveria();
@@ -245,7 +252,7 @@ public class AveriaService {
      */
     private Coordenada obtenerCoordenadaAlmacenCentral() {
         // Buscar en los almacenes el de tipo CENTRAL
-        return com.plg.utils.Parametros.dataLoader.almacenes.stream()
+        return com.plg.utils.Parametros.getDataLoader().almacenes.stream()
                 .filter(almacen -> almacen.getTipo() == TipoAlmacen.CENTRAL)
                 .map(almacen -> almacen.getCoordenada())
                 .findFirst()
@@ -258,10 +265,7 @@ public class AveriaService {
      */
     private boolean esCamionEnLugarAveria(String codigoCamion) {
         try {
-            Camion camion = camionService.listar().stream()
-                    .filter(c -> c.getCodigo().equals(codigoCamion))
-                    .findFirst()
-                    .orElse(null);
+            Camion camion = Parametros.getDataLoader().getIndiceCamiones().camion(codigoCamion);
 
             return camion != null
                     && camion.getEstado() == EstadoCamion.INMOVILIZADO_POR_AVERIA;
@@ -279,10 +283,24 @@ public class AveriaService {
      *         segundos)
      */
     private boolean esFechaAnteriorSinSegundos(LocalDateTime fecha1, LocalDateTime fecha2) {
-        // Truncar a minutos para ignorar segundos
-        LocalDateTime fecha1Truncada = fecha1.withSecond(0).withNano(0);
-        LocalDateTime fecha2Truncada = fecha2.withSecond(0).withNano(0);
+        // Comparar en minutos para ignorar segundos
+        return TiempoSimulacion.aMinuto(fecha1) <= TiempoSimulacion.aMinuto(fecha2);
+    }
 
-        return fecha1Truncada.isBefore(fecha2Truncada) || fecha1Truncada.isEqual(fecha2Truncada);
+    /**
+     * Camiones cuya ruta planificada pasa por la posición del camión averiado
+     * después del reporte de la avería, incluido el propio camión averiado.
+     *
+     * @param averia la avería a evaluar
+     * @return Código de cada camión afectado con el primer paso de su ruta que
+     *         pasa por esa posición
+     */
+    public Map<String, Integer> camionesAfectados(Averia averia) {
+        if (averia.getCoordenada() == null || averia.getFechaHoraReporte() == null) {
+            return Map.of();
+        }
+        Mapa mapa = Mapa.getInstance();
+        return mapa.getIndiceRutasPorCelda().camionesQueCruzan(
+                List.of(mapa.indiceCelda(averia.getCoordenada())), averia.getFechaHoraReporte(), null);
     }
 }
@@ -165,7 +165,7 @@ public class BloqueoService {
      * @param bloqueo el bloqueo a activar
      */
     public void activarBloqueo(Bloqueo bloqueo) {
-        bloqueo.activarBloqueo();
+        Mapa.getInstance().getBloqueosEnMapa().activar(bloqueo);
     }
 
     /**
@@ -174,6 +174,22 @@ public class BloqueoService {
      * @param bloqueo el bloqueo a desactivar
      */
     public void desactivarBloqueo(Bloqueo bloqueo) {
-        bloqueo.desactivarBloqueo();
+        Mapa.getInstance().getBloqueosEnMapa().desactivar(bloqueo);
+    }
+
+    /**
+     * Camiones cuya ruta planificada cruza el bloqueo mientras está vigente.
+     *
+     * @param bloqueo el bloqueo a evaluar
+     * @return Código de cada camión afectado con el primer paso de su ruta que
+     *         pasa por el bloqueo
+     */
+    public Map<String, Integer> camionesAfectados(Bloqueo bloqueo) {
+        Mapa mapa = Mapa.getInstance();
+        List<Integer> celdas = bloqueo.getNodosBloqueados().stream()
+                .map(nodo -> mapa.indiceCelda(nodo.getCoordenada()))
+                .collect(Collectors.toList());
+        return mapa.getIndiceRutasPorCelda().camionesQueCruzan(celdas, bloqueo.getFechaInicio(),
+                bloqueo.getFechaFin());
     }
 }
@@ -100,10 +100,7 @@ public class CamionService {
      * @return El camión actualizado
      */
     public Camion cambiarEstado(String codigoCamion, EstadoCamion nuevoEstado) {
-        Camion camion = camionRepository.findAll().stream()
-                .filter(c -> c.getCodigo().equals(codigoCamion))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Camión no encontrado: " + codigoCamion));
+        Camion camion = buscarPorCodigo(codigoCamion);
         camion.setEstado(nuevoEstado);
         camionRepository.updateEstado(camion);
         return camion;
@@ -117,10 +114,7 @@ public class CamionService {
      * @return El camión actualizado
      */
     public Camion cambiarCoordenada(String codigoCamion, Coordenada nuevaCoordenada) {
-        Camion camion = camionRepository.findAll().stream()
-                .filter(c -> c.getCodigo().equals(codigoCamion))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Camión no encontrado: " + codigoCamion));
+        Camion camion = buscarPorCodigo(codigoCamion);
         camion.setCoordenada(nuevaCoordenada);
         camionRepository.updateCoordenada(camion);
         return camion;
@@ -133,10 +127,7 @@ public class CamionService {
      * @return El camión actualizado
      */
     public Camion actualizarDatosPrincipales(com.plg.dto.request.CamionEstadoUpdateRequest request) {
-        Camion camion = camionRepository.findAll().stream()
-                .filter(c -> c.getCodigo().equals(request.getCodigo()))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Camión no encontrado: " + request.getCodigo()));
+        Camion camion = buscarPorCodigo(request.getCodigo());
         if (request.getCoordenada() != null) {
             camion.setCoordenada(request.getCoordenada());
         }
@@ -224,4 +215,12 @@ public class CamionService {
 
         return resultado;
     }
+
+    private Camion buscarPorCodigo(String codigoCamion) {
+        Camion camion = camionRepository.findByCodigo(codigoCamion);
+        if (camion == null) {
+            throw new RuntimeException("Camión no encontrado: " + codigoCamion);
+        }
+        return camion;
+    }
 }
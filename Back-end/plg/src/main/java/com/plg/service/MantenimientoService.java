@@ -14,6 +14,8 @@ import com.plg.entity.Mantenimiento;
 import com.plg.factory.CamionFactory;
 import com.plg.repository.MantenimientoRepository;
 import com.plg.utils.ExcepcionesPerzonalizadas.InvalidInputException;
+import com.plg.utils.Parametros;
+import com.plg.utils.simulacion.CalendarioMantenimientos;
 
 /**
  * Servicio para operaciones sobre mantenimientos.
@@ -194,55 +196,9 @@ public class MantenimientoService {
                 return false;
             }
 
-            System.out.println("DEBUG: Verificando mantenimiento para camión: " + camion.getCodigo()
-                    + " en fecha: " + dia + "/" + mes);
-
-            // Obtener el primer mantenimiento del camión (mantenimiento base)
-            List<Mantenimiento> mantenimientosCamion = mantenimientoRepository.findByCamion(camion);
-
-            System.out.println("DEBUG: Mantenimientos encontrados para " + camion.getCodigo() + ": " + mantenimientosCamion.size());
-
-            if (mantenimientosCamion.isEmpty()) {
-                System.out.println("DEBUG: No hay mantenimientos para el camión " + camion.getCodigo());
-                return false;
-            }
-
-            // Encontrar el mantenimiento con el mes más bajo (el primero registrado)
-            Mantenimiento primerMantenimiento = mantenimientosCamion.stream()
-                    .filter(m -> m != null) // Filtrar mantenimientos null
-                    .min((m1, m2) -> Integer.compare(m1.getMes(), m2.getMes()))
-                    .orElse(null);
-
-            if (primerMantenimiento == null) {
-                System.out.println("DEBUG: No se encontró primer mantenimiento válido para " + camion.getCodigo());
-                return false;
-            }
-
-            System.out.println("DEBUG: Primer mantenimiento - Día: " + primerMantenimiento.getDia()
-                    + ", Mes: " + primerMantenimiento.getMes());
-
-            // Verificar si el día coincide con el día del mantenimiento
-            if (primerMantenimiento.getDia() != dia) {
-                System.out.println("DEBUG: Día no coincide. Esperado: " + primerMantenimiento.getDia()
-                        + ", Recibido: " + dia);
-                return false;
-            }
-
-            // Calcular si el mes actual está en el ciclo de mantenimiento (cada 2 meses)
-            int mesInicial = primerMantenimiento.getMes();
-            //aca debe ser valor absoluto
-            int diferenciaMeses = Math.abs(mes - mesInicial);
-
-            System.out.println("DEBUG: Mes inicial: " + mesInicial
-                    + ", Mes consultado: " + mes
-                    + ", Diferencia: " + diferenciaMeses);
-
-            // El mantenimiento ocurre cada 2 meses: mesInicial, mesInicial+2, mesInicial+4, etc.
-            boolean resultado = diferenciaMeses >= 0 && diferenciaMeses % 2 == 0;
-
-            System.out.println("DEBUG: Resultado final: " + resultado);
-
-            return resultado;
+            // El ciclo bimestral (mesInicial, mesInicial+2, ...) a partir del primer
+            // mantenimiento del camión está precalculado en el calendario
+            return calendario().tieneMantenimientoProgramado(camion.getCodigo(), dia, mes);
 
         } catch (Exception e) {
             System.out.println("ERROR en tieneMantenimientoProgramado: " + e.getMessage());
@@ -261,9 +217,7 @@ public class MantenimientoService {
      * @return true si tiene mantenimiento programado, false en caso contrario
      */
     public boolean tieneMantenimientoProgramadoDirecto(Camion camion, int dia, int mes) {
-        return mantenimientoRepository.findByDiaAndMes(dia, mes)
-                .stream()
-                .anyMatch(m -> m.getCamion() != null && m.getCamion().equals(camion));
+        return camion != null && calendario().tieneMantenimientoRegistrado(camion.getCodigo(), dia, mes);
     }
 
     /**
@@ -276,16 +230,8 @@ public class MantenimientoService {
      * @return Lista de mantenimientos calculados para el año
      */
     public List<Map<String, Integer>> obtenerFechasMantenimientoCamion(Camion camion, int año) {
-        List<Mantenimiento> mantenimientosCamion = mantenimientoRepository.findByCamion(camion);
-
-        if (mantenimientosCamion.isEmpty()) {
-            return List.of();
-        }
-
-        // Encontrar el primer mantenimiento del camión
-        Mantenimiento primerMantenimiento = mantenimientosCamion.stream()
-                .min((m1, m2) -> Integer.compare(m1.getMes(), m2.getMes()))
-                .orElse(null);
+        // Primer mantenimiento del camión
+        Mantenimiento primerMantenimiento = calendario().primerMantenimiento(camion.getCodigo());
 
         if (primerMantenimiento == null) {
             return List.of();
@@ -305,4 +251,8 @@ public class MantenimientoService {
 
         return fechasMantenimiento;
     }
+
+    private CalendarioMantenimientos calendario() {
+        return Parametros.getDataLoader().getCalendarioMantenimientos();
+    }
 }
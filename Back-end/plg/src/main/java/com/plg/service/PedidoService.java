@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.plg.utils.ContextoSimulacion;
 import com.plg.utils.Parametros;
 import com.plg.dto.request.PedidoRequest;
 import com.plg.entity.Camion;
@@ -68,6 +69,8 @@ public class PedidoService {
      * se dividirá automáticamente en múltiples pedidos.
      */
     public List<Pedido> agregar(PedidoRequest request) {
+        // Los intervalos calculados por adelantado no contemplan este pedido
+        ContextoSimulacion.actual().getProductor().invalidar();
         try {
             Coordenada coordenada = new Coordenada(request.getY(), request.getX());
 
@@ -101,12 +104,12 @@ public class PedidoService {
      * Obtiene la capacidad máxima de GLP de todos los camiones disponibles.
      */
     private double obtenerCapacidadMaximaCamion() {
-        List<Camion> camionesDisponibles = Parametros.dataLoader.camiones.stream()
+        List<Camion> camionesDisponibles = Parametros.getDataLoader().camiones.stream()
                 .filter(camion -> camion.getEstado() != EstadoCamion.EN_MANTENIMIENTO_PREVENTIVO)
                 .collect(Collectors.toList());
 
         if (camionesDisponibles.isEmpty()) {
-            camionesDisponibles = Parametros.dataLoader.camiones;
+            camionesDisponibles = Parametros.getDataLoader().camiones;
         }
 
         return camionesDisponibles.stream()
@@ -174,12 +177,12 @@ public class PedidoService {
      * Obtiene las capacidades de todos los camiones disponibles.
      */
     private List<Double> obtenerCapacidadesCamiones() {
-        List<Camion> camionesDisponibles = Parametros.dataLoader.camiones.stream()
+        List<Camion> camionesDisponibles = Parametros.getDataLoader().camiones.stream()
                 .filter(camion -> camion.getEstado() != EstadoCamion.EN_MANTENIMIENTO_PREVENTIVO)
                 .collect(Collectors.toList());
 
         if (camionesDisponibles.isEmpty()) {
-            camionesDisponibles = Parametros.dataLoader.camiones;
+            camionesDisponibles = Parametros.getDataLoader().camiones;
         }
 
         return camionesDisponibles.stream()
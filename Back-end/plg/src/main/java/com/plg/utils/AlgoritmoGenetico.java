@@ -28,7 +28,7 @@ public class AlgoritmoGenetico {
 
     public AlgoritmoGenetico(Mapa mapa) {
         this.mapa = mapa;
-        poblacionTamano = 30;
+        poblacionTamano = Parametros.getPoblacionAlgoritmo();
     }
 
     public void ejecutarAlgoritmo() {
@@ -37,13 +37,15 @@ public class AlgoritmoGenetico {
         mejorIndividuo = poblacion.get(0);
         verificarMejorIndividuo(mejorIndividuo);    
         actualizarParametrosGlobales(mejorIndividuo);
-        System.out.println("Fitness algoritmo genético: " + Parametros.contadorPrueba + " Valor: " + mejorIndividuo.getFitness());
+        System.out.println("Fitness algoritmo genético: " + Parametros.getContadorPrueba() + " Valor: " + mejorIndividuo.getFitness());
         if(mejorIndividuo.getFitness() == Double.POSITIVE_INFINITY) {
             System.out.println("Detalles del individuo: " + mejorIndividuo.getDescripcion());
         }
         for (Gen gen : mejorIndividuo.getCromosoma()) {
             Camion camion = gen.getCamion();
             camion.setGen(gen);
+            mapa.getIndiceRutasPorCelda().registrarRuta(gen, Parametros.getFechaInicial());
+            Simulacion.getMotorEventos().programarLlegadas(gen, TiempoSimulacion.aMinuto(Parametros.getFechaInicial()));
         }
     }
 
@@ -51,7 +53,7 @@ public class AlgoritmoGenetico {
     private List<Individuo> inicializarPoblacion() {
         List<Individuo> poblacion = new ArrayList<>();
         for (int i = 0; i < poblacionTamano; i++) {
-            Individuo individuo = new Individuo(Simulacion.pedidosEnviar);
+            Individuo individuo = new Individuo(Simulacion.getPedidosEnviar());
             poblacion.add(individuo);
         }
         return poblacion;
@@ -69,10 +71,10 @@ public class AlgoritmoGenetico {
     }
 
     public void actualizarParametrosGlobales(Individuo individuo) {
-        Parametros.fitnessGlobal = individuo.getFitness();
-        Parametros.kilometrosRecorridos = individuo.getCromosoma().stream()
-                .mapToDouble(gen -> gen.getRutaFinal().size()).sum();
-        Parametros.contadorPrueba++;
+        Parametros.setFitnessGlobal(individuo.getFitness());
+        Parametros.setKilometrosRecorridos(individuo.getCromosoma().stream()
+                .mapToDouble(gen -> gen.getRutaFinal().size()).sum());
+        Parametros.setContadorPrueba(Parametros.getContadorPrueba() + 1);
     }
 
 }
@@ -0,0 +1,279 @@
+package com.plg.utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.plg.config.DataLoader;
+import com.plg.dto.EstadisticasPedidosDto;
+import com.plg.dto.ResultadoBarridoDto;
+import com.plg.dto.ResultadoSimulacionRapidaDto;
+import com.plg.entity.Almacen;
+import com.plg.entity.Bloqueo;
+import com.plg.entity.Camion;
+import com.plg.entity.Mapa;
+import com.plg.entity.Pedido;
+import com.plg.entity.TipoAlmacen;
+import com.plg.entity.TipoCamion;
+import com.plg.utils.simulacion.GestorHistorialSimulacion;
+import com.plg.utils.simulacion.IndicePedidosPorRegistro;
+import com.plg.utils.simulacion.MotorEventosSimulacion;
+import com.plg.utils.simulacion.ProductorPaquetesSimulacion;
+import com.plg.utils.simulacion.RegistroPedidos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Todo el estado de una simulación: su mapa, sus datos, sus parámetros de
+ * tiempo, los pedidos en curso y su historial.
+ *
+ * Cada contexto se identifica por una sesión y el servidor puede mantener
+ * varios a la vez. Las sesiones se crean con {@link #crearSesion()} y las que
+ * pasan mucho tiempo sin usarse se eliminan. El contexto en uso se asocia al hilo que atiende la
+ * petición; {@link Parametros}, {@link Simulacion}, {@link Mapa#getInstance()}
+ * y las fábricas leen y escriben el del hilo actual, así que el resto del
+ * código no necesita recibirlo. Un hilo sin contexto asociado usa el de la
+ * sesión predeterminada, que es el que usaba toda la aplicación antes.
+ */
+@Getter
+public class ContextoSimulacion {
+
+    public static final String SESION_PREDETERMINADA = "predeterminada";
+
+    private static final Map<String, ContextoSimulacion> contextos = new ConcurrentHashMap<>();
+    private static final ContextoSimulacion predeterminado = registrar(SESION_PREDETERMINADA);
+    private static final ThreadLocal<ContextoSimulacion> actual = new ThreadLocal<>();
+
+    private final String sesion;
+    private Mapa mapa;
+    private volatile long ultimoUso = System.currentTimeMillis();
+
+    // Datos y parámetros de tiempo
+    @Setter
+    private DataLoader dataLoader;
+    @Setter
+    private String dia = "01";
+    @Setter
+    private String mes = "02";
+    @Setter
+    private String anho = "2025";
+    @Setter
+    private LocalDateTime fechaInicial = LocalDateTime.parse(dia + "/" + mes + "/" + anho + " 00:00",
+            Parametros.formatoFechaHora);
+    @Setter
+    private LocalDateTime fechaInicioSimulacion;
+    @Setter
+    private int intervaloTiempo = 120; // minutos
+    @Setter
+    private int diferenciaTiempoMinRequest = 0; // Es la diferencia entre request
+    @Setter
+    private TipoDeSimulacion tipoDeSimulacion = TipoDeSimulacion.SEMANAL;
+    @Setter
+    private double velocidadCamion = 70.0; // Velocidad promedio de los camiones en km/h
+    @Setter
+    private int paquetesAdelantados = 3; // Intervalos que se calculan por adelantado mientras el frontend consume
+    @Setter
+    private Map<TipoCamion, Integer> flota = flotaPredeterminada(); // Camiones de cada tipo al cargar los datos
+    @Setter
+    private double tasaAveriasAutomaticas = 1.0; // Fracción de las averías automáticas del archivo que ocurren
+    @Setter
+    private int poblacionAlgoritmo = 30; // Individuos que genera el algoritmo genético
+    @Setter
+    private int numeroDePaquete = 0; // Numero de paquete para averias automaticas
+    @Setter
+    private int contadorPrueba = 0;
+    @Setter
+    private double kilometrosRecorridos = 0;
+    @Setter
+    private double fitnessGlobal = 0;
+
+    // Estado de la simulación
+    private final RegistroPedidos registroPedidos = new RegistroPedidos();
+    @Setter
+    private List<Bloqueo> bloqueosActivos = new ArrayList<>();
+    @Setter
+    private Individuo mejorIndividuo;
+    @Setter
+    private List<Pedido> pedidosEnviar = new ArrayList<>();
+    private final IndicePedidosPorRegistro indicePedidos = new IndicePedidosPorRegistro();
+    private final MotorEventosSimulacion motorEventos = new MotorEventosSimulacion();
+    private final GestorHistorialSimulacion historial = new GestorHistorialSimulacion();
+    private final ProductorPaquetesSimulacion productor = new ProductorPaquetesSimulacion(this);
+    @Setter
+    private volatile boolean simulacionIniciada = false;
+
+    // Archivos cargados desde el frontend para esta simulación
+    @Setter
+    private volatile String archivoVentas;
+    @Setter
+    private volatile String archivoBloqueos;
+    @Setter
+    private volatile String archivoCamiones;
+    @Setter
+    private volatile String archivoMantenimiento;
+
+    // Ejecuciones de prueba lanzadas desde /api/test-simulacion
+    private final AtomicBoolean ejecucionEnProceso = new AtomicBoolean(false);
+    private final AtomicInteger contadorEjecuciones = new AtomicInteger(0);
+    private final List<String> logsEjecucion = Collections.synchronizedList(new ArrayList<>());
+    private final List<EstadisticasPedidosDto> estadisticasEjecucion = Collections.synchronizedList(new ArrayList<>());
+    @Setter
+    private volatile CompletableFuture<Void> ejecucionFuture;
+    @Setter
+    private volatile ResultadoSimulacionRapidaDto ultimoResultadoRapido;
+    private final AtomicBoolean barridoEnProceso = new AtomicBoolean(false);
+    @Setter
+    private volatile ResultadoBarridoDto ultimoResultadoBarrido;
+
+    // Entidades creadas por las fábricas para esta simulación
+    private final List<Camion> camionesFabricados = new ArrayList<>();
+    private final Map<TipoCamion, Integer> contadorCamiones = new EnumMap<>(TipoCamion.class);
+    private final List<Almacen> almacenesFabricados = new ArrayList<>();
+    private final Map<TipoAlmacen, Integer> contadorAlmacenes = new EnumMap<>(TipoAlmacen.class);
+
+    private ContextoSimulacion(String sesion) {
+        this.sesion = sesion;
+    }
+
+    public static Map<TipoCamion, Integer> flotaPredeterminada() {
+        Map<TipoCamion, Integer> flota = new EnumMap<>(TipoCamion.class);
+        flota.put(TipoCamion.TA, 2);
+        flota.put(TipoCamion.TB, 4);
+        flota.put(TipoCamion.TC, 4);
+        flota.put(TipoCamion.TD, 10);
+        return flota;
+    }
+
+    /**
+     * Contexto asociado al hilo actual, o el predeterminado si no hay ninguno.
+     */
+    public static ContextoSimulacion actual() {
+        ContextoSimulacion contexto = actual.get();
+        return contexto != null ? contexto : predeterminado;
+    }
+
+    /**
+     * Crea y registra una sesión vacía con un identificador nuevo.
+     */
+    public static ContextoSimulacion crearSesion() {
+        return registrar(UUID.randomUUID().toString());
+    }
+
+    private static ContextoSimulacion registrar(String sesion) {
+        return contextos.computeIfAbsent(sesion, ContextoSimulacion::new);
+    }
+
+    /**
+     * Contexto sin sesión registrada, para simulaciones internas que no deben
+     * verse desde la API.
+     */
+    public static ContextoSimulacion aislado(String nombre) {
+        return new ContextoSimulacion(nombre);
+    }
+
+    public static ContextoSimulacion buscar(String sesion) {
+        return contextos.get(sesion);
+    }
+
+    /**
+     * Elimina la sesión y detiene su productor de paquetes y su ejecución de
+     * prueba. La sesión predeterminada no se puede eliminar.
+     */
+    public static boolean eliminar(String sesion) {
+        if (SESION_PREDETERMINADA.equals(sesion)) {
+            return false;
+        }
+        ContextoSimulacion contexto = contextos.remove(sesion);
+        if (contexto == null) {
+            return false;
+        }
+        contexto.productor.detener();
+        contexto.ejecucionEnProceso.set(false);
+        contexto.barridoEnProceso.set(false);
+        return true;
+    }
+
+    public static Set<String> sesiones() {
+        return new TreeSet<>(contextos.keySet());
+    }
+
+    /**
+     * Elimina las sesiones que no se usan hace más del tiempo indicado, salvo la
+     * predeterminada y las que tienen una ejecución de prueba o un barrido en
+     * curso.
+     *
+     * @return las sesiones eliminadas
+     */
+    public static List<String> eliminarInactivas(Duration inactividad) {
+        long limite = System.currentTimeMillis() - inactividad.toMillis();
+        List<String> eliminadas = new ArrayList<>();
+        for (ContextoSimulacion contexto : contextos.values()) {
+            if (contexto.ultimoUso < limite && !contexto.ejecucionEnProceso.get()
+                    && !contexto.barridoEnProceso.get() && eliminar(contexto.sesion)) {
+                eliminadas.add(contexto.sesion);
+            }
+        }
+        return eliminadas;
+    }
+
+    /**
+     * Asocia el contexto al hilo actual hasta que se llame a {@link #liberar()}.
+     */
+    public void asociar() {
+        ultimoUso = System.currentTimeMillis();
+        actual.set(this);
+    }
+
+    public static void liberar() {
+        actual.remove();
+    }
+
+    /**
+     * Ejecuta la tarea con este contexto asociado al hilo y luego restituye el
+     * contexto que el hilo tenía antes.
+     */
+    public <T> T ejecutar(Supplier<T> tarea) {
+        ContextoSimulacion anterior = actual.get();
+        actual.set(this);
+        try {
+            return tarea.get();
+        } finally {
+            if (anterior == null) {
+                actual.remove();
+            } else {
+                actual.set(anterior);
+            }
+        }
+    }
+
+    public void ejecutar(Runnable tarea) {
+        ejecutar(() -> {
+            tarea.run();
+            return null;
+        });
+    }
+
+    public synchronized Mapa getMapa() {
+        if (mapa == null) {
+            mapa = Mapa.crearMapaCiudad();
+        }
+        return mapa;
+    }
+
+    public synchronized void reiniciarMapa() {
+        mapa = Mapa.crearMapaCiudad();
+    }
+}
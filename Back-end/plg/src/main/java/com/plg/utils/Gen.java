@@ -3,8 +3,8 @@ package com.plg.utils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
-import java.time.LocalDateTime;
 import com.plg.utils.Simulacion;
 import com.plg.dto.CoordenadaDto;
 import com.plg.dto.NodoDto;
@@ -18,10 +18,16 @@ import com.plg.entity.Nodo;
 import com.plg.entity.Pedido;
 import com.plg.entity.TipoNodo;
 import com.plg.entity.EstadoPedido;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.plg.utils.rutas.LineaTiempoRuta;
+import com.plg.utils.rutas.ResultadoRuta;
+import com.plg.utils.rutas.RutaCeldas;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @AllArgsConstructor
@@ -37,17 +43,32 @@ public class Gen {
     private List<Camion> camionesAveriados;
     private List<Almacen> almacenesIntermedios;
     private double fitness;
+    // Último paso de la ruta cuyos eventos ya se aplicaron al camión
+    private int ultimoPasoReproducido = -1;
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LineaTiempoRuta lineaTiempo;
 
     public Gen(Camion camion, List<Nodo> nodosOriginal) {
         this.camion = camion;
         this.nodos = nodosOriginal;
-        this.rutaFinal = new ArrayList<>();
+        this.rutaFinal = new RutaCeldas();
         this.pedidos = new ArrayList<>();
         this.camionesAveriados = new ArrayList<>();
         this.almacenesIntermedios = new ArrayList<>();
         this.fitness = 0.0;
     }
 
+    /**
+     * Línea de tiempo acumulada de la ruta final; se recalcula solo si la ruta o
+     * las paradas del gen cambiaron.
+     */
+    public LineaTiempoRuta getLineaTiempo() {
+        lineaTiempo = LineaTiempoRuta.de(this, lineaTiempo);
+        return lineaTiempo;
+    }
+
     public double distanciaRecorrida() {
         return (double) rutaFinal.size();
     }
@@ -73,21 +94,57 @@ public class Gen {
                 + " y se dirige a la posición " + nodo2.getCoordenada() + ".";
     }
 
+    public String descripcionDestinoInalcanzable(Nodo nodo1, Nodo nodo2) {
+        return "El camion con código " + camion.getCodigo()
+                + " no puede llegar desde la posición " + nodo1.getCoordenada()
+                + " a la posición " + nodo2.getCoordenada()
+                + " porque el destino está encerrado por bloqueos.";
+    }
+
     public double calcularFitness() {
+        return calcularFitness(null);
+    }
+
+    /**
+     * Tramos entre nodos consecutivos del gen, empezando en el camión, para
+     * resolverlos en lote antes de calcular el fitness.
+     */
+    public List<Nodo[]> tramos() {
+        List<Nodo[]> tramos = new ArrayList<>();
+        Nodo anterior = camion;
+        for (Nodo nodo : nodos) {
+            tramos.add(new Nodo[] { anterior, nodo });
+            anterior = nodo;
+        }
+        return tramos;
+    }
+
+    /**
+     * Calcula el fitness usando las rutas ya resueltas por
+     * {@link com.plg.utils.rutas.BuscadorRutasEnLote}, indexadas por
+     * {@code Mapa.claveTramo}; los tramos que no estén se buscan en el momento.
+     */
+    public double calcularFitness(Map<Long, int[]> rutasPrecalculadas) {
         this.rutaFinal.clear();
+        this.ultimoPasoReproducido = -1;
         double fitness = 0.0;
         Nodo posicionActual = camion;
         List<Nodo> rutaEntradaBloqueada = null;
-        LocalDateTime fechaActual = Parametros.fecha_inicial;
-        LocalDateTime fechaLlegada = fechaActual;
+        long minutoLlegada = TiempoSimulacion.aMinuto(Parametros.getFechaInicial());
         for (int i = 0; i < nodos.size(); i++) {
             Nodo destino = nodos.get(i);
-            List<Nodo> rutaAstar = Mapa.getInstance().aStar(posicionActual, destino);
+            ResultadoRuta resultadoRuta = buscarTramo(posicionActual, destino, rutasPrecalculadas);
+            if (!resultadoRuta.esAlcanzable()) {
+                this.descripcion = descripcionDestinoInalcanzable(posicionActual, destino);
+                fitness = Double.POSITIVE_INFINITY;
+                break;
+            }
+            List<Nodo> rutaAstar = resultadoRuta.getRuta();
             if (destino instanceof Pedido) {
-                ResultadoEntrega resultado = procesarEntregaPedido((Pedido) destino, rutaAstar, fechaLlegada, fitness,
+                ResultadoEntrega resultado = procesarEntregaPedido((Pedido) destino, rutaAstar, minutoLlegada, fitness,
                         posicionActual, i);
                 fitness = resultado.fitness;
-                fechaLlegada = resultado.fechaLlegada;
+                minutoLlegada = resultado.minutoLlegada;
                 posicionActual = resultado.posicionActual;
                 rutaEntradaBloqueada = resultado.rutaEntradaBloqueada;
                 if (fitness == Double.POSITIVE_INFINITY)
@@ -110,12 +167,22 @@ public class Gen {
         return fitness;
     }
 
+    private ResultadoRuta buscarTramo(Nodo origen, Nodo destino, Map<Long, int[]> rutasPrecalculadas) {
+        Mapa mapa = Mapa.getInstance();
+        long clave = mapa.claveTramo(origen.getCoordenada(), destino.getCoordenada());
+        if (rutasPrecalculadas == null || !rutasPrecalculadas.containsKey(clave)) {
+            return mapa.buscarRuta(origen, destino);
+        }
+        int[] celdas = rutasPrecalculadas.get(clave);
+        return celdas == null ? ResultadoRuta.inalcanzable() : ResultadoRuta.encontrada(mapa.rutaDesdeCeldas(celdas));
+    }
+
     // Auxiliar para procesar la entrega de un pedido
-    private ResultadoEntrega procesarEntregaPedido(Pedido pedido, List<Nodo> rutaAstar, LocalDateTime fechaLlegada,
+    private ResultadoEntrega procesarEntregaPedido(Pedido pedido, List<Nodo> rutaAstar, long minutoLlegada,
             double fitness, Nodo posicionActual, int i) {
         double tiempoLlegadaHoras = rutaAstar.size() / camion.getVelocidadPromedio() + 0.25;
-        LocalDateTime nuevaFechaLlegada = fechaLlegada.plusMinutes((long) (tiempoLlegadaHoras * 60));
-        boolean dentroDeLimite = pedido.getFechaLimite() == null || !nuevaFechaLlegada.isAfter(pedido.getFechaLimite());
+        long nuevoMinutoLlegada = minutoLlegada + (long) (tiempoLlegadaHoras * 60);
+        boolean dentroDeLimite = nuevoMinutoLlegada <= pedido.getMinutoLimite();
         // Calcular la cantidad de pedidos asignados a este camión
         int cantidadPedidosAsignados = this.pedidos != null && !this.pedidos.isEmpty() ? this.pedidos.size() : 1;
         double glpPorPedido = camion.getCapacidadActualGLP() / cantidadPedidosAsignados;
@@ -137,11 +204,11 @@ public class Gen {
             }
             rutaFinal.addAll(rutaAstar);
             List<Nodo> rutaEntradaBloqueada = pedido.isBloqueado() ? new ArrayList<>(rutaAstar) : null;
-            return new ResultadoEntrega(fitness, nuevaFechaLlegada, pedido, rutaEntradaBloqueada);
+            return new ResultadoEntrega(fitness, nuevoMinutoLlegada, pedido, rutaEntradaBloqueada);
         } else {
             this.descripcion = "El pedido " + pedido.getCodigo() + " no puede ser entregado a tiempo. Fecha límite: "
-                    + pedido.getFechaLimite() + ", fecha llegada: " + nuevaFechaLlegada;
-            return new ResultadoEntrega(Double.POSITIVE_INFINITY, nuevaFechaLlegada, posicionActual, null);
+                    + pedido.getFechaLimite() + ", fecha llegada: " + TiempoSimulacion.aFecha(nuevoMinutoLlegada);
+            return new ResultadoEntrega(Double.POSITIVE_INFINITY, nuevoMinutoLlegada, posicionActual, null);
         }
     }
 
@@ -183,7 +250,7 @@ public class Gen {
                 rutaApi.add(nodo);
             }
         }
-        int cantNodosRecorridos = (int) (Parametros.velocidadCamion * Parametros.intervaloTiempo / 60);
+        int cantNodosRecorridos = (int) (Parametros.getVelocidadCamion() * Parametros.getIntervaloTiempo() / 60);
         if (rutaApi.size() < cantNodosRecorridos) {
             Nodo ultimoNodo = rutaApi.get(rutaApi.size() - 1);
             int nodosFaltantes = cantNodosRecorridos - rutaApi.size();
@@ -218,14 +285,14 @@ public class Gen {
     // Clases auxiliares para devolver múltiples valores
     private static class ResultadoEntrega {
         double fitness;
-        LocalDateTime fechaLlegada;
+        long minutoLlegada;
         Nodo posicionActual;
         List<Nodo> rutaEntradaBloqueada;
 
-        ResultadoEntrega(double fitness, LocalDateTime fechaLlegada, Nodo posicionActual,
+        ResultadoEntrega(double fitness, long minutoLlegada, Nodo posicionActual,
                 List<Nodo> rutaEntradaBloqueada) {
             this.fitness = fitness;
-            this.fechaLlegada = fechaLlegada;
+            this.minutoLlegada = minutoLlegada;
             this.posicionActual = posicionActual;
             this.rutaEntradaBloqueada = rutaEntradaBloqueada;
         }
@@ -244,9 +311,9 @@ public class Gen {
     // ! calcula la cantidad de nodos que puede recorrer como maximo el camion segun
     // su velocidad
     public int calcularCantidadDeNodosQuePuedeRecorrerElCamion() {
-        double velocidad_en_km_h = Parametros.velocidadCamion;
+        double velocidad_en_km_h = Parametros.getVelocidadCamion();
 
-        double cantidad_de_horas_intervalo = Parametros.intervaloTiempo / 60.0;
+        double cantidad_de_horas_intervalo = Parametros.getIntervaloTiempo() / 60.0;
 
         double cantidad_de_km_que_puede_recorrer_el_camion = velocidad_en_km_h * cantidad_de_horas_intervalo;
         // System.out
@@ -259,9 +326,12 @@ public class Gen {
     // averias automaticas
     public void colocar_nodo_de_averia_automatica() {
         int cantidad_nodos_que_puede_recorrer_el_camion = this.getCamion().calcularCantidadDeNodos();
-        int posicion_inicial = (int) (cantidad_nodos_que_puede_recorrer_el_camion
+        // El tramo se cuenta desde la posición actual: un plan que se sigue usando
+        // entre intervalos ya tiene recorrida una parte de la ruta
+        int posicion_inicial = posNodo + (int) (cantidad_nodos_que_puede_recorrer_el_camion
                 * Parametros.rango_inicial_tramo_averia);
-        int posicion_final = (int) (cantidad_nodos_que_puede_recorrer_el_camion * Parametros.rango_final_tramo_averia);
+        int posicion_final = Math.min(rutaFinal.size() - 1,
+                posNodo + (int) (cantidad_nodos_que_puede_recorrer_el_camion * Parametros.rango_final_tramo_averia));
         // if (posicion_inicial > 1) {
         // posicion_inicial = posicion_inicial - 1;
         // }
@@ -284,11 +354,9 @@ public class Gen {
 
         // Realizamos un padding de todos los nodos de ruta final desde la posicion
         // aleatoria hasta el final de la lista, es decir los eliminamos
-        rutaFinal = new ArrayList<>(rutaFinal.subList(0, posiciones_normales.get(posicion_aleatoria)));
-        Averia averia = Parametros.dataLoader.averiasAutomaticas.stream()
-                .filter(a -> a.getCamion().getCodigo().equals(camion.getCodigo()))
-                .findFirst()
-                .orElse(null);
+        rutaFinal = new RutaCeldas(rutaFinal.subList(0, posiciones_normales.get(posicion_aleatoria)));
+        Averia averia = Parametros.getDataLoader().getIndiceAveriasAutomaticas()
+                .primeraDelCamion(camion.getCodigo());
         TipoNodo tipo_nodo_averia;
         if (averia != null) {
             String tipo_nodo_averia_string = averia.getTipoIncidente().getCodigo();
@@ -302,8 +370,15 @@ public class Gen {
         } else {
             tipo_nodo_averia = TipoNodo.AVERIA_AUTOMATICA_T1;
         }
-        Nodo ultimoNodo = rutaFinal.getLast();
-        ultimoNodo.setTipoNodo(tipo_nodo_averia);
+        // El último paso puede ser el nodo interno del mapa, compartido por todas las
+        // rutas; se reemplaza por un nodo propio en lugar de cambiarle el tipo
+        int ultimo = rutaFinal.size() - 1;
+        Nodo ultimoNodo = rutaFinal.get(ultimo);
+        rutaFinal.set(ultimo, Nodo.builder()
+                .coordenada(ultimoNodo.getCoordenada())
+                .bloqueado(ultimoNodo.isBloqueado())
+                .tipoNodo(tipo_nodo_averia)
+                .build());
     }
 
 }
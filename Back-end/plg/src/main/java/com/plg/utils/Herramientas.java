@@ -8,15 +8,18 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import com.plg.dto.CamionDto;
 import com.plg.dto.GenDto;
-import com.plg.entity.Averia;
 import com.plg.entity.Camion;
 import com.plg.entity.EstadoCamion;
 import com.plg.utils.ExcepcionesPerzonalizadas.ResourceNotFoundException;
+import com.plg.utils.simulacion.IndiceAverias;
 
 public class Herramientas {
     // Método genérico para leer todas las líneas de un archivo de recursos
@@ -40,8 +43,8 @@ public class Herramientas {
     public static LocalDateTime readFecha(String fecha) {
         String[] partes = fecha.split("[dhm]");
         DateTimeFormatter formatoFechaHora = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        String anho = Parametros.anho;
-        String mes = Parametros.mes;
+        String anho = Parametros.getAnho();
+        String mes = Parametros.getMes();
         String dia = partes[0];
         String hora = partes[1];
         String minutos = partes[2];
@@ -73,35 +76,37 @@ public class Herramientas {
         }
     }
 
-    public static void  agregarAveriasAutomaticas(List<Averia> averiasAutomaticas, List<Gen> cromosoma, 
+    public static void  agregarAveriasAutomaticas(IndiceAverias.Automaticas averiasPorTurno, List<Gen> cromosoma, 
             LocalDateTime fechaHoraInicioIntervalo, LocalDateTime fechaHoraFinIntervalo) {
         //
         // sacar la fecha en medio del intervalo de simulacion
         LocalDateTime fechaMedio = fechaHoraInicioIntervalo
                 .plusSeconds(fechaHoraFinIntervalo.getSecond() - fechaHoraInicioIntervalo.getSecond() / 2);
         int turno = Herramientas.detectarTurno(fechaMedio);
-        // Sacar la lista de averias automaticas del turno
-        List<Averia> averiasAutomaticasTurno = averiasAutomaticas.stream()
-                .filter(averia -> averia.getTurnoOcurrencia() == turno)
-                .toList();
         List<Camion> camiones_para_averiar_automaticamente = new ArrayList<>();
+        double tasa = Parametros.getTasaAveriasAutomaticas();
         for (Gen gen : cromosoma) {
-            boolean camion_en_averias_automaticas = averiasAutomaticasTurno.stream()
-                    .anyMatch(averia -> averia.getCamion().getCodigo().equals(gen.getCamion().getCodigo()));
+            boolean camion_en_averias_automaticas = averiasPorTurno
+                    .camionSeAveriaEnTurno(gen.getCamion().getCodigo(), turno);
             boolean camion_estado_disponible = gen.getCamion().getEstado().equals(EstadoCamion.DISPONIBLE);
+            // Con una tasa menor a 1 solo ocurre esa fracción de las averías del archivo
+            boolean ocurre_averia = tasa >= 1 || ThreadLocalRandom.current().nextDouble() < tasa;
 
-            if (camion_en_averias_automaticas && camion_estado_disponible) {
+            if (camion_en_averias_automaticas && camion_estado_disponible && ocurre_averia) {
                 camiones_para_averiar_automaticamente.add(gen.getCamion());
             }
         }
 
+        Set<String> codigos_para_averiar = new HashSet<>();
+        for (Camion camion : camiones_para_averiar_automaticamente) {
+            codigos_para_averiar.add(camion.getCodigo());
+        }
         for (Gen gen : cromosoma) {
-            if (camiones_para_averiar_automaticamente.stream()
-                    .anyMatch(camion -> camion.getCodigo().equals(gen.getCamion().getCodigo()))) {
+            if (codigos_para_averiar.contains(gen.getCamion().getCodigo())) {
                 gen.colocar_nodo_de_averia_automatica();
             }
         }
-        Parametros.dataLoader.camionesAveriados = camiones_para_averiar_automaticamente;
+        Parametros.getDataLoader().camionesAveriados = camiones_para_averiar_automaticamente;
     }
     
 }
@@ -3,7 +3,9 @@ package com.plg.utils;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.time.temporal.ChronoUnit;
 
@@ -14,6 +16,9 @@ import com.plg.entity.Nodo;
 import com.plg.entity.Pedido;
 import com.plg.entity.TipoCamion;
 import com.plg.entity.EstadoCamion;
+import com.plg.utils.rutas.CamposDistanciaAlmacenes;
+import com.plg.utils.rutas.ResultadoRuta;
+import com.plg.utils.rutas.RutaCeldas;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -44,14 +49,14 @@ public class Individuo {
         for (Camion camion : camionesDisponibles) {
             cromosoma.add(new Gen(camion, new ArrayList<>()));
         }
-        LocalDateTime fechaActual = Parametros.fecha_inicial;
+        LocalDateTime fechaActual = Parametros.getFechaInicial();
         List<Pedido> pedidosEvaluar = new ArrayList<>(pedidos);
         asignarPedidosACamiones(camionesDisponibles, pedidosEvaluar, cromosoma, fechaActual);
         crearGenesParaCamionesNoDisponibles();
     }
 
     public void crearGenesParaCamionesNoDisponibles() {
-        List<Camion> camionesNoDisponibles = Parametros.dataLoader.camiones.stream()
+        List<Camion> camionesNoDisponibles = Parametros.getDataLoader().camiones.stream()
                 .filter(c -> c.getEstado() == EstadoCamion.EN_MANTENIMIENTO_POR_AVERIA
                         || c.getEstado() == EstadoCamion.INMOVILIZADO_POR_AVERIA
                         || c.getEstado() == EstadoCamion.EN_MANTENIMIENTO_PREVENTIVO)
@@ -60,7 +65,7 @@ public class Individuo {
         for (Camion camion : camionesNoDisponibles) {
             Gen gen = new Gen(camion, new ArrayList<>());
             gen.getNodos().add(camion);
-            gen.setRutaFinal(new ArrayList<>());
+            gen.setRutaFinal(new RutaCeldas());
             gen.getRutaFinal().add(camion);
             gen.setFitness(0.0); // Inicializar fitness a 0 para camiones
             cromosoma.add(gen);
@@ -71,11 +76,11 @@ public class Individuo {
     private void asignarPedidosACamiones(List<Camion> camionesDisponibles, List<Pedido> pedidosEvaluar,
             List<Gen> cromosoma, LocalDateTime fechaActual) {
         guardarEstadoActual();
-        List<Camion> cp1 = Parametros.dataLoader.camiones.stream()
+        List<Camion> cp1 = Parametros.getDataLoader().camiones.stream()
                 .filter(c -> c.getEstado() == EstadoCamion.INMOVILIZADO_POR_AVERIA)
                 .toList();
         List<Camion> camionesAveriados = new ArrayList<>(cp1);
-        List<Almacen> almacenesDisponibles = new ArrayList<>(Parametros.dataLoader.almacenes);
+        List<Almacen> almacenesDisponibles = new ArrayList<>(Parametros.getDataLoader().almacenes);
         Collections.shuffle(camionesDisponibles, new Random());
         for (Camion camion : camionesDisponibles) {
             if (camion.getCapacidadActualGLP() < 5) {
@@ -117,6 +122,8 @@ public class Individuo {
         List<Pedido> seleccionadosFinal = new ArrayList<>();
         double distanciaFinal = 0.0;
         Gen gen = getGenPorCamion(camion.getCodigo());
+        // Un solo BFS desde la posición del camión sirve para puntuar todos los candidatos
+        int[] distanciasCamion = Mapa.getInstance().distanciasDesde(gen.ultimoNodo().getCoordenada());
         for (int i = 0; i < maxIntentos; i++) {
             List<Pedido> seleccionados = seleccionarPedidosParaCamion(camion, pedidosEvaluar,
                     maxPedidosPorCamion);
@@ -124,7 +131,7 @@ public class Individuo {
                 continue; // No hay pedidos para asignar
             }
             double distanciaTotal = calculoDistanciaTotalRecorrido(camion,
-                    seleccionados, almacenesDisponibles);
+                    seleccionados, almacenesDisponibles, distanciasCamion);
             if (gen.distanciaRecorrida() + distanciaTotal > camion.calcularDistanciaMaxima()) {
                 continue;
             }
@@ -174,6 +181,9 @@ public class Individuo {
 
     public void capaDensaAlmacen(Camion camion, List<Almacen> almacenesDisponibles) {
         Almacen almacenCercano = hallarAlmacenMasCercano(camion, almacenesDisponibles);
+        if (almacenCercano == null) {
+            return; // Ningún almacén es alcanzable por los bloqueos
+        }
         boolean valido2 = almacenCercano.getCapacidadActualGLP() > 0;
         if (!valido2) {
             // No vale la pena pues dicho almacen no tiene GLP
@@ -212,11 +222,13 @@ public class Individuo {
 
         Random random = new Random();
         Camion camionAveriado = camionesAveriados.get(random.nextInt(camionesAveriados.size()));
-        double distanciaCamionAveriado = Mapa.calcularDistancia(camion.getCoordenada(),
+        double distanciaCamionAveriado = Mapa.getInstance().distanciaRuta(camion.getCoordenada(),
                 camionAveriado.getCoordenada());
         Almacen almacenCercano = hallarAlmacenCercanoDadoUnNodo(camionAveriado, almacenesDisponibles);
-        double distanciaRegreso = Mapa.calcularDistancia(camionAveriado.getCoordenada(),
-                almacenCercano.getCoordenada());
+        if (almacenCercano == null) {
+            return false; // No podría regresar a ningún almacén
+        }
+        double distanciaRegreso = distanciaHastaAlmacen(camionAveriado, almacenCercano);
         double distanciaTotal = distanciaCamionAveriado + distanciaRegreso;
 
         boolean valido2 = camionAveriado.getCapacidadActualGLP() > 0;
@@ -276,13 +288,21 @@ public class Individuo {
         Gen gen = getGenPorCamion(camion.getCodigo());
         boolean primera_vez = gen.getRutaFinal().isEmpty();
         Nodo inicio = gen.ultimoNodo();
-        List<Nodo> ruta = Mapa.getInstance().aStar(inicio, fin);
+        ResultadoRuta resultado = Mapa.getInstance().buscarRuta(inicio, fin);
+        if (!resultado.esAlcanzable()) {
+            gen.setDescripcion(gen.descripcionDestinoInalcanzable(inicio, fin));
+            gen.setFitness(Double.POSITIVE_INFINITY);
+            return;
+        }
+        List<Nodo> ruta = resultado.getRuta();
         if (!primera_vez) {
             // Quitamos de la ruta el primer nodo (inicio)
             ruta.remove(0);
         }
         gen.getRutaFinal().addAll(ruta);
-        gen.setFitness(gen.getRutaFinal().size());
+        if (gen.getFitness() != Double.POSITIVE_INFINITY) {
+            gen.setFitness(gen.getRutaFinal().size());
+        }
     }
 
     private List<Pedido> seleccionarPedidosParaCamion(Camion camion, List<Pedido> pedidosEvaluar,
@@ -300,48 +320,51 @@ public class Individuo {
     }
 
     private double calculoDistanciaTotalRecorrido(Camion camion, List<Pedido> seleccionados,
-            List<Almacen> almacenesDisponibles) {
-        seleccionados.sort((p1, p2) -> {
-            double distanciaP1 = Mapa.calcularDistancia(camion.getCoordenada(), p1.getCoordenada());
-            double distanciaP2 = Mapa.calcularDistancia(camion.getCoordenada(), p2.getCoordenada());
-            return Double.compare(distanciaP1, distanciaP2);
-        });
-        double distanciaTotal = 0;
-        Gen gen = getGenPorCamion(camion.getCodigo());
-        Nodo ultimoNodo = gen.ultimoNodo();
-        for (int i = 0; i < seleccionados.size(); i++) {
+            List<Almacen> almacenesDisponibles, int[] distanciasCamion) {
+        Mapa mapa = Mapa.getInstance();
+        seleccionados.sort((p1, p2) -> Integer.compare(
+                distanciaDesdeCamion(distanciasCamion, p1),
+                distanciaDesdeCamion(distanciasCamion, p2)));
+        Pedido primero = seleccionados.get(0);
+        int distanciaPrimero = distanciasCamion[mapa.indiceCelda(primero.getCoordenada())];
+        if (distanciaPrimero == Mapa.INALCANZABLE) {
+            return Double.POSITIVE_INFINITY; // El pedido está encerrado por bloqueos
+        }
+        double distanciaTotal = distanciaPrimero;
+        Nodo ultimoNodo = primero;
+        for (int i = 1; i < seleccionados.size(); i++) {
             Pedido pedido = seleccionados.get(i);
-            double distancia = Mapa.calcularDistancia(ultimoNodo.getCoordenada(), pedido.getCoordenada());
-            distanciaTotal += distancia;
+            distanciaTotal += mapa.distanciaRuta(ultimoNodo.getCoordenada(), pedido.getCoordenada());
             ultimoNodo = pedido;
         }
         Almacen almacenCercano = hallarAlmacenCercanoDadoUnNodo(ultimoNodo, almacenesDisponibles);
-        distanciaTotal += Mapa.calcularDistancia(ultimoNodo.getCoordenada(),
-                almacenCercano.getCoordenada());
+        if (almacenCercano == null) {
+            return Double.POSITIVE_INFINITY; // No hay almacén alcanzable para el regreso
+        }
+        distanciaTotal += distanciaHastaAlmacen(ultimoNodo, almacenCercano);
         return distanciaTotal;
     }
 
+    private int distanciaDesdeCamion(int[] distanciasCamion, Pedido pedido) {
+        int distancia = distanciasCamion[Mapa.getInstance().indiceCelda(pedido.getCoordenada())];
+        return distancia == Mapa.INALCANZABLE ? Integer.MAX_VALUE : distancia;
+    }
+
     public Almacen hallarAlmacenMasCercano(Camion camion, List<Almacen> almacenesDisponibles) {
-        Almacen almacenCercano = null;
-        double distanciaMinima = Double.MAX_VALUE;
         Gen gen = getGenPorCamion(camion.getCodigo());
-        Nodo nodo = gen.ultimoNodo();
-        for (Almacen almacen : almacenesDisponibles) {
-            double distancia = Mapa.calcularDistancia(nodo.getCoordenada(), almacen.getCoordenada());
-            if (distancia < distanciaMinima) {
-                distanciaMinima = distancia;
-                almacenCercano = almacen;
-            }
-        }
-        return almacenCercano;
+        return hallarAlmacenCercanoDadoUnNodo(gen.ultimoNodo(), almacenesDisponibles);
     }
 
+    // Usa los campos de distancia de los almacenes: O(1) por almacén y respeta
+    // bloqueos. Devuelve null si ningún almacén es alcanzable
     public Almacen hallarAlmacenCercanoDadoUnNodo(Nodo nodo, List<Almacen> almacenesDisponibles) {
         Almacen almacenCercano = null;
-        double distanciaMinima = Double.MAX_VALUE;
+        int distanciaMinima = Integer.MAX_VALUE;
+        CamposDistanciaAlmacenes campos = Mapa.getInstance().getCamposDistanciaAlmacenes();
+        int celda = Mapa.getInstance().indiceCelda(nodo.getCoordenada());
         for (Almacen almacen : almacenesDisponibles) {
-            double distancia = Mapa.calcularDistancia(nodo.getCoordenada(), almacen.getCoordenada());
-            if (distancia < distanciaMinima) {
+            int distancia = campos.distancia(almacen, celda);
+            if (distancia != CamposDistanciaAlmacenes.INALCANZABLE && distancia < distanciaMinima) {
                 distanciaMinima = distancia;
                 almacenCercano = almacen;
             }
@@ -349,8 +372,14 @@ public class Individuo {
         return almacenCercano;
     }
 
+    private double distanciaHastaAlmacen(Nodo nodo, Almacen almacen) {
+        int distancia = Mapa.getInstance().getCamposDistanciaAlmacenes().distancia(almacen,
+                Mapa.getInstance().indiceCelda(nodo.getCoordenada()));
+        return distancia == CamposDistanciaAlmacenes.INALCANZABLE ? Double.POSITIVE_INFINITY : distancia;
+    }
+
     private List<Camion> obtenerCamionesDisponibles() {
-        List<Camion> camiones = Parametros.dataLoader.camiones;
+        List<Camion> camiones = Parametros.getDataLoader().camiones;
 
         // FILTRAR CAMIONES EN MANTENIMIENTO - Ubicación más eficiente
         List<Camion> camionesDisponibles = camiones.stream()
@@ -370,8 +399,9 @@ public class Individuo {
         this.fitness = 0.0;
         this.descripcion = ""; // Reiniciar la descripción
         guardarEstadoActual(); // Guardar el estado actual antes de calcular el fitness
+        Map<Long, int[]> rutas = resolverTramosEnLote();
         for (Gen gen : cromosoma) {
-            double fitnessGen = gen.calcularFitness();
+            double fitnessGen = gen.calcularFitness(rutas);
             if (fitnessGen == Double.POSITIVE_INFINITY) {
                 this.descripcion = gen.getDescripcion(); // Guardar la descripción del error
                 restaurarEstadoActual();
@@ -383,14 +413,37 @@ public class Individuo {
         return fitness;
     }
 
+    // Los tramos de todos los genes son independientes entre sí, así que se
+    // resuelven juntos en paralelo
+    private Map<Long, int[]> resolverTramosEnLote() {
+        Mapa mapa = Mapa.getInstance();
+        List<Nodo[]> tramos = new ArrayList<>();
+        for (Gen gen : cromosoma) {
+            tramos.addAll(gen.tramos());
+        }
+        int[] origenes = new int[tramos.size()];
+        int[] destinos = new int[tramos.size()];
+        for (int i = 0; i < tramos.size(); i++) {
+            origenes[i] = mapa.indiceCelda(tramos.get(i)[0].getCoordenada());
+            destinos[i] = mapa.indiceCelda(tramos.get(i)[1].getCoordenada());
+        }
+        int[][] rutas = mapa.getBuscadorRutasEnLote().resolver(origenes, destinos);
+        Map<Long, int[]> rutasPorTramo = new HashMap<>();
+        for (int i = 0; i < tramos.size(); i++) {
+            rutasPorTramo.put(mapa.claveTramo(tramos.get(i)[0].getCoordenada(), tramos.get(i)[1].getCoordenada()),
+                    rutas[i]);
+        }
+        return rutasPorTramo;
+    }
+
     public void guardarEstadoActual() {
         for (Pedido pedido : pedidos) {
             pedido.guardarCopia();
         }
-        for (Almacen almacen : Parametros.dataLoader.almacenes) {
+        for (Almacen almacen : Parametros.getDataLoader().almacenes) {
             almacen.guardarCopia();
         }
-        for (Camion camion : Parametros.dataLoader.camiones) {
+        for (Camion camion : Parametros.getDataLoader().camiones) {
             camion.guardarCopia();
         }
     }
@@ -399,10 +452,10 @@ public class Individuo {
         for (Pedido pedido : pedidos) {
             pedido.restaurarCopia();
         }
-        for (Almacen almacen : Parametros.dataLoader.almacenes) {
+        for (Almacen almacen : Parametros.getDataLoader().almacenes) {
             almacen.restaurarCopia();
         }
-        for (Camion camion : Parametros.dataLoader.camiones) {
+        for (Camion camion : Parametros.getDataLoader().camiones) {
             camion.restaurarCopia();
         }
     }
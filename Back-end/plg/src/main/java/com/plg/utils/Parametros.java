@@ -2,33 +2,24 @@ package com.plg.utils;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
 import com.plg.config.DataLoader;
+import com.plg.entity.TipoCamion;
 
 public class Parametros {
 
-    public static String dia = "01";
-    public static String mes = "02";
-    public static String anho = "2025";
     public static DateTimeFormatter formatoFechaHora = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-    public static LocalDateTime fecha_inicial = LocalDateTime.parse(dia + "/" + mes + "/" + anho + " 00:00",
-            formatoFechaHora);
-    public static int intervaloTiempo = 120; // minutos
-    public static int diferenciaTiempoMinRequest = 0; // Es la diferencia entre request
     private static Parametros instance;
-    public static int contadorPrueba = 0;
-    public static double kilometrosRecorridos = 0;
-    public static double fitnessGlobal = 0;
-    public static DataLoader dataLoader;
-    public static TipoDeSimulacion tipoDeSimulacion = TipoDeSimulacion.SEMANAL;
-    public static LocalDateTime fecha_inicio_simulacion;
 
     public static int cantNodosEnPedidos = 10; // Cantidad de nodos generados extra por un pedido
     public static double diferenciaParaPedidoEntregado = 0.5; // Diferencia para considerar un pedido como entregado
 
-    public static double velocidadCamion = 70.0; // Velocidad promedio de los camiones en km/h
+    // ! HEURISTICA ALT PARA A*
+    public static int cantidadLandmarks = 8; // Cantidad de landmarks para la heurística de A*
+    public static long memoriaMaximaLandmarks = 256 * 1024; // Bytes máximos para las distancias de los landmarks
 
-    // ! PARA LAS AVERIAS AUTOMATICAS
-    public static int numero_de_paquete = 0; // Numero de paquete para averias automaticas
     //!RANGO DE TRAMOS PARA AVERIAS AUTOMATICAS
     public static double rango_inicial_tramo_averia = 5/100.0; // Rango inicial para averias automaticas
     public static double rango_final_tramo_averia = 35/100.0; 
@@ -41,18 +32,166 @@ public class Parametros {
         return instance;
     }
 
+    /*
+     * Los parámetros de tiempo y los datos de la simulación pertenecen a la
+     * simulación en curso; se leen y escriben en el contexto del hilo actual.
+     */
+    public static DataLoader getDataLoader() {
+        return ContextoSimulacion.actual().getDataLoader();
+    }
+
+    public static void setDataLoader(DataLoader dataLoader) {
+        ContextoSimulacion.actual().setDataLoader(dataLoader);
+    }
+
+    public static String getDia() {
+        return ContextoSimulacion.actual().getDia();
+    }
+
+    public static void setDia(String dia) {
+        ContextoSimulacion.actual().setDia(dia);
+    }
+
+    public static String getMes() {
+        return ContextoSimulacion.actual().getMes();
+    }
+
+    public static void setMes(String mes) {
+        ContextoSimulacion.actual().setMes(mes);
+    }
+
+    public static String getAnho() {
+        return ContextoSimulacion.actual().getAnho();
+    }
+
+    public static void setAnho(String anho) {
+        ContextoSimulacion.actual().setAnho(anho);
+    }
+
+    public static LocalDateTime getFechaInicial() {
+        return ContextoSimulacion.actual().getFechaInicial();
+    }
+
+    public static void setFechaInicial(LocalDateTime fechaInicial) {
+        ContextoSimulacion.actual().setFechaInicial(fechaInicial);
+    }
+
+    public static LocalDateTime getFechaInicioSimulacion() {
+        return ContextoSimulacion.actual().getFechaInicioSimulacion();
+    }
+
+    public static void setFechaInicioSimulacion(LocalDateTime fechaInicioSimulacion) {
+        ContextoSimulacion.actual().setFechaInicioSimulacion(fechaInicioSimulacion);
+    }
+
+    public static int getIntervaloTiempo() {
+        return ContextoSimulacion.actual().getIntervaloTiempo();
+    }
+
+    public static void setIntervaloTiempo(int intervaloTiempo) {
+        ContextoSimulacion.actual().setIntervaloTiempo(intervaloTiempo);
+    }
+
+    public static int getDiferenciaTiempoMinRequest() {
+        return ContextoSimulacion.actual().getDiferenciaTiempoMinRequest();
+    }
+
+    public static void setDiferenciaTiempoMinRequest(int diferenciaTiempoMinRequest) {
+        ContextoSimulacion.actual().setDiferenciaTiempoMinRequest(diferenciaTiempoMinRequest);
+    }
+
+    public static TipoDeSimulacion getTipoDeSimulacion() {
+        return ContextoSimulacion.actual().getTipoDeSimulacion();
+    }
+
+    public static void setTipoDeSimulacion(TipoDeSimulacion tipoDeSimulacion) {
+        ContextoSimulacion.actual().setTipoDeSimulacion(tipoDeSimulacion);
+    }
+
+    public static double getVelocidadCamion() {
+        return ContextoSimulacion.actual().getVelocidadCamion();
+    }
+
+    public static void setVelocidadCamion(double velocidadCamion) {
+        ContextoSimulacion.actual().setVelocidadCamion(velocidadCamion);
+    }
+
+    public static int getPaquetesAdelantados() {
+        return ContextoSimulacion.actual().getPaquetesAdelantados();
+    }
+
+    public static void setPaquetesAdelantados(int paquetesAdelantados) {
+        ContextoSimulacion.actual().setPaquetesAdelantados(paquetesAdelantados);
+    }
+
+    public static int getNumeroDePaquete() {
+        return ContextoSimulacion.actual().getNumeroDePaquete();
+    }
+
+    public static void setNumeroDePaquete(int numeroDePaquete) {
+        ContextoSimulacion.actual().setNumeroDePaquete(numeroDePaquete);
+    }
+
+    public static int getContadorPrueba() {
+        return ContextoSimulacion.actual().getContadorPrueba();
+    }
+
+    public static void setContadorPrueba(int contadorPrueba) {
+        ContextoSimulacion.actual().setContadorPrueba(contadorPrueba);
+    }
+
+    public static double getKilometrosRecorridos() {
+        return ContextoSimulacion.actual().getKilometrosRecorridos();
+    }
+
+    public static void setKilometrosRecorridos(double kilometrosRecorridos) {
+        ContextoSimulacion.actual().setKilometrosRecorridos(kilometrosRecorridos);
+    }
+
+    public static double getFitnessGlobal() {
+        return ContextoSimulacion.actual().getFitnessGlobal();
+    }
+
+    public static void setFitnessGlobal(double fitnessGlobal) {
+        ContextoSimulacion.actual().setFitnessGlobal(fitnessGlobal);
+    }
+
+    public static Map<TipoCamion, Integer> getFlota() {
+        return ContextoSimulacion.actual().getFlota();
+    }
+
+    public static void setFlota(Map<TipoCamion, Integer> flota) {
+        ContextoSimulacion.actual().setFlota(new EnumMap<>(flota));
+    }
+
+    public static double getTasaAveriasAutomaticas() {
+        return ContextoSimulacion.actual().getTasaAveriasAutomaticas();
+    }
+
+    public static void setTasaAveriasAutomaticas(double tasaAveriasAutomaticas) {
+        ContextoSimulacion.actual().setTasaAveriasAutomaticas(tasaAveriasAutomaticas);
+    }
+
+    public static int getPoblacionAlgoritmo() {
+        return ContextoSimulacion.actual().getPoblacionAlgoritmo();
+    }
+
+    public static void setPoblacionAlgoritmo(int poblacionAlgoritmo) {
+        ContextoSimulacion.actual().setPoblacionAlgoritmo(poblacionAlgoritmo);
+    }
+
     public static void actualizarParametrosGlobales(LocalDateTime fechaInicio) {
         // Extraer año, mes y día de la fecha de inicio
-        Parametros.anho = String.valueOf(fechaInicio.getYear());
-        Parametros.mes = String.format("%02d", fechaInicio.getMonthValue());
-        Parametros.dia = String.format("%02d", fechaInicio.getDayOfMonth());
+        setAnho(String.valueOf(fechaInicio.getYear()));
+        setMes(String.format("%02d", fechaInicio.getMonthValue()));
+        setDia(String.format("%02d", fechaInicio.getDayOfMonth()));
 
         // Actualizar fecha_inicial en Parametros
-        Parametros.fecha_inicial = fechaInicio;
+        setFechaInicial(fechaInicio);
         System.out.println("📅 Parámetros actualizados:");
-        System.out.println("   • Año: " + Parametros.anho);
-        System.out.println("   • Mes: " + Parametros.mes);
-        System.out.println("   • Día: " + Parametros.dia);
+        System.out.println("   • Año: " + getAnho());
+        System.out.println("   • Mes: " + getMes());
+        System.out.println("   • Día: " + getDia());
     }
 
 }
\ No newline at end of file
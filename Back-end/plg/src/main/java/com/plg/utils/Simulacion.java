@@ -2,118 +2,202 @@ package com.plg.utils;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.plg.config.DataLoader;
 import com.plg.entity.Almacen;
 import com.plg.entity.Bloqueo;
 import com.plg.entity.Camion;
-import com.plg.entity.Coordenada;
+import com.plg.entity.EstadoCamion;
 import com.plg.entity.Mapa;
-import com.plg.entity.Nodo;
 import com.plg.entity.Pedido;
 import com.plg.entity.TipoAlmacen;
-import com.plg.entity.TipoNodo;
 import com.plg.utils.simulacion.MantenimientoManager;
 import com.plg.utils.simulacion.AveriasManager;
+import com.plg.utils.simulacion.EventoSimulacion;
+import com.plg.utils.simulacion.IndiceIntervalosBloqueo;
+import com.plg.utils.simulacion.MotorEventosSimulacion;
+import com.plg.utils.simulacion.RegistroPedidos;
 import com.plg.utils.simulacion.UtilesSimulacion;
+import com.plg.utils.rutas.ResultadoRuta;
 
 public class Simulacion {
 
-    public static Set<Pedido> pedidosPlanificados = new LinkedHashSet<>();
-    public static Set<Pedido> pedidosEntregados = new LinkedHashSet<>();
-    public static List<Bloqueo> bloqueosActivos = new ArrayList<>();
-    public static Individuo mejorIndividuo = null;
-    // Variable global para pedidosEnviar
-    public static List<Pedido> pedidosEnviar = new ArrayList<>();
+    /*
+     * El estado de la simulación (pedidos planificados y entregados, bloqueos
+     * activos, mejor individuo, pedidos a enviar, índice de pedidos por registro
+     * y cola de eventos) vive en el contexto de simulación del hilo actual.
+     */
+
+    public static RegistroPedidos getRegistroPedidos() {
+        return ContextoSimulacion.actual().getRegistroPedidos();
+    }
+
+    public static List<Bloqueo> getBloqueosActivos() {
+        return ContextoSimulacion.actual().getBloqueosActivos();
+    }
+
+    public static void setBloqueosActivos(List<Bloqueo> bloqueosActivos) {
+        ContextoSimulacion.actual().setBloqueosActivos(bloqueosActivos);
+    }
+
+    public static Individuo getMejorIndividuo() {
+        return ContextoSimulacion.actual().getMejorIndividuo();
+    }
+
+    public static void setMejorIndividuo(Individuo mejorIndividuo) {
+        ContextoSimulacion.actual().setMejorIndividuo(mejorIndividuo);
+    }
+
+    public static List<Pedido> getPedidosEnviar() {
+        return ContextoSimulacion.actual().getPedidosEnviar();
+    }
+
+    public static void setPedidosEnviar(List<Pedido> pedidosEnviar) {
+        ContextoSimulacion.actual().setPedidosEnviar(pedidosEnviar);
+    }
+
+    public static MotorEventosSimulacion getMotorEventos() {
+        return ContextoSimulacion.actual().getMotorEventos();
+    }
 
     public static void configurarSimulacionDiaria(LocalDateTime startDate) {
         // Aun no implementado
     }
 
     public static void configurarSimulacionSemanal(LocalDateTime startDate) {
+        // 0. Se descartan los intervalos adelantados de la simulación anterior
+        ContextoSimulacion.actual().getProductor().reiniciar();
         // 1. Actualizar parámetros globales antes de cargar datos
         Parametros.actualizarParametrosGlobales(startDate);
         // 2. Limpiamos el mapa antes de iniciar la simulación
         Mapa.getInstance().limpiarMapa();
         // 3. Creamos un nuevo dataLoader para la simulación semanal
-        Parametros.dataLoader = new DataLoader();
+        Parametros.setDataLoader(new DataLoader());
 
         // 4. Limpiamos las listas de pedidos
 
-        pedidosPlanificados.clear();
-        pedidosEntregados.clear();
-        pedidosEnviar.clear();
+        getRegistroPedidos().limpiar();
+        getPedidosEnviar().clear();
+        getMotorEventos().reiniciar(TiempoSimulacion.aMinuto(startDate));
 
     }
 
     public static void actualizarEstadoGlobal(LocalDateTime fechaActual) {
         actualizarRepositorios(fechaActual);
         actualizarCamiones(fechaActual);
-        MantenimientoManager.verificarYActualizarMantenimientos(Parametros.dataLoader.camiones, fechaActual);
+        MantenimientoManager.verificarYActualizarMantenimientos(Parametros.getDataLoader().camiones, fechaActual);
         AveriasManager.actualizarCamionesEnAveria(fechaActual);
-        Simulacion.bloqueosActivos = Simulacion.actualizarBloqueos(fechaActual);
+        setBloqueosActivos(actualizarBloqueos(fechaActual));
+        reprogramarRutasBloqueadas();
+        actualizarPedidos();
+    }
+
+    /**
+     * Avanza el estado global procesando solo los eventos vencidos desde el
+     * avance anterior: los camiones se mueven siempre, pero los bloqueos, las
+     * averías, los mantenimientos y la recarga de almacenes se actualizan solo
+     * cuando hay un evento de su tipo. Devuelve los eventos procesados para que
+     * quien llama decida si replanificar.
+     */
+    public static List<EventoSimulacion> actualizarEstadoPorEventos(LocalDateTime fechaActual) {
+        actualizarCamiones(fechaActual);
+        List<EventoSimulacion> eventos = getMotorEventos().avanzarHasta(Parametros.getDataLoader(),
+                TiempoSimulacion.aMinuto(fechaActual));
+        boolean hayBloqueos = false;
+        boolean hayAverias = false;
+        for (EventoSimulacion evento : eventos) {
+            switch (evento.getTipo()) {
+                case INICIO_DIA -> {
+                    actualizarRepositorios(evento.getFecha());
+                    MantenimientoManager.verificarYActualizarMantenimientos(Parametros.getDataLoader().camiones,
+                            evento.getFecha());
+                }
+                case BLOQUEO_INICIO, BLOQUEO_FIN -> hayBloqueos = true;
+                case AVERIA_REPORTADA, AVERIA_TRASLADO, AVERIA_REPARADA -> hayAverias = true;
+                default -> {
+                    // Pedidos y llegadas se reflejan al actualizar los pedidos
+                }
+            }
+        }
+        if (hayAverias) {
+            AveriasManager.actualizarCamionesEnAveria(fechaActual);
+        }
+        if (hayBloqueos) {
+            setBloqueosActivos(actualizarBloqueos(fechaActual));
+            reprogramarRutasBloqueadas();
+        }
         actualizarPedidos();
+        return eventos;
     }
 
     public static List<Pedido> actualizarPedidosEnRango() {
         // 1. Obtenemos todos los pedidos del fechaActual < x < fechaActual +
         // intervaloTiempo
         // LocalDateTime fecha_inferior =
-        // Parametros.fecha_inicial.minusMinutes(Parametros.intervaloTiempo).minusMinutes(10);
-        LocalDateTime fecha_inferior = Parametros.fecha_inicio_simulacion;
-        LocalDateTime fecha_superior = Parametros.fecha_inicial.plusMinutes(Parametros.intervaloTiempo).plusMinutes(10);
-        List<Pedido> pedidosEnRango = Parametros.dataLoader.pedidos.stream()
-                .filter(pedido -> pedido.getFechaRegistro().isAfter(fecha_inferior)
-                        && pedido.getFechaRegistro().isBefore(fecha_superior)
-                        && !pedidosEntregados.contains(pedido))
-                .collect(Collectors.toList());
+        // Parametros.getFechaInicial().minusMinutes(Parametros.getIntervaloTiempo()).minusMinutes(10);
+        long minuto_inferior = TiempoSimulacion.aMinuto(Parametros.getFechaInicioSimulacion());
+        long minuto_superior = minutoSuperiorPedidos(Parametros.getFechaInicial());
+        RegistroPedidos registroPedidos = getRegistroPedidos();
+        List<Pedido> pedidosEnRango = ContextoSimulacion.actual().getIndicePedidos().pedidosEnRango(
+                Parametros.getDataLoader().pedidos, minuto_inferior, minuto_superior, registroPedidos);
 
         // 2. Unimos pedidosEnRango con pedidosPlanificados
         List<Pedido> pedidosUnidos = UtilesSimulacion.unirPedidosSinRepetidos(
-                new LinkedHashSet<>(pedidosPlanificados),
-                new LinkedHashSet<>(pedidosEnRango));
+                registroPedidos.getPlanificados(), pedidosEnRango);
         return pedidosUnidos;
     }
 
+    /**
+     * Minuto (excluido) hasta el que se toman los pedidos registrados para el
+     * intervalo que empieza en la fecha indicada.
+     */
+    public static long minutoSuperiorPedidos(LocalDateTime fecha) {
+        return TiempoSimulacion.aMinuto(fecha) + Parametros.getIntervaloTiempo() + 10;
+    }
+
+    /**
+     * Descarta el índice de pedidos por registro; se llama cuando se reemplaza un
+     * pedido en la lista del dataLoader.
+     */
+    public static void invalidarIndicePedidos() {
+        ContextoSimulacion.actual().getIndicePedidos().invalidar();
+    }
+
     private static void actualizarPedidos() {
         List<Pedido> pedidosActualizados = actualizarPedidosEnRango();
-        // Borramos los pedidos del mapa
-        for (int i = 0; i < Mapa.getInstance().getFilas(); i++) {
-            for (int j = 0; j < Mapa.getInstance().getColumnas(); j++) {
-                Nodo nodo = Mapa.getInstance().getMatriz().get(i).get(j);
-                if (nodo instanceof Pedido) {
-                    Nodo nodoaux = Nodo.builder().coordenada(new Coordenada(i, j)).tipoNodo(TipoNodo.NORMAL).build();
-                    Mapa.getInstance().setNodo(nodo.getCoordenada(), nodoaux);
-                }
-            }
-        }
-        // Colocamos todos los nuevos pedidos en el mapa
-        for (Pedido pedido : pedidosActualizados) {
-            Mapa.getInstance().setNodo(pedido.getCoordenada(), pedido);
-        }
-        pedidosEnviar = pedidosActualizados;
+        // Solo se tocan las celdas de los pedidos que entran o salen del mapa
+        Mapa.getInstance().getPedidosEnMapa().sincronizar(pedidosActualizados);
+        setPedidosEnviar(pedidosActualizados);
     }
 
     public static List<Bloqueo> actualizarBloqueos(LocalDateTime fechaActual) {
-        List<Bloqueo> bloqueos = Parametros.dataLoader.bloqueos;
-        List<Bloqueo> bloqueosActivos = new ArrayList<>();
-        for (Bloqueo bloqueo : bloqueos) {
-            if (bloqueo.getFechaInicio().isBefore(fechaActual) && bloqueo.getFechaFin().isAfter(fechaActual)) {
-                bloqueo.activarBloqueo();
-                bloqueosActivos.add(bloqueo);
+        // Solo se tocan en el mapa los bloqueos que empiezan o terminan desde el
+        // intervalo anterior
+        IndiceIntervalosBloqueo indice = Parametros.getDataLoader().getIndiceBloqueos();
+        return Mapa.getInstance().getBloqueosEnMapa().sincronizar(indice, TiempoSimulacion.aMinuto(fechaActual));
+    }
+
+    // Repara con D* Lite los tramos de ruta que quedaron cortados por los bloqueos
+    // recién activados, sin esperar a una nueva ejecución del algoritmo genético
+    private static void reprogramarRutasBloqueadas() {
+        for (Camion camion : Parametros.getDataLoader().camiones) {
+            if (camion.getGen() == null || camion.getEstado() != EstadoCamion.DISPONIBLE) {
+                continue;
+            }
+            ResultadoRuta resultado = Mapa.getInstance().getReplanificadorRutas().reprogramar(camion.getGen());
+            if (!resultado.esAlcanzable()) {
+                System.out.println("⚠️ Camión " + camion.getCodigo()
+                        + " no tiene ruta alternativa a su siguiente parada por los bloqueos");
+            } else {
+                Mapa.getInstance().getIndiceRutasPorCelda().actualizarRuta(camion.getGen());
             }
         }
-        return bloqueosActivos;
     }
 
     private static void actualizarRepositorios(LocalDateTime fechaActual) {
-        List<Almacen> almacenes = Parametros.dataLoader.almacenes;
-        LocalDateTime fechaAnterior = fechaActual.minusMinutes(Parametros.intervaloTiempo);
+        List<Almacen> almacenes = Parametros.getDataLoader().almacenes;
+        LocalDateTime fechaAnterior = fechaActual.minusMinutes(Parametros.getIntervaloTiempo());
         int diaFechaAnterior = fechaAnterior.getDayOfMonth();
         int diaFechaActual = fechaActual.getDayOfMonth();
         if (diaFechaAnterior != diaFechaActual) {
@@ -128,11 +212,16 @@ public class Simulacion {
     }
 
     private static void actualizarCamiones(LocalDateTime fechaActual) {
-        List<Camion> camiones = Parametros.dataLoader.camiones;
+        List<Camion> camiones = Parametros.getDataLoader().camiones;
 
+        RegistroPedidos registroPedidos = getRegistroPedidos();
         for (Camion camion : camiones) {
-            camion.actualizarEstado(pedidosPlanificados,
-                    pedidosEntregados);
+            camion.actualizarEstado(registroPedidos);
+        }
+        // Solo los pedidos entregados en este intervalo se quitan del mapa; los
+        // anteriores ya están archivados
+        for (Pedido pedido : registroPedidos.archivarEntregados()) {
+            Mapa.getInstance().getPedidosEnMapa().quitar(pedido);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.plg.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Representación interna del tiempo de la simulación como minutos desde la
+ * época (1970-01-01 00:00), sin zona horaria.
+ *
+ * Los cálculos de la simulación comparan y suman estos {@code long} en lugar de
+ * crear y comparar objetos {@link LocalDateTime}; la conversión a fecha se hace
+ * solo al devolver datos por la API o al mostrarlos. Los segundos se descartan,
+ * igual que en las comparaciones "sin segundos" que se usaban antes.
+ */
+public final class TiempoSimulacion {
+
+    /** Minuto que representa una fecha ausente (por ejemplo, sin fecha límite). */
+    public static final long SIN_FECHA = Long.MAX_VALUE;
+
+    private TiempoSimulacion() {
+    }
+
+    public static long aMinuto(LocalDateTime fecha) {
+        if (fecha == null) {
+            return SIN_FECHA;
+        }
+        return Math.floorDiv(fecha.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public static LocalDateTime aFecha(long minuto) {
+        if (minuto == SIN_FECHA) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(minuto * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,105 @@
+package com.plg.utils.rutas;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.plg.entity.Mapa;
+
+/**
+ * Resuelve en paralelo un lote de tramos (origen, destino) sobre el mapa.
+ *
+ * Se toma una foto de las celdas bloqueadas y de las tablas de landmarks al
+ * inicio del lote y se eliminan los pares repetidos. Cada par distinto se
+ * resuelve igual que en {@link Mapa#buscarRuta}: primero el corredor en L y, si
+ * no está libre, la misma {@link BusquedaAEstrella} con la heurística ALT, en un
+ * pool de hilos dedicado. Cada hilo reutiliza su propia búsqueda, de modo que no
+ * se toca el estado compartido del mapa. Las rutas se devuelven como arreglos de
+ * índices de celda.
+ */
+public class BuscadorRutasEnLote {
+
+    private static final int HILOS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final AtomicInteger CONTADOR_HILOS = new AtomicInteger();
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(HILOS, tarea -> {
+        Thread hilo = new Thread(tarea, "rutas-lote-" + CONTADOR_HILOS.incrementAndGet());
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final Mapa mapa;
+    private final int filas;
+    private final int columnas;
+    private final ThreadLocal<BusquedaAEstrella> busquedas;
+
+    public BuscadorRutasEnLote(Mapa mapa) {
+        this.mapa = mapa;
+        this.filas = mapa.getFilas();
+        this.columnas = mapa.getColumnas();
+        this.busquedas = ThreadLocal.withInitial(() -> new BusquedaAEstrella(filas, columnas));
+    }
+
+    /**
+     * Resuelve todos los tramos del lote. La posición i del resultado tiene las
+     * celdas de la ruta de {@code origenes[i]} a {@code destinos[i]} (ambas
+     * incluidas), o null si el destino es inalcanzable. Los pares repetidos
+     * comparten el mismo arreglo, que no debe modificarse.
+     */
+    public int[][] resolver(int[] origenes, int[] destinos) {
+        if (origenes.length != destinos.length) {
+            throw new IllegalArgumentException("La cantidad de orígenes y destinos no coincide");
+        }
+        int total = filas * columnas;
+        boolean[] bloqueadas = new boolean[total];
+        for (int celda = 0; celda < total; celda++) {
+            bloqueadas[celda] = mapa.estaBloqueada(celda);
+        }
+        ComponentesConexas componentes = mapa.getComponentesConexas();
+        TablaBloqueosAcumulados corredores = mapa.getTablaBloqueosAcumulados();
+        HeuristicaLandmarks.Instantanea heuristica = mapa.getHeuristicaLandmarks().instantanea(bloqueadas);
+        Map<Long, Future<int[]>> pendientes = new HashMap<>();
+        for (int i = 0; i < origenes.length; i++) {
+            int origen = origenes[i];
+            int destino = destinos[i];
+            long clave = (long) origen * total + destino;
+            if (pendientes.containsKey(clave)) {
+                continue;
+            }
+            if (!componentes.sonAlcanzables(origen, destino)) {
+                pendientes.put(clave, null);
+                continue;
+            }
+            int[] directa = corredores.celdasRutaDirecta(origen / columnas, origen % columnas, destino / columnas,
+                    destino % columnas);
+            if (directa != null) {
+                pendientes.put(clave, CompletableFuture.completedFuture(directa));
+                continue;
+            }
+            pendientes.put(clave, POOL.submit(
+                    () -> busquedas.get().buscar(celda -> bloqueadas[celda], heuristica::heuristica, origen, destino)));
+        }
+        int[][] rutas = new int[origenes.length][];
+        Map<Long, int[]> resueltas = new HashMap<>();
+        try {
+            for (int i = 0; i < origenes.length; i++) {
+                long clave = (long) origenes[i] * total + destinos[i];
+                if (!resueltas.containsKey(clave)) {
+                    Future<int[]> futuro = pendientes.get(clave);
+                    resueltas.put(clave, futuro == null ? null : futuro.get());
+                }
+                rutas[i] = resueltas.get(clave);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpió el cálculo de rutas en lote", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al calcular rutas en lote", e.getCause());
+        }
+        return rutas;
+    }
+}
@@ -0,0 +1,144 @@
+package com.plg.utils.rutas;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+
+/**
+ * A* sobre la cuadrícula con vecindad de 4 y costo 1 por paso.
+ *
+ * Es la única búsqueda de rutas entre celdas: la usan tanto
+ * {@link com.plg.entity.Mapa#buscarRuta} como los hilos de
+ * {@link BuscadorRutasEnLote}, así que una misma consulta da la misma ruta sin
+ * importar por dónde se resolvió. Cada instancia reutiliza sus arreglos (la
+ * marca evita limpiarlos en cada búsqueda) y no debe usarse desde dos hilos a
+ * la vez.
+ */
+public class BusquedaAEstrella {
+
+    private final int filas;
+    private final int columnas;
+    private final int[] g;
+    private final int[] padre;
+    private final int[] marca;
+    private int marcaActual = 0;
+    private long[] monticulo = new long[256];
+    private int tamanio = 0;
+
+    public BusquedaAEstrella(int filas, int columnas) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.g = new int[filas * columnas];
+        this.padre = new int[filas * columnas];
+        this.marca = new int[filas * columnas];
+    }
+
+    /**
+     * Celdas de la ruta más corta de origen a destino (ambas incluidas), o null
+     * si el destino es inalcanzable. Una celda bloqueada se puede alcanzar como
+     * destino pero no se atraviesa.
+     *
+     * @param heuristica cota inferior consistente de la distancia (celda, destino)
+     */
+    public int[] buscar(IntPredicate bloqueada, IntBinaryOperator heuristica, int origen, int destino) {
+        marcaActual++;
+        tamanio = 0;
+        marca[origen] = marcaActual;
+        g[origen] = 0;
+        padre[origen] = -1;
+        insertar(heuristica.applyAsInt(origen, destino), origen);
+        while (tamanio > 0) {
+            long entrada = extraer();
+            int actual = (int) entrada;
+            int f = (int) (entrada >>> 32);
+            if (f != g[actual] + heuristica.applyAsInt(actual, destino)) {
+                continue; // Entrada obsoleta
+            }
+            if (actual == destino) {
+                return reconstruir(destino);
+            }
+            if (actual != origen && bloqueada.test(actual)) {
+                continue;
+            }
+            int fila = actual / columnas;
+            int columna = actual % columnas;
+            if (fila > 0) {
+                relajar(bloqueada, heuristica, actual, actual - columnas, destino);
+            }
+            if (fila < filas - 1) {
+                relajar(bloqueada, heuristica, actual, actual + columnas, destino);
+            }
+            if (columna > 0) {
+                relajar(bloqueada, heuristica, actual, actual - 1, destino);
+            }
+            if (columna < columnas - 1) {
+                relajar(bloqueada, heuristica, actual, actual + 1, destino);
+            }
+        }
+        return null;
+    }
+
+    private void relajar(IntPredicate bloqueada, IntBinaryOperator heuristica, int actual, int vecino,
+            int destino) {
+        // Permitir llegar a una celda bloqueada solo si es el destino
+        if (vecino != destino && bloqueada.test(vecino)) {
+            return;
+        }
+        int tentativo = g[actual] + 1;
+        if (marca[vecino] != marcaActual || tentativo < g[vecino]) {
+            marca[vecino] = marcaActual;
+            g[vecino] = tentativo;
+            padre[vecino] = actual;
+            insertar(tentativo + heuristica.applyAsInt(vecino, destino), vecino);
+        }
+    }
+
+    private int[] reconstruir(int destino) {
+        int[] ruta = new int[g[destino] + 1];
+        int celda = destino;
+        for (int i = ruta.length - 1; i >= 0; i--) {
+            ruta[i] = celda;
+            celda = padre[celda];
+        }
+        return ruta;
+    }
+
+    private void insertar(int f, int celda) {
+        if (tamanio == monticulo.length) {
+            monticulo = Arrays.copyOf(monticulo, tamanio * 2);
+        }
+        long entrada = ((long) f << 32) | celda;
+        int i = tamanio++;
+        while (i > 0) {
+            int padreMonticulo = (i - 1) / 2;
+            if (monticulo[padreMonticulo] <= entrada) {
+                break;
+            }
+            monticulo[i] = monticulo[padreMonticulo];
+            i = padreMonticulo;
+        }
+        monticulo[i] = entrada;
+    }
+
+    private long extraer() {
+        long minimo = monticulo[0];
+        long ultimo = monticulo[--tamanio];
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamanio) {
+                break;
+            }
+            if (hijo + 1 < tamanio && monticulo[hijo + 1] < monticulo[hijo]) {
+                hijo++;
+            }
+            if (ultimo <= monticulo[hijo]) {
+                break;
+            }
+            monticulo[i] = monticulo[hijo];
+            i = hijo;
+        }
+        monticulo[i] = ultimo;
+        return minimo;
+    }
+}
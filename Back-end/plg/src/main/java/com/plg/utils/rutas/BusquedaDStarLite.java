@@ -0,0 +1,221 @@
+package com.plg.utils.rutas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.plg.entity.Mapa;
+
+/**
+ * Búsqueda D* Lite de un tramo de ruta hacia una meta fija.
+ *
+ * La búsqueda se hace desde la meta hacia el inicio y conserva sus valores g y
+ * rhs entre llamadas. Cuando cambian celdas o el camión avanza solo se
+ * actualizan los vértices afectados, por lo que reparar la ruta cuesta mucho
+ * menos que volver a lanzar A*. Igual que en A*, el inicio y la meta pueden
+ * estar bloqueados, pero ninguna celda intermedia.
+ */
+public class BusquedaDStarLite {
+
+    private static final int INFINITO = Integer.MAX_VALUE / 2;
+    private static final long SIN_CLAVE = -1;
+
+    private final Mapa mapa;
+    private final int filas;
+    private final int columnas;
+    private final int meta;
+    private int inicio;
+    private int ultimoInicio;
+    private int km = 0;
+    private final int[] g;
+    private final int[] rhs;
+    // Clave con la que cada celda está en la cola abierta; las entradas con otra
+    // clave se descartan al salir
+    private final long[] claveEnAbierta;
+    private final PriorityQueue<long[]> abierta = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    private final boolean[] cambioPendiente;
+    private final List<Integer> cambios = new ArrayList<>();
+
+    public BusquedaDStarLite(Mapa mapa, int inicio, int meta) {
+        this.mapa = mapa;
+        this.filas = mapa.getFilas();
+        this.columnas = mapa.getColumnas();
+        int total = filas * columnas;
+        this.inicio = inicio;
+        this.ultimoInicio = inicio;
+        this.meta = meta;
+        this.g = new int[total];
+        this.rhs = new int[total];
+        this.claveEnAbierta = new long[total];
+        this.cambioPendiente = new boolean[total];
+        Arrays.fill(g, INFINITO);
+        Arrays.fill(rhs, INFINITO);
+        Arrays.fill(claveEnAbierta, SIN_CLAVE);
+        rhs[meta] = 0;
+        insertar(meta);
+    }
+
+    public int getMeta() {
+        return meta;
+    }
+
+    /**
+     * Registra una celda cuyo estado de bloqueo cambió; se procesa en la
+     * siguiente llamada a {@link #buscar(int)}.
+     */
+    public void registrarCambio(int celda) {
+        if (!cambioPendiente[celda]) {
+            cambioPendiente[celda] = true;
+            cambios.add(celda);
+        }
+    }
+
+    /**
+     * Devuelve las celdas de la ruta más corta desde la nueva posición hasta la
+     * meta (ambas incluidas), o null si la meta es inalcanzable.
+     */
+    public List<Integer> buscar(int nuevoInicio) {
+        if (nuevoInicio != inicio || !cambios.isEmpty()) {
+            km += distanciaManhattan(ultimoInicio, nuevoInicio);
+            ultimoInicio = nuevoInicio;
+            int inicioAnterior = inicio;
+            inicio = nuevoInicio;
+            // El inicio siempre se puede abandonar, aunque esté bloqueado
+            actualizarVertice(inicioAnterior);
+            actualizarVertice(inicio);
+            for (int celda : cambios) {
+                cambioPendiente[celda] = false;
+                actualizarVertice(celda);
+                for (int vecino : vecinos(celda)) {
+                    actualizarVertice(vecino);
+                }
+            }
+            cambios.clear();
+        }
+        calcularRutaMasCorta();
+        return extraerRuta();
+    }
+
+    private void calcularRutaMasCorta() {
+        while (!abierta.isEmpty()) {
+            long[] tope = abierta.peek();
+            int u = (int) tope[1];
+            if (claveEnAbierta[u] != tope[0]) {
+                abierta.poll();
+                continue;
+            }
+            if (tope[0] >= clave(inicio) && rhs[inicio] == g[inicio]) {
+                break;
+            }
+            abierta.poll();
+            claveEnAbierta[u] = SIN_CLAVE;
+            long claveNueva = clave(u);
+            if (tope[0] < claveNueva) {
+                insertar(u);
+            } else if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                for (int vecino : vecinos(u)) {
+                    actualizarVertice(vecino);
+                }
+            } else {
+                g[u] = INFINITO;
+                actualizarVertice(u);
+                for (int vecino : vecinos(u)) {
+                    actualizarVertice(vecino);
+                }
+            }
+        }
+    }
+
+    private List<Integer> extraerRuta() {
+        if (g[inicio] >= INFINITO) {
+            return null;
+        }
+        List<Integer> ruta = new ArrayList<>();
+        ruta.add(inicio);
+        int actual = inicio;
+        while (actual != meta) {
+            int siguiente = -1;
+            for (int vecino : vecinos(actual)) {
+                if (sePuedeEntrar(vecino) && g[vecino] < INFINITO
+                        && (siguiente == -1 || g[vecino] < g[siguiente])) {
+                    siguiente = vecino;
+                }
+            }
+            if (siguiente == -1 || g[siguiente] >= g[actual] || ruta.size() > g.length) {
+                return null;
+            }
+            ruta.add(siguiente);
+            actual = siguiente;
+        }
+        return ruta;
+    }
+
+    private void actualizarVertice(int u) {
+        if (u != meta) {
+            rhs[u] = calcularRhs(u);
+        }
+        claveEnAbierta[u] = SIN_CLAVE;
+        if (g[u] != rhs[u]) {
+            insertar(u);
+        }
+    }
+
+    private int calcularRhs(int u) {
+        if (u != inicio && mapa.estaBloqueada(u)) {
+            return INFINITO;
+        }
+        int mejor = INFINITO;
+        for (int vecino : vecinos(u)) {
+            if (sePuedeEntrar(vecino) && g[vecino] + 1 < mejor) {
+                mejor = g[vecino] + 1;
+            }
+        }
+        return mejor;
+    }
+
+    private boolean sePuedeEntrar(int celda) {
+        return celda == meta || !mapa.estaBloqueada(celda);
+    }
+
+    private void insertar(int u) {
+        long claveU = clave(u);
+        claveEnAbierta[u] = claveU;
+        abierta.add(new long[] { claveU, u });
+    }
+
+    // Clave [min(g, rhs) + h + km; min(g, rhs)] empaquetada en un long
+    private long clave(int u) {
+        int minimo = Math.min(g[u], rhs[u]);
+        if (minimo >= INFINITO) {
+            return Long.MAX_VALUE;
+        }
+        long primera = (long) minimo + distanciaManhattan(inicio, u) + km;
+        return (primera << 24) | minimo;
+    }
+
+    private int distanciaManhattan(int a, int b) {
+        return Math.abs(a / columnas - b / columnas) + Math.abs(a % columnas - b % columnas);
+    }
+
+    private int[] vecinos(int celda) {
+        int fila = celda / columnas;
+        int columna = celda % columnas;
+        int[] resultado = new int[4];
+        int cantidad = 0;
+        if (fila > 0) {
+            resultado[cantidad++] = celda - columnas;
+        }
+        if (fila < filas - 1) {
+            resultado[cantidad++] = celda + columnas;
+        }
+        if (columna > 0) {
+            resultado[cantidad++] = celda - 1;
+        }
+        if (columna < columnas - 1) {
+            resultado[cantidad++] = celda + 1;
+        }
+        return Arrays.copyOf(resultado, cantidad);
+    }
+}
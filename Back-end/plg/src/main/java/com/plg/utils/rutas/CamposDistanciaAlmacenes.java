@@ -0,0 +1,203 @@
+package com.plg.utils.rutas;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.plg.entity.Almacen;
+import com.plg.entity.Mapa;
+
+/**
+ * Campos de distancia de todo el mapa hacia cada almacén, respetando bloqueos.
+ *
+ * Cada campo guarda en un {@code short[]} la distancia de ruta entre cualquier
+ * celda y el almacén. Cuando un bloqueo se activa o desactiva el campo se repara
+ * de forma incremental (BFS dinámico): solo se recalculan las celdas cuya
+ * distancia dependía de la celda modificada. Así las consultas de almacén más
+ * cercano, recarga y regreso son O(1).
+ */
+public class CamposDistanciaAlmacenes implements ObservadorBloqueos {
+
+    public static final short INALCANZABLE = -1;
+
+    private final Mapa mapa;
+    private final int filas;
+    private final int columnas;
+    private final Map<Integer, short[]> campos = new HashMap<>();
+    private boolean reconstruir = false;
+
+    public CamposDistanciaAlmacenes(Mapa mapa) {
+        this.mapa = mapa;
+        this.filas = mapa.getFilas();
+        this.columnas = mapa.getColumnas();
+    }
+
+    /**
+     * Distancia de ruta entre una celda y el almacén, o {@link #INALCANZABLE}.
+     */
+    public synchronized int distancia(Almacen almacen, int celda) {
+        return campo(mapa.indiceCelda(almacen.getCoordenada()))[celda];
+    }
+
+    private short[] campo(int celdaAlmacen) {
+        if (reconstruir) {
+            for (Map.Entry<Integer, short[]> entrada : campos.entrySet()) {
+                calcularCampo(entrada.getKey(), entrada.getValue());
+            }
+            reconstruir = false;
+        }
+        short[] campo = campos.get(celdaAlmacen);
+        if (campo == null) {
+            campo = new short[filas * columnas];
+            calcularCampo(celdaAlmacen, campo);
+            campos.put(celdaAlmacen, campo);
+        }
+        return campo;
+    }
+
+    @Override
+    public synchronized void celdaActualizada(int celda, boolean bloqueada) {
+        if (reconstruir) {
+            return;
+        }
+        for (Map.Entry<Integer, short[]> entrada : campos.entrySet()) {
+            int origen = entrada.getKey();
+            short[] campo = entrada.getValue();
+            if (celda == origen || campo[celda] == INALCANZABLE) {
+                // El almacén siempre se expande y una celda inaccesible no aporta rutas
+                continue;
+            }
+            if (bloqueada) {
+                repararBloqueo(origen, campo, celda);
+            } else {
+                PriorityQueue<long[]> pendientes = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+                pendientes.add(new long[] { campo[celda], celda });
+                propagar(origen, campo, pendientes);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void mapaReiniciado() {
+        reconstruir = true;
+    }
+
+    // La celda dejó de expandirse: se invalidan las celdas que solo tenían soporte
+    // a través de ella y luego se vuelven a propagar desde su frontera
+    private void repararBloqueo(int origen, short[] campo, int celda) {
+        boolean[] afectada = new boolean[campo.length];
+        List<Integer> afectadas = new ArrayList<>();
+        ArrayDeque<Integer> cola = new ArrayDeque<>();
+        cola.add(celda);
+        while (!cola.isEmpty()) {
+            int actual = cola.poll();
+            for (int vecino : vecinos(actual)) {
+                if (afectada[vecino] || vecino == origen || campo[vecino] != campo[actual] + 1) {
+                    continue;
+                }
+                if (!tieneSoporte(origen, campo, vecino, afectada)) {
+                    afectada[vecino] = true;
+                    afectadas.add(vecino);
+                    if (!mapa.estaBloqueada(vecino)) {
+                        cola.add(vecino);
+                    }
+                }
+            }
+        }
+        for (int celdaAfectada : afectadas) {
+            campo[celdaAfectada] = INALCANZABLE;
+        }
+        PriorityQueue<long[]> pendientes = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        for (int celdaAfectada : afectadas) {
+            int mejor = Integer.MAX_VALUE;
+            for (int vecino : vecinos(celdaAfectada)) {
+                if (campo[vecino] != INALCANZABLE && seExpande(origen, vecino)) {
+                    mejor = Math.min(mejor, campo[vecino] + 1);
+                }
+            }
+            if (mejor != Integer.MAX_VALUE) {
+                campo[celdaAfectada] = (short) mejor;
+                pendientes.add(new long[] { mejor, celdaAfectada });
+            }
+        }
+        propagar(origen, campo, pendientes);
+    }
+
+    // Una celda conserva su distancia si algún vecino no afectado que se expande
+    // está un paso más cerca del almacén
+    private boolean tieneSoporte(int origen, short[] campo, int celda, boolean[] afectada) {
+        for (int vecino : vecinos(celda)) {
+            if (!afectada[vecino] && campo[vecino] != INALCANZABLE && campo[vecino] == campo[celda] - 1
+                    && seExpande(origen, vecino)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void propagar(int origen, short[] campo, PriorityQueue<long[]> pendientes) {
+        while (!pendientes.isEmpty()) {
+            long[] entrada = pendientes.poll();
+            int actual = (int) entrada[1];
+            if (campo[actual] != entrada[0] || !seExpande(origen, actual)) {
+                continue;
+            }
+            short siguiente = (short) (campo[actual] + 1);
+            for (int vecino : vecinos(actual)) {
+                if (campo[vecino] == INALCANZABLE || campo[vecino] > siguiente) {
+                    campo[vecino] = siguiente;
+                    pendientes.add(new long[] { siguiente, vecino });
+                }
+            }
+        }
+    }
+
+    private boolean seExpande(int origen, int celda) {
+        return celda == origen || !mapa.estaBloqueada(celda);
+    }
+
+    private void calcularCampo(int origen, short[] campo) {
+        Arrays.fill(campo, INALCANZABLE);
+        ArrayDeque<Integer> cola = new ArrayDeque<>();
+        campo[origen] = 0;
+        cola.add(origen);
+        while (!cola.isEmpty()) {
+            int actual = cola.poll();
+            short siguiente = (short) (campo[actual] + 1);
+            for (int vecino : vecinos(actual)) {
+                if (campo[vecino] != INALCANZABLE) {
+                    continue;
+                }
+                campo[vecino] = siguiente;
+                // Las celdas bloqueadas se registran como destino pero no se expanden
+                if (!mapa.estaBloqueada(vecino)) {
+                    cola.add(vecino);
+                }
+            }
+        }
+    }
+
+    private int[] vecinos(int celda) {
+        int fila = celda / columnas;
+        int columna = celda % columnas;
+        int[] resultado = new int[4];
+        int cantidad = 0;
+        if (fila > 0) {
+            resultado[cantidad++] = celda - columnas;
+        }
+        if (fila < filas - 1) {
+            resultado[cantidad++] = celda + columnas;
+        }
+        if (columna > 0) {
+            resultado[cantidad++] = celda - 1;
+        }
+        if (columna < columnas - 1) {
+            resultado[cantidad++] = celda + 1;
+        }
+        return Arrays.copyOf(resultado, cantidad);
+    }
+}
@@ -0,0 +1,234 @@
+package com.plg.utils.rutas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.plg.entity.Mapa;
+
+/**
+ * Etiquetado de componentes conexas de las celdas libres del mapa.
+ *
+ * Se mantiene de forma incremental: cada cambio de bloqueo solo marca como
+ * sucias las componentes que tocan la celda modificada, y en la siguiente
+ * consulta se re-etiquetan únicamente esas componentes. Con esto se puede
+ * responder en O(1) si un destino es alcanzable antes de lanzar A*.
+ */
+public class ComponentesConexas implements ObservadorBloqueos {
+
+    private static final int SIN_ETIQUETA = -1;
+
+    private final Mapa mapa;
+    private final int filas;
+    private final int columnas;
+    private final int[] etiquetas;
+    private final int[] cola;
+    private int siguienteEtiqueta = 0;
+
+    // Cambios pendientes de aplicar
+    private final Set<Integer> etiquetasSucias = new HashSet<>();
+    private final List<Integer> semillas = new ArrayList<>();
+    private boolean reconstruir = true;
+
+    public ComponentesConexas(Mapa mapa) {
+        this.mapa = mapa;
+        this.filas = mapa.getFilas();
+        this.columnas = mapa.getColumnas();
+        this.etiquetas = new int[filas * columnas];
+        this.cola = new int[filas * columnas];
+    }
+
+    @Override
+    public synchronized void celdaActualizada(int celda, boolean bloqueada) {
+        if (reconstruir) {
+            return;
+        }
+        if (bloqueada) {
+            if (etiquetas[celda] != SIN_ETIQUETA) {
+                etiquetasSucias.add(etiquetas[celda]);
+            }
+            etiquetas[celda] = SIN_ETIQUETA;
+        } else {
+            int nueva = siguienteEtiqueta++;
+            etiquetas[celda] = nueva;
+            etiquetasSucias.add(nueva);
+            semillas.add(celda);
+        }
+        int fila = celda / columnas;
+        int columna = celda % columnas;
+        if (fila > 0) {
+            marcarVecino(celda - columnas);
+        }
+        if (fila < filas - 1) {
+            marcarVecino(celda + columnas);
+        }
+        if (columna > 0) {
+            marcarVecino(celda - 1);
+        }
+        if (columna < columnas - 1) {
+            marcarVecino(celda + 1);
+        }
+    }
+
+    @Override
+    public synchronized void mapaReiniciado() {
+        reconstruir = true;
+        etiquetasSucias.clear();
+        semillas.clear();
+    }
+
+    /**
+     * Indica si existe una ruta entre dos celdas. Igual que en A*, el origen y el
+     * destino pueden estar bloqueados, pero ninguna celda intermedia.
+     */
+    public synchronized boolean sonAlcanzables(int origen, int destino) {
+        if (origen == destino || sonAdyacentes(origen, destino)) {
+            return true;
+        }
+        sincronizar();
+        int[] etiquetasOrigen = etiquetasDeAcceso(origen);
+        int[] etiquetasDestino = etiquetasDeAcceso(destino);
+        for (int a : etiquetasOrigen) {
+            if (a == SIN_ETIQUETA) {
+                continue;
+            }
+            for (int b : etiquetasDestino) {
+                if (a == b) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Etiqueta de la componente de una celda libre, o -1 si está bloqueada.
+     */
+    public synchronized int etiqueta(int celda) {
+        sincronizar();
+        return etiquetas[celda];
+    }
+
+    private void marcarVecino(int vecino) {
+        if (etiquetas[vecino] != SIN_ETIQUETA) {
+            etiquetasSucias.add(etiquetas[vecino]);
+            semillas.add(vecino);
+        }
+    }
+
+    // Componentes por las que se entra o sale de una celda: la propia si está
+    // libre, o las de sus vecinos libres si está bloqueada
+    private int[] etiquetasDeAcceso(int celda) {
+        if (etiquetas[celda] != SIN_ETIQUETA) {
+            return new int[] { etiquetas[celda] };
+        }
+        int[] resultado = { SIN_ETIQUETA, SIN_ETIQUETA, SIN_ETIQUETA, SIN_ETIQUETA };
+        int fila = celda / columnas;
+        int columna = celda % columnas;
+        if (fila > 0) {
+            resultado[0] = etiquetas[celda - columnas];
+        }
+        if (fila < filas - 1) {
+            resultado[1] = etiquetas[celda + columnas];
+        }
+        if (columna > 0) {
+            resultado[2] = etiquetas[celda - 1];
+        }
+        if (columna < columnas - 1) {
+            resultado[3] = etiquetas[celda + 1];
+        }
+        return resultado;
+    }
+
+    private boolean sonAdyacentes(int a, int b) {
+        int diferencia = Math.abs(a - b);
+        if (diferencia == columnas) {
+            return true;
+        }
+        return diferencia == 1 && a / columnas == b / columnas;
+    }
+
+    private void sincronizar() {
+        if (reconstruir) {
+            reconstruirTodo();
+            return;
+        }
+        if (semillas.isEmpty()) {
+            return;
+        }
+        for (int semilla : semillas) {
+            int etiquetaSemilla = etiquetas[semilla];
+            // Si ya fue re-etiquetada en esta pasada su etiqueta es nueva y no está sucia
+            if (etiquetaSemilla == SIN_ETIQUETA || !etiquetasSucias.contains(etiquetaSemilla)) {
+                continue;
+            }
+            inundar(semilla, siguienteEtiqueta++);
+        }
+        semillas.clear();
+        etiquetasSucias.clear();
+    }
+
+    // Re-etiqueta la región de celdas libres con etiqueta sucia que contiene a la semilla
+    private void inundar(int semilla, int nueva) {
+        int cabeza = 0;
+        int fin = 0;
+        etiquetas[semilla] = nueva;
+        cola[fin++] = semilla;
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            int fila = actual / columnas;
+            int columna = actual % columnas;
+            if (fila > 0) {
+                fin = expandir(actual - columnas, nueva, fin);
+            }
+            if (fila < filas - 1) {
+                fin = expandir(actual + columnas, nueva, fin);
+            }
+            if (columna > 0) {
+                fin = expandir(actual - 1, nueva, fin);
+            }
+            if (columna < columnas - 1) {
+                fin = expandir(actual + 1, nueva, fin);
+            }
+        }
+    }
+
+    private int expandir(int vecino, int nueva, int fin) {
+        int etiquetaVecino = etiquetas[vecino];
+        if (etiquetaVecino == SIN_ETIQUETA || !etiquetasSucias.contains(etiquetaVecino)) {
+            return fin;
+        }
+        etiquetas[vecino] = nueva;
+        cola[fin++] = vecino;
+        return fin;
+    }
+
+    private void reconstruirTodo() {
+        // Todas las celdas libres comparten una etiqueta provisional que se reparte
+        // por componentes al inundar
+        int provisional = siguienteEtiqueta++;
+        etiquetasSucias.clear();
+        etiquetasSucias.add(provisional);
+        semillas.clear();
+        for (int celda = 0; celda < etiquetas.length; celda++) {
+            etiquetas[celda] = mapa.estaBloqueada(celda) ? SIN_ETIQUETA : provisional;
+        }
+        for (int celda = 0; celda < etiquetas.length; celda++) {
+            if (etiquetas[celda] == provisional) {
+                inundar(celda, siguienteEtiqueta++);
+            }
+        }
+        etiquetasSucias.clear();
+        reconstruir = false;
+    }
+
+    /**
+     * Cantidad de componentes conexas de celdas libres; útil para depuración.
+     */
+    public synchronized int cantidadComponentes() {
+        sincronizar();
+        return (int) Arrays.stream(etiquetas).filter(e -> e != SIN_ETIQUETA).distinct().count();
+    }
+}
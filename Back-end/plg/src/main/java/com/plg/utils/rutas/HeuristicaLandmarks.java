@@ -0,0 +1,221 @@
+package com.plg.utils.rutas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.plg.entity.Mapa;
+
+/**
+ * Heurística ALT (A*, Landmarks, Triangle inequality) para A*.
+ *
+ * Para un conjunto de celdas de referencia (landmarks) se guardan las
+ * distancias exactas BFS a todo el mapa con los bloqueos actuales. Por la
+ * desigualdad triangular, |d(L, t) - d(L, v)| es una cota inferior de la
+ * distancia entre v y t, mucho más ajustada que Manhattan alrededor de muros de
+ * bloqueos. Los landmarks se eligen por el método del punto más lejano y todo se
+ * recalcula solo cuando cambian los bloqueos.
+ */
+public class HeuristicaLandmarks implements ObservadorBloqueos {
+
+    private static final short INALCANZABLE = -1;
+    private static final int BYTES_POR_DISTANCIA = Short.BYTES;
+
+    private final Mapa mapa;
+    private final int filas;
+    private final int columnas;
+    private final int cantidadSolicitada;
+    private final long memoriaMaxima;
+    private final List<Integer> landmarks = new ArrayList<>();
+    private final List<short[]> distancias = new ArrayList<>();
+    private boolean desactualizada = true;
+
+    /**
+     * @param cantidadLandmarks cantidad de landmarks deseada
+     * @param memoriaMaxima     bytes máximos para las tablas de distancia; limita
+     *                          la cantidad de landmarks si hace falta
+     */
+    public HeuristicaLandmarks(Mapa mapa, int cantidadLandmarks, long memoriaMaxima) {
+        this.mapa = mapa;
+        this.filas = mapa.getFilas();
+        this.columnas = mapa.getColumnas();
+        this.cantidadSolicitada = cantidadLandmarks;
+        this.memoriaMaxima = memoriaMaxima;
+    }
+
+    @Override
+    public synchronized void celdaActualizada(int celda, boolean bloqueada) {
+        desactualizada = true;
+    }
+
+    @Override
+    public synchronized void mapaReiniciado() {
+        desactualizada = true;
+    }
+
+    /**
+     * Cota inferior de la distancia de ruta entre dos celdas: el máximo entre
+     * Manhattan y las cotas de cada landmark.
+     */
+    public synchronized int heuristica(int celda, int destino) {
+        if (desactualizada) {
+            recalcular();
+        }
+        return cota(distancias, columnas, celda, destino, !mapa.estaBloqueada(destino));
+    }
+
+    /**
+     * Copia de solo lectura de las tablas actuales, para usar la misma heurística
+     * desde otros hilos sin tomar el candado. Las tablas no se modifican al
+     * recalcular (se reemplazan), así que la copia no duplica memoria.
+     *
+     * @param bloqueadas foto de las celdas bloqueadas con la que se hará la
+     *                   búsqueda
+     */
+    public synchronized Instantanea instantanea(boolean[] bloqueadas) {
+        if (desactualizada) {
+            recalcular();
+        }
+        return new Instantanea(new ArrayList<>(distancias), columnas, bloqueadas);
+    }
+
+    /**
+     * Heurística ALT congelada en un estado de bloqueos.
+     */
+    public static class Instantanea {
+        private final List<short[]> distancias;
+        private final int columnas;
+        private final boolean[] bloqueadas;
+
+        private Instantanea(List<short[]> distancias, int columnas, boolean[] bloqueadas) {
+            this.distancias = distancias;
+            this.columnas = columnas;
+            this.bloqueadas = bloqueadas;
+        }
+
+        public int heuristica(int celda, int destino) {
+            return cota(distancias, columnas, celda, destino, !bloqueadas[destino]);
+        }
+    }
+
+    // Máximo entre Manhattan y las cotas de cada landmark
+    private static int cota(List<short[]> distancias, int columnas, int celda, int destino, boolean destinoLibre) {
+        int cota = Math.abs(celda / columnas - destino / columnas) + Math.abs(celda % columnas - destino % columnas);
+        // Si el destino está bloqueado no se puede pasar por él, así que solo vale
+        // la cota d(L, t) - d(L, v)
+        for (short[] distanciasLandmark : distancias) {
+            int dv = distanciasLandmark[celda];
+            int dt = distanciasLandmark[destino];
+            if (dv == INALCANZABLE || dt == INALCANZABLE) {
+                continue;
+            }
+            int diferencia = destinoLibre ? Math.abs(dt - dv) : dt - dv;
+            if (diferencia > cota) {
+                cota = diferencia;
+            }
+        }
+        return cota;
+    }
+
+    /**
+     * Memoria ocupada por las tablas de distancia de los landmarks actuales.
+     */
+    public synchronized long memoriaUtilizada() {
+        return (long) distancias.size() * filas * columnas * BYTES_POR_DISTANCIA;
+    }
+
+    public synchronized List<Integer> getLandmarks() {
+        if (desactualizada) {
+            recalcular();
+        }
+        return new ArrayList<>(landmarks);
+    }
+
+    private int cantidadPermitida() {
+        long bytesPorLandmark = (long) filas * columnas * BYTES_POR_DISTANCIA;
+        return (int) Math.max(0, Math.min(cantidadSolicitada, memoriaMaxima / bytesPorLandmark));
+    }
+
+    // Selección por punto más lejano: cada landmark nuevo es la celda libre
+    // alcanzable más alejada de todos los anteriores
+    private void recalcular() {
+        landmarks.clear();
+        distancias.clear();
+        int cantidad = cantidadPermitida();
+        int total = filas * columnas;
+        int[] distanciaMinima = new int[total];
+        Arrays.fill(distanciaMinima, Integer.MAX_VALUE);
+        int candidato = primeraCeldaLibre();
+        while (candidato != -1 && landmarks.size() < cantidad) {
+            short[] distanciasLandmark = calcularDistancias(candidato);
+            landmarks.add(candidato);
+            distancias.add(distanciasLandmark);
+            int siguiente = -1;
+            int mejor = 0;
+            for (int celda = 0; celda < total; celda++) {
+                if (distanciasLandmark[celda] != INALCANZABLE) {
+                    distanciaMinima[celda] = Math.min(distanciaMinima[celda], distanciasLandmark[celda]);
+                }
+                // Las celdas que ningún landmark alcanza se cubren con uno nuevo
+                int valor = distanciaMinima[celda] == Integer.MAX_VALUE ? Integer.MAX_VALUE - 1
+                        : distanciaMinima[celda];
+                if (!mapa.estaBloqueada(celda) && valor > mejor) {
+                    mejor = valor;
+                    siguiente = celda;
+                }
+            }
+            candidato = siguiente;
+        }
+        desactualizada = false;
+    }
+
+    private int primeraCeldaLibre() {
+        for (int celda = 0; celda < filas * columnas; celda++) {
+            if (!mapa.estaBloqueada(celda)) {
+                return celda;
+            }
+        }
+        return -1;
+    }
+
+    private short[] calcularDistancias(int origen) {
+        short[] resultado = new short[filas * columnas];
+        Arrays.fill(resultado, INALCANZABLE);
+        int[] cola = new int[filas * columnas];
+        int cabeza = 0;
+        int fin = 0;
+        resultado[origen] = 0;
+        cola[fin++] = origen;
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            int fila = actual / columnas;
+            int columna = actual % columnas;
+            short siguiente = (short) (resultado[actual] + 1);
+            if (fila > 0) {
+                fin = visitar(actual - columnas, siguiente, resultado, cola, fin);
+            }
+            if (fila < filas - 1) {
+                fin = visitar(actual + columnas, siguiente, resultado, cola, fin);
+            }
+            if (columna > 0) {
+                fin = visitar(actual - 1, siguiente, resultado, cola, fin);
+            }
+            if (columna < columnas - 1) {
+                fin = visitar(actual + 1, siguiente, resultado, cola, fin);
+            }
+        }
+        return resultado;
+    }
+
+    private int visitar(int celda, short distancia, short[] resultado, int[] cola, int fin) {
+        if (resultado[celda] != INALCANZABLE) {
+            return fin;
+        }
+        resultado[celda] = distancia;
+        // Las celdas bloqueadas se registran pero no se expanden
+        if (!mapa.estaBloqueada(celda)) {
+            cola[fin++] = celda;
+        }
+        return fin;
+    }
+}
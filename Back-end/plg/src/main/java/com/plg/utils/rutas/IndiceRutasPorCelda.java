@@ -0,0 +1,200 @@
+package com.plg.utils.rutas;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.utils.Gen;
+import com.plg.utils.TiempoSimulacion;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Índice invertido de celda a los pasos de las rutas planificadas que pasan por
+ * ella.
+ *
+ * Cada celda guarda sus pasos ordenados por el minuto en que el camión llega,
+ * de modo que la pregunta "qué camiones cruzan estas celdas entre t1 y t2" se
+ * responde con una búsqueda binaria por celda más el recorrido de los pasos que
+ * forman la respuesta. El índice se actualiza cada vez que se asigna o se
+ * reprograma la ruta de un camión, y se vacía al reiniciar el mapa.
+ */
+public class IndiceRutasPorCelda implements ObservadorBloqueos {
+
+    /**
+     * Paso de la ruta de un camión por una celda.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PasoRuta {
+        private final String codigoCamion;
+        private final int paso;
+        private final int celda;
+        private final double minuto;
+    }
+
+    // Ruta registrada de un camión, necesaria para quitar sus pasos del índice
+    private static class RutaRegistrada {
+        private final LocalDateTime inicio;
+        private final int pasoInicial;
+        private final int[] celdas;
+
+        RutaRegistrada(LocalDateTime inicio, int pasoInicial, int[] celdas) {
+            this.inicio = inicio;
+            this.pasoInicial = pasoInicial;
+            this.celdas = celdas;
+        }
+    }
+
+    private final Mapa mapa;
+    private final List<List<PasoRuta>> pasosPorCelda;
+    private final Map<String, RutaRegistrada> rutas = new HashMap<>();
+
+    public IndiceRutasPorCelda(Mapa mapa) {
+        this.mapa = mapa;
+        int total = mapa.getFilas() * mapa.getColumnas();
+        this.pasosPorCelda = new ArrayList<>(total);
+        for (int celda = 0; celda < total; celda++) {
+            pasosPorCelda.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public synchronized void mapaReiniciado() {
+        for (List<PasoRuta> pasos : pasosPorCelda) {
+            pasos.clear();
+        }
+        rutas.clear();
+    }
+
+    /**
+     * Registra la ruta del gen a partir de la posición actual del camión. El paso
+     * 0 de la ruta corresponde a {@code inicio} y cada paso siguiente avanza una
+     * cuadra a la velocidad del camión, más el tiempo de atención de cada parada
+     * según la línea de tiempo del gen. Reemplaza la ruta anterior del camión.
+     */
+    public synchronized void registrarRuta(Gen gen, LocalDateTime inicio) {
+        String codigo = gen.getCamion().getCodigo();
+        quitarPasos(codigo);
+        List<Nodo> rutaFinal = gen.getRutaFinal();
+        if (rutaFinal == null || rutaFinal.isEmpty()) {
+            return;
+        }
+        int pasoInicial = Math.min(gen.getPosNodo(), rutaFinal.size() - 1);
+        int[] celdas = new int[rutaFinal.size() - pasoInicial];
+        for (int i = 0; i < celdas.length; i++) {
+            int paso = pasoInicial + i;
+            celdas[i] = rutaFinal instanceof RutaCeldas ? ((RutaCeldas) rutaFinal).celdaEn(paso)
+                    : mapa.indiceCelda(rutaFinal.get(paso).getCoordenada());
+        }
+        RutaRegistrada ruta = new RutaRegistrada(inicio, pasoInicial, celdas);
+        rutas.put(codigo, ruta);
+        double minutoInicio = TiempoSimulacion.aMinuto(inicio);
+        double minutosPorPaso = 60.0 / gen.getCamion().getVelocidadPromedio();
+        LineaTiempoRuta lineaTiempo = gen.getLineaTiempo();
+        for (int i = 0; i < celdas.length; i++) {
+            int paso = pasoInicial + i;
+            insertar(new PasoRuta(codigo, paso, celdas[i],
+                    minutoInicio + lineaTiempo.avanceAlLlegar(paso) * minutosPorPaso));
+        }
+    }
+
+    /**
+     * Vuelve a registrar la ruta del gen conservando el instante de inicio con el
+     * que se registró, por ejemplo después de reprogramar un tramo.
+     */
+    public synchronized void actualizarRuta(Gen gen) {
+        RutaRegistrada anterior = rutas.get(gen.getCamion().getCodigo());
+        if (anterior == null) {
+            return;
+        }
+        registrarRuta(gen, anterior.inicio);
+    }
+
+    /**
+     * Instante con el que se registró la ruta del camión, o null si no tiene.
+     */
+    public synchronized LocalDateTime inicioRegistrado(String codigoCamion) {
+        RutaRegistrada ruta = rutas.get(codigoCamion);
+        return ruta == null ? null : ruta.inicio;
+    }
+
+    public synchronized void quitarRuta(String codigoCamion) {
+        quitarPasos(codigoCamion);
+    }
+
+    /**
+     * Pasos de cualquier camión por las celdas indicadas con llegada dentro de
+     * [desde, hasta]. {@code hasta} puede ser null para no poner límite.
+     */
+    public synchronized List<PasoRuta> pasosQueCruzan(Collection<Integer> celdas, LocalDateTime desde,
+            LocalDateTime hasta) {
+        double minutoDesde = TiempoSimulacion.aMinuto(desde);
+        double minutoHasta = hasta == null ? Double.POSITIVE_INFINITY : TiempoSimulacion.aMinuto(hasta);
+        List<PasoRuta> resultado = new ArrayList<>();
+        for (int celda : celdas) {
+            List<PasoRuta> pasos = pasosPorCelda.get(celda);
+            for (int i = primerPasoDesde(pasos, minutoDesde); i < pasos.size(); i++) {
+                PasoRuta paso = pasos.get(i);
+                if (paso.getMinuto() > minutoHasta) {
+                    break;
+                }
+                resultado.add(paso);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Camiones que cruzan alguna de las celdas dentro de [desde, hasta], cada uno
+     * con el primer paso afectado de su ruta.
+     */
+    public synchronized Map<String, Integer> camionesQueCruzan(Collection<Integer> celdas, LocalDateTime desde,
+            LocalDateTime hasta) {
+        Map<String, Integer> primerPaso = new LinkedHashMap<>();
+        for (PasoRuta paso : pasosQueCruzan(celdas, desde, hasta)) {
+            primerPaso.merge(paso.getCodigoCamion(), paso.getPaso(), Math::min);
+        }
+        return primerPaso;
+    }
+
+    private void quitarPasos(String codigo) {
+        RutaRegistrada ruta = rutas.remove(codigo);
+        if (ruta == null) {
+            return;
+        }
+        for (int i = 0; i < ruta.celdas.length; i++) {
+            int paso = ruta.pasoInicial + i;
+            pasosPorCelda.get(ruta.celdas[i])
+                    .removeIf(p -> p.getPaso() == paso && p.getCodigoCamion().equals(codigo));
+        }
+    }
+
+    private void insertar(PasoRuta paso) {
+        List<PasoRuta> pasos = pasosPorCelda.get(paso.getCelda());
+        int posicion = primerPasoDesde(pasos, Math.nextUp(paso.getMinuto()));
+        pasos.add(posicion, paso);
+    }
+
+    // Primera posición cuyo minuto es mayor o igual al indicado
+    private int primerPasoDesde(List<PasoRuta> pasos, double minuto) {
+        int bajo = 0;
+        int alto = pasos.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (pasos.get(medio).getMinuto() < minuto) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
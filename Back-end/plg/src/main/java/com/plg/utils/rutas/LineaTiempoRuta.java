@@ -0,0 +1,240 @@
+package com.plg.utils.rutas;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.plg.entity.Almacen;
+import com.plg.entity.Camion;
+import com.plg.entity.EstadoCamion;
+import com.plg.entity.Nodo;
+import com.plg.entity.Pedido;
+import com.plg.entity.TipoNodo;
+import com.plg.utils.Gen;
+import com.plg.utils.Parametros;
+
+/**
+ * Línea de tiempo acumulada de la ruta final de un gen.
+ *
+ * Para cada paso guarda en qué nodo de avance empieza, contando que un pedido
+ * del gen y un camión averiado inmovilizado retienen al camión
+ * {@link Parametros#cantNodosEnPedidos} nodos, igual que la ruta que se envía a
+ * la API. Con eso, el paso en que se encuentra el camión tras avanzar cierto
+ * tiempo es una búsqueda binaria. Además guarda, en orden, los pasos con
+ * eventos (entregas y recargas) para reproducir solo los que se cruzan entre
+ * una actualización y la siguiente.
+ *
+ * La línea se construye al primer uso y se rehace si cambia la ruta, los nodos
+ * del gen o el estado de los camiones averiados que visita.
+ */
+public class LineaTiempoRuta {
+
+    public enum TipoEvento {
+        ENTREGA, RECARGA_ALMACEN, RECARGA_CAMION_AVERIADO
+    }
+
+    private final List<Nodo> ruta;
+    private final long versionRuta;
+    private final List<Pedido> pedidos;
+    private final int cantidadPedidos;
+    private final List<Almacen> almacenes;
+    private final int cantidadAlmacenes;
+    private final List<Camion> averiados;
+    private final String firmaAveriados;
+    private final int nodosPorParada;
+
+    // inicios[paso]: nodo de avance en que empieza el paso; inicios[n] es el total
+    private final int[] inicios;
+    private final int[] pasosEvento;
+    private final TipoEvento[] tiposEvento;
+    private final boolean[] pedidoDelGen;
+
+    private LineaTiempoRuta(Gen gen) {
+        this.ruta = gen.getRutaFinal();
+        this.versionRuta = versionDe(ruta);
+        this.pedidos = gen.getPedidos();
+        this.cantidadPedidos = tamanio(pedidos);
+        this.almacenes = gen.getAlmacenesIntermedios();
+        this.cantidadAlmacenes = tamanio(almacenes);
+        this.averiados = gen.getCamionesAveriados();
+        this.firmaAveriados = firma(averiados);
+        this.nodosPorParada = Parametros.cantNodosEnPedidos;
+
+        // Conjuntos por coordenada, igual que List.contains con Nodo.equals
+        Set<Nodo> pedidosDelGen = pedidos == null ? Set.of() : new HashSet<>(pedidos);
+        Set<Nodo> almacenesDelGen = almacenes == null ? Set.of() : new HashSet<>(almacenes);
+        Set<Nodo> averiadosDelGen = averiados == null ? Set.of() : new HashSet<>(averiados);
+
+        int n = ruta == null ? 0 : ruta.size();
+        inicios = new int[n + 1];
+        List<Integer> pasos = new ArrayList<>();
+        List<TipoEvento> tipos = new ArrayList<>();
+        List<Boolean> delGen = new ArrayList<>();
+        for (int paso = 0; paso < n; paso++) {
+            Nodo nodo = ruta.get(paso);
+            int duracion = 1;
+            if (nodo instanceof Pedido && pedidosDelGen.contains(nodo)) {
+                duracion = nodosPorParada;
+            } else if (nodo instanceof Camion && averiadosDelGen.contains(nodo)) {
+                duracion = ((Camion) nodo).getEstado() == EstadoCamion.INMOVILIZADO_POR_AVERIA ? nodosPorParada : 0;
+            }
+            inicios[paso + 1] = inicios[paso] + duracion;
+
+            // Todo pedido por el que pasa el camión se entrega, sea o no del gen
+            if (nodo.getTipoNodo() == TipoNodo.PEDIDO) {
+                if (nodo instanceof Pedido) {
+                    pasos.add(paso);
+                    tipos.add(TipoEvento.ENTREGA);
+                    delGen.add(pedidosDelGen.contains(nodo));
+                }
+            } else if (nodo instanceof Almacen && almacenesDelGen.contains(nodo)) {
+                pasos.add(paso);
+                tipos.add(TipoEvento.RECARGA_ALMACEN);
+                delGen.add(false);
+            } else if (nodo instanceof Camion && averiadosDelGen.contains(nodo)) {
+                pasos.add(paso);
+                tipos.add(TipoEvento.RECARGA_CAMION_AVERIADO);
+                delGen.add(false);
+            }
+        }
+        pasosEvento = new int[pasos.size()];
+        pedidoDelGen = new boolean[pasos.size()];
+        for (int i = 0; i < pasosEvento.length; i++) {
+            pasosEvento[i] = pasos.get(i);
+            pedidoDelGen[i] = delGen.get(i);
+        }
+        tiposEvento = tipos.toArray(new TipoEvento[0]);
+    }
+
+    /**
+     * Línea de tiempo del gen, reutilizando la anterior si sigue vigente.
+     */
+    public static LineaTiempoRuta de(Gen gen, LineaTiempoRuta anterior) {
+        if (anterior != null && anterior.vigentePara(gen)) {
+            return anterior;
+        }
+        return new LineaTiempoRuta(gen);
+    }
+
+    /**
+     * Paso de la ruta en que se encuentra el camión tras avanzar los minutos
+     * indicados a la velocidad indicada, en km/h.
+     */
+    public int pasoTrasMinutos(double minutos, double velocidad) {
+        return pasoTrasMinutosDesde(0, minutos, velocidad);
+    }
+
+    /**
+     * Paso de la ruta en que se encuentra el camión tras avanzar los minutos
+     * indicados desde el paso en que está. Solo se cuentan los minutos
+     * indicados, así que cada intervalo avanza lo suyo aunque el plan sea el
+     * mismo.
+     */
+    public int pasoTrasMinutosDesde(int pasoActual, double minutos, double velocidad) {
+        int desde = Math.min(Math.max(pasoActual, 0), Math.max(inicios.length - 2, 0));
+        int nodosAvanzados = (int) (minutos * velocidad / 60);
+        return Math.max(desde, pasoEnAvance(inicios[desde] + Math.max(nodosAvanzados - 1, 0)));
+    }
+
+    /**
+     * Paso de la ruta que ocupa el nodo de avance indicado; más allá del final
+     * de la ruta el camión se queda en su último paso.
+     */
+    public int pasoEnAvance(int avance) {
+        int total = inicios[inicios.length - 1];
+        if (total == 0) {
+            return 0;
+        }
+        int objetivo = Math.min(Math.max(avance, 0), total - 1);
+        // Último paso que empieza en o antes del objetivo; los pasos de duración
+        // cero quedan atrás porque el siguiente empieza en el mismo nodo
+        int bajo = 0;
+        int alto = inicios.length - 2;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (inicios[medio] <= objetivo) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Nodo de avance en que el camión llega al paso indicado.
+     */
+    public int avanceAlLlegar(int paso) {
+        return inicios[paso];
+    }
+
+    /**
+     * Posición en la lista de eventos del primer evento posterior al paso
+     * indicado.
+     */
+    public int primerEventoDespuesDe(int paso) {
+        int bajo = 0;
+        int alto = pasosEvento.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (pasosEvento[medio] <= paso) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    public int cantidadEventos() {
+        return pasosEvento.length;
+    }
+
+    public int pasoEvento(int evento) {
+        return pasosEvento[evento];
+    }
+
+    public TipoEvento tipoEvento(int evento) {
+        return tiposEvento[evento];
+    }
+
+    /**
+     * Si el evento es la entrega de un pedido asignado al gen. Solo esos
+     * retienen al camión y se planifican; los demás pedidos de la ruta se
+     * entregan al pasar por ellos.
+     */
+    public boolean esPedidoDelGen(int evento) {
+        return pedidoDelGen[evento];
+    }
+
+    private boolean vigentePara(Gen gen) {
+        List<Nodo> rutaGen = gen.getRutaFinal();
+        // Una lista que no es RutaCeldas no informa sus cambios y siempre se recalcula
+        return rutaGen == ruta && ruta instanceof RutaCeldas && versionDe(rutaGen) == versionRuta
+                && gen.getPedidos() == pedidos && tamanio(pedidos) == cantidadPedidos
+                && gen.getAlmacenesIntermedios() == almacenes && tamanio(almacenes) == cantidadAlmacenes
+                && gen.getCamionesAveriados() == averiados && firma(averiados).equals(firmaAveriados)
+                && Parametros.cantNodosEnPedidos == nodosPorParada;
+    }
+
+    private static long versionDe(List<Nodo> ruta) {
+        return ruta instanceof RutaCeldas ? ((RutaCeldas) ruta).getVersion() : -1;
+    }
+
+    private static int tamanio(List<?> lista) {
+        return lista == null ? 0 : lista.size();
+    }
+
+    // Los camiones averiados solo retienen al camión mientras están inmovilizados
+    private static String firma(List<Camion> camiones) {
+        if (camiones == null) {
+            return "";
+        }
+        StringBuilder firma = new StringBuilder();
+        for (Camion camion : camiones) {
+            firma.append(camion.getEstado() == EstadoCamion.INMOVILIZADO_POR_AVERIA ? '1' : '0');
+        }
+        return firma.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.plg.utils.rutas;
+
+/**
+ * Recibe los cambios de bloqueo de las celdas del mapa para mantener
+ * actualizadas las estructuras auxiliares de rutas sin recalcularlas desde cero.
+ */
+public interface ObservadorBloqueos {
+
+    /**
+     * Una celda cambió de estado. Por defecto no hace nada, para los
+     * observadores que solo necesitan enterarse del reinicio del mapa.
+     *
+     * @param celda     índice plano de la celda (fila * columnas + columna)
+     * @param bloqueada nuevo estado de la celda
+     */
+    default void celdaActualizada(int celda, boolean bloqueada) {
+    }
+
+    /**
+     * El mapa se limpió por completo; todas las celdas quedaron libres.
+     */
+    void mapaReiniciado();
+}
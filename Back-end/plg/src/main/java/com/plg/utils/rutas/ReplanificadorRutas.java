@@ -0,0 +1,117 @@
+package com.plg.utils.rutas;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.entity.TipoNodo;
+import com.plg.utils.Gen;
+
+/**
+ * Reprograma en el momento la ruta de un camión cuando un bloqueo corta algún
+ * tramo de su {@code rutaFinal}, sin volver a ejecutar el algoritmo genético.
+ *
+ * Para cada camión se conserva una búsqueda {@link BusquedaDStarLite} del tramo
+ * en curso, que recibe los cambios de bloqueo y se repara de forma incremental.
+ * Los tramos posteriores que también queden cortados se resuelven con una
+ * búsqueda nueva. Los tramos que siguen libres no se tocan.
+ */
+public class ReplanificadorRutas implements ObservadorBloqueos {
+
+    private final Mapa mapa;
+    private final Map<String, BusquedaDStarLite> busquedas = new HashMap<>();
+
+    public ReplanificadorRutas(Mapa mapa) {
+        this.mapa = mapa;
+    }
+
+    @Override
+    public synchronized void celdaActualizada(int celda, boolean bloqueada) {
+        for (BusquedaDStarLite busqueda : busquedas.values()) {
+            busqueda.registrarCambio(celda);
+        }
+    }
+
+    @Override
+    public synchronized void mapaReiniciado() {
+        busquedas.clear();
+    }
+
+    /**
+     * Repara los tramos de la ruta del gen, desde la posición actual del camión,
+     * que atraviesan celdas bloqueadas. Si algún tramo ya no tiene solución la
+     * ruta se deja igual y se devuelve {@link ResultadoRuta#inalcanzable()}.
+     */
+    public synchronized ResultadoRuta reprogramar(Gen gen) {
+        List<Nodo> rutaFinal = gen.getRutaFinal();
+        if (rutaFinal == null || rutaFinal.isEmpty()) {
+            return ResultadoRuta.encontrada(rutaFinal);
+        }
+        int posicion = Math.min(gen.getPosNodo(), rutaFinal.size() - 1);
+        List<Nodo> nuevaRuta = new ArrayList<>(rutaFinal.subList(0, posicion + 1));
+        boolean reparada = false;
+        int inicioTramo = posicion;
+        for (int i = posicion + 1; i < rutaFinal.size(); i++) {
+            if (!esParada(gen, rutaFinal, i)) {
+                continue;
+            }
+            if (tramoLibre(rutaFinal, inicioTramo, i)) {
+                nuevaRuta.addAll(rutaFinal.subList(inicioTramo + 1, i + 1));
+            } else {
+                List<Integer> celdas = buscarTramo(gen, rutaFinal, inicioTramo, i, inicioTramo == posicion);
+                if (celdas == null) {
+                    return ResultadoRuta.inalcanzable();
+                }
+                for (int j = 1; j < celdas.size() - 1; j++) {
+                    int celda = celdas.get(j);
+                    nuevaRuta.add(mapa.getNodo(celda / mapa.getColumnas(), celda % mapa.getColumnas()));
+                }
+                nuevaRuta.add(rutaFinal.get(i));
+                reparada = true;
+            }
+            inicioTramo = i;
+        }
+        if (reparada) {
+            rutaFinal.clear();
+            rutaFinal.addAll(nuevaRuta);
+        }
+        return ResultadoRuta.encontrada(rutaFinal);
+    }
+
+    private List<Integer> buscarTramo(Gen gen, List<Nodo> rutaFinal, int desde, int hasta, boolean tramoEnCurso) {
+        int inicio = mapa.indiceCelda(rutaFinal.get(desde).getCoordenada());
+        int meta = mapa.indiceCelda(rutaFinal.get(hasta).getCoordenada());
+        if (!tramoEnCurso) {
+            return new BusquedaDStarLite(mapa, inicio, meta).buscar(inicio);
+        }
+        // El tramo en curso conserva su búsqueda entre llamadas mientras la meta no cambie
+        String codigo = gen.getCamion().getCodigo();
+        BusquedaDStarLite busqueda = busquedas.get(codigo);
+        if (busqueda == null || busqueda.getMeta() != meta) {
+            busqueda = new BusquedaDStarLite(mapa, inicio, meta);
+            busquedas.put(codigo, busqueda);
+        }
+        return busqueda.buscar(inicio);
+    }
+
+    // Una parada es un nodo del gen (pedido, almacén o camión averiado) o el final de la ruta
+    private boolean esParada(Gen gen, List<Nodo> rutaFinal, int indice) {
+        if (indice == rutaFinal.size() - 1) {
+            return true;
+        }
+        Nodo nodo = rutaFinal.get(indice);
+        return nodo.getTipoNodo() != TipoNodo.NORMAL && gen.getNodos() != null && gen.getNodos().contains(nodo);
+    }
+
+    private boolean tramoLibre(List<Nodo> rutaFinal, int desde, int hasta) {
+        for (int i = desde + 1; i < hasta; i++) {
+            if (mapa.estaBloqueada(mapa.indiceCelda(rutaFinal.get(i).getCoordenada()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.plg.utils.rutas;
+
+import java.util.List;
+
+import com.plg.entity.Nodo;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de una búsqueda de ruta entre dos nodos del mapa. Cuando el destino
+ * está encerrado por bloqueos la búsqueda falla con estado
+ * {@link Estado#INALCANZABLE} y sin ruta, en lugar de devolver una ruta falsa.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ResultadoRuta {
+
+    public enum Estado {
+        ENCONTRADA,
+        INALCANZABLE
+    }
+
+    private final Estado estado;
+    private final List<Nodo> ruta;
+
+    public static ResultadoRuta encontrada(List<Nodo> ruta) {
+        return new ResultadoRuta(Estado.ENCONTRADA, ruta);
+    }
+
+    public static ResultadoRuta inalcanzable() {
+        return new ResultadoRuta(Estado.INALCANZABLE, List.of());
+    }
+
+    public boolean esAlcanzable() {
+        return estado == Estado.ENCONTRADA;
+    }
+}
@@ -0,0 +1,151 @@
+package com.plg.utils.rutas;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.entity.TipoNodo;
+
+/**
+ * Ruta de un camión guardada como arreglo de índices de celda.
+ *
+ * Cada paso ocupa un {@code int}; solo los pasos que son entidades (el propio
+ * camión, pedidos, almacenes o camiones averiados) conservan su objeto. Los
+ * pasos por celdas normales se resuelven con el nodo interno del mapa, por lo
+ * que el acceso a la posición de cualquier paso es O(1) y la ruta no retiene un
+ * objeto por celda recorrida.
+ */
+public class RutaCeldas extends AbstractList<Nodo> implements RandomAccess {
+
+    private final Mapa mapa;
+    private int[] celdas;
+    private int tamanio;
+    // Pasos que no son celdas normales: posición en la ruta -> entidad
+    private final Map<Integer, Nodo> entidades = new HashMap<>();
+    // Cambia con cada modificación de la ruta, incluido set
+    private long version;
+
+    public RutaCeldas() {
+        this(Mapa.getInstance());
+    }
+
+    public RutaCeldas(Collection<? extends Nodo> nodos) {
+        this(Mapa.getInstance());
+        addAll(nodos);
+    }
+
+    public RutaCeldas(Mapa mapa) {
+        this.mapa = mapa;
+        this.celdas = new int[16];
+    }
+
+    /**
+     * Índice de celda del paso indicado, sin crear ningún nodo.
+     */
+    public int celdaEn(int paso) {
+        if (paso < 0 || paso >= tamanio) {
+            throw new IndexOutOfBoundsException("Paso " + paso + " fuera de la ruta de tamaño " + tamanio);
+        }
+        return celdas[paso];
+    }
+
+    /**
+     * Versión de la ruta; sirve para saber si una estructura derivada quedó
+     * desactualizada.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public Nodo get(int paso) {
+        int celda = celdaEn(paso);
+        Nodo entidad = entidades.get(paso);
+        return entidad != null ? entidad : mapa.getNodoNormal(celda);
+    }
+
+    @Override
+    public int size() {
+        return tamanio;
+    }
+
+    @Override
+    public void add(int paso, Nodo nodo) {
+        if (paso < 0 || paso > tamanio) {
+            throw new IndexOutOfBoundsException("Paso " + paso + " fuera de la ruta de tamaño " + tamanio);
+        }
+        if (tamanio == celdas.length) {
+            celdas = Arrays.copyOf(celdas, celdas.length * 2);
+        }
+        if (paso < tamanio) {
+            System.arraycopy(celdas, paso, celdas, paso + 1, tamanio - paso);
+            desplazarEntidades(paso, 1);
+        }
+        celdas[paso] = mapa.indiceCelda(nodo.getCoordenada());
+        tamanio++;
+        guardarEntidad(paso, nodo);
+        modCount++;
+        version++;
+    }
+
+    @Override
+    public Nodo set(int paso, Nodo nodo) {
+        Nodo anterior = get(paso);
+        celdas[paso] = mapa.indiceCelda(nodo.getCoordenada());
+        entidades.remove(paso);
+        guardarEntidad(paso, nodo);
+        version++;
+        return anterior;
+    }
+
+    @Override
+    public Nodo remove(int paso) {
+        Nodo anterior = get(paso);
+        System.arraycopy(celdas, paso + 1, celdas, paso, tamanio - paso - 1);
+        tamanio--;
+        entidades.remove(paso);
+        desplazarEntidades(paso + 1, -1);
+        modCount++;
+        version++;
+        return anterior;
+    }
+
+    @Override
+    public void clear() {
+        tamanio = 0;
+        entidades.clear();
+        modCount++;
+        version++;
+    }
+
+    private void guardarEntidad(int paso, Nodo nodo) {
+        if (!esCeldaNormal(nodo)) {
+            entidades.put(paso, nodo);
+        }
+    }
+
+    private boolean esCeldaNormal(Nodo nodo) {
+        return nodo.getClass() == Nodo.class && nodo.getTipoNodo() == TipoNodo.NORMAL;
+    }
+
+    // Mueve las entidades desde la posición indicada cuando se insertan o quitan pasos
+    private void desplazarEntidades(int desde, int desplazamiento) {
+        if (entidades.isEmpty()) {
+            return;
+        }
+        Map<Integer, Nodo> desplazadas = new HashMap<>();
+        entidades.entrySet().removeIf(entrada -> {
+            if (entrada.getKey() >= desde) {
+                desplazadas.put(entrada.getKey() + desplazamiento, entrada.getValue());
+                return true;
+            }
+            return false;
+        });
+        entidades.putAll(desplazadas);
+    }
+}
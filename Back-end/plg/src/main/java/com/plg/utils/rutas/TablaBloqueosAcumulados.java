@@ -0,0 +1,143 @@
+package com.plg.utils.rutas;
+
+import java.util.List;
+
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+
+/**
+ * Tabla de sumas acumuladas (summed-area table) de las celdas bloqueadas.
+ *
+ * Permite contar en O(1) las celdas bloqueadas de cualquier rectángulo del mapa.
+ * Con ella se detecta si alguno de los dos corredores en L entre origen y
+ * destino está libre, en cuyo caso la ruta de Manhattan es óptima y se emite
+ * directamente sin lanzar A*. La tabla solo se recalcula cuando cambian los
+ * bloqueos.
+ */
+public class TablaBloqueosAcumulados implements ObservadorBloqueos {
+
+    private final Mapa mapa;
+    private final int filas;
+    private final int columnas;
+    // sumas[(f + 1) * (columnas + 1) + (c + 1)] = bloqueadas en [0..f] x [0..c]
+    private final int[] sumas;
+    private boolean desactualizada = true;
+
+    public TablaBloqueosAcumulados(Mapa mapa) {
+        this.mapa = mapa;
+        this.filas = mapa.getFilas();
+        this.columnas = mapa.getColumnas();
+        this.sumas = new int[(filas + 1) * (columnas + 1)];
+    }
+
+    @Override
+    public synchronized void celdaActualizada(int celda, boolean bloqueada) {
+        desactualizada = true;
+    }
+
+    @Override
+    public synchronized void mapaReiniciado() {
+        desactualizada = true;
+    }
+
+    /**
+     * Ruta de Manhattan entre dos celdas por un corredor en L sin bloqueos, o null
+     * si ambos corredores tienen alguna celda intermedia bloqueada.
+     */
+    public List<Nodo> rutaDirecta(int filaOrigen, int columnaOrigen, int filaDestino, int columnaDestino) {
+        int[] celdas = celdasRutaDirecta(filaOrigen, columnaOrigen, filaDestino, columnaDestino);
+        return celdas == null ? null : mapa.rutaDesdeCeldas(celdas);
+    }
+
+    /**
+     * Igual que {@link #rutaDirecta} pero como índices de celda.
+     */
+    public synchronized int[] celdasRutaDirecta(int filaOrigen, int columnaOrigen, int filaDestino,
+            int columnaDestino) {
+        if (desactualizada) {
+            recalcular();
+        }
+        // Primero por la fila del origen y luego por la columna del destino
+        if (corredorLibre(filaOrigen, columnaOrigen, filaDestino, columnaDestino, filaOrigen, columnaDestino)) {
+            return construirRuta(filaOrigen, columnaOrigen, filaDestino, columnaDestino, true);
+        }
+        // Primero por la columna del origen y luego por la fila del destino
+        if (corredorLibre(filaOrigen, columnaOrigen, filaDestino, columnaDestino, filaDestino, columnaOrigen)) {
+            return construirRuta(filaOrigen, columnaOrigen, filaDestino, columnaDestino, false);
+        }
+        return null;
+    }
+
+    /**
+     * Cantidad de celdas bloqueadas en el rectángulo con esquinas (f1, c1) y (f2, c2).
+     */
+    public synchronized int contarBloqueadas(int f1, int c1, int f2, int c2) {
+        if (desactualizada) {
+            recalcular();
+        }
+        return contar(f1, c1, f2, c2);
+    }
+
+    private boolean corredorLibre(int filaOrigen, int columnaOrigen, int filaDestino, int columnaDestino,
+            int filaEsquina, int columnaEsquina) {
+        int bloqueadas = contar(filaOrigen, columnaOrigen, filaEsquina, columnaEsquina)
+                + contar(filaEsquina, columnaEsquina, filaDestino, columnaDestino)
+                - contar(filaEsquina, columnaEsquina, filaEsquina, columnaEsquina);
+        // El origen y el destino pueden estar bloqueados, igual que en A*
+        bloqueadas -= contar(filaOrigen, columnaOrigen, filaOrigen, columnaOrigen);
+        if (filaOrigen != filaDestino || columnaOrigen != columnaDestino) {
+            bloqueadas -= contar(filaDestino, columnaDestino, filaDestino, columnaDestino);
+        }
+        return bloqueadas == 0;
+    }
+
+    private int[] construirRuta(int filaOrigen, int columnaOrigen, int filaDestino, int columnaDestino,
+            boolean primeroFila) {
+        int[] ruta = new int[Math.abs(filaDestino - filaOrigen) + Math.abs(columnaDestino - columnaOrigen) + 1];
+        int paso = 0;
+        int fila = filaOrigen;
+        int columna = columnaOrigen;
+        ruta[paso++] = fila * columnas + columna;
+        if (primeroFila) {
+            while (columna != columnaDestino) {
+                columna += Integer.signum(columnaDestino - columna);
+                ruta[paso++] = fila * columnas + columna;
+            }
+        }
+        while (fila != filaDestino) {
+            fila += Integer.signum(filaDestino - fila);
+            ruta[paso++] = fila * columnas + columna;
+        }
+        while (columna != columnaDestino) {
+            columna += Integer.signum(columnaDestino - columna);
+            ruta[paso++] = fila * columnas + columna;
+        }
+        return ruta;
+    }
+
+    private int contar(int f1, int c1, int f2, int c2) {
+        int filaMin = Math.min(f1, f2);
+        int filaMax = Math.max(f1, f2);
+        int columnaMin = Math.min(c1, c2);
+        int columnaMax = Math.max(c1, c2);
+        int ancho = columnas + 1;
+        return sumas[(filaMax + 1) * ancho + columnaMax + 1]
+                - sumas[filaMin * ancho + columnaMax + 1]
+                - sumas[(filaMax + 1) * ancho + columnaMin]
+                + sumas[filaMin * ancho + columnaMin];
+    }
+
+    private void recalcular() {
+        int ancho = columnas + 1;
+        for (int f = 0; f < filas; f++) {
+            int acumuladoFila = 0;
+            for (int c = 0; c < columnas; c++) {
+                if (mapa.estaBloqueada(f * columnas + c)) {
+                    acumuladoFila++;
+                }
+                sumas[(f + 1) * ancho + c + 1] = sumas[f * ancho + c + 1] + acumuladoFila;
+            }
+        }
+        desactualizada = false;
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.plg.utils.Parametros;
+import com.plg.utils.TiempoSimulacion;
 import com.plg.entity.Averia;
 import com.plg.entity.Camion;
 import com.plg.entity.Coordenada;
@@ -110,24 +111,20 @@ public class AveriasManager {
     /* ----------------------------- UTILIDADES ----------------------------- */
 
     private static Camion buscarCamionPorCodigo(String codigoCamion) {
-        return Parametros.dataLoader.camiones.stream().filter(c -> c.getCodigo().equals(codigoCamion)).findFirst().orElse(null);
+        return Parametros.getDataLoader().getIndiceCamiones().camion(codigoCamion);
     }
 
     private static Coordenada obtenerCoordenadaAlmacenCentral() {
-        return Parametros.dataLoader.almacenes.stream().filter(a -> a.getTipo() == com.plg.entity.TipoAlmacen.CENTRAL)
+        return Parametros.getDataLoader().almacenes.stream().filter(a -> a.getTipo() == com.plg.entity.TipoAlmacen.CENTRAL)
                 .map(a -> a.getCoordenada()).findFirst().orElse(new Coordenada(8, 12));
     }
 
     // Comparaciones de fecha ignorando segundos
     private static boolean esFechaAnteriorSinSegundos(LocalDateTime f1, LocalDateTime f2) {
-        LocalDateTime t1 = f1.withSecond(0).withNano(0);
-        LocalDateTime t2 = f2.withSecond(0).withNano(0);
-        return t1.isBefore(t2);
+        return TiempoSimulacion.aMinuto(f1) < TiempoSimulacion.aMinuto(f2);
     }
 
     private static boolean esFechaAnteriorOIgualSinSegundos(LocalDateTime f1, LocalDateTime f2) {
-        LocalDateTime t1 = f1.withSecond(0).withNano(0);
-        LocalDateTime t2 = f2.withSecond(0).withNano(0);
-        return t1.isBefore(t2) || t1.isEqual(t2);
+        return TiempoSimulacion.aMinuto(f1) <= TiempoSimulacion.aMinuto(f2);
     }
 } 
\ No newline at end of file
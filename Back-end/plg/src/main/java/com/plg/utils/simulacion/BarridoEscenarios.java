@@ -0,0 +1,156 @@
+package com.plg.utils.simulacion;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+
+import com.plg.dto.ResultadoBarridoDto;
+import com.plg.dto.ResultadoSimulacionRapidaDto;
+import com.plg.dto.request.BarridoSimulacionRequest;
+import com.plg.dto.request.EscenarioSimulacionRequest;
+import com.plg.utils.ContextoSimulacion;
+import com.plg.utils.Parametros;
+
+/**
+ * Ejecuta varias simulaciones rápidas a la vez, una por escenario, y compara
+ * sus indicadores.
+ *
+ * Cada escenario corre en su propio hilo virtual y con su propio
+ * {@link ContextoSimulacion}, así que sus parámetros, mapa y datos no se
+ * cruzan con los de otros escenarios ni con los de las sesiones de la API. Los
+ * archivos del mes se leen una sola vez para todos. Como cada simulación usa
+ * un núcleo de forma continua, solo corren a la vez tantas como indique el
+ * paralelismo; el resto espera su turno.
+ */
+public class BarridoEscenarios {
+
+    private BarridoEscenarios() {
+    }
+
+    /**
+     * @param continuar se consulta en cada intervalo de cada simulación; al
+     *                  devolver false los escenarios en curso se detienen y los
+     *                  pendientes no se inician
+     */
+    public static ResultadoBarridoDto ejecutar(BarridoSimulacionRequest request, BooleanSupplier continuar) {
+        int paralelismo = request.getParalelismo() > 0 ? request.getParalelismo()
+                : Runtime.getRuntime().availableProcessors();
+        List<EscenarioSimulacionRequest> escenarios = request.getEscenarios();
+
+        ResultadoBarridoDto barrido = new ResultadoBarridoDto();
+        barrido.setFechaInicio(request.getFechaInicio());
+        barrido.setFechaFin(request.getFechaFin());
+        barrido.setParalelismo(Math.min(paralelismo, escenarios.size()));
+
+        long inicioReal = System.nanoTime();
+        long inicioCpu = tiempoCpuProceso();
+        Semaphore turnos = new Semaphore(paralelismo);
+        List<Future<ResultadoSimulacionRapidaDto>> futuros = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < escenarios.size(); i++) {
+                EscenarioSimulacionRequest escenario = escenarios.get(i);
+                String nombre = nombreDe(escenario, i);
+                futuros.add(hilos.submit(() -> {
+                    turnos.acquire();
+                    try {
+                        return simular(request, escenario, nombre, continuar);
+                    } finally {
+                        turnos.release();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < escenarios.size(); i++) {
+                ResultadoBarridoDto.Escenario fila = new ResultadoBarridoDto.Escenario();
+                fila.setNombre(nombreDe(escenarios.get(i), i));
+                fila.setParametros(escenarios.get(i));
+                try {
+                    fila.setResultado(futuros.get(i).get());
+                } catch (ExecutionException e) {
+                    fila.setError(e.getCause().getMessage());
+                    System.err.println("❌ Error en el escenario " + fila.getNombre() + ": " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fila.setError("Barrido interrumpido");
+                }
+                barrido.getEscenarios().add(fila);
+            }
+        }
+        barrido.setSegundosReales((System.nanoTime() - inicioReal) / 1_000_000_000.0);
+        barrido.setNucleosDisponibles(Runtime.getRuntime().availableProcessors());
+        long finCpu = tiempoCpuProceso();
+        if (inicioCpu >= 0 && finCpu >= 0) {
+            barrido.setSegundosCpu((finCpu - inicioCpu) / 1_000_000_000.0);
+            if (barrido.getSegundosReales() > 0) {
+                barrido.setNucleosUsados(barrido.getSegundosCpu() / barrido.getSegundosReales());
+            }
+        }
+
+        resumir(barrido);
+        System.out.println(barrido);
+        return barrido;
+    }
+
+    private static ResultadoSimulacionRapidaDto simular(BarridoSimulacionRequest request,
+            EscenarioSimulacionRequest escenario, String nombre, BooleanSupplier continuar) {
+        if (!continuar.getAsBoolean()) {
+            throw new IllegalStateException("Barrido cancelado antes de iniciar el escenario");
+        }
+        ContextoSimulacion contexto = ContextoSimulacion.aislado("barrido-" + nombre);
+        return contexto.ejecutar(() -> {
+            Parametros.setIntervaloTiempo(escenario.getIntervaloTiempo());
+            Parametros.setVelocidadCamion(escenario.getVelocidadCamion());
+            Parametros.setFlota(escenario.getFlota());
+            Parametros.setTasaAveriasAutomaticas(escenario.getTasaAveriasAutomaticas());
+            Parametros.setPoblacionAlgoritmo(escenario.getPoblacionAlgoritmo());
+            System.out.println("🧪 Iniciando escenario " + nombre);
+            return SimulacionRapida.ejecutar(request.getFechaInicio(), request.getFechaFin(),
+                    escenario.getIntervaloTiempo(), 0, continuar);
+        });
+    }
+
+    private static void resumir(ResultadoBarridoDto barrido) {
+        List<ResultadoBarridoDto.Escenario> completados = new ArrayList<>();
+        for (ResultadoBarridoDto.Escenario fila : barrido.getEscenarios()) {
+            if (fila.getResultado() != null && fila.getResultado().isCompletada()) {
+                completados.add(fila);
+            }
+        }
+        barrido.setEscenariosCompletados(completados.size());
+        barrido.setEscenariosConError((int) barrido.getEscenarios().stream().filter(f -> f.getError() != null).count());
+        if (completados.isEmpty()) {
+            return;
+        }
+        barrido.setPedidosEntregadosPromedio(
+                completados.stream().mapToInt(f -> f.getResultado().getPedidosEntregados()).average().orElse(0));
+        barrido.setFitnessPromedio(
+                completados.stream().mapToDouble(f -> f.getResultado().getFitnessPromedio()).average().orElse(0));
+        completados.stream()
+                .max(Comparator.comparingInt((ResultadoBarridoDto.Escenario f) -> f.getResultado().getPedidosEntregados())
+                        .thenComparing(f -> f.getResultado().getFitnessPromedio(), Comparator.reverseOrder()))
+                .ifPresent(mejor -> barrido.setMejorEscenario(mejor.getNombre()));
+    }
+
+    // Tiempo de CPU de todo el proceso en nanosegundos, o -1 si la JVM no lo informa.
+    // Los segundos de cada simulación no sirven para esto: con más simulaciones
+    // que núcleos cada una cuenta también el tiempo que esperó su turno
+    private static long tiempoCpuProceso() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    private static String nombreDe(EscenarioSimulacionRequest escenario, int indice) {
+        return escenario.getNombre() != null && !escenario.getNombre().isBlank() ? escenario.getNombre()
+                : "escenario-" + (indice + 1);
+    }
+}
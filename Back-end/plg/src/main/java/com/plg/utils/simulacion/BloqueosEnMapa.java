@@ -0,0 +1,123 @@
+package com.plg.utils.simulacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.plg.entity.Bloqueo;
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.utils.rutas.ObservadorBloqueos;
+import com.plg.utils.simulacion.IndiceIntervalosBloqueo.CambiosBloqueos;
+
+/**
+ * Mantiene en el mapa las celdas de los bloqueos vigentes aplicando solo los
+ * cambios entre un instante y el siguiente.
+ *
+ * Cada celda cuenta cuántos bloqueos vigentes la cubren, de modo que solo se
+ * llama a {@link Mapa#actualizarBloqueo} cuando la celda pasa de libre a
+ * bloqueada o al revés. Esto también evita liberar una celda que sigue cubierta
+ * por otro bloqueo.
+ */
+public class BloqueosEnMapa implements ObservadorBloqueos {
+
+    private final Mapa mapa;
+    private final int[] bloqueosPorCelda;
+    private final Set<Bloqueo> aplicados = Collections.newSetFromMap(new IdentityHashMap<>());
+    private IndiceIntervalosBloqueo indiceAplicado;
+    private long minutoAplicado;
+
+    public BloqueosEnMapa(Mapa mapa) {
+        this.mapa = mapa;
+        this.bloqueosPorCelda = new int[mapa.getFilas() * mapa.getColumnas()];
+    }
+
+    @Override
+    public synchronized void mapaReiniciado() {
+        Arrays.fill(bloqueosPorCelda, 0);
+        for (Bloqueo bloqueo : aplicados) {
+            bloqueo.setActivo(false);
+        }
+        aplicados.clear();
+        indiceAplicado = null;
+    }
+
+    /**
+     * Deja en el mapa los bloqueos del índice vigentes en el minuto indicado y
+     * los devuelve.
+     */
+    public synchronized List<Bloqueo> sincronizar(IndiceIntervalosBloqueo indice, long minuto) {
+        CambiosBloqueos cambios;
+        if (indice == indiceAplicado) {
+            cambios = indice.cambiosEntre(minutoAplicado, minuto);
+        } else {
+            // El índice cambió: se compara contra lo aplicado en el mapa
+            List<Bloqueo> vigentes = indice.activosEn(minuto);
+            Set<Bloqueo> conjuntoVigentes = Collections.newSetFromMap(new IdentityHashMap<>());
+            conjuntoVigentes.addAll(vigentes);
+            List<Bloqueo> activados = new ArrayList<>();
+            for (Bloqueo bloqueo : vigentes) {
+                if (!aplicados.contains(bloqueo)) {
+                    activados.add(bloqueo);
+                }
+            }
+            List<Bloqueo> desactivados = new ArrayList<>();
+            for (Bloqueo bloqueo : aplicados) {
+                if (!conjuntoVigentes.contains(bloqueo)) {
+                    desactivados.add(bloqueo);
+                }
+            }
+            cambios = new CambiosBloqueos(activados, desactivados);
+        }
+        aplicar(cambios);
+        indiceAplicado = indice;
+        minutoAplicado = minuto;
+        return new ArrayList<>(aplicados);
+    }
+
+    /**
+     * Activa un bloqueo fuera de su intervalo, por ejemplo desde la API. Sus
+     * celdas se cuentan igual que las de los bloqueos sincronizados.
+     */
+    public synchronized void activar(Bloqueo bloqueo) {
+        aplicar(new CambiosBloqueos(List.of(bloqueo), List.of()));
+    }
+
+    /**
+     * Desactiva un bloqueo aplicado; sus celdas solo se liberan si ningún otro
+     * bloqueo vigente las cubre.
+     */
+    public synchronized void desactivar(Bloqueo bloqueo) {
+        aplicar(new CambiosBloqueos(List.of(), List.of(bloqueo)));
+    }
+
+    private void aplicar(CambiosBloqueos cambios) {
+        for (Bloqueo bloqueo : cambios.getDesactivados()) {
+            if (!aplicados.remove(bloqueo)) {
+                continue;
+            }
+            bloqueo.setActivo(false);
+            for (Nodo nodo : bloqueo.getNodosBloqueados()) {
+                int celda = mapa.indiceCelda(nodo.getCoordenada());
+                if (--bloqueosPorCelda[celda] == 0) {
+                    mapa.actualizarBloqueo(nodo.getCoordenada(), false);
+                }
+            }
+        }
+        for (Bloqueo bloqueo : cambios.getActivados()) {
+            if (!aplicados.add(bloqueo)) {
+                continue;
+            }
+            bloqueo.setActivo(true);
+            for (Nodo nodo : bloqueo.getNodosBloqueados()) {
+                int celda = mapa.indiceCelda(nodo.getCoordenada());
+                if (bloqueosPorCelda[celda]++ == 0) {
+                    mapa.actualizarBloqueo(nodo.getCoordenada(), true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.plg.utils.simulacion;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.plg.entity.Mantenimiento;
+
+/**
+ * Calendario anual de mantenimientos preventivos por camión.
+ *
+ * Para cada camión se guardan dos conjuntos de bits con una posición por (mes,
+ * día): los días que caen en su ciclo bimestral, contado desde el primer
+ * mantenimiento registrado del camión, y los días tal como están registrados. Las consultas diarias y
+ * las de la API quedan en una prueba de bit. Cada
+ * {@link com.plg.config.DataLoader} construye el calendario al cargar sus datos
+ * y lo rehace cuando cambia su lista de mantenimientos.
+ */
+public class CalendarioMantenimientos {
+
+    private static final int DIAS_POR_MES = 31;
+    private static final int MESES = 12;
+
+    private final List<Mantenimiento> fuente;
+    private final int tamanioFuente;
+    private final Map<String, Mantenimiento> primeros = new HashMap<>();
+    private final Map<String, BitSet> ciclos = new HashMap<>();
+    private final Map<String, BitSet> registrados = new HashMap<>();
+
+    private CalendarioMantenimientos(List<Mantenimiento> fuente) {
+        this.fuente = fuente;
+        this.tamanioFuente = fuente.size();
+        for (Mantenimiento mantenimiento : fuente) {
+            if (mantenimiento == null || mantenimiento.getCamion() == null) {
+                continue;
+            }
+            String codigo = mantenimiento.getCamion().getCodigo();
+            // El primero es el primero registrado del camión, no el de menor mes
+            primeros.putIfAbsent(codigo, mantenimiento);
+            if (posicion(mantenimiento.getDia(), mantenimiento.getMes()) != -1) {
+                registrados.computeIfAbsent(codigo, c -> new BitSet(MESES * DIAS_POR_MES))
+                        .set(posicion(mantenimiento.getDia(), mantenimiento.getMes()));
+            }
+        }
+        for (Map.Entry<String, Mantenimiento> entrada : primeros.entrySet()) {
+            int dia = entrada.getValue().getDia();
+            int mesInicial = entrada.getValue().getMes();
+            BitSet ciclo = new BitSet(MESES * DIAS_POR_MES);
+            for (int mes = 1; mes <= MESES; mes++) {
+                if (Math.abs(mes - mesInicial) % 2 == 0 && posicion(dia, mes) != -1) {
+                    ciclo.set(posicion(dia, mes));
+                }
+            }
+            ciclos.put(entrada.getKey(), ciclo);
+        }
+    }
+
+    /**
+     * Construye el calendario de la lista de mantenimientos indicada.
+     */
+    public static CalendarioMantenimientos de(List<Mantenimiento> mantenimientos) {
+        return new CalendarioMantenimientos(mantenimientos);
+    }
+
+    /**
+     * Indica si el calendario sigue describiendo la lista: es la misma y no
+     * cambió de tamaño.
+     */
+    public boolean vigentePara(List<Mantenimiento> mantenimientos) {
+        return fuente == mantenimientos && tamanioFuente == mantenimientos.size();
+    }
+
+    /**
+     * Indica si la fecha cae en el ciclo bimestral de mantenimiento del camión.
+     */
+    public boolean tieneMantenimientoProgramado(String codigoCamion, int dia, int mes) {
+        return probar(ciclos, codigoCamion, dia, mes);
+    }
+
+    /**
+     * Indica si hay un mantenimiento registrado para el camión en esa fecha exacta.
+     */
+    public boolean tieneMantenimientoRegistrado(String codigoCamion, int dia, int mes) {
+        return probar(registrados, codigoCamion, dia, mes);
+    }
+
+    /**
+     * Mantenimiento que inicia el ciclo del camión, o null si no tiene ninguno.
+     */
+    public Mantenimiento primerMantenimiento(String codigoCamion) {
+        return primeros.get(codigoCamion);
+    }
+
+    private boolean probar(Map<String, BitSet> calendario, String codigoCamion, int dia, int mes) {
+        int posicion = posicion(dia, mes);
+        if (posicion == -1) {
+            return false;
+        }
+        BitSet dias = calendario.get(codigoCamion);
+        return dias != null && dias.get(posicion);
+    }
+
+    private static int posicion(int dia, int mes) {
+        if (dia < 1 || dia > DIAS_POR_MES || mes < 1 || mes > MESES) {
+            return -1;
+        }
+        return (mes - 1) * DIAS_POR_MES + (dia - 1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.plg.utils.simulacion;
+
+import java.time.LocalDateTime;
+
+import com.plg.entity.Averia;
+import com.plg.entity.Bloqueo;
+import com.plg.entity.Camion;
+import com.plg.entity.Pedido;
+import com.plg.utils.TiempoSimulacion;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Suceso con fecha que procesa el motor de eventos de la simulación. Solo se
+ * llena la entidad que corresponde a su tipo.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class EventoSimulacion {
+
+    public enum Tipo {
+        PEDIDO_REGISTRADO,
+        BLOQUEO_INICIO,
+        BLOQUEO_FIN,
+        AVERIA_REPORTADA,
+        // Fin de la espera en ruta de una avería que requiere traslado al taller
+        AVERIA_TRASLADO,
+        AVERIA_REPARADA,
+        // 00:00 de cada día: mantenimientos preventivos y recarga de almacenes secundarios
+        INICIO_DIA,
+        LLEGADA_PARADA
+    }
+
+    private final Tipo tipo;
+    private final long minuto;
+    private final Pedido pedido;
+    private final Bloqueo bloqueo;
+    private final Averia averia;
+    private final Camion camion;
+    // Versión del plan del camión; las llegadas de planes anteriores se descartan
+    private final long versionPlan;
+
+    public static EventoSimulacion dePedido(Pedido pedido) {
+        return new EventoSimulacion(Tipo.PEDIDO_REGISTRADO, pedido.getMinutoRegistro(), pedido, null, null, null, 0);
+    }
+
+    public static EventoSimulacion deBloqueo(Tipo tipo, long minuto, Bloqueo bloqueo) {
+        return new EventoSimulacion(tipo, minuto, null, bloqueo, null, null, 0);
+    }
+
+    public static EventoSimulacion deAveria(Tipo tipo, long minuto, Averia averia) {
+        return new EventoSimulacion(tipo, minuto, null, null, averia, averia.getCamion(), 0);
+    }
+
+    public static EventoSimulacion inicioDia(long minuto) {
+        return new EventoSimulacion(Tipo.INICIO_DIA, minuto, null, null, null, null, 0);
+    }
+
+    public static EventoSimulacion llegada(long minuto, Camion camion, long versionPlan) {
+        return new EventoSimulacion(Tipo.LLEGADA_PARADA, minuto, null, null, null, camion, versionPlan);
+    }
+
+    public LocalDateTime getFecha() {
+        return TiempoSimulacion.aFecha(minuto);
+    }
+
+    @Override
+    public String toString() {
+        return tipo + "@" + getFecha() + (camion != null ? " " + camion.getCodigo() : "");
+    }
+}
@@ -6,35 +6,35 @@ import java.util.List;
 import com.plg.dto.IndividuoDto;
 
 /**
- * Gestiona el historial de paquetes generados por la simulación y proporciona
- * utilidades para el frontend.
+ * Gestiona el historial de paquetes generados por una simulación y proporciona
+ * utilidades para el frontend. Cada contexto de simulación tiene el suyo.
  */
 public class GestorHistorialSimulacion {
 
-    private static final List<IndividuoDto> historialSimulacion = new ArrayList<>();
-    private static int indiceActualFrontend = 0;
-    private static int contadorPaquetes = 0;
-    private static boolean simulacionEnProceso = false;
+    private final List<IndividuoDto> historialSimulacion = new ArrayList<>();
+    private int indiceActualFrontend = 0;
+    private int contadorPaquetes = 0;
+    private boolean simulacionEnProceso = false;
 
     /* --------------------------- MARCA DE ESTADO --------------------------- */
-    public static synchronized void setEnProceso(boolean enProceso) {
+    public synchronized void setEnProceso(boolean enProceso) {
         simulacionEnProceso = enProceso;
     }
 
-    public static synchronized boolean isEnProceso() {
+    public synchronized boolean isEnProceso() {
         return simulacionEnProceso;
     }
 
     /* ------------------------ OPERACIONES DE HISTORIAL --------------------- */
 
-    public static synchronized void agregarPaquete(IndividuoDto paquete) {
+    public synchronized void agregarPaquete(IndividuoDto paquete) {
         contadorPaquetes++;
         historialSimulacion.add(paquete);
         System.out.println("📦 PAQUETE AGREGADO #" + contadorPaquetes + " | Tiempo: "
                 + paquete.getFechaHoraSimulacion() + " | Pedidos: " + paquete.getPedidos().size());
     }
 
-    public static synchronized IndividuoDto obtenerSiguientePaquete() {
+    public synchronized IndividuoDto obtenerSiguientePaquete() {
         if (indiceActualFrontend < historialSimulacion.size()) {
             IndividuoDto paquete = historialSimulacion.get(indiceActualFrontend);
             indiceActualFrontend++;
@@ -45,13 +45,13 @@ public class GestorHistorialSimulacion {
         return null;
     }
 
-    public static synchronized void reiniciarReproduccion() {
+    public synchronized void reiniciarReproduccion() {
         int total = historialSimulacion.size();
         indiceActualFrontend = 0;
         System.out.println("🔄 REPRODUCCIÓN REINICIADA | Volviendo al paquete #1 | Total disponibles: " + total);
     }
 
-    public static synchronized void limpiarHistorialCompleto() {
+    public synchronized void limpiarHistorialCompleto() {
         int paquetesEliminados = historialSimulacion.size();
         historialSimulacion.clear();
         indiceActualFrontend = 0;
@@ -65,7 +65,7 @@ public class GestorHistorialSimulacion {
      * Busca el paquete (IndividuoDto) cuya fecha de simulación coincida exactamente con la fecha dada.
      * Si no hay coincidencia exacta, retorna null.
      */
-    public static synchronized IndividuoDto obtenerPaquetePorFecha(java.time.LocalDateTime fecha) {
+    public synchronized IndividuoDto obtenerPaquetePorFecha(java.time.LocalDateTime fecha) {
         if (fecha == null) return null;
         for (IndividuoDto paquete : historialSimulacion) {
             if (fecha.equals(paquete.getFechaHoraSimulacion())) {
@@ -77,19 +77,19 @@ public class GestorHistorialSimulacion {
 
     /* ------------------------------ GETTERS -------------------------------- */
 
-    public static synchronized int getTotalPaquetes() {
+    public synchronized int getTotalPaquetes() {
         return historialSimulacion.size();
     }
 
-    public static synchronized int getPaqueteActual() {
+    public synchronized int getPaqueteActual() {
         return indiceActualFrontend;
     }
 
-    public static synchronized int getContadorPaquetes() {
+    public synchronized int getContadorPaquetes() {
         return contadorPaquetes;
     }
 
-    public static synchronized List<IndividuoDto> getHistorial() {
+    public synchronized List<IndividuoDto> getHistorial() {
         return new ArrayList<>(historialSimulacion);
     }
 } 
\ No newline at end of file
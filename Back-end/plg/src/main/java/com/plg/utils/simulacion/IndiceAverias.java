@@ -0,0 +1,162 @@
+package com.plg.utils.simulacion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.plg.entity.Averia;
+
+/**
+ * Averías reportadas agrupadas por código de camión.
+ *
+ * Las averías de un camión se obtienen con una búsqueda hash en lugar de
+ * recorrer todas las del mes. El estado activo de una avería cambia sin que
+ * cambie la lista, por eso el filtro de activas se aplica sobre las pocas
+ * averías del camión en cada consulta. Cada
+ * {@link com.plg.config.DataLoader} guarda el índice de sus averías y lo
+ * reemplaza cuando la lista cambia.
+ */
+public class IndiceAverias {
+
+    private final List<Averia> fuente;
+    private final int tamanioFuente;
+    private final Map<String, List<Averia>> porCamion = new LinkedHashMap<>();
+
+    private IndiceAverias(List<Averia> fuente) {
+        this.fuente = fuente;
+        this.tamanioFuente = fuente.size();
+        for (Averia averia : fuente) {
+            if (averia != null && averia.getCamion() != null) {
+                porCamion.computeIfAbsent(averia.getCamion().getCodigo(), c -> new ArrayList<>()).add(averia);
+            }
+        }
+    }
+
+    /**
+     * Construye el índice de la lista de averías indicada.
+     */
+    public static IndiceAverias de(List<Averia> averias) {
+        return new IndiceAverias(averias);
+    }
+
+    /**
+     * Indica si el índice sigue describiendo la lista: es la misma y no cambió de
+     * tamaño.
+     */
+    public boolean vigentePara(List<Averia> averias) {
+        return fuente == averias && tamanioFuente == averias.size();
+    }
+
+    /**
+     * Averías del camión, en el orden en que se registraron.
+     */
+    public List<Averia> delCamion(String codigoCamion) {
+        List<Averia> averias = porCamion.get(codigoCamion);
+        return averias == null ? Collections.emptyList() : Collections.unmodifiableList(averias);
+    }
+
+    /**
+     * Averías activas del camión.
+     */
+    public List<Averia> activasDelCamion(String codigoCamion) {
+        List<Averia> activas = new ArrayList<>();
+        for (Averia averia : delCamion(codigoCamion)) {
+            if (estaActiva(averia)) {
+                activas.add(averia);
+            }
+        }
+        return activas;
+    }
+
+    /**
+     * Indica si el camión tiene al menos una avería activa.
+     */
+    public boolean tieneAveriaActiva(String codigoCamion) {
+        for (Averia averia : delCamion(codigoCamion)) {
+            if (estaActiva(averia)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Códigos de los camiones con alguna avería activa, sin repetidos y en orden
+     * de registro.
+     */
+    public List<String> codigosConAveriaActiva() {
+        List<String> codigos = new ArrayList<>();
+        for (String codigo : porCamion.keySet()) {
+            if (tieneAveriaActiva(codigo)) {
+                codigos.add(codigo);
+            }
+        }
+        return codigos;
+    }
+
+    private static boolean estaActiva(Averia averia) {
+        return averia.getEstado() != null && averia.getEstado();
+    }
+
+    /**
+     * Averías automáticas del archivo agrupadas por turno y por camión.
+     *
+     * Se consulta una vez por intervalo para saber qué camiones del cromosoma se
+     * averían en el turno actual. Las averías del archivo son las mismas para
+     * todas las simulaciones del mes, así que su índice se arma junto con ellas
+     * en {@link com.plg.config.DatosBase}.
+     */
+    public static class Automaticas {
+
+        private final List<Averia> fuente;
+        private final int tamanioFuente;
+        private final Map<Integer, Map<String, Averia>> porTurno = new HashMap<>();
+        private final Map<String, Averia> porCamion = new HashMap<>();
+
+        private Automaticas(List<Averia> fuente) {
+            this.fuente = fuente;
+            this.tamanioFuente = fuente.size();
+            for (Averia averia : fuente) {
+                if (averia == null || averia.getCamion() == null) {
+                    continue;
+                }
+                String codigo = averia.getCamion().getCodigo();
+                porTurno.computeIfAbsent(averia.getTurnoOcurrencia(), t -> new HashMap<>()).putIfAbsent(codigo, averia);
+                porCamion.putIfAbsent(codigo, averia);
+            }
+        }
+
+        /**
+         * Construye el índice de la lista de averías automáticas indicada.
+         */
+        public static Automaticas de(List<Averia> averiasAutomaticas) {
+            return new Automaticas(averiasAutomaticas);
+        }
+
+        /**
+         * Indica si el índice sigue describiendo la lista: es la misma y no cambió
+         * de tamaño.
+         */
+        public boolean vigentePara(List<Averia> averiasAutomaticas) {
+            return fuente == averiasAutomaticas && tamanioFuente == averiasAutomaticas.size();
+        }
+
+        /**
+         * Indica si el camión tiene una avería automática programada en el turno.
+         */
+        public boolean camionSeAveriaEnTurno(String codigoCamion, int turno) {
+            Map<String, Averia> delTurno = porTurno.get(turno);
+            return delTurno != null && delTurno.containsKey(codigoCamion);
+        }
+
+        /**
+         * Primera avería automática registrada para el camión, o null si no tiene.
+         */
+        public Averia primeraDelCamion(String codigoCamion) {
+            return porCamion.get(codigoCamion);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.plg.utils.simulacion;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.plg.entity.Camion;
+
+/**
+ * Índice hash de la flota por código de camión.
+ *
+ * Guarda la posición de cada camión en la lista de origen, así que reemplazar
+ * un camión por otro del mismo código no invalida el índice. Un código
+ * desconocido devuelve -1 sin recorrer la lista; el índice solo se rehace si la
+ * posición guardada ya tiene otro código, es decir, si la flota cambió sin
+ * cambiar de tamaño. Cada {@link com.plg.config.DataLoader} guarda el índice de
+ * sus camiones y lo reemplaza cuando la lista cambia de tamaño.
+ */
+public class IndiceCamiones {
+
+    private final List<Camion> fuente;
+    private final int tamanioFuente;
+    private final Map<String, Integer> posiciones = new HashMap<>();
+
+    private IndiceCamiones(List<Camion> fuente) {
+        this.fuente = fuente;
+        this.tamanioFuente = fuente.size();
+        indexar();
+    }
+
+    private void indexar() {
+        posiciones.clear();
+        for (int i = 0; i < fuente.size(); i++) {
+            Camion camion = fuente.get(i);
+            if (camion != null && camion.getCodigo() != null) {
+                // Ante códigos repetidos se conserva el primero, como en la búsqueda lineal
+                posiciones.putIfAbsent(camion.getCodigo(), i);
+            }
+        }
+    }
+
+    /**
+     * Construye el índice de la lista de camiones indicada.
+     */
+    public static IndiceCamiones de(List<Camion> camiones) {
+        return new IndiceCamiones(camiones);
+    }
+
+    /**
+     * Indica si el índice sigue describiendo la lista: es la misma y no cambió de
+     * tamaño.
+     */
+    public boolean vigentePara(List<Camion> camiones) {
+        return fuente == camiones && tamanioFuente == camiones.size();
+    }
+
+    /**
+     * Posición del camión en la lista de origen, o -1 si no existe.
+     */
+    public synchronized int posicion(String codigo) {
+        if (codigo == null) {
+            return -1;
+        }
+        Integer posicion = posiciones.get(codigo);
+        if (posicion == null) {
+            return -1;
+        }
+        if (codigo.equals(codigoEn(posicion))) {
+            return posicion;
+        }
+        // Se reemplazó un camión por otro de distinto código sin cambiar el tamaño
+        indexar();
+        posicion = posiciones.get(codigo);
+        return posicion == null ? -1 : posicion;
+    }
+
+    /**
+     * Camión con el código indicado, o null si no existe.
+     */
+    public Camion camion(String codigo) {
+        int posicion = posicion(codigo);
+        return posicion == -1 ? null : fuente.get(posicion);
+    }
+
+    private String codigoEn(int posicion) {
+        Camion camion = fuente.get(posicion);
+        return camion == null ? null : camion.getCodigo();
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.plg.utils.simulacion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.plg.entity.Bloqueo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Árbol de intervalos de los bloqueos sobre sus minutos de inicio y fin.
+ *
+ * Los bloqueos se ordenan por inicio y se guardan en arreglos; cada posición es
+ * la raíz implícita del subárbol [lo, hi) que la rodea y guarda el fin máximo
+ * de ese subárbol. Así "activos en t" y "superpuestos con [a, b]" se responden
+ * en O(log n + k) sin recorrer todos los bloqueos del mes. Cada
+ * {@link com.plg.config.DataLoader} guarda el índice de sus bloqueos y lo
+ * reemplaza cuando cambia la lista.
+ */
+public class IndiceIntervalosBloqueo {
+
+    /**
+     * Bloqueos que se activan y se desactivan al pasar de un instante a otro.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CambiosBloqueos {
+        private final List<Bloqueo> activados;
+        private final List<Bloqueo> desactivados;
+    }
+
+    private final List<Bloqueo> fuente;
+    private final int tamanioFuente;
+    private final Bloqueo[] porInicio;
+    private final long[] inicios;
+    private final long[] fines;
+    private final long[] finMaximo;
+
+    private IndiceIntervalosBloqueo(List<Bloqueo> fuente) {
+        this.fuente = fuente;
+        this.tamanioFuente = fuente.size();
+        List<Bloqueo> ordenados = new ArrayList<>(fuente);
+        ordenados.sort(Comparator.comparingLong(Bloqueo::getMinutoInicio));
+        int n = ordenados.size();
+        porInicio = ordenados.toArray(new Bloqueo[0]);
+        inicios = new long[n];
+        fines = new long[n];
+        finMaximo = new long[n];
+        for (int i = 0; i < n; i++) {
+            inicios[i] = porInicio[i].getMinutoInicio();
+            fines[i] = porInicio[i].getMinutoFin();
+        }
+        construir(0, n);
+    }
+
+    /**
+     * Construye el índice de la lista de bloqueos indicada.
+     */
+    public static IndiceIntervalosBloqueo de(List<Bloqueo> bloqueos) {
+        return new IndiceIntervalosBloqueo(bloqueos);
+    }
+
+    /**
+     * Indica si el índice sigue describiendo la lista: es la misma y no cambió de
+     * tamaño.
+     */
+    public boolean vigentePara(List<Bloqueo> bloqueos) {
+        return fuente == bloqueos && tamanioFuente == bloqueos.size();
+    }
+
+    /**
+     * Bloqueos vigentes en el minuto indicado: inicio &lt; minuto &lt; fin.
+     */
+    public List<Bloqueo> activosEn(long minuto) {
+        List<Bloqueo> resultado = new ArrayList<>();
+        buscar(0, porInicio.length, minuto - 1, minuto + 1, resultado);
+        return resultado;
+    }
+
+    /**
+     * Bloqueos que se superponen con [desde, hasta], extremos incluidos.
+     */
+    public List<Bloqueo> superpuestos(long desde, long hasta) {
+        List<Bloqueo> resultado = new ArrayList<>();
+        buscar(0, porInicio.length, hasta, desde, resultado);
+        return resultado;
+    }
+
+    /**
+     * Bloqueos que empiezan y terminan su vigencia al pasar del minuto
+     * {@code antes} al minuto {@code despues}.
+     */
+    public CambiosBloqueos cambiosEntre(long antes, long despues) {
+        List<Bloqueo> activosAntes = activosEn(antes);
+        List<Bloqueo> activosDespues = activosEn(despues);
+        Set<Bloqueo> conjuntoAntes = identidades(activosAntes);
+        Set<Bloqueo> conjuntoDespues = identidades(activosDespues);
+        List<Bloqueo> activados = new ArrayList<>();
+        for (Bloqueo bloqueo : activosDespues) {
+            if (!conjuntoAntes.contains(bloqueo)) {
+                activados.add(bloqueo);
+            }
+        }
+        List<Bloqueo> desactivados = new ArrayList<>();
+        for (Bloqueo bloqueo : activosAntes) {
+            if (!conjuntoDespues.contains(bloqueo)) {
+                desactivados.add(bloqueo);
+            }
+        }
+        return new CambiosBloqueos(activados, desactivados);
+    }
+
+    private long construir(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int medio = (lo + hi) >>> 1;
+        long maximo = Math.max(fines[medio], Math.max(construir(lo, medio), construir(medio + 1, hi)));
+        finMaximo[medio] = maximo;
+        return maximo;
+    }
+
+    // Agrega los bloqueos con inicio <= inicioMaximo y fin >= finMinimo
+    private void buscar(int lo, int hi, long inicioMaximo, long finMinimo, List<Bloqueo> resultado) {
+        if (lo >= hi) {
+            return;
+        }
+        int medio = (lo + hi) >>> 1;
+        if (finMaximo[medio] < finMinimo) {
+            return;
+        }
+        buscar(lo, medio, inicioMaximo, finMinimo, resultado);
+        // A la derecha todos empiezan igual o después que el bloqueo del medio
+        if (inicios[medio] > inicioMaximo) {
+            return;
+        }
+        if (fines[medio] >= finMinimo) {
+            resultado.add(porInicio[medio]);
+        }
+        buscar(medio + 1, hi, inicioMaximo, finMinimo, resultado);
+    }
+
+    // Bloqueo usa @Data, así que se comparan por identidad y no por contenido
+    private static Set<Bloqueo> identidades(List<Bloqueo> bloqueos) {
+        Set<Bloqueo> conjunto = Collections.newSetFromMap(new IdentityHashMap<>());
+        conjunto.addAll(bloqueos);
+        return conjunto;
+    }
+}
@@ -0,0 +1,161 @@
+package com.plg.utils.simulacion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.plg.entity.Pedido;
+
+/**
+ * Pedidos ordenados por minuto de registro con un cursor que avanza junto con la
+ * simulación.
+ *
+ * Cada intervalo solo recorre los pedidos registrados desde la consulta
+ * anterior, en lugar de filtrar todos los pedidos del mes. Los pedidos ya
+ * ingresados se guardan en orden de registro y se descartan cuando se
+ * entregan. Los pedidos agregados al final de la lista de origen se ordenan
+ * aparte y se intercalan con los ya ordenados. El índice se reconstruye si se
+ * reemplaza o se achica la lista de origen, o si la ventana de consulta
+ * retrocede.
+ */
+public class IndicePedidosPorRegistro {
+
+    private List<Pedido> fuente;
+    private int tamanioFuente;
+    private List<Pedido> ordenados = new ArrayList<>();
+    private long[] minutos = new long[0];
+    private int cursor;
+    private long minutoInferior;
+    private long minutoSuperior;
+    // Por id: dos pedidos en la misma celda son iguales para Nodo.equals
+    private final Map<Long, Pedido> ingresados = new LinkedHashMap<>();
+
+    /**
+     * Pedidos de {@code fuente} con registro en el intervalo abierto
+     * (minutoInferior, minutoSuperior) que no están entregados, en orden de
+     * registro.
+     */
+    public synchronized List<Pedido> pedidosEnRango(List<Pedido> fuente, long minutoInferior, long minutoSuperior,
+            RegistroPedidos registro) {
+        if (fuente != this.fuente || fuente.size() < tamanioFuente || minutoInferior != this.minutoInferior
+                || minutoSuperior < this.minutoSuperior) {
+            reconstruir(fuente, minutoInferior);
+        } else if (fuente.size() > tamanioFuente) {
+            intercalarAgregados();
+        }
+        this.minutoSuperior = minutoSuperior;
+        while (cursor < minutos.length && minutos[cursor] < minutoSuperior) {
+            Pedido pedido = ordenados.get(cursor);
+            ingresados.put(pedido.getId(), pedido);
+            cursor++;
+        }
+        ingresados.values().removeIf(registro::estaEntregado);
+        return new ArrayList<>(ingresados.values());
+    }
+
+    /**
+     * Pedidos de {@code fuente} con registro en [desde, hasta), entregados o no.
+     * No mueve el cursor; si el índice no corresponde a la fuente se recorre la
+     * lista completa.
+     */
+    public synchronized List<Pedido> registradosEntre(List<Pedido> fuente, long desde, long hasta) {
+        List<Pedido> resultado = new ArrayList<>();
+        if (fuente != this.fuente || fuente.size() != tamanioFuente) {
+            for (Pedido pedido : fuente) {
+                if (pedido.getMinutoRegistro() >= desde && pedido.getMinutoRegistro() < hasta) {
+                    resultado.add(pedido);
+                }
+            }
+            return resultado;
+        }
+        for (int i = primerRegistroDespuesDe(desde - 1); i < minutos.length && minutos[i] < hasta; i++) {
+            resultado.add(ordenados.get(i));
+        }
+        return resultado;
+    }
+
+    /**
+     * Obliga a reconstruir el índice en la próxima consulta, por ejemplo cuando
+     * se reemplaza un pedido de la lista de origen.
+     */
+    public synchronized void invalidar() {
+        this.fuente = null;
+    }
+
+    private void reconstruir(List<Pedido> fuente, long minutoInferior) {
+        this.fuente = fuente;
+        this.tamanioFuente = fuente.size();
+        this.minutoInferior = minutoInferior;
+        this.minutoSuperior = Long.MIN_VALUE;
+        ordenados = new ArrayList<>(fuente);
+        ordenados.sort(Comparator.comparingLong(Pedido::getMinutoRegistro));
+        minutos = new long[ordenados.size()];
+        for (int i = 0; i < minutos.length; i++) {
+            minutos[i] = ordenados.get(i).getMinutoRegistro();
+        }
+        cursor = primerRegistroDespuesDe(minutoInferior);
+        ingresados.clear();
+    }
+
+    // Ordena solo los pedidos agregados a la fuente y los intercala con los ya
+    // ordenados; ante empate quedan después de los anteriores, como al ordenar todo
+    private void intercalarAgregados() {
+        List<Pedido> agregados = new ArrayList<>(fuente.subList(tamanioFuente, fuente.size()));
+        agregados.sort(Comparator.comparingLong(Pedido::getMinutoRegistro));
+        List<Pedido> intercalados = new ArrayList<>(ordenados.size() + agregados.size());
+        long[] nuevosMinutos = new long[ordenados.size() + agregados.size()];
+        int i = 0;
+        int j = 0;
+        boolean hayAtrasados = false;
+        while (i < ordenados.size() || j < agregados.size()) {
+            Pedido pedido;
+            if (j == agregados.size()
+                    || (i < ordenados.size() && minutos[i] <= agregados.get(j).getMinutoRegistro())) {
+                pedido = ordenados.get(i++);
+            } else {
+                pedido = agregados.get(j++);
+                // Registrado dentro de la ventana ya recorrida: entra sin esperar al cursor
+                long minuto = pedido.getMinutoRegistro();
+                if (minuto > minutoInferior && minuto < minutoSuperior) {
+                    ingresados.put(pedido.getId(), pedido);
+                    hayAtrasados = true;
+                }
+            }
+            nuevosMinutos[intercalados.size()] = pedido.getMinutoRegistro();
+            intercalados.add(pedido);
+        }
+        ordenados = intercalados;
+        minutos = nuevosMinutos;
+        tamanioFuente = fuente.size();
+        int inicio = primerRegistroDespuesDe(minutoInferior);
+        cursor = Math.max(inicio, primerRegistroDespuesDe(minutoSuperior - 1));
+        if (hayAtrasados) {
+            // Los ingresados se mantienen en orden de registro
+            Map<Long, Pedido> anteriores = new LinkedHashMap<>(ingresados);
+            ingresados.clear();
+            for (int k = inicio; k < cursor; k++) {
+                Pedido pedido = ordenados.get(k);
+                if (anteriores.containsKey(pedido.getId())) {
+                    ingresados.put(pedido.getId(), pedido);
+                }
+            }
+        }
+    }
+
+    // Primera posición con minuto de registro estrictamente mayor al indicado
+    private int primerRegistroDespuesDe(long minuto) {
+        int bajo = 0;
+        int alto = minutos.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (minutos[medio] <= minuto) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
@@ -10,6 +10,7 @@ import com.plg.entity.Nodo;
 import com.plg.utils.Gen;
 import com.plg.utils.Individuo;
 import com.plg.entity.Pedido;
+import com.plg.utils.rutas.RutaCeldas;
 
 /**
  * Fábrica de objetos {@link Individuo} para casos especiales.
@@ -25,10 +26,10 @@ public class IndividuoFactory {
         Individuo individuoVacio = new Individuo(pedidosVacios);
 
         List<Gen> cromosoma = new ArrayList<>();
-        for (Camion camion : Parametros.dataLoader.camiones) {
+        for (Camion camion : Parametros.getDataLoader().camiones) {
             if (camion.getEstado() == EstadoCamion.DISPONIBLE) {
                 Gen gen = new Gen(camion, new ArrayList<>());
-                List<Nodo> rutaActual = new ArrayList<>();
+                List<Nodo> rutaActual = new RutaCeldas();
                 rutaActual.add(camion); // posición actual
                 gen.setRutaFinal(rutaActual);
                 gen.setPedidos(new ArrayList<>());
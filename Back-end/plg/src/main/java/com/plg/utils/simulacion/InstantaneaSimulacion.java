@@ -0,0 +1,190 @@
+package com.plg.utils.simulacion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.plg.entity.Almacen;
+import com.plg.entity.Averia;
+import com.plg.entity.Camion;
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.entity.Pedido;
+import com.plg.utils.ContextoSimulacion;
+import com.plg.utils.Gen;
+import com.plg.utils.Individuo;
+import com.plg.utils.Parametros;
+import com.plg.utils.Simulacion;
+import com.plg.utils.TiempoSimulacion;
+import com.plg.utils.rutas.IndiceRutasPorCelda;
+import com.plg.utils.rutas.RutaCeldas;
+
+/**
+ * Copia del estado mutable de la simulación en un instante, para volver a él
+ * cuando se descartan intervalos calculados por adelantado.
+ *
+ * Guarda los atributos de camiones, pedidos y almacenes, el avance de la ruta
+ * de cada camión, el estado de las averías, el registro de pedidos y los
+ * parámetros de tiempo. De los pedidos solo se copian los que el intervalo
+ * siguiente puede modificar: los que se están enviando, los planificados y los
+ * que se registran antes de que cierre su ventana de pedidos. Al restaurar, el mapa, el índice de rutas y el motor de
+ * eventos se vuelven a sincronizar con ese estado.
+ */
+public class InstantaneaSimulacion {
+
+    private final LocalDateTime fechaInicial;
+    private final String anho;
+    private final String mes;
+    private final String dia;
+    private final int diferenciaTiempoMinRequest;
+    private final double fitnessGlobal;
+    private final double kilometrosRecorridos;
+    private final int contadorPrueba;
+
+    private final Map<Camion, Camion> camiones = new IdentityHashMap<>();
+    private final Map<Camion, EstadoRuta> rutas = new IdentityHashMap<>();
+    private final Map<Pedido, Pedido> pedidos = new IdentityHashMap<>();
+    private final Map<Almacen, Almacen> almacenes = new IdentityHashMap<>();
+    private final Map<Averia, Boolean> estadoAverias = new IdentityHashMap<>();
+    private final List<Camion> camionesAveriados;
+
+    private final RegistroPedidos.Marca registroPedidos;
+    private final List<Pedido> pedidosEnviar;
+    private final Individuo mejorIndividuo;
+
+    // Avance de la ruta del gen asignado al camión
+    private static class EstadoRuta {
+        final Gen gen;
+        final int posNodo;
+        final int ultimoPasoReproducido;
+        final List<Nodo> rutaFinal;
+        final long versionRuta;
+        final LocalDateTime inicioRegistrado;
+
+        EstadoRuta(Gen gen, LocalDateTime inicioRegistrado) {
+            this.gen = gen;
+            this.posNodo = gen.getPosNodo();
+            this.ultimoPasoReproducido = gen.getUltimoPasoReproducido();
+            this.rutaFinal = gen.getRutaFinal() == null ? null : new ArrayList<>(gen.getRutaFinal());
+            this.versionRuta = gen.getRutaFinal() instanceof RutaCeldas
+                    ? ((RutaCeldas) gen.getRutaFinal()).getVersion()
+                    : -1;
+            this.inicioRegistrado = inicioRegistrado;
+        }
+
+        void restaurar() {
+            gen.setPosNodo(posNodo);
+            gen.setUltimoPasoReproducido(ultimoPasoReproducido);
+            List<Nodo> actual = gen.getRutaFinal();
+            boolean sinCambios = actual instanceof RutaCeldas && ((RutaCeldas) actual).getVersion() == versionRuta;
+            if (rutaFinal != null && actual != null && !sinCambios) {
+                // La ruta se reprogramó por un bloqueo después de la copia
+                actual.clear();
+                actual.addAll(rutaFinal);
+            }
+        }
+    }
+
+    private InstantaneaSimulacion(LocalDateTime fechaSiguiente) {
+        fechaInicial = Parametros.getFechaInicial();
+        anho = Parametros.getAnho();
+        mes = Parametros.getMes();
+        dia = Parametros.getDia();
+        diferenciaTiempoMinRequest = Parametros.getDiferenciaTiempoMinRequest();
+        fitnessGlobal = Parametros.getFitnessGlobal();
+        kilometrosRecorridos = Parametros.getKilometrosRecorridos();
+        contadorPrueba = Parametros.getContadorPrueba();
+
+        IndiceRutasPorCelda indiceRutas = Mapa.getInstance().getIndiceRutasPorCelda();
+        for (Camion camion : Parametros.getDataLoader().camiones) {
+            camiones.put(camion, camion.getClone());
+            if (camion.getGen() != null) {
+                rutas.put(camion, new EstadoRuta(camion.getGen(), indiceRutas.inicioRegistrado(camion.getCodigo())));
+            }
+        }
+        for (Pedido pedido : Simulacion.getPedidosEnviar()) {
+            pedidos.put(pedido, pedido.getClone());
+        }
+        for (Pedido pedido : Simulacion.getRegistroPedidos().getPlanificados()) {
+            pedidos.computeIfAbsent(pedido, Pedido::getClone);
+        }
+        List<Pedido> porIngresar = ContextoSimulacion.actual().getIndicePedidos().registradosEntre(
+                Parametros.getDataLoader().pedidos, TiempoSimulacion.aMinuto(fechaInicial),
+                Simulacion.minutoSuperiorPedidos(fechaSiguiente));
+        for (Pedido pedido : porIngresar) {
+            pedidos.computeIfAbsent(pedido, Pedido::getClone);
+        }
+        for (Almacen almacen : Parametros.getDataLoader().almacenes) {
+            almacenes.put(almacen, almacen.getClone());
+        }
+        for (Averia averia : Parametros.getDataLoader().averias) {
+            estadoAverias.put(averia, averia.getEstado());
+        }
+        camionesAveriados = Parametros.getDataLoader().camionesAveriados;
+
+        registroPedidos = Simulacion.getRegistroPedidos().marcar();
+        pedidosEnviar = new ArrayList<>(Simulacion.getPedidosEnviar());
+        mejorIndividuo = Simulacion.getMejorIndividuo();
+    }
+
+    /**
+     * Toma una copia del estado actual de la simulación antes de calcular el
+     * intervalo que empieza en {@code fechaSiguiente}.
+     */
+    public static InstantaneaSimulacion tomar(LocalDateTime fechaSiguiente) {
+        return new InstantaneaSimulacion(fechaSiguiente);
+    }
+
+    public LocalDateTime getFechaInicial() {
+        return fechaInicial;
+    }
+
+    /**
+     * Devuelve la simulación al estado de la copia.
+     */
+    public void restaurar() {
+        Parametros.setFechaInicial(fechaInicial);
+        Parametros.setAnho(anho);
+        Parametros.setMes(mes);
+        Parametros.setDia(dia);
+        Parametros.setDiferenciaTiempoMinRequest(diferenciaTiempoMinRequest);
+        Parametros.setFitnessGlobal(fitnessGlobal);
+        Parametros.setKilometrosRecorridos(kilometrosRecorridos);
+        Parametros.setContadorPrueba(contadorPrueba);
+
+        for (Map.Entry<Camion, Camion> entrada : camiones.entrySet()) {
+            Camion camion = entrada.getKey();
+            camion.restaurarDesde(entrada.getValue());
+            EstadoRuta ruta = rutas.get(camion);
+            camion.setGen(ruta == null ? null : ruta.gen);
+            if (ruta != null) {
+                ruta.restaurar();
+            }
+        }
+        pedidos.forEach(Pedido::restaurarDesde);
+        almacenes.forEach(Almacen::restaurarDesde);
+        estadoAverias.forEach(Averia::setEstado);
+        Parametros.getDataLoader().camionesAveriados = camionesAveriados;
+
+        Simulacion.getRegistroPedidos().volverA(registroPedidos);
+        Simulacion.setPedidosEnviar(new ArrayList<>(pedidosEnviar));
+        Simulacion.setMejorIndividuo(mejorIndividuo);
+
+        // Lo derivado del estado se vuelve a sincronizar
+        Mapa mapa = Mapa.getInstance();
+        Simulacion.setBloqueosActivos(Simulacion.actualizarBloqueos(fechaInicial));
+        mapa.getPedidosEnMapa().sincronizar(Simulacion.getPedidosEnviar());
+        Simulacion.getMotorEventos().reiniciar(TiempoSimulacion.aMinuto(fechaInicial));
+        for (Camion camion : camiones.keySet()) {
+            EstadoRuta ruta = rutas.get(camion);
+            if (ruta == null || ruta.inicioRegistrado == null) {
+                mapa.getIndiceRutasPorCelda().quitarRuta(camion.getCodigo());
+                continue;
+            }
+            mapa.getIndiceRutasPorCelda().registrarRuta(ruta.gen, ruta.inicioRegistrado);
+            Simulacion.getMotorEventos().programarLlegadas(ruta.gen, TiempoSimulacion.aMinuto(ruta.inicioRegistrado));
+        }
+    }
+}
@@ -71,22 +71,9 @@ public class MantenimientoManager {
                 return false;
             }
 
-            // Buscar el primer mantenimiento registrado para este camión
-            return com.plg.utils.Parametros.dataLoader.mantenimientos.stream()
-                    .filter(m -> m.getCamion() != null && m.getCamion().getCodigo().equals(camion.getCodigo()))
-                    .findFirst()
-                    .map(primerMantenimiento -> {
-                        // Verificar que el día coincida
-                        if (primerMantenimiento.getDia() != dia) {
-                            return false;
-                        }
-
-                        // Calcular ciclos bimestrales: mantenimiento cada 2 meses a partir del mes
-                        int mesInicial = primerMantenimiento.getMes();
-                        int diferenciaMeses = Math.abs(mes - mesInicial);
-                        return diferenciaMeses % 2 == 0; // se mantiene el ciclo bimestral
-                    })
-                    .orElse(false);
+            // Ciclo bimestral precalculado a partir del primer mantenimiento del camión
+            return com.plg.utils.Parametros.getDataLoader().getCalendarioMantenimientos()
+                    .tieneMantenimientoProgramado(camion.getCodigo(), dia, mes);
         } catch (Exception e) {
             // System.err.println("Error verificando mantenimiento para "
             //         + (camion != null ? camion.getCodigo() : "null") + ": " + e.getMessage());
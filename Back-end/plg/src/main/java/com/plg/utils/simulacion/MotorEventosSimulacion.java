@@ -0,0 +1,249 @@
+package com.plg.utils.simulacion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import com.plg.config.DataLoader;
+import com.plg.entity.Averia;
+import com.plg.entity.Bloqueo;
+import com.plg.entity.Pedido;
+import com.plg.utils.Gen;
+import com.plg.utils.TiempoSimulacion;
+import com.plg.utils.rutas.LineaTiempoRuta;
+
+/**
+ * Motor de eventos discretos de la simulación.
+ *
+ * Mantiene una cola de prioridad de eventos con fecha (llegada de pedidos,
+ * inicio y fin de bloqueos, averías, reparaciones, inicio de cada día y
+ * llegadas de los camiones a sus paradas) y al avanzar a un instante procesa
+ * solo los que vencieron, en orden de fecha. Los eventos de los datos se
+ * programan a medida que aparecen en las listas del dataLoader, de modo que las
+ * averías o pedidos agregados por la API también entran a la cola. Quien
+ * necesite reaccionar a un tipo de evento se suscribe a él.
+ */
+public class MotorEventosSimulacion {
+
+    private static final long MINUTOS_POR_DIA = 24 * 60;
+
+    private final PriorityQueue<EventoEnCola> cola = new PriorityQueue<>(
+            Comparator.comparingLong((EventoEnCola e) -> e.evento.getMinuto()).thenComparingLong(e -> e.orden));
+    private final Map<EventoSimulacion.Tipo, List<Consumer<EventoSimulacion>>> suscriptores = new EnumMap<>(
+            EventoSimulacion.Tipo.class);
+    private final Map<String, Long> versionPlanPorCamion = new HashMap<>();
+    private long orden;
+    private long minutoActual = Long.MIN_VALUE;
+    private long siguienteInicioDia = TiempoSimulacion.SIN_FECHA;
+
+    // Posición hasta la que ya se programaron los eventos de cada lista de datos
+    private DataLoader fuente;
+    private List<Pedido> pedidosFuente;
+    private List<Bloqueo> bloqueosFuente;
+    private List<Averia> averiasFuente;
+    private int pedidosProgramados;
+    private int bloqueosProgramados;
+    private int averiasProgramadas;
+
+    private static class EventoEnCola {
+        final EventoSimulacion evento;
+        final long orden;
+
+        EventoEnCola(EventoSimulacion evento, long orden) {
+            this.evento = evento;
+            this.orden = orden;
+        }
+    }
+
+    /**
+     * Vacía la cola y fija el instante de inicio de la simulación.
+     */
+    public synchronized void reiniciar(long minutoInicio) {
+        cola.clear();
+        versionPlanPorCamion.clear();
+        fuente = null;
+        minutoActual = minutoInicio;
+        // El primer inicio de día es el mismo instante si la simulación empieza a las 00:00
+        siguienteInicioDia = Math.floorDiv(minutoInicio + MINUTOS_POR_DIA - 1, MINUTOS_POR_DIA) * MINUTOS_POR_DIA;
+    }
+
+    public synchronized void suscribir(EventoSimulacion.Tipo tipo, Consumer<EventoSimulacion> suscriptor) {
+        suscriptores.computeIfAbsent(tipo, t -> new ArrayList<>()).add(suscriptor);
+    }
+
+    /**
+     * Agrega un evento a la cola. Los eventos anteriores al instante actual se
+     * procesan en el siguiente avance.
+     */
+    public synchronized void programar(EventoSimulacion evento) {
+        if (evento.getMinuto() == TiempoSimulacion.SIN_FECHA) {
+            return;
+        }
+        cola.add(new EventoEnCola(evento, orden++));
+    }
+
+    /**
+     * Programa las llegadas del camión del gen a cada parada de su ruta a partir
+     * del minuto indicado. Las llegadas de planes anteriores del mismo camión
+     * quedan descartadas.
+     */
+    public synchronized void programarLlegadas(Gen gen, long minutoInicio) {
+        if (gen == null || gen.getCamion() == null || gen.getRutaFinal() == null) {
+            return;
+        }
+        String codigo = gen.getCamion().getCodigo();
+        long version = versionPlanPorCamion.merge(codigo, 1L, Long::sum);
+        double velocidad = gen.getCamion().getVelocidadPromedio();
+        if (velocidad <= 0) {
+            return;
+        }
+        LineaTiempoRuta lineaTiempo = gen.getLineaTiempo();
+        for (int evento = 0; evento < lineaTiempo.cantidadEventos(); evento++) {
+            int avance = lineaTiempo.avanceAlLlegar(lineaTiempo.pasoEvento(evento));
+            long minuto = minutoInicio + (long) Math.ceil(avance * 60 / velocidad);
+            programar(EventoSimulacion.llegada(minuto, gen.getCamion(), version));
+        }
+    }
+
+    /**
+     * Procesa en orden los eventos con fecha hasta el minuto indicado, incluido,
+     * avisa a los suscriptores y los devuelve.
+     */
+    public synchronized List<EventoSimulacion> avanzarHasta(DataLoader dataLoader, long minuto) {
+        sincronizarFuentes(dataLoader);
+        while (siguienteInicioDia <= minuto) {
+            programar(EventoSimulacion.inicioDia(siguienteInicioDia));
+            siguienteInicioDia += MINUTOS_POR_DIA;
+        }
+        List<EventoSimulacion> procesados = new ArrayList<>();
+        while (!cola.isEmpty() && cola.peek().evento.getMinuto() <= minuto) {
+            EventoSimulacion evento = cola.poll().evento;
+            if (esLlegadaDescartada(evento)) {
+                continue;
+            }
+            minutoActual = Math.max(minutoActual, evento.getMinuto());
+            procesados.add(evento);
+            for (Consumer<EventoSimulacion> suscriptor : suscriptores.getOrDefault(evento.getTipo(), List.of())) {
+                suscriptor.accept(evento);
+            }
+        }
+        minutoActual = Math.max(minutoActual, minuto);
+        return procesados;
+    }
+
+    /**
+     * Minuto del próximo evento pendiente, o {@link TiempoSimulacion#SIN_FECHA}
+     * si no queda ninguno.
+     */
+    public synchronized long minutoProximoEvento(DataLoader dataLoader) {
+        sincronizarFuentes(dataLoader);
+        long proximo = siguienteInicioDia;
+        while (!cola.isEmpty() && esLlegadaDescartada(cola.peek().evento)) {
+            cola.poll();
+        }
+        if (!cola.isEmpty()) {
+            proximo = Math.min(proximo, cola.peek().evento.getMinuto());
+        }
+        return proximo;
+    }
+
+    public synchronized long getMinutoActual() {
+        return minutoActual;
+    }
+
+    public synchronized int cantidadPendientes() {
+        return cola.size();
+    }
+
+    /**
+     * Indica si alguno de los eventos deja sin validez el plan vigente y
+     * conviene volver a ejecutar el planificador: un bloqueo que empieza puede
+     * cortar rutas y una avería cambia los camiones disponibles. El fin de un
+     * bloqueo, el inicio del día y las llegadas no lo invalidan; los pedidos
+     * nuevos y los camiones que entran a mantenimiento los revisa quien llama.
+     */
+    public static boolean requiereReplanificar(List<EventoSimulacion> eventos) {
+        for (EventoSimulacion evento : eventos) {
+            switch (evento.getTipo()) {
+                case BLOQUEO_INICIO, AVERIA_REPORTADA, AVERIA_TRASLADO, AVERIA_REPARADA -> {
+                    return true;
+                }
+                default -> {
+                    // No cambia el plan vigente
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean esLlegadaDescartada(EventoSimulacion evento) {
+        if (evento.getTipo() != EventoSimulacion.Tipo.LLEGADA_PARADA) {
+            return false;
+        }
+        Long vigente = versionPlanPorCamion.get(evento.getCamion().getCodigo());
+        return vigente == null || vigente != evento.getVersionPlan();
+    }
+
+    // Programa los eventos de los elementos agregados a las listas del dataLoader
+    // desde la última sincronización
+    private void sincronizarFuentes(DataLoader dataLoader) {
+        if (dataLoader == null) {
+            return;
+        }
+        if (dataLoader != fuente || dataLoader.pedidos != pedidosFuente || dataLoader.bloqueos != bloqueosFuente
+                || dataLoader.averias != averiasFuente) {
+            // Datos nuevos: se descartan los eventos de datos ya programados
+            cola.removeIf(e -> e.evento.getTipo() != EventoSimulacion.Tipo.LLEGADA_PARADA
+                    && e.evento.getTipo() != EventoSimulacion.Tipo.INICIO_DIA);
+            fuente = dataLoader;
+            pedidosFuente = dataLoader.pedidos;
+            bloqueosFuente = dataLoader.bloqueos;
+            averiasFuente = dataLoader.averias;
+            pedidosProgramados = 0;
+            bloqueosProgramados = 0;
+            averiasProgramadas = 0;
+        }
+        for (; pedidosProgramados < pedidosFuente.size(); pedidosProgramados++) {
+            Pedido pedido = pedidosFuente.get(pedidosProgramados);
+            if (pedido.getMinutoRegistro() > minutoActual) {
+                programar(EventoSimulacion.dePedido(pedido));
+            }
+        }
+        for (; bloqueosProgramados < bloqueosFuente.size(); bloqueosProgramados++) {
+            Bloqueo bloqueo = bloqueosFuente.get(bloqueosProgramados);
+            // Un bloqueo está vigente cuando inicio < minuto < fin
+            programarSiPendiente(EventoSimulacion.deBloqueo(EventoSimulacion.Tipo.BLOQUEO_INICIO,
+                    despuesDe(bloqueo.getMinutoInicio()), bloqueo));
+            programarSiPendiente(EventoSimulacion.deBloqueo(EventoSimulacion.Tipo.BLOQUEO_FIN,
+                    bloqueo.getMinutoFin(), bloqueo));
+        }
+        for (; averiasProgramadas < averiasFuente.size(); averiasProgramadas++) {
+            Averia averia = averiasFuente.get(averiasProgramadas);
+            // Una avería reportada antes del instante actual se procesa en el siguiente avance
+            programar(EventoSimulacion.deAveria(EventoSimulacion.Tipo.AVERIA_REPORTADA,
+                    Math.max(averia.getMinutoReporte(), minutoActual), averia));
+            if (averia.getTipoIncidente() != null && averia.getTipoIncidente().isRequiereTraslado()) {
+                // El traslado ocurre cuando la espera en ruta ya terminó, no en el mismo minuto
+                programarSiPendiente(EventoSimulacion.deAveria(EventoSimulacion.Tipo.AVERIA_TRASLADO,
+                        despuesDe(averia.getMinutoFinEsperaEnRuta()), averia));
+            }
+            programarSiPendiente(EventoSimulacion.deAveria(EventoSimulacion.Tipo.AVERIA_REPARADA,
+                    averia.getMinutoDisponible(), averia));
+        }
+    }
+
+    private static long despuesDe(long minuto) {
+        return minuto == TiempoSimulacion.SIN_FECHA ? minuto : minuto + 1;
+    }
+
+    private void programarSiPendiente(EventoSimulacion evento) {
+        if (evento.getMinuto() > minutoActual) {
+            programar(evento);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.plg.utils.simulacion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.entity.Pedido;
+import com.plg.entity.TipoNodo;
+import com.plg.utils.rutas.ObservadorBloqueos;
+
+/**
+ * Lleva la cuenta de las celdas ocupadas por pedidos y aplica en el mapa solo
+ * los pedidos que entran o salen entre un intervalo y el siguiente.
+ *
+ * Si varios pedidos comparten una celda, el mapa muestra el último colocado y,
+ * al salir este, el anterior que siga vigente. Una celda solo se libera si su
+ * ocupante sigue siendo el pedido colocado aquí, y conserva su estado de
+ * bloqueo.
+ */
+public class PedidosEnMapa implements ObservadorBloqueos {
+
+    private final Mapa mapa;
+    private final Map<Long, Pedido> colocados = new HashMap<>();
+    private final Map<Long, Integer> celdaPorPedido = new HashMap<>();
+    private final Map<Integer, LinkedHashMap<Long, Pedido>> pedidosPorCelda = new HashMap<>();
+
+    public PedidosEnMapa(Mapa mapa) {
+        this.mapa = mapa;
+    }
+
+    @Override
+    public synchronized void mapaReiniciado() {
+        colocados.clear();
+        celdaPorPedido.clear();
+        pedidosPorCelda.clear();
+    }
+
+    /**
+     * Deja en el mapa exactamente los pedidos indicados, tocando solo las celdas
+     * de los pedidos que entran o salen.
+     */
+    public synchronized void sincronizar(List<Pedido> vigentes) {
+        Map<Long, Pedido> nuevos = new LinkedHashMap<>();
+        for (Pedido pedido : vigentes) {
+            nuevos.put(pedido.getId(), pedido);
+        }
+        for (Pedido pedido : new ArrayList<>(colocados.values())) {
+            if (!nuevos.containsKey(pedido.getId())) {
+                quitarColocado(pedido);
+            }
+        }
+        for (Pedido pedido : nuevos.values()) {
+            Integer celdaAnterior = celdaPorPedido.get(pedido.getId());
+            if (celdaAnterior != null && celdaAnterior == mapa.indiceCelda(pedido.getCoordenada())) {
+                continue;
+            }
+            if (celdaAnterior != null) {
+                // El pedido cambió de coordenada
+                quitarColocado(pedido);
+            }
+            colocar(pedido);
+        }
+    }
+
+    /**
+     * Quita del mapa un pedido, por ejemplo al entregarse.
+     */
+    public synchronized void quitar(Pedido pedido) {
+        if (colocados.containsKey(pedido.getId())) {
+            quitarColocado(pedido);
+        }
+    }
+
+    /**
+     * Cantidad de pedidos colocados en el mapa.
+     */
+    public synchronized int cantidadColocados() {
+        return colocados.size();
+    }
+
+    private void colocar(Pedido pedido) {
+        int celda = mapa.indiceCelda(pedido.getCoordenada());
+        colocados.put(pedido.getId(), pedido);
+        celdaPorPedido.put(pedido.getId(), celda);
+        pedidosPorCelda.computeIfAbsent(celda, c -> new LinkedHashMap<>()).put(pedido.getId(), pedido);
+        ponerEnCelda(celda, pedido);
+    }
+
+    private void quitarColocado(Pedido pedido) {
+        colocados.remove(pedido.getId());
+        int celda = celdaPorPedido.remove(pedido.getId());
+        LinkedHashMap<Long, Pedido> enCelda = pedidosPorCelda.get(celda);
+        enCelda.remove(pedido.getId());
+        Nodo ocupante = mapa.getOcupante(celda);
+        if (ocupante != pedido) {
+            // Otro nodo ocupó la celda después; no se toca
+            if (enCelda.isEmpty()) {
+                pedidosPorCelda.remove(celda);
+            }
+            return;
+        }
+        if (enCelda.isEmpty()) {
+            pedidosPorCelda.remove(celda);
+            mapa.setNodo(mapa.getCoordenada(celda), new Nodo(mapa.getCoordenada(celda),
+                    mapa.estaBloqueada(celda), 0, 0, TipoNodo.NORMAL));
+        } else {
+            Pedido anterior = null;
+            for (Pedido restante : enCelda.values()) {
+                anterior = restante;
+            }
+            ponerEnCelda(celda, anterior);
+        }
+    }
+
+    private void ponerEnCelda(int celda, Pedido pedido) {
+        // El pedido toma el estado de bloqueo de la celda en lugar de imponer el suyo
+        pedido.setBloqueado(mapa.estaBloqueada(celda));
+        mapa.setNodo(mapa.getCoordenada(celda), pedido);
+    }
+}
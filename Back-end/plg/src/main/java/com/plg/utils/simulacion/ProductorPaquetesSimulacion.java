@@ -0,0 +1,313 @@
+package com.plg.utils.simulacion;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.plg.dto.IndividuoDto;
+import com.plg.entity.Mapa;
+import com.plg.utils.AlgoritmoGenetico;
+import com.plg.utils.ContextoSimulacion;
+import com.plg.utils.Herramientas;
+import com.plg.utils.Parametros;
+import com.plg.utils.Simulacion;
+import com.plg.utils.TipoDeSimulacion;
+
+/**
+ * Calcula en segundo plano los paquetes de los intervalos N+1..N+k mientras el
+ * frontend consume el intervalo N, de modo que la consulta de un intervalo ya
+ * calculado se responde desde memoria.
+ *
+ * El búfer guarda a lo sumo {@link ContextoSimulacion#getPaquetesAdelantados()} paquetes; si
+ * está lleno, el productor espera a que se consuma uno. Cada paquete guarda la
+ * copia del estado previa a su cálculo, así que al llegar una avería o un
+ * pedido nuevo se descartan los paquetes futuros y la simulación vuelve al
+ * estado del primero de ellos. El productor queda en pausa hasta la siguiente
+ * consulta, que se calcula ya con el cambio aplicado.
+ *
+ * Cada contexto de simulación tiene su propio productor, con su búfer y su
+ * hilo, que trabaja solo sobre el estado de ese contexto.
+ *
+ * Se usan dos candados: {@code estado} protege el estado global de la
+ * simulación durante el cálculo de un intervalo y {@code bufer} solo la cola de
+ * paquetes, para que servir un paquete ya calculado no espere al cálculo en
+ * curso. Cuando se toman ambos, siempre es en ese orden.
+ */
+public class ProductorPaquetesSimulacion {
+
+    private final ContextoSimulacion contexto;
+    private final ReentrantLock estado = new ReentrantLock();
+    private final ReentrantLock bufer = new ReentrantLock();
+    private final Condition hayTrabajo = bufer.newCondition();
+
+    private final Deque<PaqueteAdelantado> paquetes = new ArrayDeque<>();
+    private LocalDateTime siguienteFecha;
+    private boolean activo = false;
+    // Cambia al descartar el búfer; un cálculo iniciado con otra generación se descarta
+    private long generacion = 0;
+    private Thread hilo;
+
+    private static class PaqueteAdelantado {
+        final LocalDateTime fecha;
+        final IndividuoDto paquete;
+        final InstantaneaSimulacion estadoPrevio;
+
+        PaqueteAdelantado(LocalDateTime fecha, IndividuoDto paquete, InstantaneaSimulacion estadoPrevio) {
+            this.fecha = fecha;
+            this.paquete = paquete;
+            this.estadoPrevio = estadoPrevio;
+        }
+    }
+
+    public ProductorPaquetesSimulacion(ContextoSimulacion contexto) {
+        this.contexto = contexto;
+    }
+
+    /**
+     * Paquete del intervalo que empieza en la fecha indicada. Si ya se calculó
+     * por adelantado se devuelve de inmediato; si no, se calcula ahora. En ambos
+     * casos el productor sigue con los intervalos siguientes.
+     */
+    public IndividuoDto obtener(LocalDateTime fecha) {
+        IndividuoDto adelantado = tomarSiCoincide(fecha);
+        if (adelantado != null) {
+            return adelantado;
+        }
+        estado.lock();
+        try {
+            // El productor pudo terminar este intervalo mientras se esperaba el candado
+            adelantado = tomarSiCoincide(fecha);
+            if (adelantado != null) {
+                return adelantado;
+            }
+            bufer.lock();
+            try {
+                // Se pidió otro intervalo: lo calculado por adelantado ya no sirve
+                descartarAdelantados();
+            } finally {
+                bufer.unlock();
+            }
+            IndividuoDto paquete = contexto.ejecutar(() -> calcularPaquete(fecha));
+            bufer.lock();
+            try {
+                siguienteFecha = fecha.plusMinutes(contexto.getIntervaloTiempo());
+                activo = true;
+                asegurarHilo();
+                hayTrabajo.signalAll();
+            } finally {
+                bufer.unlock();
+            }
+            return paquete;
+        } finally {
+            estado.unlock();
+        }
+    }
+
+    /**
+     * Descarta los paquetes calculados por adelantado, devuelve la simulación al
+     * último intervalo entregado y pausa el productor. Se llama antes de
+     * registrar una avería o un pedido nuevo.
+     */
+    public void invalidar() {
+        estado.lock();
+        try {
+            bufer.lock();
+            try {
+                int descartados = paquetes.size();
+                descartarAdelantados();
+                activo = false;
+                if (descartados > 0) {
+                    System.out.println("♻️ Paquetes adelantados descartados: " + descartados);
+                }
+            } finally {
+                bufer.unlock();
+            }
+        } finally {
+            estado.unlock();
+        }
+    }
+
+    /**
+     * Detiene el productor y vacía el búfer sin restaurar el estado, al iniciar
+     * una simulación nueva.
+     */
+    public void reiniciar() {
+        estado.lock();
+        try {
+            bufer.lock();
+            try {
+                paquetes.clear();
+                generacion++;
+                activo = false;
+                siguienteFecha = null;
+            } finally {
+                bufer.unlock();
+            }
+        } finally {
+            estado.unlock();
+        }
+    }
+
+    /**
+     * Cambia cuántos paquetes se calculan por adelantado y despierta al
+     * productor, que puede estar esperando con el búfer lleno según el límite
+     * anterior.
+     */
+    public void configurarAdelanto(int paquetesAdelantados) {
+        bufer.lock();
+        try {
+            contexto.setPaquetesAdelantados(paquetesAdelantados);
+            hayTrabajo.signalAll();
+        } finally {
+            bufer.unlock();
+        }
+    }
+
+    public int getPaquetesEnBufer() {
+        bufer.lock();
+        try {
+            return paquetes.size();
+        } finally {
+            bufer.unlock();
+        }
+    }
+
+    /**
+     * Avanza la simulación del contexto actual al intervalo que empieza en la
+     * fecha indicada y arma su paquete, igual que una consulta directa del
+     * frontend.
+     */
+    public static IndividuoDto calcularPaquete(LocalDateTime fecha) {
+        Parametros.setDiferenciaTiempoMinRequest(
+                (int) ChronoUnit.MINUTES.between(Parametros.getFechaInicial(), fecha));
+        Parametros.actualizarParametrosGlobales(fecha);
+        Simulacion.actualizarEstadoGlobal(fecha);
+        System.out.println("🧬 Ejecutando algoritmo genético para la fecha: " + fecha);
+
+        AlgoritmoGenetico algoritmoGenetico = new AlgoritmoGenetico(Mapa.getInstance());
+        algoritmoGenetico.ejecutarAlgoritmo();
+        Simulacion.setMejorIndividuo(algoritmoGenetico.getMejorIndividuo());
+        if (Parametros.getTipoDeSimulacion() == TipoDeSimulacion.SEMANAL) {
+            Herramientas.agregarAveriasAutomaticas(Parametros.getDataLoader().getIndiceAveriasAutomaticas(),
+                    algoritmoGenetico.getMejorIndividuo().getCromosoma(), fecha,
+                    fecha.plusMinutes(Parametros.getIntervaloTiempo()));
+        }
+        IndividuoDto paquete = new IndividuoDto(
+                algoritmoGenetico.getMejorIndividuo(),
+                Simulacion.getPedidosEnviar(),
+                Simulacion.getBloqueosActivos(),
+                fecha);
+        paquete.setFechaHoraInicioIntervalo(fecha);
+        paquete.setFechaHoraFinIntervalo(fecha.plusMinutes(Parametros.getIntervaloTiempo()));
+        return paquete;
+    }
+
+    private IndividuoDto tomarSiCoincide(LocalDateTime fecha) {
+        bufer.lock();
+        try {
+            PaqueteAdelantado primero = paquetes.peekFirst();
+            if (primero == null || !primero.fecha.equals(fecha)) {
+                return null;
+            }
+            paquetes.pollFirst();
+            hayTrabajo.signalAll();
+            System.out.println("⚡ Paquete adelantado servido: " + fecha + " | En búfer: " + paquetes.size());
+            return primero.paquete;
+        } finally {
+            bufer.unlock();
+        }
+    }
+
+    // Requiere ambos candados
+    private void descartarAdelantados() {
+        PaqueteAdelantado primero = paquetes.peekFirst();
+        if (primero != null) {
+            contexto.ejecutar(primero.estadoPrevio::restaurar);
+            siguienteFecha = primero.fecha;
+        }
+        paquetes.clear();
+        generacion++;
+    }
+
+    /**
+     * Termina el hilo productor; se llama al eliminar la sesión de la simulación.
+     */
+    public void detener() {
+        bufer.lock();
+        try {
+            activo = false;
+            if (hilo != null) {
+                hilo.interrupt();
+                hilo = null;
+            }
+        } finally {
+            bufer.unlock();
+        }
+    }
+
+    private void asegurarHilo() {
+        if (hilo == null || !hilo.isAlive()) {
+            // El hilo trabaja siempre sobre la simulación de este productor
+            hilo = new Thread(() -> contexto.ejecutar(this::producir), "productor-paquetes-" + contexto.getSesion());
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+    }
+
+    private void producir() {
+        while (!Thread.currentThread().isInterrupted()) {
+            LocalDateTime fecha;
+            long generacionInicial;
+            bufer.lock();
+            try {
+                while (!activo || siguienteFecha == null || paquetes.size() >= contexto.getPaquetesAdelantados()) {
+                    // Contrapresión: no se calcula más allá del tamaño del búfer
+                    hayTrabajo.await();
+                }
+                fecha = siguienteFecha;
+                generacionInicial = generacion;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                bufer.unlock();
+            }
+
+            estado.lock();
+            try {
+                bufer.lock();
+                try {
+                    if (generacion != generacionInicial || !activo) {
+                        continue;
+                    }
+                } finally {
+                    bufer.unlock();
+                }
+                InstantaneaSimulacion estadoPrevio = InstantaneaSimulacion.tomar(fecha);
+                try {
+                    IndividuoDto paquete = calcularPaquete(fecha);
+                    bufer.lock();
+                    try {
+                        paquetes.addLast(new PaqueteAdelantado(fecha, paquete, estadoPrevio));
+                        siguienteFecha = fecha.plusMinutes(contexto.getIntervaloTiempo());
+                    } finally {
+                        bufer.unlock();
+                    }
+                } catch (Exception e) {
+                    System.err.println("❌ Error al adelantar el intervalo " + fecha + ": " + e.getMessage());
+                    estadoPrevio.restaurar();
+                    bufer.lock();
+                    try {
+                        activo = false;
+                    } finally {
+                        bufer.unlock();
+                    }
+                }
+            } finally {
+                estado.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.plg.utils.simulacion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.plg.entity.Pedido;
+
+/**
+ * Estado de los pedidos durante la simulación, indexado por el id único de cada
+ * pedido.
+ *
+ * Pedido hereda la igualdad de Nodo, que solo compara la coordenada, así que
+ * dos pedidos en la misma celda no pueden convivir en un Set. Aquí los pedidos
+ * planificados se guardan por id y los entregados solo ocupan su id; los
+ * pedidos entregados se pasan a un archivo aparte para que el trabajo de cada
+ * intervalo dependa de los pedidos en curso y no de todo lo entregado en la
+ * semana.
+ */
+public class RegistroPedidos {
+
+    private final Map<Long, Pedido> planificados = new LinkedHashMap<>();
+    private final Set<Long> idsEntregados = new HashSet<>();
+    private final List<Pedido> entregadosSinArchivar = new ArrayList<>();
+    private final List<Pedido> archivados = new ArrayList<>();
+    // Cambia al limpiar; las marcas de antes ya no se pueden restaurar
+    private long generacion = 0;
+
+    /**
+     * Estado del registro guardado por {@link #marcar()}.
+     */
+    public static class Marca {
+        private final RegistroPedidos registro;
+        private final long generacion;
+        private final Map<Long, Pedido> planificados;
+        private final int cantidadArchivados;
+        private final int cantidadSinArchivar;
+
+        private Marca(RegistroPedidos registro, long generacion, Map<Long, Pedido> planificados,
+                int cantidadArchivados, int cantidadSinArchivar) {
+            this.registro = registro;
+            this.generacion = generacion;
+            this.planificados = planificados;
+            this.cantidadArchivados = cantidadArchivados;
+            this.cantidadSinArchivar = cantidadSinArchivar;
+        }
+    }
+
+    /**
+     * Marca el pedido como planificado, salvo que ya se haya entregado.
+     */
+    public synchronized void planificar(Pedido pedido) {
+        if (!idsEntregados.contains(pedido.getId())) {
+            planificados.put(pedido.getId(), pedido);
+        }
+    }
+
+    /**
+     * Marca el pedido como entregado y lo saca de los planificados.
+     */
+    public synchronized void entregar(Pedido pedido) {
+        planificados.remove(pedido.getId());
+        if (idsEntregados.add(pedido.getId())) {
+            entregadosSinArchivar.add(pedido);
+        }
+    }
+
+    public synchronized boolean estaPlanificado(Pedido pedido) {
+        return planificados.containsKey(pedido.getId());
+    }
+
+    public synchronized boolean estaEntregado(Pedido pedido) {
+        return idsEntregados.contains(pedido.getId());
+    }
+
+    /**
+     * Pedidos planificados y aún no entregados, en el orden en que se
+     * planificaron.
+     */
+    public synchronized List<Pedido> getPlanificados() {
+        return new ArrayList<>(planificados.values());
+    }
+
+    /**
+     * Pasa al archivo los pedidos entregados desde la llamada anterior y los
+     * devuelve.
+     */
+    public synchronized List<Pedido> archivarEntregados() {
+        List<Pedido> nuevos = new ArrayList<>(entregadosSinArchivar);
+        archivados.addAll(nuevos);
+        entregadosSinArchivar.clear();
+        return nuevos;
+    }
+
+    /**
+     * Pedidos entregados que ya se archivaron, en orden de entrega.
+     */
+    public synchronized List<Pedido> getArchivados() {
+        return Collections.unmodifiableList(new ArrayList<>(archivados));
+    }
+
+    public synchronized int cantidadEntregados() {
+        return idsEntregados.size();
+    }
+
+    /**
+     * Marca del estado actual para volver a él más tarde con {@link #volverA}.
+     * Los entregados y archivados solo crecen entre dos limpiezas, así que de
+     * ellos basta guardar cuántos había; solo se copian los planificados.
+     */
+    public synchronized Marca marcar() {
+        return new Marca(this, generacion, new LinkedHashMap<>(planificados), archivados.size(),
+                entregadosSinArchivar.size());
+    }
+
+    /**
+     * Devuelve el registro al estado de la marca: repone los planificados y
+     * descarta las entregas posteriores. Una marca solo sirve mientras el
+     * registro no se limpie ni se haya vuelto a una marca anterior a ella.
+     */
+    public synchronized void volverA(Marca marca) {
+        int totalMarca = marca.cantidadArchivados + marca.cantidadSinArchivar;
+        if (marca.registro != this || marca.generacion != generacion
+                || archivados.size() < marca.cantidadArchivados
+                || archivados.size() + entregadosSinArchivar.size() < totalMarca) {
+            throw new IllegalStateException("La marca no corresponde al estado actual del registro de pedidos");
+        }
+        // Archivados y sin archivar forman juntos la lista de entregas en orden
+        List<Pedido> sinArchivar = new ArrayList<>(marca.cantidadSinArchivar);
+        int total = archivados.size() + entregadosSinArchivar.size();
+        for (int i = marca.cantidadArchivados; i < total; i++) {
+            Pedido pedido = i < archivados.size() ? archivados.get(i)
+                    : entregadosSinArchivar.get(i - archivados.size());
+            if (i < totalMarca) {
+                sinArchivar.add(pedido);
+            } else {
+                idsEntregados.remove(pedido.getId());
+            }
+        }
+        archivados.subList(marca.cantidadArchivados, archivados.size()).clear();
+        entregadosSinArchivar.clear();
+        entregadosSinArchivar.addAll(sinArchivar);
+        planificados.clear();
+        planificados.putAll(marca.planificados);
+    }
+
+    public synchronized void limpiar() {
+        generacion++;
+        planificados.clear();
+        idsEntregados.clear();
+        entregadosSinArchivar.clear();
+        archivados.clear();
+    }
+}
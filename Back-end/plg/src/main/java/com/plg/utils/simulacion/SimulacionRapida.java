@@ -0,0 +1,155 @@
+package com.plg.utils.simulacion;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import com.plg.dto.EstadisticasPedidosDto;
+import com.plg.dto.IndividuoDto;
+import com.plg.dto.ResultadoSimulacionRapidaDto;
+import com.plg.entity.Camion;
+import com.plg.entity.EstadoCamion;
+import com.plg.entity.Mapa;
+import com.plg.entity.Pedido;
+import com.plg.utils.AlgoritmoGenetico;
+import com.plg.utils.Herramientas;
+import com.plg.utils.Individuo;
+import com.plg.utils.Parametros;
+import com.plg.utils.Simulacion;
+
+/**
+ * Ejecuta una simulación completa de una fecha a otra sin interfaz y sin
+ * pausas, para estudios de capacidad sobre semanas o meses.
+ *
+ * El estado avanza con el motor de eventos y el algoritmo genético solo se
+ * vuelve a ejecutar cuando un evento cambia las condiciones del plan, entran
+ * pedidos nuevos o se avería un camión. Las averías automáticas del archivo se
+ * aplican en cada intervalo según la tasa del contexto. No se construyen
+ * paquetes para el frontend salvo las muestras pedidas; al final se devuelven
+ * los indicadores y el rendimiento en horas simuladas por segundo real.
+ */
+public class SimulacionRapida {
+
+    private SimulacionRapida() {
+    }
+
+    /**
+     * @param muestrearCada cada cuántos intervalos guardar un paquete completo;
+     *                      0 para no guardar ninguno
+     * @param continuar     se consulta en cada intervalo; al devolver false la
+     *                      simulación se detiene y devuelve lo acumulado
+     */
+    public static ResultadoSimulacionRapidaDto ejecutar(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+            int intervaloMinutos, int muestrearCada, BooleanSupplier continuar) {
+        ResultadoSimulacionRapidaDto resultado = new ResultadoSimulacionRapidaDto();
+        resultado.setFechaInicio(fechaInicio);
+        resultado.setFechaFin(fechaFin);
+        resultado.setIntervaloMinutos(intervaloMinutos);
+
+        long inicioReal = System.nanoTime();
+        Simulacion.configurarSimulacionSemanal(fechaInicio);
+        Parametros.setFechaInicioSimulacion(fechaInicio);
+
+        Set<Long> idsPlanificados = new HashSet<>();
+        Set<String> flotaPlanificada = new HashSet<>();
+        Individuo mejorIndividuo = null;
+        boolean hayAveriasAutomaticas = false;
+        double sumaFitness = 0;
+        LocalDateTime fechaActual = fechaInicio;
+        while (fechaActual.isBefore(fechaFin) && continuar.getAsBoolean()) {
+            try {
+                Parametros.setDiferenciaTiempoMinRequest(
+                        (int) ChronoUnit.MINUTES.between(Parametros.getFechaInicial(), fechaActual));
+                Parametros.actualizarParametrosGlobales(fechaActual);
+                List<EventoSimulacion> eventos = Simulacion.actualizarEstadoPorEventos(fechaActual);
+                for (EventoSimulacion evento : eventos) {
+                    resultado.getEventosPorTipo().merge(evento.getTipo().name(), 1, Integer::sum);
+                }
+
+                if (mejorIndividuo == null || hayAveriasAutomaticas
+                        || MotorEventosSimulacion.requiereReplanificar(eventos)
+                        || !flotaPlanificada.equals(camionesDisponibles())
+                        || hayPedidosNuevos(Simulacion.getPedidosEnviar(), idsPlanificados)) {
+                    AlgoritmoGenetico algoritmoGenetico = new AlgoritmoGenetico(Mapa.getInstance());
+                    algoritmoGenetico.ejecutarAlgoritmo();
+                    mejorIndividuo = algoritmoGenetico.getMejorIndividuo();
+                    Simulacion.setMejorIndividuo(mejorIndividuo);
+                    idsPlanificados.clear();
+                    for (Pedido pedido : Simulacion.getPedidosEnviar()) {
+                        idsPlanificados.add(pedido.getId());
+                    }
+                    flotaPlanificada = camionesDisponibles();
+                    resultado.setEjecucionesAlgoritmo(resultado.getEjecucionesAlgoritmo() + 1);
+                    sumaFitness += mejorIndividuo.getFitness();
+                    resultado.setNodosRecorridosPlanificados(
+                            resultado.getNodosRecorridosPlanificados() + Parametros.getKilometrosRecorridos());
+                }
+
+                // Igual que al armar los paquetes de la simulación semanal, las averías
+                // automáticas del turno se aplican al plan vigente; los camiones que se
+                // averían obligan a replanificar en el siguiente intervalo
+                if (mejorIndividuo != null) {
+                    Herramientas.agregarAveriasAutomaticas(Parametros.getDataLoader().getIndiceAveriasAutomaticas(),
+                            mejorIndividuo.getCromosoma(), fechaActual, fechaActual.plusMinutes(intervaloMinutos));
+                    int averiados = Parametros.getDataLoader().camionesAveriados.size();
+                    resultado.setAveriasAutomaticas(resultado.getAveriasAutomaticas() + averiados);
+                    hayAveriasAutomaticas = averiados > 0;
+                }
+
+                // Solo los intervalos muestreados construyen el paquete completo
+                if (muestrearCada > 0 && mejorIndividuo != null
+                        && resultado.getIntervalosSimulados() % muestrearCada == 0) {
+                    resultado.getMuestras().add(new IndividuoDto(mejorIndividuo, Simulacion.getPedidosEnviar(),
+                            Simulacion.getBloqueosActivos(), fechaActual));
+                }
+            } catch (Exception e) {
+                resultado.setIntervalosConError(resultado.getIntervalosConError() + 1);
+                System.err.println("❌ Error en simulación rápida para " + fechaActual + ": " + e.getMessage());
+            }
+            resultado.setIntervalosSimulados(resultado.getIntervalosSimulados() + 1);
+            fechaActual = fechaActual.plusMinutes(intervaloMinutos);
+        }
+
+        resultado.setFechaAlcanzada(fechaActual.isAfter(fechaFin) ? fechaFin : fechaActual);
+        resultado.setCompletada(!fechaActual.isBefore(fechaFin));
+        resultado.setFitnessPromedio(
+                resultado.getEjecucionesAlgoritmo() > 0 ? sumaFitness / resultado.getEjecucionesAlgoritmo() : 0);
+        resultado.setPedidosEntregados(Simulacion.getRegistroPedidos().cantidadEntregados());
+        resultado.setPedidosPendientes(Simulacion.getPedidosEnviar().size());
+        List<Pedido> atendidos = UtilesSimulacion.unirPedidosSinRepetidos(
+                Simulacion.getRegistroPedidos().getArchivados(), Simulacion.getPedidosEnviar());
+        resultado.setEstadisticasFinales(new EstadisticasPedidosDto(atendidos, resultado.getFechaAlcanzada()));
+
+        double horasSimuladas = Duration.between(fechaInicio, resultado.getFechaAlcanzada()).toMinutes() / 60.0;
+        double segundosReales = (System.nanoTime() - inicioReal) / 1e9;
+        resultado.setHorasSimuladas(horasSimuladas);
+        resultado.setSegundosReales(segundosReales);
+        resultado.setHorasSimuladasPorSegundo(segundosReales > 0 ? horasSimuladas / segundosReales : 0);
+        System.out.println(resultado);
+        return resultado;
+    }
+
+    // Los mantenimientos del día y las reparaciones cambian qué camiones se pueden planificar
+    private static Set<String> camionesDisponibles() {
+        Set<String> codigos = new HashSet<>();
+        for (Camion camion : Parametros.getDataLoader().camiones) {
+            if (camion.getEstado() == EstadoCamion.DISPONIBLE) {
+                codigos.add(camion.getCodigo());
+            }
+        }
+        return codigos;
+    }
+
+    private static boolean hayPedidosNuevos(List<Pedido> pedidos, Set<Long> idsPlanificados) {
+        for (Pedido pedido : pedidos) {
+            if (!idsPlanificados.contains(pedido.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,10 +2,13 @@ package com.plg.utils.simulacion;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import com.plg.entity.Pedido;
+import com.plg.utils.TiempoSimulacion;
 
 /**
  * Funciones utilitarias repetidas dentro de la simulación.
@@ -14,21 +17,23 @@ public class UtilesSimulacion {
 
     /**
      * Devuelve una lista con la unión de dos colecciones de pedidos sin repetidos.
+     * Los repetidos se detectan por id, no por coordenada.
      */
-    public static List<Pedido> unirPedidosSinRepetidos(Set<Pedido> set1, Set<Pedido> set2) {
-        List<Pedido> resultado = new ArrayList<>(set1);
-        for (Pedido p : set2) {
-            if (!resultado.contains(p)) {
-                resultado.add(p);
-            }
+    public static List<Pedido> unirPedidosSinRepetidos(Collection<Pedido> pedidos1, Collection<Pedido> pedidos2) {
+        Map<Long, Pedido> resultado = new LinkedHashMap<>();
+        for (Pedido pedido : pedidos1) {
+            resultado.putIfAbsent(pedido.getId(), pedido);
         }
-        return resultado;
+        for (Pedido pedido : pedidos2) {
+            resultado.putIfAbsent(pedido.getId(), pedido);
+        }
+        return new ArrayList<>(resultado.values());
     }
 
     /**
      * Comprueba si la fechaRegistro de un pedido es anterior o igual a la fechaActual.
      */
     public static boolean pedidoConFechaMenorAFechaActual(Pedido pedido, LocalDateTime fechaActual) {
-        return pedido.getFechaRegistro().isBefore(fechaActual) || pedido.getFechaRegistro().isEqual(fechaActual);
+        return pedido.getMinutoRegistro() <= TiempoSimulacion.aMinuto(fechaActual);
     }
 } 
\ No newline at end of file
@@ -36,7 +36,7 @@ public class PedidoDivisionTest {
     @BeforeEach
     void setUp() {
         // Configurar camiones de prueba
-        Parametros.dataLoader.camiones = Arrays.asList(
+        Parametros.getDataLoader().camiones = Arrays.asList(
             crearCamion("C001", TipoCamion.TA, 100.0, EstadoCamion.DISPONIBLE),
             crearCamion("C002", TipoCamion.TB, 150.0, EstadoCamion.DISPONIBLE),
             crearCamion("C003", TipoCamion.TC, 200.0, EstadoCamion.DISPONIBLE),
@@ -135,7 +135,7 @@ public class PedidoDivisionTest {
     @Test
     void testPedidoConCamionesEnMantenimiento() {
         // Arrange
-        Parametros.dataLoader.camiones = Arrays.asList(
+        Parametros.getDataLoader().camiones = Arrays.asList(
             crearCamion("C001", TipoCamion.TA, 100.0, EstadoCamion.EN_MANTENIMIENTO_PREVENTIVO),
             crearCamion("C002", TipoCamion.TB, 150.0, EstadoCamion.DISPONIBLE)
         );
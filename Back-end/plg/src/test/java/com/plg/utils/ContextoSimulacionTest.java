@@ -0,0 +1,107 @@
+package com.plg.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Mapa;
+import com.plg.entity.TipoCamion;
+
+public class ContextoSimulacionTest {
+
+    @Test
+    void cadaContextoTieneSusPropiosParametrosYMapa() {
+        ContextoSimulacion primero = ContextoSimulacion.aislado("primero");
+        ContextoSimulacion segundo = ContextoSimulacion.aislado("segundo");
+
+        primero.ejecutar(() -> Parametros.setIntervaloTiempo(30));
+        segundo.ejecutar(() -> Parametros.setIntervaloTiempo(90));
+
+        assertEquals(30, (int) primero.ejecutar(Parametros::getIntervaloTiempo));
+        assertEquals(90, (int) segundo.ejecutar(Parametros::getIntervaloTiempo));
+        assertSame(primero.getMapa(), primero.ejecutar(Mapa::getInstance));
+        assertNotSame(primero.getMapa(), segundo.getMapa());
+
+        // Una ejecución de prueba en curso no bloquea la de otra sesión
+        assertTrue(primero.getEjecucionEnProceso().compareAndSet(false, true));
+        assertTrue(segundo.getEjecucionEnProceso().compareAndSet(false, true));
+    }
+
+    @Test
+    void losArchivosCargadosSonDeCadaSesion() {
+        ContextoSimulacion primero = ContextoSimulacion.aislado("archivos-primero");
+        ContextoSimulacion segundo = ContextoSimulacion.aislado("archivos-segundo");
+
+        primero.ejecutar(() -> {
+            ContextoSimulacion.actual().setArchivoVentas("01d00h00m:=5,5,c-1,10m3,24h");
+            Parametros.setNumeroDePaquete(4);
+        });
+
+        assertEquals("01d00h00m:=5,5,c-1,10m3,24h", primero.getArchivoVentas());
+        assertEquals(4, primero.getNumeroDePaquete());
+        assertNull(segundo.getArchivoVentas());
+        assertEquals(0, (int) segundo.ejecutar(Parametros::getNumeroDePaquete));
+    }
+
+    @Test
+    void laFlotaDeUnEscenarioNoAfectaALaDeOtros() {
+        ContextoSimulacion escenario = ContextoSimulacion.aislado("escenario");
+        Map<TipoCamion, Integer> flota = ContextoSimulacion.flotaPredeterminada();
+        flota.put(TipoCamion.TD, 0);
+
+        escenario.ejecutar(() -> Parametros.setFlota(flota));
+        flota.put(TipoCamion.TA, 5);
+
+        assertEquals(0, (int) escenario.getFlota().get(TipoCamion.TD));
+        assertEquals(2, (int) escenario.getFlota().get(TipoCamion.TA));
+        assertEquals(10, (int) ContextoSimulacion.aislado("otro").getFlota().get(TipoCamion.TD));
+    }
+
+    @Test
+    void ejecutarRestituyeElContextoAnterior() {
+        ContextoSimulacion externo = ContextoSimulacion.aislado("externo");
+        ContextoSimulacion interno = ContextoSimulacion.aislado("interno");
+
+        externo.ejecutar(() -> {
+            interno.ejecutar(() -> assertSame(interno, ContextoSimulacion.actual()));
+            assertSame(externo, ContextoSimulacion.actual());
+        });
+        assertEquals(ContextoSimulacion.SESION_PREDETERMINADA, ContextoSimulacion.actual().getSesion());
+    }
+
+    @Test
+    void laSesionPredeterminadaNoSePuedeEliminar() {
+        ContextoSimulacion sesion = ContextoSimulacion.crearSesion();
+        assertSame(sesion, ContextoSimulacion.buscar(sesion.getSesion()));
+        assertTrue(ContextoSimulacion.sesiones().contains(sesion.getSesion()));
+
+        assertTrue(ContextoSimulacion.eliminar(sesion.getSesion()));
+        assertFalse(ContextoSimulacion.sesiones().contains(sesion.getSesion()));
+        assertNull(ContextoSimulacion.buscar(sesion.getSesion()));
+        assertFalse(ContextoSimulacion.eliminar(ContextoSimulacion.SESION_PREDETERMINADA));
+    }
+
+    @Test
+    void seEliminanLasSesionesInactivasSinEjecucionEnCurso() throws InterruptedException {
+        ContextoSimulacion inactiva = ContextoSimulacion.crearSesion();
+        ContextoSimulacion ejecutando = ContextoSimulacion.crearSesion();
+        ejecutando.getEjecucionEnProceso().set(true);
+        assertFalse(ContextoSimulacion.eliminarInactivas(Duration.ofHours(1)).contains(inactiva.getSesion()));
+
+        Thread.sleep(5);
+        List<String> eliminadas = ContextoSimulacion.eliminarInactivas(Duration.ZERO);
+        assertTrue(eliminadas.contains(inactiva.getSesion()));
+        assertFalse(eliminadas.contains(ejecutando.getSesion()));
+        assertFalse(eliminadas.contains(ContextoSimulacion.SESION_PREDETERMINADA));
+        assertTrue(ContextoSimulacion.eliminar(ejecutando.getSesion()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.plg.utils.rutas;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Coordenada;
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+
+public class BuscadorRutasEnLoteTest {
+
+    @Test
+    void elLoteDevuelveLasMismasRutasQueLaBusquedaDelMapa() {
+        Random random = new Random(7);
+        Mapa mapa = new Mapa(20, 20);
+        // Muros verticales con huecos para que muchos tramos necesiten A*
+        for (int columna = 4; columna < 20; columna += 5) {
+            int hueco = random.nextInt(20);
+            for (int fila = 0; fila < 20; fila++) {
+                if (fila != hueco) {
+                    mapa.actualizarBloqueo(new Coordenada(fila, columna), true);
+                }
+            }
+        }
+
+        int tramos = 300;
+        int[] origenes = new int[tramos];
+        int[] destinos = new int[tramos];
+        for (int i = 0; i < tramos; i++) {
+            origenes[i] = random.nextInt(400);
+            destinos[i] = random.nextInt(400);
+        }
+        int[][] rutas = mapa.getBuscadorRutasEnLote().resolver(origenes, destinos);
+
+        for (int i = 0; i < tramos; i++) {
+            Nodo origen = mapa.getNodo(origenes[i] / 20, origenes[i] % 20);
+            Nodo destino = mapa.getNodo(destinos[i] / 20, destinos[i] % 20);
+            ResultadoRuta esperado = mapa.buscarRuta(origen, destino);
+            if (!esperado.esAlcanzable()) {
+                assertNull(rutas[i]);
+                continue;
+            }
+            assertArrayEquals(celdas(mapa, esperado.getRuta()), rutas[i], origen + " -> " + destino);
+            for (int j = 1; j + 1 < rutas[i].length; j++) {
+                assertFalse(mapa.estaBloqueada(rutas[i][j]));
+            }
+        }
+    }
+
+    private int[] celdas(Mapa mapa, List<Nodo> ruta) {
+        return ruta.stream().mapToInt(nodo -> mapa.indiceCelda(nodo.getCoordenada())).toArray();
+    }
+}
@@ -0,0 +1,92 @@
+package com.plg.utils.rutas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Almacen;
+import com.plg.entity.Coordenada;
+import com.plg.entity.Mapa;
+
+public class CamposDistanciaAlmacenesTest {
+
+    private static final int LADO = 15;
+
+    // BFS completo con la misma regla del campo: el almacén siempre se expande y
+    // las celdas bloqueadas se alcanzan pero no se atraviesan
+    private int[] bfs(Mapa mapa, int origen) {
+        int[] distancia = new int[LADO * LADO];
+        Arrays.fill(distancia, CamposDistanciaAlmacenes.INALCANZABLE);
+        ArrayDeque<Integer> cola = new ArrayDeque<>();
+        distancia[origen] = 0;
+        cola.add(origen);
+        while (!cola.isEmpty()) {
+            int actual = cola.poll();
+            int fila = actual / LADO;
+            int columna = actual % LADO;
+            int[][] pasos = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+            for (int[] paso : pasos) {
+                int f = fila + paso[0];
+                int c = columna + paso[1];
+                if (f < 0 || f >= LADO || c < 0 || c >= LADO) {
+                    continue;
+                }
+                int vecino = f * LADO + c;
+                if (distancia[vecino] != CamposDistanciaAlmacenes.INALCANZABLE) {
+                    continue;
+                }
+                distancia[vecino] = distancia[actual] + 1;
+                if (!mapa.estaBloqueada(vecino)) {
+                    cola.add(vecino);
+                }
+            }
+        }
+        return distancia;
+    }
+
+    private void compararConBfs(Mapa mapa, CamposDistanciaAlmacenes campos, List<Almacen> almacenes, int paso) {
+        for (Almacen almacen : almacenes) {
+            int[] esperado = bfs(mapa, mapa.indiceCelda(almacen.getCoordenada()));
+            for (int celda = 0; celda < esperado.length; celda++) {
+                assertEquals(esperado[celda], campos.distancia(almacen, celda),
+                        "Paso " + paso + ", almacén " + almacen.getCoordenada() + ", celda " + celda);
+            }
+        }
+    }
+
+    @Test
+    void elCampoReparadoCoincideConUnBfsCompletoTrasCadaCambio() {
+        for (long semilla = 1; semilla <= 3; semilla++) {
+            Random random = new Random(semilla);
+            Mapa mapa = new Mapa(LADO, LADO);
+            CamposDistanciaAlmacenes campos = mapa.getCamposDistanciaAlmacenes();
+            List<Almacen> almacenes = List.of(
+                    Almacen.builder().coordenada(new Coordenada(0, 0)).build(),
+                    Almacen.builder().coordenada(new Coordenada(7, 7)).build(),
+                    Almacen.builder().coordenada(new Coordenada(14, 3)).build());
+            // Los campos se crean antes de los cambios para que se reparen y no se
+            // calculen de cero
+            compararConBfs(mapa, campos, almacenes, 0);
+
+            List<Coordenada> bloqueadas = new ArrayList<>();
+            for (int paso = 1; paso <= 250; paso++) {
+                if (bloqueadas.isEmpty() || random.nextInt(100) < 65) {
+                    Coordenada coordenada = new Coordenada(random.nextInt(LADO), random.nextInt(LADO));
+                    if (!mapa.estaBloqueada(mapa.indiceCelda(coordenada))) {
+                        mapa.actualizarBloqueo(coordenada, true);
+                        bloqueadas.add(coordenada);
+                    }
+                } else {
+                    mapa.actualizarBloqueo(bloqueadas.remove(random.nextInt(bloqueadas.size())), false);
+                }
+                compararConBfs(mapa, campos, almacenes, paso);
+            }
+        }
+    }
+}
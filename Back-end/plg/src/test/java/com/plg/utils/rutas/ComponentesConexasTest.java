@@ -0,0 +1,34 @@
+package com.plg.utils.rutas;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Coordenada;
+import com.plg.entity.Mapa;
+
+public class ComponentesConexasTest {
+
+    @Test
+    void destinoEncerradoPorBloqueosEsInalcanzable() {
+        Mapa mapa = new Mapa(5, 5);
+        ComponentesConexas componentes = mapa.getComponentesConexas();
+        int origen = mapa.indiceCelda(0, 0);
+        int destino = mapa.indiceCelda(2, 2);
+        assertTrue(componentes.sonAlcanzables(origen, destino));
+
+        // Se bloquean los cuatro vecinos de (2,2)
+        mapa.actualizarBloqueo(new Coordenada(1, 2), true);
+        mapa.actualizarBloqueo(new Coordenada(3, 2), true);
+        mapa.actualizarBloqueo(new Coordenada(2, 1), true);
+        mapa.actualizarBloqueo(new Coordenada(2, 3), true);
+        assertFalse(componentes.sonAlcanzables(origen, destino));
+        assertFalse(mapa.buscarRuta(mapa.getNodo(0, 0), mapa.getNodo(2, 2)).esAlcanzable());
+
+        // Al liberar uno de los vecinos el destino vuelve a ser alcanzable
+        mapa.actualizarBloqueo(new Coordenada(1, 2), false);
+        assertTrue(componentes.sonAlcanzables(origen, destino));
+        assertTrue(mapa.buscarRuta(mapa.getNodo(0, 0), mapa.getNodo(2, 2)).esAlcanzable());
+    }
+}
@@ -0,0 +1,57 @@
+package com.plg.utils.rutas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Camion;
+import com.plg.entity.Coordenada;
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.entity.Pedido;
+import com.plg.entity.TipoNodo;
+import com.plg.utils.Gen;
+import com.plg.utils.Parametros;
+import com.plg.utils.TiempoSimulacion;
+
+public class IndiceRutasPorCeldaTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @Test
+    void laLlegadaDespuesDeUnPedidoSumaSuTiempoDeAtencion() {
+        Mapa mapa = new Mapa(20, 20);
+        IndiceRutasPorCelda indice = mapa.getIndiceRutasPorCelda();
+        // A 60 km/h cada cuadra toma un minuto
+        Gen gen = new Gen(Camion.builder().codigo("TA01").velocidadPromedio(60).build(), new ArrayList<>());
+        Pedido pedido = Pedido.builder().coordenada(new Coordenada(0, 2)).tipoNodo(TipoNodo.PEDIDO).build();
+        gen.getPedidos().add(pedido);
+        List<Nodo> ruta = new ArrayList<>();
+        for (int columna = 0; columna < 6; columna++) {
+            ruta.add(columna == 2 ? pedido : mapa.getNodo(0, columna));
+        }
+        gen.setRutaFinal(ruta);
+        indice.registrarRuta(gen, INICIO);
+
+        int celdaPedido = mapa.indiceCelda(new Coordenada(0, 2));
+        int celdaSiguiente = mapa.indiceCelda(new Coordenada(0, 3));
+        assertEquals(2.0, minutoDePaso(indice, celdaPedido), 1e-9);
+        assertEquals(2.0 + Parametros.cantNodosEnPedidos, minutoDePaso(indice, celdaSiguiente), 1e-9);
+
+        // Mientras atiende el pedido todavía no llega a la celda siguiente
+        LocalDateTime finAtencion = INICIO.plusMinutes(1 + Parametros.cantNodosEnPedidos);
+        assertTrue(indice.camionesQueCruzan(List.of(celdaSiguiente), INICIO, finAtencion).isEmpty());
+        assertEquals(3, indice.camionesQueCruzan(List.of(celdaSiguiente), INICIO, null).get("TA01"));
+    }
+
+    private double minutoDePaso(IndiceRutasPorCelda indice, int celda) {
+        List<IndiceRutasPorCelda.PasoRuta> pasos = indice.pasosQueCruzan(List.of(celda), INICIO, null);
+        assertEquals(1, pasos.size());
+        return pasos.get(0).getMinuto() - TiempoSimulacion.aMinuto(INICIO);
+    }
+}
@@ -0,0 +1,49 @@
+package com.plg.utils.rutas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Camion;
+import com.plg.entity.Coordenada;
+import com.plg.entity.Nodo;
+import com.plg.entity.Pedido;
+import com.plg.entity.TipoNodo;
+import com.plg.utils.Gen;
+import com.plg.utils.Parametros;
+
+public class LineaTiempoRutaTest {
+
+    private Pedido pedido(int columna) {
+        return Pedido.builder().coordenada(new Coordenada(0, columna)).tipoNodo(TipoNodo.PEDIDO).build();
+    }
+
+    @Test
+    void seEntreganTodosLosPedidosDeLaRutaPeroSoloLosDelGenRetienenAlCamion() {
+        Pedido delGen = pedido(1);
+        Pedido ajeno = pedido(3);
+        Gen gen = new Gen(Camion.builder().codigo("TA01").build(), new ArrayList<>());
+        gen.getPedidos().add(delGen);
+        gen.setRutaFinal(new ArrayList<>(List.of(new Nodo(new Coordenada(0, 0)), delGen,
+                new Nodo(new Coordenada(0, 2)), ajeno, new Nodo(new Coordenada(0, 4)))));
+
+        LineaTiempoRuta linea = gen.getLineaTiempo();
+
+        assertEquals(2, linea.cantidadEventos());
+        assertEquals(1, linea.pasoEvento(0));
+        assertEquals(LineaTiempoRuta.TipoEvento.ENTREGA, linea.tipoEvento(0));
+        assertTrue(linea.esPedidoDelGen(0));
+        assertEquals(3, linea.pasoEvento(1));
+        assertEquals(LineaTiempoRuta.TipoEvento.ENTREGA, linea.tipoEvento(1));
+        assertFalse(linea.esPedidoDelGen(1));
+
+        // El pedido del gen retiene al camión; el ajeno se cruza en un solo nodo
+        assertEquals(1 + Parametros.cantNodosEnPedidos, linea.avanceAlLlegar(2));
+        assertEquals(linea.avanceAlLlegar(3) + 1, linea.avanceAlLlegar(4));
+    }
+}
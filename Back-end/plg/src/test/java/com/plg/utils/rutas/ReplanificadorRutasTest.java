@@ -0,0 +1,110 @@
+package com.plg.utils.rutas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Camion;
+import com.plg.entity.Coordenada;
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.utils.Gen;
+
+public class ReplanificadorRutasTest {
+
+    private static final int LADO = 20;
+
+    private Gen genConRutaRecta(Mapa mapa) {
+        Gen gen = new Gen();
+        gen.setCamion(Camion.builder().codigo("TA01").build());
+        gen.setNodos(new ArrayList<>());
+        List<Nodo> ruta = new ArrayList<>();
+        for (int columna = 0; columna < LADO; columna++) {
+            ruta.add(mapa.getNodo(LADO / 2, columna));
+        }
+        gen.setRutaFinal(ruta);
+        return gen;
+    }
+
+    // La ruta desde la posición del camión debe ser continua, evitar los bloqueos
+    // y medir lo mismo que un BFS nuevo hasta la meta
+    private void verificarRutaMinima(Mapa mapa, Gen gen, Coordenada meta) {
+        List<Nodo> ruta = gen.getRutaFinal();
+        Coordenada posicion = ruta.get(gen.getPosNodo()).getCoordenada();
+        assertEquals(meta, ruta.get(ruta.size() - 1).getCoordenada());
+        for (int i = gen.getPosNodo() + 1; i < ruta.size(); i++) {
+            Coordenada anterior = ruta.get(i - 1).getCoordenada();
+            Coordenada actual = ruta.get(i).getCoordenada();
+            assertEquals(1, Math.abs(anterior.getFila() - actual.getFila())
+                    + Math.abs(anterior.getColumna() - actual.getColumna()));
+            if (i < ruta.size() - 1) {
+                assertFalse(mapa.estaBloqueada(mapa.indiceCelda(actual)), "La ruta pasa por " + actual);
+            }
+        }
+        assertEquals(mapa.distanciaRuta(posicion, meta), ruta.size() - 1 - gen.getPosNodo());
+    }
+
+    @Test
+    void laRutaReparadaEsMinimaYEvitaLasCeldasBloqueadas() {
+        for (long semilla = 1; semilla <= 10; semilla++) {
+            Random random = new Random(semilla);
+            Mapa mapa = new Mapa(LADO, LADO);
+            ReplanificadorRutas replanificador = mapa.getReplanificadorRutas();
+            Gen gen = genConRutaRecta(mapa);
+            Coordenada meta = new Coordenada(LADO / 2, LADO - 1);
+            List<Coordenada> bloqueadas = new ArrayList<>();
+
+            for (int paso = 0; paso < 25; paso++) {
+                List<Nodo> ruta = gen.getRutaFinal();
+                if (gen.getPosNodo() + 2 >= ruta.size()) {
+                    break;
+                }
+                // Se libera una celda bloqueada antes para que la búsqueda guardada
+                // tenga que tomar en cuenta también los desbloqueos
+                if (!bloqueadas.isEmpty() && random.nextInt(3) == 0) {
+                    Coordenada liberada = bloqueadas.remove(random.nextInt(bloqueadas.size()));
+                    mapa.actualizarBloqueo(liberada, false);
+                }
+                // Se bloquea una celda intermedia de la ruta en curso y un vecino suyo
+                int indice = gen.getPosNodo() + 1 + random.nextInt(ruta.size() - gen.getPosNodo() - 2);
+                Coordenada cortada = ruta.get(indice).getCoordenada();
+                mapa.actualizarBloqueo(cortada, true);
+                bloqueadas.add(cortada);
+                Coordenada vecino = new Coordenada(
+                        Math.max(0, Math.min(LADO - 1, cortada.getFila() + random.nextInt(3) - 1)),
+                        cortada.getColumna());
+                Coordenada posicion = ruta.get(gen.getPosNodo()).getCoordenada();
+                if (!vecino.equals(posicion) && !vecino.equals(meta) && !bloqueadas.contains(vecino)) {
+                    mapa.actualizarBloqueo(vecino, true);
+                    bloqueadas.add(vecino);
+                }
+
+                ResultadoRuta resultado = replanificador.reprogramar(gen);
+                if (!resultado.esAlcanzable()) {
+                    assertEquals(Double.POSITIVE_INFINITY, mapa.distanciaRuta(posicion, meta));
+                    break;
+                }
+                verificarRutaMinima(mapa, gen, meta);
+
+                // El camión avanza algunos pasos por la ruta reparada
+                gen.setPosNodo(Math.min(gen.getPosNodo() + random.nextInt(3), gen.getRutaFinal().size() - 1));
+            }
+        }
+    }
+
+    @Test
+    void unTramoLibreNoSeModifica() {
+        Mapa mapa = new Mapa(LADO, LADO);
+        Gen gen = genConRutaRecta(mapa);
+        List<Nodo> antes = new ArrayList<>(gen.getRutaFinal());
+        mapa.actualizarBloqueo(new Coordenada(0, 0), true);
+        assertTrue(mapa.getReplanificadorRutas().reprogramar(gen).esAlcanzable());
+        assertEquals(antes, gen.getRutaFinal());
+    }
+}
@@ -0,0 +1,34 @@
+package com.plg.utils.rutas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Coordenada;
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.entity.TipoNodo;
+
+public class RutaCeldasTest {
+
+    @Test
+    void conservaEntidadesYResuelveCeldasNormales() {
+        Mapa mapa = new Mapa(5, 5);
+        RutaCeldas ruta = new RutaCeldas(mapa);
+        Nodo pedido = new Nodo(new Coordenada(0, 2), false, 0, 0, TipoNodo.PEDIDO);
+        ruta.add(mapa.getNodo(0, 0));
+        ruta.add(mapa.getNodo(0, 1));
+        ruta.add(pedido);
+
+        assertEquals(3, ruta.size());
+        assertEquals(mapa.indiceCelda(0, 1), ruta.celdaEn(1));
+        assertSame(mapa.getNodo(0, 1), ruta.get(1));
+        assertSame(pedido, ruta.get(2));
+
+        // Al quitar un paso las entidades se desplazan con la ruta
+        ruta.remove(0);
+        assertSame(pedido, ruta.get(1));
+        assertSame(pedido, ruta.getLast());
+    }
+}
@@ -0,0 +1,65 @@
+package com.plg.utils.simulacion;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Camion;
+import com.plg.entity.Mantenimiento;
+
+public class CalendarioMantenimientosTest {
+
+    private Mantenimiento mantenimiento(String codigo, int dia, int mes) {
+        return Mantenimiento.builder().dia(dia).mes(mes).camion(Camion.builder().codigo(codigo).build()).build();
+    }
+
+    @Test
+    void elCicloBimestralEmpiezaEnElPrimerMantenimientoRegistrado() {
+        // El primero registrado es de marzo aunque haya uno de un mes anterior
+        Mantenimiento primero = mantenimiento("TA01", 10, 3);
+        List<Mantenimiento> mantenimientos = List.of(primero, mantenimiento("TA01", 20, 2),
+                mantenimiento("TB01", 5, 1));
+        CalendarioMantenimientos calendario = CalendarioMantenimientos.de(mantenimientos);
+
+        assertSame(primero, calendario.primerMantenimiento("TA01"));
+        assertTrue(calendario.tieneMantenimientoProgramado("TA01", 10, 1));
+        assertTrue(calendario.tieneMantenimientoProgramado("TA01", 10, 3));
+        assertTrue(calendario.tieneMantenimientoProgramado("TA01", 10, 11));
+        assertFalse(calendario.tieneMantenimientoProgramado("TA01", 10, 4));
+        assertFalse(calendario.tieneMantenimientoProgramado("TA01", 20, 2));
+        assertTrue(calendario.tieneMantenimientoProgramado("TB01", 5, 7));
+        assertFalse(calendario.tieneMantenimientoProgramado("TB01", 5, 8));
+
+        // Las fechas registradas se consultan tal cual, fuera del ciclo
+        assertTrue(calendario.tieneMantenimientoRegistrado("TA01", 20, 2));
+        assertFalse(calendario.tieneMantenimientoRegistrado("TA01", 10, 5));
+        assertNull(calendario.primerMantenimiento("TC01"));
+        assertFalse(calendario.tieneMantenimientoProgramado("TC01", 10, 3));
+    }
+
+    @Test
+    void lasFechasInvalidasNoSeMarcan() {
+        CalendarioMantenimientos calendario = CalendarioMantenimientos.de(List.of(mantenimiento("TA01", 32, 3)));
+        for (int mes = 1; mes <= 12; mes++) {
+            assertFalse(calendario.tieneMantenimientoProgramado("TA01", 31, mes));
+        }
+        assertFalse(calendario.tieneMantenimientoRegistrado("TA01", 32, 3));
+        assertFalse(calendario.tieneMantenimientoProgramado("TA01", 0, 0));
+    }
+
+    @Test
+    void seRehaceCuandoCambiaLaLista() {
+        List<Mantenimiento> mantenimientos = new ArrayList<>(List.of(mantenimiento("TA01", 1, 1)));
+        CalendarioMantenimientos calendario = CalendarioMantenimientos.de(mantenimientos);
+        assertTrue(calendario.vigentePara(mantenimientos));
+        mantenimientos.add(mantenimiento("TB01", 1, 2));
+        assertFalse(calendario.vigentePara(mantenimientos));
+        assertFalse(calendario.vigentePara(new ArrayList<>(mantenimientos)));
+    }
+}
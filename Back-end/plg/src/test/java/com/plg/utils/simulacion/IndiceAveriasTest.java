@@ -0,0 +1,86 @@
+package com.plg.utils.simulacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Averia;
+import com.plg.entity.Camion;
+
+public class IndiceAveriasTest {
+
+    private Camion camion(String codigo) {
+        return Camion.builder().codigo(codigo).build();
+    }
+
+    private Averia averia(Camion camion, int turno, boolean activa) {
+        Averia averia = Averia.builder().camion(camion).turnoOcurrencia(turno).build();
+        averia.setEstado(activa);
+        return averia;
+    }
+
+    @Test
+    void buscaCamionesPorCodigoYSigueReemplazos() {
+        List<Camion> camiones = new ArrayList<>(List.of(camion("TA01"), camion("TB01")));
+        IndiceCamiones indice = IndiceCamiones.de(camiones);
+        assertSame(camiones.get(1), indice.camion("TB01"));
+        assertNull(indice.camion("TC01"));
+
+        Camion reemplazo = camion("TB01");
+        camiones.set(indice.posicion("TB01"), reemplazo);
+        assertSame(reemplazo, indice.camion("TB01"));
+        assertTrue(indice.vigentePara(camiones));
+
+        // Un código desconocido no rehace el índice; otro camión en la posición
+        // guardada sí, porque la flota cambió sin cambiar de tamaño
+        camiones.set(1, camion("TD01"));
+        assertEquals(-1, indice.posicion("TD01"));
+        assertNull(indice.camion("TB01"));
+        assertSame(camiones.get(1), indice.camion("TD01"));
+
+        camiones.add(camion("TC01"));
+        assertFalse(indice.vigentePara(camiones));
+        assertEquals("TC01", IndiceCamiones.de(camiones).camion("TC01").getCodigo());
+    }
+
+    @Test
+    void filtraAveriasActivasPorCamion() {
+        Camion ta = camion("TA01");
+        Camion tb = camion("TB01");
+        List<Averia> averias = new ArrayList<>();
+        Averia antigua = averia(ta, 1, false);
+        Averia actual = averia(ta, 2, true);
+        averias.add(antigua);
+        averias.add(actual);
+        averias.add(averia(tb, 1, false));
+        IndiceAverias indice = IndiceAverias.de(averias);
+
+        assertEquals(List.of(antigua, actual), indice.delCamion("TA01"));
+        assertEquals(List.of(actual), indice.activasDelCamion("TA01"));
+        assertEquals(List.of("TA01"), indice.codigosConAveriaActiva());
+
+        // El estado cambia sin tocar la lista y el índice lo refleja
+        actual.setEstado(false);
+        assertFalse(IndiceAverias.de(averias).tieneAveriaActiva("TA01"));
+        assertTrue(IndiceAverias.de(averias).codigosConAveriaActiva().isEmpty());
+    }
+
+    @Test
+    void agrupaAveriasAutomaticasPorTurno() {
+        List<Averia> automaticas = List.of(averia(camion("TA01"), 1, true), averia(camion("TB01"), 3, true));
+        IndiceAverias.Automaticas indice = IndiceAverias.Automaticas.de(automaticas);
+
+        assertTrue(indice.camionSeAveriaEnTurno("TA01", 1));
+        assertFalse(indice.camionSeAveriaEnTurno("TA01", 3));
+        assertTrue(indice.camionSeAveriaEnTurno("TB01", 3));
+        assertSame(automaticas.get(1), indice.primeraDelCamion("TB01"));
+        assertNull(indice.primeraDelCamion("TC01"));
+    }
+}
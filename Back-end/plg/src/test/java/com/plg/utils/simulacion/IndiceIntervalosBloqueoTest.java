@@ -0,0 +1,98 @@
+package com.plg.utils.simulacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Bloqueo;
+import com.plg.entity.Mapa;
+import com.plg.entity.Nodo;
+import com.plg.utils.TiempoSimulacion;
+
+public class IndiceIntervalosBloqueoTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private Bloqueo bloqueo(Mapa mapa, int horaInicio, int horaFin, int fila, int columna) {
+        Bloqueo bloqueo = new Bloqueo();
+        bloqueo.setFechaInicio(BASE.plusHours(horaInicio));
+        bloqueo.setFechaFin(BASE.plusHours(horaFin));
+        List<Nodo> nodos = new ArrayList<>();
+        nodos.add(mapa.getNodo(fila, columna));
+        bloqueo.setNodosBloqueados(nodos);
+        bloqueo.setActivo(false);
+        return bloqueo;
+    }
+
+    private long minuto(int hora) {
+        return TiempoSimulacion.aMinuto(BASE.plusHours(hora));
+    }
+
+    @Test
+    void consultaActivosYSuperpuestos() {
+        Mapa mapa = new Mapa(5, 5);
+        List<Bloqueo> bloqueos = new ArrayList<>();
+        Bloqueo manana = bloqueo(mapa, 0, 6, 1, 1);
+        Bloqueo tarde = bloqueo(mapa, 12, 18, 2, 2);
+        bloqueos.add(tarde);
+        bloqueos.add(manana);
+        IndiceIntervalosBloqueo indice = IndiceIntervalosBloqueo.de(bloqueos);
+
+        assertEquals(List.of(manana), indice.activosEn(minuto(3)));
+        assertTrue(indice.activosEn(minuto(6)).isEmpty());
+        assertEquals(List.of(manana, tarde), indice.superpuestos(minuto(6), minuto(12)));
+
+        IndiceIntervalosBloqueo.CambiosBloqueos cambios = indice.cambiosEntre(minuto(3), minuto(13));
+        assertEquals(List.of(tarde), cambios.getActivados());
+        assertEquals(List.of(manana), cambios.getDesactivados());
+    }
+
+    @Test
+    void celdaCompartidaSigueBloqueadaMientrasQuedeUnBloqueo() {
+        Mapa mapa = new Mapa(5, 5);
+        List<Bloqueo> bloqueos = new ArrayList<>();
+        bloqueos.add(bloqueo(mapa, 0, 6, 1, 1));
+        bloqueos.add(bloqueo(mapa, 4, 10, 1, 1));
+        IndiceIntervalosBloqueo indice = IndiceIntervalosBloqueo.de(bloqueos);
+        BloqueosEnMapa enMapa = new BloqueosEnMapa(mapa);
+        int celda = mapa.indiceCelda(1, 1);
+
+        assertEquals(2, enMapa.sincronizar(indice, minuto(5)).size());
+        assertTrue(mapa.estaBloqueada(celda));
+        assertEquals(1, enMapa.sincronizar(indice, minuto(8)).size());
+        assertTrue(mapa.estaBloqueada(celda));
+        assertTrue(enMapa.sincronizar(indice, minuto(11)).isEmpty());
+        assertFalse(mapa.estaBloqueada(celda));
+    }
+
+    @Test
+    void unBloqueoManualNoLiberaLaCeldaDeUnBloqueoVigente() {
+        Mapa mapa = new Mapa(5, 5);
+        List<Bloqueo> bloqueos = new ArrayList<>();
+        bloqueos.add(bloqueo(mapa, 0, 6, 1, 1));
+        IndiceIntervalosBloqueo indice = IndiceIntervalosBloqueo.de(bloqueos);
+        BloqueosEnMapa enMapa = new BloqueosEnMapa(mapa);
+        Bloqueo manual = bloqueo(mapa, 20, 22, 1, 1);
+        int celda = mapa.indiceCelda(1, 1);
+
+        enMapa.sincronizar(indice, minuto(1));
+        enMapa.activar(manual);
+        assertTrue(manual.getActivo());
+        enMapa.desactivar(manual);
+        assertFalse(manual.getActivo());
+        assertTrue(mapa.estaBloqueada(celda));
+
+        // Activado a mano, sigue bloqueando cuando termina el bloqueo del índice
+        enMapa.activar(manual);
+        assertEquals(List.of(manual), enMapa.sincronizar(indice, minuto(7)));
+        assertTrue(mapa.estaBloqueada(celda));
+        enMapa.desactivar(manual);
+        assertFalse(mapa.estaBloqueada(celda));
+    }
+}
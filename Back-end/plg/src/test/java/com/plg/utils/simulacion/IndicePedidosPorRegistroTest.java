@@ -0,0 +1,60 @@
+package com.plg.utils.simulacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Coordenada;
+import com.plg.entity.Pedido;
+import com.plg.utils.TiempoSimulacion;
+
+public class IndicePedidosPorRegistroTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private Pedido pedido(Random random, int minutoMaximo) {
+        return Pedido.builder()
+                .coordenada(new Coordenada(random.nextInt(10), random.nextInt(10)))
+                .fechaRegistro(INICIO.plusMinutes(random.nextInt(minutoMaximo)))
+                .build();
+    }
+
+    @Test
+    void losPedidosAgregadosDanLoMismoQueUnIndiceNuevo() {
+        long inferior = TiempoSimulacion.aMinuto(INICIO) - 1;
+        for (long semilla = 1; semilla <= 5; semilla++) {
+            Random random = new Random(semilla);
+            List<Pedido> pedidos = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                pedidos.add(pedido(random, 600));
+            }
+            RegistroPedidos registro = new RegistroPedidos();
+            IndicePedidosPorRegistro indice = new IndicePedidosPorRegistro();
+
+            for (int paso = 1; paso <= 20; paso++) {
+                // Se agregan pedidos nuevos, algunos registrados en la ventana ya recorrida
+                int agregados = random.nextInt(4);
+                for (int i = 0; i < agregados; i++) {
+                    pedidos.add(pedido(random, 30 * paso + 60));
+                }
+                List<Pedido> ingresados = indice.pedidosEnRango(pedidos, inferior,
+                        TiempoSimulacion.aMinuto(INICIO.plusMinutes(30L * paso)), registro);
+                List<Pedido> esperado = new IndicePedidosPorRegistro().pedidosEnRango(pedidos, inferior,
+                        TiempoSimulacion.aMinuto(INICIO.plusMinutes(30L * paso)), registro);
+                assertEquals(esperado, ingresados, "Semilla " + semilla + ", paso " + paso);
+                assertEquals(esperado.size(), ingresados.size());
+                for (int i = 0; i < esperado.size(); i++) {
+                    assertEquals(esperado.get(i).getId(), ingresados.get(i).getId());
+                }
+                if (!ingresados.isEmpty() && random.nextBoolean()) {
+                    registro.entregar(ingresados.get(random.nextInt(ingresados.size())));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.plg.utils.simulacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Averia;
+import com.plg.entity.Bloqueo;
+import com.plg.utils.TiempoSimulacion;
+
+public class MotorEventosSimulacionTest {
+
+    private static final long INICIO = TiempoSimulacion.aMinuto(LocalDateTime.of(2025, 1, 1, 10, 0));
+
+    @Test
+    void procesaSoloLosEventosVencidosEnOrden() {
+        MotorEventosSimulacion motor = new MotorEventosSimulacion();
+        motor.reiniciar(INICIO);
+        motor.programar(EventoSimulacion.inicioDia(INICIO + 30));
+        motor.programar(EventoSimulacion.inicioDia(INICIO + 10));
+        motor.programar(EventoSimulacion.inicioDia(INICIO + 90));
+
+        List<EventoSimulacion> eventos = motor.avanzarHasta(null, INICIO + 60);
+        assertEquals(2, eventos.size());
+        assertEquals(INICIO + 10, eventos.get(0).getMinuto());
+        assertEquals(INICIO + 30, eventos.get(1).getMinuto());
+        assertEquals(INICIO + 60, motor.getMinutoActual());
+        assertEquals(INICIO + 90, motor.minutoProximoEvento(null));
+    }
+
+    @Test
+    void programaElInicioDeCadaDiaYAvisaALosSuscriptores() {
+        MotorEventosSimulacion motor = new MotorEventosSimulacion();
+        motor.reiniciar(INICIO);
+        List<EventoSimulacion> avisados = new ArrayList<>();
+        motor.suscribir(EventoSimulacion.Tipo.INICIO_DIA, avisados::add);
+
+        long medianoche = TiempoSimulacion.aMinuto(LocalDateTime.of(2025, 1, 2, 0, 0));
+        assertTrue(motor.avanzarHasta(null, medianoche - 1).isEmpty());
+        List<EventoSimulacion> eventos = motor.avanzarHasta(null, medianoche + 3 * 24 * 60);
+        assertEquals(4, eventos.size());
+        assertEquals(eventos, avisados);
+        assertEquals(LocalDateTime.of(2025, 1, 2, 0, 0), eventos.get(0).getFecha());
+        assertFalse(MotorEventosSimulacion.requiereReplanificar(eventos));
+        assertFalse(MotorEventosSimulacion.requiereReplanificar(List.of()));
+    }
+
+    @Test
+    void soloLosBloqueosQueEmpiezanYLasAveriasObliganAReplanificar() {
+        Bloqueo bloqueo = new Bloqueo();
+        Averia averia = new Averia();
+        assertTrue(MotorEventosSimulacion.requiereReplanificar(
+                List.of(EventoSimulacion.deBloqueo(EventoSimulacion.Tipo.BLOQUEO_INICIO, INICIO, bloqueo))));
+        assertTrue(MotorEventosSimulacion.requiereReplanificar(
+                List.of(EventoSimulacion.deAveria(EventoSimulacion.Tipo.AVERIA_REPORTADA, INICIO, averia))));
+        assertTrue(MotorEventosSimulacion.requiereReplanificar(
+                List.of(EventoSimulacion.deAveria(EventoSimulacion.Tipo.AVERIA_REPARADA, INICIO, averia))));
+        assertFalse(MotorEventosSimulacion.requiereReplanificar(
+                List.of(EventoSimulacion.deBloqueo(EventoSimulacion.Tipo.BLOQUEO_FIN, INICIO, bloqueo),
+                        EventoSimulacion.inicioDia(INICIO))));
+    }
+}
@@ -0,0 +1,115 @@
+package com.plg.utils.simulacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.entity.Coordenada;
+import com.plg.entity.Pedido;
+
+public class RegistroPedidosTest {
+
+    private Pedido pedido(int fila, int columna) {
+        return Pedido.builder()
+                .coordenada(new Coordenada(fila, columna))
+                .codigo("PEDIDO-" + fila + "-" + columna)
+                .build();
+    }
+
+    @Test
+    void pedidosEnLaMismaCeldaNoSeConfunden() {
+        Pedido primero = pedido(3, 4);
+        Pedido segundo = pedido(3, 4);
+        assertNotEquals(primero.getId(), segundo.getId());
+
+        RegistroPedidos registro = new RegistroPedidos();
+        registro.planificar(primero);
+        registro.planificar(segundo);
+        assertEquals(List.of(primero, segundo), registro.getPlanificados());
+
+        registro.entregar(primero);
+        assertTrue(registro.estaEntregado(primero));
+        assertFalse(registro.estaEntregado(segundo));
+        assertEquals(List.of(segundo), registro.getPlanificados());
+    }
+
+    @Test
+    void archivaSoloLosEntregadosNuevos() {
+        RegistroPedidos registro = new RegistroPedidos();
+        Pedido a = pedido(1, 1);
+        Pedido b = pedido(2, 2);
+        registro.planificar(a);
+        registro.entregar(a);
+        assertEquals(List.of(a), registro.archivarEntregados());
+
+        // Un pedido entregado no vuelve a planificarse ni a archivarse
+        registro.planificar(a);
+        registro.entregar(a);
+        registro.entregar(b);
+        assertEquals(List.of(b), registro.archivarEntregados());
+        assertTrue(registro.getPlanificados().isEmpty());
+        assertEquals(List.of(a, b), registro.getArchivados());
+        assertEquals(2, registro.cantidadEntregados());
+    }
+
+    @Test
+    void volverALaMarcaDescartaLasEntregasPosteriores() {
+        RegistroPedidos registro = new RegistroPedidos();
+        Pedido a = pedido(1, 1);
+        Pedido b = pedido(2, 2);
+        Pedido c = pedido(3, 3);
+        Pedido d = pedido(4, 4);
+        registro.planificar(a);
+        registro.entregar(a);
+        registro.archivarEntregados();
+        registro.planificar(b);
+        registro.planificar(c);
+        registro.planificar(d);
+        registro.entregar(b);
+        RegistroPedidos.Marca marca = registro.marcar();
+
+        // Después de la marca se archiva lo pendiente y se entregan más pedidos
+        registro.entregar(c);
+        registro.archivarEntregados();
+        registro.entregar(d);
+        assertEquals(4, registro.cantidadEntregados());
+
+        registro.volverA(marca);
+        assertTrue(registro.estaEntregado(a));
+        assertTrue(registro.estaEntregado(b));
+        assertFalse(registro.estaEntregado(c));
+        assertFalse(registro.estaEntregado(d));
+        assertEquals(List.of(c, d), registro.getPlanificados());
+        assertEquals(List.of(a), registro.getArchivados());
+        assertEquals(List.of(b), registro.archivarEntregados());
+
+        // Los cambios sobre el registro restaurado no alteran la marca
+        registro.entregar(c);
+        registro.volverA(marca);
+        assertFalse(registro.estaEntregado(c));
+        assertEquals(List.of(c, d), registro.getPlanificados());
+        assertEquals(List.of(a), registro.getArchivados());
+    }
+
+    @Test
+    void unaMarcaAnteriorALaLimpiezaNoSeRestaura() {
+        RegistroPedidos registro = new RegistroPedidos();
+        RegistroPedidos.Marca marca = registro.marcar();
+        registro.limpiar();
+        assertThrows(IllegalStateException.class, () -> registro.volverA(marca));
+    }
+
+    @Test
+    void unionDePedidosDistingueIdsEnLaMismaCelda() {
+        Pedido primero = pedido(5, 5);
+        Pedido segundo = pedido(5, 5);
+        List<Pedido> union = UtilesSimulacion.unirPedidosSinRepetidos(List.of(primero), List.of(primero, segundo));
+        assertEquals(List.of(primero, segundo), union);
+    }
+}
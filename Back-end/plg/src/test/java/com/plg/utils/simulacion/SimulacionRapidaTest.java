@@ -0,0 +1,59 @@
+package com.plg.utils.simulacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.plg.dto.ResultadoSimulacionRapidaDto;
+import com.plg.utils.ContextoSimulacion;
+import com.plg.utils.Parametros;
+
+public class SimulacionRapidaTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private ResultadoSimulacionRapidaDto simular(String nombre, double tasaAverias, int horas, int intervalo) {
+        ContextoSimulacion contexto = ContextoSimulacion.aislado(nombre);
+        return contexto.ejecutar(() -> {
+            Parametros.setIntervaloTiempo(intervalo);
+            Parametros.setPoblacionAlgoritmo(10);
+            Parametros.setTasaAveriasAutomaticas(tasaAverias);
+            return SimulacionRapida.ejecutar(INICIO, INICIO.plusHours(horas), intervalo, 0, () -> true);
+        });
+    }
+
+    @Test
+    void elAlgoritmoSoloSeEjecutaCuandoCambiaElPlan() {
+        ResultadoSimulacionRapidaDto resultado = simular("ejecuciones", 0, 48, 30);
+
+        assertTrue(resultado.isCompletada());
+        assertEquals(96, resultado.getIntervalosSimulados());
+        int ejecuciones = resultado.getEjecucionesAlgoritmo();
+        Map<String, Integer> eventos = resultado.getEventosPorTipo();
+        // Sin averías solo replanifican la primera vez, los pedidos nuevos, los
+        // bloqueos que empiezan y los mantenimientos de cada inicio de día
+        assertTrue(ejecuciones > 0);
+        assertTrue(ejecuciones <= 1 + eventos.getOrDefault("PEDIDO_REGISTRADO", 0)
+                + eventos.getOrDefault("BLOQUEO_INICIO", 0) + eventos.getOrDefault("INICIO_DIA", 0));
+        // Replanificar con cualquier evento que no sea una llegada lo ejecutaba en
+        // casi dos de cada tres intervalos
+        assertTrue(ejecuciones < resultado.getIntervalosSimulados() * 0.6,
+                "El algoritmo se ejecutó " + ejecuciones + " veces en " + resultado.getIntervalosSimulados()
+                        + " intervalos");
+    }
+
+    @Test
+    void laTasaDeAveriasAutomaticasCambiaLosIndicadores() {
+        ResultadoSimulacionRapidaDto sinAverias = simular("sin-averias", 0, 24, 60);
+        ResultadoSimulacionRapidaDto conAverias = simular("con-averias", 1, 24, 60);
+
+        assertTrue(sinAverias.isCompletada());
+        assertTrue(conAverias.isCompletada());
+        assertEquals(0, sinAverias.getAveriasAutomaticas());
+        assertTrue(conAverias.getAveriasAutomaticas() > 0);
+    }
+}